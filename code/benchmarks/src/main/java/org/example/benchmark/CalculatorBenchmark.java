@@ -0,0 +1,103 @@
+package org.example.benchmark;
+
+import org.example.reportGenerator.src.deliveryCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * deliveryCalculator: the pure calculations on in-memory arrays, and the day/hour questions
+ * answered either from the deliveryHeatmap rollup or by scanning deliveryData.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculatorBenchmark {
+
+    /**
+     * Arrays of {@code size} entries for the calculations that take them as input.
+     */
+    @State(Scope.Benchmark)
+    public static class Arrays {
+        @Param({"1000", "100000"})
+        public int size;
+
+        String[] restaurants;
+        float[] profits;
+        float[] miles;
+        int[] mpg;
+
+        @Setup
+        public void fill() {
+            Random random = new Random(42);
+            restaurants = new String[size];
+            profits = new float[size];
+            miles = new float[size];
+            mpg = new int[size];
+            for (int i = 0; i < size; i++) {
+                restaurants[i] = "Restaurant " + random.nextInt(Math.max(1, size / 10));
+                profits[i] = random.nextInt(2000) / 100f;
+                miles[i] = random.nextInt(1000) / 100f;
+                mpg[i] = 15 + random.nextInt(30);
+            }
+        }
+    }
+
+    /**
+     * A calculator over the seeded database, reading the heatmap rollup or scanning the deliveries.
+     */
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({"heatmap", "scan"})
+        public String source;
+
+        deliveryCalculator calculator;
+        long start;
+        long end;
+
+        @Setup
+        public void open(SeededDatabase database) {
+            calculator = source.equals("heatmap")
+                    ? new deliveryCalculator(database.reportDAO, database.heatmapDAO)
+                    : new deliveryCalculator(database.reportDAO);
+            start = database.firstDayMillis();
+            end = database.lastDayMillis();
+        }
+    }
+
+    private final deliveryCalculator calculator = new deliveryCalculator();
+
+    @Benchmark
+    public String[] findOptimalResturnats(Arrays arrays) {
+        return calculator.findOptimalResturnats(arrays.restaurants, arrays.profits);
+    }
+
+    @Benchmark
+    public float calculateTotalGasCost(Arrays arrays) {
+        return calculator.calculateTotalGasCost(arrays.miles, arrays.mpg, 3.5f);
+    }
+
+    @Benchmark
+    public String findOptimalWorkHours(Database database) {
+        return database.calculator.findOptimalWorkHours(4, database.start, database.end);
+    }
+
+    @Benchmark
+    public float calculateExpectedProfit(Database database) {
+        return database.calculator.calculateExpectedProfit(database.end, database.start, database.end, 17, 21);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import org.example.KeysetPage;
+import org.example.deliveryRecorder.src.overviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * overviewServiceDAO queries behind the deliveries tab and the dashboards.
+ *
+ * findFullOverviewByUserId is the old load-everything path, kept here as the baseline the
+ * paged and rolled-up queries are compared against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OverviewDaoBenchmark {
+
+    private static final int PAGE_ROWS = 100;
+
+    private SeededDatabase database;
+    private KeysetPage.Cursor middle;
+    private long middleOffset;
+
+    @Setup
+    public void open(SeededDatabase database) {
+        this.database = database;
+        // Walk to the middle of the table once so the seek benchmark starts from a real cursor
+        middleOffset = database.overviewDAO.countOverview(SeededDatabase.USER_ID, null) / 2;
+        KeysetPage<overviewService.OverviewDTO> page = database.overviewDAO.findOverviewPage(SeededDatabase.USER_ID,
+                new KeysetPage.Query("date", false, null, null, middleOffset - PAGE_ROWS, PAGE_ROWS));
+        middle = page.getNext();
+    }
+
+    @Benchmark
+    public List<overviewService.OverviewDTO> findFullOverviewByUserId() {
+        return database.overviewDAO.findFullOverviewByUserId(SeededDatabase.USER_ID);
+    }
+
+    @Benchmark
+    public KeysetPage<overviewService.OverviewDTO> findOverviewFirstPage() {
+        return database.overviewDAO.findOverviewPage(SeededDatabase.USER_ID,
+                new KeysetPage.Query("date", false, null, null, 0, PAGE_ROWS));
+    }
+
+    @Benchmark
+    public KeysetPage<overviewService.OverviewDTO> findOverviewMiddlePageBySeek() {
+        return database.overviewDAO.findOverviewPage(SeededDatabase.USER_ID,
+                new KeysetPage.Query("date", false, null, middle, middleOffset, PAGE_ROWS));
+    }
+
+    @Benchmark
+    public KeysetPage<overviewService.OverviewDTO> findOverviewMiddlePageByOffset() {
+        return database.overviewDAO.findOverviewPage(SeededDatabase.USER_ID,
+                new KeysetPage.Query("date", false, null, null, middleOffset, PAGE_ROWS));
+    }
+
+    @Benchmark
+    public int countOverviewFiltered() {
+        return database.overviewDAO.countOverview(SeededDatabase.USER_ID, "Thai");
+    }
+
+    @Benchmark
+    public List<overviewService.DeliveryRollup> findDeliveryRollup() {
+        return database.overviewDAO.findDeliveryRollup(SeededDatabase.USER_ID);
+    }
+
+    @Benchmark
+    public double calculateTotalEarnings() {
+        return database.overviewDAO.calculateTotalEarnings(SeededDatabase.USER_ID);
+    }
+}
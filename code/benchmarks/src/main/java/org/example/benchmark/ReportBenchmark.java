@@ -0,0 +1,105 @@
+package org.example.benchmark;
+
+import org.example.reportGenerator.src.reportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generalReports aggregations and the reportGenerator plan and export over the seeded database.
+ * The range is the last year of seeded data, the way the reports tab opens by default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    private SeededDatabase database;
+    private reportGenerator generator;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void open(SeededDatabase database) {
+        this.database = database;
+        end = SeededDatabase.LAST_DAY;
+        start = end.minusYears(1);
+        generator = new reportGenerator(database.reportDAO, database.generalReports, database.heatmapDAO);
+        generator.setDateRange(start, end);
+        generator.setTargetMonthlyIncome(4000);
+        generator.setEstimatedExpenses(1200);
+    }
+
+    @Benchmark
+    public Object getReportSnapshot() {
+        return database.generalReports.getReportSnapshot(start, end);
+    }
+
+    @Benchmark
+    public Object getTotalsFromDB() {
+        return database.generalReports.getTotalsFromDB(start, end);
+    }
+
+    /** The same totals scanned from deliveryData, without the rollup tables. */
+    @Benchmark
+    public Object getTotalsScan() {
+        return database.reportDAO.getDeliveryTotalsByDateRange(start, end);
+    }
+
+    /** The pre-aggregation path: every delivery loaded as a Map and summed in Java. */
+    @Benchmark
+    public double getTotalsJavaSum() {
+        List<Map<String, Object>> rows = database.reportDAO.getDeliveryPayByDateRange(start, end);
+        double total = 0;
+        for (Map<String, Object> row : rows) {
+            Number basePay = (Number) row.get("basePay");
+            Number tips = (Number) row.get("tips");
+            total += (basePay != null ? basePay.doubleValue() : 0) + (tips != null ? tips.doubleValue() : 0);
+        }
+        return total;
+    }
+
+    /** Every seeded year: about 36 month rows per platform from the rollup. */
+    @Benchmark
+    public Object getTotalsAllYears() {
+        return database.generalReports.getTotalsFromDB(SeededDatabase.FIRST_DAY, SeededDatabase.LAST_DAY);
+    }
+
+    @Benchmark
+    public Map<String, Float> getEarningsByPlatformFromDB() {
+        return database.generalReports.getEarningsByPlatformFromDB(start, end);
+    }
+
+    /** Repeated identical plan: served from the memo after the first call. */
+    @Benchmark
+    public reportGenerator.FinancialPlan createFinancialPlan() {
+        return generator.createFinancialPlan();
+    }
+
+    /** The same plan from an empty memo, i.e. the cost of the first request. */
+    @Benchmark
+    public reportGenerator.FinancialPlan createFinancialPlanUncached() {
+        return new reportGenerator(database.reportDAO, database.generalReports, database.heatmapDAO)
+                .createFinancialPlan(generator.getCurrentPlanRequest());
+    }
+
+    @Benchmark
+    public String exportData() {
+        return generator.exportData();
+    }
+}
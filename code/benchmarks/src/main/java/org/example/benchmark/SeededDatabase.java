@@ -0,0 +1,143 @@
+package org.example.benchmark;
+
+import org.example.DatabaseInitializer;
+import org.example.SchemaCatalog;
+import org.example.dataGenerator.src.syntheticDataGenerator;
+import org.example.deliveryRecorder.src.overviewServiceDAO;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.example.reportGenerator.src.generalReports;
+import org.example.reportGenerator.src.reportDAO;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A SQLite database file holding {@code deliveries} deliveries, with the DAOs wired to it.
+ *
+ * The data comes from the synthetic data generator: a single driver with every delivery spread over
+ * three years, so per-user queries such as the overview pages read all {@code deliveries} rows.
+ * Files are built once per size under {@code -Dbenchmark.dataDir} (default target/bench-data) and
+ * reused by later runs, so a 1M-row trial only pays for seeding the first time. The generator
+ * is seeded and the dates are fixed, so every run measures the same database.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    /** First day of the seeded deliveries. */
+    public static final LocalDateTime FIRST_DAY = LocalDateTime.of(2022, 1, 1, 0, 0);
+    /** End of the seeded deliveries. */
+    public static final LocalDateTime LAST_DAY = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+
+    /** The only generated driver. */
+    public static final int USER_ID = 1;
+
+    private static final long SEED = 42L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int deliveries;
+
+    public JdbcTemplate jdbcTemplate;
+    public reportDAO reportDAO;
+    public generalReports generalReports;
+    public deliveryHeatmapDAO heatmapDAO;
+    public deliveryRollupDAO rollupDAO;
+    public overviewServiceDAO overviewDAO;
+
+    private SingleConnectionDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        Path dataDir = Paths.get(System.getProperty("benchmark.dataDir", "target/bench-data"));
+        Files.createDirectories(dataDir);
+        Path file = dataDir.resolve("deliveries-" + deliveries + ".db");
+        if (!Files.exists(file)) {
+            Path partial = dataDir.resolve("deliveries-" + deliveries + ".db.partial");
+            Files.deleteIfExists(partial);
+            seed(partial, deliveries);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + file, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        reportDAO = new reportDAO();
+        setField(reportDAO, "readJdbcTemplate", jdbcTemplate);
+        setField(reportDAO, "schemaCatalog", new SchemaCatalog(jdbcTemplate));
+        heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+        rollupDAO = new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+        generalReports = new generalReports();
+        setField(generalReports, "reportDAO", reportDAO);
+        setField(generalReports, "rollupDAO", rollupDAO);
+        // Files seeded before the rollup tables existed get them here, once
+        new DatabaseInitializer(jdbcTemplate).run();
+        rollupDAO.backfillIfEmpty();
+        overviewDAO = new overviewServiceDAO(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataSource.destroy();
+    }
+
+    public long firstDayMillis() {
+        return FIRST_DAY.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public long lastDayMillis() {
+        return LAST_DAY.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void seed(Path file, int deliveries) {
+        System.out.println("SeededDatabase: Seeding " + deliveries + " deliveries into " + file);
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + file, true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("PRAGMA synchronous = OFF");
+            new DatabaseInitializer(jdbcTemplate).run();
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            deliveryHeatmapDAO heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+            deliveryRollupDAO rollupDAO = new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+            new syntheticDataGenerator(jdbcTemplate, transactionTemplate, heatmapDAO, rollupDAO).generate(
+                    new syntheticDataGenerator.Options()
+                            .setSeed(SEED)
+                            .setUsers(1)
+                            .setDeliveries(deliveries)
+                            .setStartDate(FIRST_DAY.toLocalDate())
+                            .setDays((int) ChronoUnit.DAYS.between(FIRST_DAY, LAST_DAY) + 1)
+                            .setDeferIndexes(true));
+            jdbcTemplate.execute("ANALYZE");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalStateException(target.getClass().getSimpleName() + " has no field " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
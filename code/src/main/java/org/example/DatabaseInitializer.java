@@ -8,7 +8,10 @@ import org.springframework.stereotype.Component;
 
 /**
  * Initializes the SQLite database tables on application startup.
- * This ensures all required tables exist before the application starts.
+ * This ensures all required tables exist before the application starts,
+ * then hands over to SchemaMigrator for indexes and later schema changes,
+ * and finally reloads the SchemaCatalog so DAOs see the migrated schema.
+ * Any failure is rethrown, so the application does not start on a half-migrated schema.
  */
 @Component
 @Order(1)  // Run first among CommandLineRunners
@@ -17,6 +20,26 @@ public class DatabaseInitializer implements CommandLineRunner {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    // Absent when the initializer is created outside the Spring context
+    @Autowired(required = false)
+    private SchemaCatalog schemaCatalog;
+
+    public DatabaseInitializer() {
+        // Fields are injected by Spring
+    }
+
+    /**
+     * Creates an initializer for a database opened outside the Spring context,
+     * such as the file written by the synthetic data generator.
+     */
+    public DatabaseInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaMigrator = new SchemaMigrator(jdbcTemplate);
+    }
+
     @Override
     public void run(String... args) {
         System.out.println("DatabaseInitializer: Checking and creating database tables...");
@@ -33,9 +56,15 @@ public class DatabaseInitializer implements CommandLineRunner {
             createNetValueTable();
 
             System.out.println("DatabaseInitializer: All tables verified/created successfully!");
-        } catch (Exception e) {
-            System.err.println("DatabaseInitializer: Error creating tables - " + e.getMessage());
-            e.printStackTrace();
+
+            schemaMigrator.migrate();
+
+            if (schemaCatalog != null) {
+                schemaCatalog.refresh();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("DatabaseInitializer: Database setup failed - " + e.getMessage());
+            throw e;
         }
     }
 
@@ -59,12 +88,23 @@ public class DatabaseInitializer implements CommandLineRunner {
             "endTime BIGINT, " +
             "vehicle VARCHAR(45), " +
             "totalEarnings REAL DEFAULT 0.0, " +
+            "totalVehicleMiles INTEGER, " +
             "FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE" +
             ")";
         jdbcTemplate.execute(sql);
+        // Older databases were created before work periods stored their miles
+        addColumnIfMissing("JobsTable", "totalVehicleMiles", "INTEGER");
         System.out.println("DatabaseInitializer: JobsTable ready");
     }
 
+    private void addColumnIfMissing(String table, String column, String type) {
+        boolean present = jdbcTemplate.queryForList("SELECT name FROM pragma_table_info(?)", String.class, table)
+                .stream().anyMatch(column::equalsIgnoreCase);
+        if (!present) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+    }
+
     private void createDeliveryDataTable() {
         String sql = "CREATE TABLE IF NOT EXISTS deliveryData (" +
             "iddeliveryData INTEGER PRIMARY KEY AUTOINCREMENT, " +
@@ -104,14 +144,16 @@ public class DatabaseInitializer implements CommandLineRunner {
 
     private void createTransactionTable() {
         String sql = "CREATE TABLE IF NOT EXISTS [transaction] (" +
-            "idTransaction INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "transactionId INTEGER PRIMARY KEY AUTOINCREMENT, " +
             "userId INTEGER NOT NULL, " +
             "transactionType VARCHAR(50), " +
             "amount REAL DEFAULT 0.0, " +
             "description TEXT, " +
             "transactionDate BIGINT, " +
             "category VARCHAR(50), " +
-            "FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE" +
+            "bankAccountId INTEGER, " +
+            "FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE, " +
+            "FOREIGN KEY (bankAccountId) REFERENCES bankAccount(idbankAccount) ON DELETE SET NULL" +
             ")";
         jdbcTemplate.execute(sql);
         System.out.println("DatabaseInitializer: transaction table ready");
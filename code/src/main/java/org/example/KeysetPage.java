@@ -0,0 +1,125 @@
+package org.example;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of rows read with keyset pagination, plus the cursor that continues after it.
+ *
+ * A query is ordered by a sort expression and then by rowid, so every row has a unique position
+ * (sortValue, rowId). The next page is read with "WHERE (sort, rowid) > (last sort, last rowid)"
+ * instead of an OFFSET, so reading page 5,000 costs the same as reading page 1. A page whose
+ * predecessor's cursor is unknown (the user dragged the scrollbar far down) falls back to OFFSET.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> rows;
+    private final Cursor next;
+
+    public KeysetPage(List<T> rows, Cursor next) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.next = next;
+    }
+
+    /** Gets the rows of this page in query order. */
+    public List<T> getRows() { return rows; }
+
+    /** Gets the position of the last row, or null if the page is empty. */
+    public Cursor getNext() { return next; }
+
+    /**
+     * Builds a LIKE pattern matching the text anywhere, for use with a backslash as the ESCAPE character.
+     */
+    public static String likePattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Position of a row in the sort order: its sort value and rowid.
+     */
+    public static final class Cursor {
+        private final Object sortValue;
+        private final long rowId;
+
+        public Cursor(Object sortValue, long rowId) {
+            this.sortValue = sortValue;
+            this.rowId = rowId;
+        }
+
+        public Object getSortValue() { return sortValue; }
+        public long getRowId() { return rowId; }
+    }
+
+    /**
+     * What to read: sort column, direction, text filter and where to start.
+     */
+    public static final class Query {
+        private final String sortColumn;
+        private final boolean ascending;
+        private final String filter;
+        private final Cursor after;
+        private final long offset;
+        private final int limit;
+
+        public Query(String sortColumn, boolean ascending, String filter, Cursor after, long offset, int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Page size must be positive");
+            }
+            this.sortColumn = sortColumn;
+            this.ascending = ascending;
+            this.filter = filter == null || filter.trim().isEmpty() ? null : filter.trim();
+            this.after = after;
+            this.offset = after != null ? 0 : Math.max(0, offset);
+            this.limit = limit;
+        }
+
+        public String getSortColumn() { return sortColumn; }
+        public boolean isAscending() { return ascending; }
+        public String getFilter() { return filter; }
+        public Cursor getAfter() { return after; }
+        public long getOffset() { return offset; }
+        public int getLimit() { return limit; }
+
+        /**
+         * Resolves the sort column against a DAO's whitelist of sortable columns.
+         *
+         * @param sortColumns    Column name to SQL expression; expressions must not be NULL
+         * @param defaultColumn  Column used when none or an unknown one was asked for
+         * @return the SQL expression to sort by
+         */
+        public String sortExpression(Map<String, String> sortColumns, String defaultColumn) {
+            String expression = sortColumn != null ? sortColumns.get(sortColumn) : null;
+            return expression != null ? expression : sortColumns.get(defaultColumn);
+        }
+
+        /**
+         * Appends the seek condition, ORDER BY and LIMIT/OFFSET to a query that already has a WHERE clause.
+         *
+         * @param sql            The query so far
+         * @param args           Its arguments; the page arguments are added
+         * @param sortExpression SQL expression to sort by; select it too so the next cursor can be built
+         * @param rowIdColumn    The rowid (or INTEGER PRIMARY KEY) column of the paged table
+         */
+        public void appendPage(StringBuilder sql, List<Object> args, String sortExpression, String rowIdColumn) {
+            String direction = ascending ? "ASC" : "DESC";
+            if (after != null) {
+                String comparison = ascending ? ">" : "<";
+                sql.append(" AND (").append(sortExpression).append(' ').append(comparison).append(" ? OR (")
+                        .append(sortExpression).append(" = ? AND ").append(rowIdColumn).append(' ')
+                        .append(comparison).append(" ?))");
+                args.add(after.getSortValue());
+                args.add(after.getSortValue());
+                args.add(after.getRowId());
+            }
+            sql.append(" ORDER BY ").append(sortExpression).append(' ').append(direction)
+                    .append(", ").append(rowIdColumn).append(' ').append(direction)
+                    .append(" LIMIT ?");
+            args.add(limit);
+            if (offset > 0) {
+                sql.append(" OFFSET ?");
+                args.add(offset);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+/**
+ * An exact amount of money in whole cents.
+ *
+ * Every money column has an integer cents twin (basePayCents, tipsCents, amountCents, ...) and totals
+ * are summed from those, so they are exact no matter how many rows go into them. The REAL columns
+ * are kept for display and for older callers; {@link #toCents(double)} converts their values with
+ * the same rounding SQLite's ROUND uses, so both sides agree on every amount.
+ *
+ * Hot loops should work on primitive cents with the static helpers rather than allocate Money objects.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @param dollars An amount in dollars, rounded to the nearest cent
+     */
+    public static Money of(double dollars) {
+        return ofCents(toCents(dollars));
+    }
+
+    /**
+     * Converts dollars to cents, rounding half away from zero like SQLite's ROUND.
+     * NaN and infinite amounts are rejected instead of being stored as garbage.
+     */
+    public static long toCents(double dollars) {
+        if (Double.isNaN(dollars) || Double.isInfinite(dollars)) {
+            throw new IllegalArgumentException("Amount must be a finite number. Got: " + dollars);
+        }
+        long cents = Math.round(Math.abs(dollars) * 100);
+        return dollars < 0 ? -cents : cents;
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Sums amounts in dollars exactly, by rounding each one to cents first.
+     *
+     * @return the total in cents, 0 for a null array
+     */
+    public static long sumCents(float[] dollars) {
+        if (dollars == null) return 0;
+        long total = 0;
+        for (float amount : dollars) {
+            total += toCents(amount);
+        }
+        return total;
+    }
+
+    public long cents() { return cents; }
+    public double toDouble() { return toDollars(cents); }
+    public float toFloat() { return (float) toDollars(cents); }
+    public boolean isNegative() { return cents < 0; }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money abs() {
+        return cents < 0 ? negate() : this;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && cents == ((Money) o).cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * @return the amount as a plain decimal, e.g. "-12.05"
+     */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        return (cents < 0 ? "-" : "") + (abs / 100) + "." + (abs % 100 < 10 ? "0" : "") + (abs % 100);
+    }
+}
@@ -0,0 +1,188 @@
+package org.example;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory copy of the database schema: the SQL dialect, every table and the declared type of every column.
+ *
+ * DAOs that build SQL from table or column names look them up here instead of reading JDBC metadata
+ * per query. The catalog is loaded on first use, and DatabaseInitializer refreshes it after the
+ * migrations have run. Lookups are case-insensitive, like SQLite identifiers, and return the name
+ * as declared in the schema. A refresh swaps the whole snapshot, so readers never see half of one.
+ */
+@Component
+public class SchemaCatalog {
+
+    /**
+     * The SQL dialects whose date functions the DAOs know.
+     */
+    public enum Dialect {
+        SQLITE, MYSQL, OTHER;
+
+        static Dialect fromProductName(String productName) {
+            String name = productName != null ? productName.toLowerCase(Locale.ROOT) : "";
+            if (name.contains("sqlite")) return SQLITE;
+            if (name.contains("mysql") || name.contains("mariadb")) return MYSQL;
+            return OTHER;
+        }
+
+        /**
+         * Quotes an identifier that came from the catalog.
+         */
+        public String quote(String identifier) {
+            return this == MYSQL ? "`" + identifier + "`" : "\"" + identifier + "\"";
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public SchemaCatalog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reloads the schema from the database. Call after anything that adds or alters tables.
+     */
+    public void refresh() {
+        Snapshot loaded = jdbcTemplate.execute((ConnectionCallback<Snapshot>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Dialect dialect = Dialect.fromProductName(metaData.getDatabaseProductName());
+
+            Map<String, Table> tables = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getTables(null, null, "%", new String[]{"TABLE"})) {
+                while (rs.next()) {
+                    String name = rs.getString("TABLE_NAME");
+                    tables.put(key(name), new Table(name));
+                }
+            }
+            try (ResultSet rs = metaData.getColumns(null, null, "%", "%")) {
+                while (rs.next()) {
+                    Table table = tables.get(key(rs.getString("TABLE_NAME")));
+                    if (table != null) {
+                        String type = rs.getString("TYPE_NAME");
+                        table.columns.put(key(rs.getString("COLUMN_NAME")), new Column(rs.getString("COLUMN_NAME"),
+                                type != null ? type.toUpperCase(Locale.ROOT) : null));
+                    }
+                }
+            }
+            return new Snapshot(dialect, Collections.unmodifiableMap(tables));
+        });
+        snapshot = loaded;
+        System.out.println("SchemaCatalog: Loaded " + loaded.tables.size() + " tables (" + loaded.dialect + ")");
+    }
+
+    public Dialect getDialect() {
+        return snapshot().dialect;
+    }
+
+    /**
+     * @return the declared table names
+     */
+    public Set<String> getTableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        snapshot().tables.values().forEach(table -> names.add(table.name));
+        return names;
+    }
+
+    public boolean hasTable(String tableName) {
+        return findTable(tableName) != null;
+    }
+
+    public boolean hasColumn(String tableName, String columnName) {
+        return findColumn(tableName, columnName) != null;
+    }
+
+    /**
+     * @return the table name as declared in the schema, or null if there is no such table
+     */
+    public String getTableName(String tableName) {
+        Table table = findTable(tableName);
+        return table != null ? table.name : null;
+    }
+
+    /**
+     * @return the column name as declared in the schema, or null if there is no such column
+     */
+    public String getColumnName(String tableName, String columnName) {
+        Column column = findColumn(tableName, columnName);
+        return column != null ? column.name : null;
+    }
+
+    /**
+     * @return the declared type of a column in upper case (e.g. "BIGINT", "DATE"), or null if there is no such column
+     */
+    public String getColumnType(String tableName, String columnName) {
+        Column column = findColumn(tableName, columnName);
+        return column != null ? column.type : null;
+    }
+
+    private Table findTable(String tableName) {
+        return tableName != null ? snapshot().tables.get(key(tableName)) : null;
+    }
+
+    private Column findColumn(String tableName, String columnName) {
+        Table table = findTable(tableName);
+        return table != null && columnName != null ? table.columns.get(key(columnName)) : null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static String key(String identifier) {
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        private final Dialect dialect;
+        private final Map<String, Table> tables;
+
+        Snapshot(Dialect dialect, Map<String, Table> tables) {
+            this.dialect = dialect;
+            this.tables = tables;
+        }
+    }
+
+    private static final class Table {
+        private final String name;
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        Table(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Column {
+        private final String name;
+        private final String type;
+
+        Column(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
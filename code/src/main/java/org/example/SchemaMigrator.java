@@ -0,0 +1,229 @@
+package org.example;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned schema migrations on top of the base tables created by DatabaseInitializer.
+ *
+ * Migrations are plain SQL scripts on the classpath named {@code db/migration/V<version>__<description>.sql}.
+ * They run in version order, each inside its own transaction, and every applied version is recorded
+ * in the {@code schema_version} table so later startups skip it. The recorded checksum is compared
+ * with the script on every startup: an applied migration must never be edited, only followed by a
+ * new one, so a mismatch stops startup instead of being silently ignored.
+ */
+@Component
+public class SchemaMigrator {
+
+    public static final String MIGRATION_LOCATION = "classpath*:db/migration/V*__*.sql";
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern TRIGGER_START = Pattern.compile("(?i)CREATE\\s+(TEMP\\s+|TEMPORARY\\s+)?TRIGGER\\b");
+    private static final Pattern TRIGGER_END = Pattern.compile("(?i)\\bEND$");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SchemaMigrator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs every migration that has not been applied yet.
+     *
+     * @return the number of migrations applied during this call
+     */
+    public int migrate() {
+        createVersionTable();
+
+        Map<Integer, Long> applied = getAppliedChecksums();
+        int count = 0;
+        for (Migration migration : loadMigrations()) {
+            Long checksum = applied.get(migration.version);
+            if (checksum != null) {
+                if (checksum != migration.checksum) {
+                    throw new IllegalStateException("Migration V" + migration.version + " (" + migration.description +
+                            ") was changed after it was applied; add a new migration instead");
+                }
+                continue;
+            }
+            apply(migration);
+            count++;
+            System.out.println("SchemaMigrator: Applied V" + migration.version + " - " + migration.description);
+        }
+        System.out.println("SchemaMigrator: Schema is at version " + getCurrentVersion() + " (" + count + " applied now)");
+        return count;
+    }
+
+    /**
+     * Gets the highest applied migration version.
+     *
+     * @return the current schema version, or 0 if no migration has run
+     */
+    public int getCurrentVersion() {
+        createVersionTable();
+        Integer version = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(version), 0) FROM schema_version", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    private void createVersionTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INTEGER PRIMARY KEY, " +
+            "description TEXT NOT NULL, " +
+            "checksum INTEGER NOT NULL, " +
+            "installedOn BIGINT NOT NULL" +
+            ")");
+    }
+
+    private Map<Integer, Long> getAppliedChecksums() {
+        Map<Integer, Long> checksums = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM schema_version",
+                rs -> { checksums.put(rs.getInt("version"), rs.getLong("checksum")); });
+        return checksums;
+    }
+
+    /**
+     * Executes all statements of one migration and records it, atomically.
+     */
+    private void apply(Migration migration) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : splitStatements(migration.script)) {
+                    statement.execute(sql);
+                }
+                recordVersion(connection, migration);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new SQLException("Migration V" + migration.version + " failed: " + e.getMessage(), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private void recordVersion(Connection connection, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description, checksum, installedOn) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, migration.version);
+            ps.setString(2, migration.description);
+            ps.setLong(3, migration.checksum);
+            ps.setLong(4, System.currentTimeMillis());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Loads all migration scripts from the classpath, sorted by version.
+     */
+    List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(MIGRATION_LOCATION);
+            for (Resource resource : resources) {
+                Matcher matcher = FILE_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+                if (!matcher.matches()) {
+                    continue;
+                }
+                try (InputStream in = resource.getInputStream()) {
+                    String script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    migrations.add(new Migration(
+                            Integer.parseInt(matcher.group(1)),
+                            matcher.group(2).replace('_', ' '),
+                            script));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load schema migrations", e);
+        }
+
+        migrations.sort(Comparator.comparingInt(m -> m.version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version == migrations.get(i - 1).version) {
+                throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version);
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * Splits a script into statements on ';', dropping '--' comment lines.
+     * A CREATE TRIGGER statement runs up to its closing END, so the ';' inside its body do not split it.
+     * Migrations must not put semicolons inside string literals.
+     */
+    static List<String> splitStatements(String script) {
+        StringBuilder cleaned = new StringBuilder();
+        for (String line : script.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("--")) {
+                continue;
+            }
+            cleaned.append(line).append('\n');
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder trigger = null;
+        for (String part : cleaned.toString().split(";")) {
+            String sql = part.trim();
+            if (trigger != null) {
+                trigger.append(";\n").append(sql);
+                if (TRIGGER_END.matcher(sql).find()) {
+                    statements.add(trigger.toString());
+                    trigger = null;
+                }
+            } else if (TRIGGER_START.matcher(sql).lookingAt() && !TRIGGER_END.matcher(sql).find()) {
+                trigger = new StringBuilder(sql);
+            } else if (!sql.isEmpty()) {
+                statements.add(sql);
+            }
+        }
+        if (trigger != null) {
+            throw new IllegalStateException("Trigger without END in migration: " + trigger);
+        }
+        return statements;
+    }
+
+
+    /**
+     * A single versioned migration script.
+     */
+    static class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final long checksum;
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            // Line endings are normalized so a checkout with CRLF files does not look edited
+            CRC32 crc = new CRC32();
+            crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteConfig;
+
+import javax.sql.DataSource;
+
+/**
+ * Configures the SQLite connection pools used by every DAO.
+ *
+ * In the default "wal" storage mode the database runs with write-ahead logging,
+ * one dedicated writer connection ("dataSource" / "jdbcTemplate") and a pool of
+ * read-only connections ("readDataSource" / "readJdbcTemplate"). Readers never
+ * block the writer, so a long report scan no longer stalls delivery inserts.
+ *
+ * The "legacy" mode keeps the old behaviour: rollback journal and a single shared
+ * connection, with the read template pointing at the same pool as the writer.
+ */
+@Configuration
+public class SqliteStorageConfig {
+
+    public static final String MODE_WAL = "wal";
+    public static final String MODE_LEGACY = "legacy";
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.sqlite.storage-mode:" + MODE_WAL + "}")
+    private String storageMode;
+
+    // 0 means "one reader per available core"
+    @Value("${app.sqlite.read-pool-size:0}")
+    private int readPoolSize;
+
+    @Value("${app.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    /**
+     * The writer pool. Always a single connection, because SQLite only allows one writer at a time
+     * and queueing inside Hikari is cheaper than spinning on SQLITE_BUSY.
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public DataSource dataSource() {
+        HikariConfig config = baseConfig("sqlite-writer");
+        config.setMaximumPoolSize(1);
+        config.setDataSourceProperties(connectionConfig().toProperties());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * The reader pool. In legacy mode this is the writer pool itself.
+     */
+    @Bean
+    public DataSource readDataSource(@Qualifier("dataSource") DataSource writer) {
+        if (!isWalMode()) {
+            return writer;
+        }
+
+        HikariConfig config = baseConfig("sqlite-reader");
+        config.setMaximumPoolSize(resolveReadPoolSize());
+        config.setConnectionInitSql("PRAGMA query_only = 1");
+        config.setDataSourceProperties(connectionConfig().toProperties());
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(@Qualifier("dataSource") DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public JdbcTemplate readJdbcTemplate(@Qualifier("readDataSource") DataSource readDataSource) {
+        return new JdbcTemplate(readDataSource);
+    }
+
+    public boolean isWalMode() {
+        return !MODE_LEGACY.equalsIgnoreCase(storageMode);
+    }
+
+    private int resolveReadPoolSize() {
+        if (readPoolSize > 0) {
+            return readPoolSize;
+        }
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    private HikariConfig baseConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        return config;
+    }
+
+    /**
+     * Pragmas applied by the SQLite driver when each pooled connection is opened.
+     */
+    private SQLiteConfig connectionConfig() {
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.enforceForeignKeys(true);
+        sqlite.setBusyTimeout(busyTimeoutMs);
+        if (isWalMode()) {
+            sqlite.setJournalMode(SQLiteConfig.JournalMode.WAL);
+            // NORMAL is durable across application crashes in WAL mode and avoids an fsync per commit
+            sqlite.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        } else {
+            sqlite.setJournalMode(SQLiteConfig.JournalMode.DELETE);
+        }
+        return sqlite;
+    }
+}
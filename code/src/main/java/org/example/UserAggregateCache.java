@@ -0,0 +1,207 @@
+package org.example;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache for per-user dashboard aggregates (earnings, deliveries, miles, assets,
+ * expenses, income).
+ *
+ * Services read through {@link #get}; DAOs call {@link #invalidate} after every write that can change
+ * an aggregate, naming exactly the user and aggregates affected. A load that overlaps an invalidation
+ * of the same user is returned to its caller but not stored, so a stale value can never be cached
+ * after the write that made it stale.
+ */
+@Component
+public class UserAggregateCache {
+
+    /**
+     * The cached aggregates, one entry per user each.
+     */
+    public enum Aggregate {
+        TOTAL_EARNINGS, DELIVERY_COUNT, TOTAL_MILES,
+        TOTAL_ASSETS, TOTAL_EXPENSE, TOTAL_INCOME;
+
+        /** Aggregates computed from deliveryData. */
+        public static final Set<Aggregate> DELIVERIES = EnumSet.of(TOTAL_EARNINGS, DELIVERY_COUNT, TOTAL_MILES);
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Object> entries;
+
+    // Bumped on every invalidation of a user; loads only store their value if it did not change
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public UserAggregateCache(@Value("${app.cache.aggregate-max-entries:1024}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > UserAggregateCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a user's aggregate, loading and caching it on a miss.
+     *
+     * @param userId    The user the aggregate belongs to
+     * @param aggregate Which aggregate to get
+     * @param loader    Runs the query on a miss; called without holding the cache lock
+     * @return the cached or freshly loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int userId, Aggregate aggregate, Supplier<T> loader) {
+        Key key = new Key(userId, aggregate);
+        long generation = generation(userId).get();
+        synchronized (entries) {
+            Object value = entries.get(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return (T) value;
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        if (value != null) {
+            synchronized (entries) {
+                if (generation(userId).get() == generation) {
+                    entries.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the given aggregates of one user. Call after the write has committed.
+     */
+    public void invalidate(int userId, Aggregate... aggregates) {
+        invalidate(userId, aggregates.length == 0 ? EnumSet.allOf(Aggregate.class) : EnumSet.of(aggregates[0], aggregates));
+    }
+
+    /**
+     * Drops the given aggregates of one user. Call after the write has committed.
+     */
+    public void invalidate(int userId, Set<Aggregate> aggregates) {
+        synchronized (entries) {
+            generation(userId).incrementAndGet();
+            for (Aggregate aggregate : aggregates) {
+                if (entries.remove(new Key(userId, aggregate)) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every cached aggregate, e.g. after a bulk change that touched many users.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            for (AtomicLong generation : generations.values()) {
+                generation.incrementAndGet();
+            }
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the hit/miss counters.
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), size, maxEntries);
+    }
+
+    private AtomicLong generation(int userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private static final class Key {
+        private final int userId;
+        private final Aggregate aggregate;
+
+        Key(int userId, Aggregate aggregate) {
+            this.userId = userId;
+            this.aggregate = aggregate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId == other.userId && aggregate == other.aggregate;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, aggregate);
+        }
+    }
+
+    /**
+     * Cache counters at one point in time.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+        private final int maxEntries;
+
+        public Stats(long hits, long misses, long evictions, long invalidations, int size, int maxEntries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.maxEntries = maxEntries;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public int getSize() { return size; }
+        public int getMaxEntries() { return maxEntries; }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests > 0 ? (double) hits / requests : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions, %d invalidations, %d/%d entries",
+                    hits, misses, getHitRate() * 100, evictions, invalidations, size, maxEntries);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.dataExport.src;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams deliveries, work periods and transactions for a date range to an OutputStream.
+ *
+ * Rows go straight from the JDBC cursor to a small write buffer, so memory use does not depend
+ * on the size of the range. The header (CSV) is flushed before the first row and the buffer is
+ * flushed every {@link #FLUSH_EVERY_ROWS} rows, so a client sees data as soon as the query starts
+ * returning it. Gzip output uses sync flushes so those flushes reach the client too.
+ */
+@Component
+public class dataExporter {
+
+    static final int FLUSH_EVERY_ROWS = 2000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    public dataExporter(@Qualifier("readJdbcTemplate") JdbcTemplate readJdbcTemplate) {
+        this.readJdbcTemplate = readJdbcTemplate;
+    }
+
+    /**
+     * Writes every row of a dataset whose date falls in [startDate, endDate].
+     *
+     * @param dataset   What to export
+     * @param format    CSV with a header row, or one JSON object per line
+     * @param startDate First day to include
+     * @param endDate   Last day to include
+     * @param userId    Only export this user's rows, or null for all users
+     * @param zone      Zone the dates are interpreted in
+     * @param gzip      Whether to gzip the output
+     * @param out       Where to write; it is flushed but not closed
+     * @return the number of rows written
+     */
+    public long export(Dataset dataset, Format format, LocalDate startDate, LocalDate endDate,
+                       Integer userId, ZoneId zone, boolean gzip, OutputStream out) throws IOException {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        List<Object> args = new ArrayList<>();
+        String sql = dataset.sql(userId != null);
+        args.add(startDate.atStartOfDay(zone).toInstant().toEpochMilli());
+        args.add(endDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1);
+        if (userId != null) {
+            args.add(userId);
+        }
+
+        Long rows;
+        try {
+            rows = readJdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setFetchSize(FLUSH_EVERY_ROWS);
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, (ResultSetExtractor<Long>) rs -> stream(rs, rowWriter, writer));
+        } catch (UncheckedIOException e) {
+            // The client went away or the disk is full
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+        System.out.println("dataExporter: Exported " + rows + " " + dataset.fileName + " rows as " + format
+                + (gzip ? " (gzip)" : "") + " for " + startDate + " to " + endDate);
+        return rows != null ? rows : 0;
+    }
+
+    private static long stream(ResultSet rs, RowWriter rowWriter, Writer writer) throws SQLException {
+        try {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            String[] names = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                names[i] = meta.getColumnLabel(i + 1);
+            }
+            rowWriter.start(names);
+            writer.flush();
+
+            long count = 0;
+            while (rs.next()) {
+                rowWriter.row(rs, names);
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The tables that can be exported, each filtered on its own date column.
+     */
+    public enum Dataset {
+        DELIVERIES("deliveries",
+                "SELECT d.rowid AS deliveryId, d.jobsTableId, d.startTime, d.endTime, d.miles, d.basePay, d.tips, " +
+                "d.extraExpenses, d.platform, d.resturant, d.timeSpentWaiting, d.totalTimeSpent, d.fromLocation, d.toLocation " +
+                "FROM deliveryData d",
+                "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId",
+                "d.startTime", "j.userId"),
+        WORK_PERIODS("work-periods",
+                "SELECT jobsId, userId, startTime, endTime, vehicle, totalEarnings FROM JobsTable",
+                null, "startTime", "userId"),
+        TRANSACTIONS("transactions",
+                "SELECT transactionId, userId, bankAccountId, transactionDate, transactionType, amount, description " +
+                "FROM \"transaction\"",
+                null, "transactionDate", "userId");
+
+        private final String fileName;
+        private final String select;
+        private final String userJoin;
+        private final String dateColumn;
+        private final String userColumn;
+
+        Dataset(String fileName, String select, String userJoin, String dateColumn, String userColumn) {
+            this.fileName = fileName;
+            this.select = select;
+            this.userJoin = userJoin;
+            this.dateColumn = dateColumn;
+            this.userColumn = userColumn;
+        }
+
+        /**
+         * Gets the base name used for downloaded files, e.g. "work-periods".
+         */
+        public String fileName() { return fileName; }
+
+        String sql(boolean filterByUser) {
+            StringBuilder sql = new StringBuilder(select);
+            if (filterByUser && userJoin != null) {
+                sql.append(' ').append(userJoin);
+            }
+            sql.append(" WHERE ").append(dateColumn).append(" BETWEEN ? AND ?");
+            if (filterByUser) {
+                sql.append(" AND ").append(userColumn).append(" = ?");
+            }
+            return sql.append(" ORDER BY ").append(dateColumn).toString();
+        }
+
+        /**
+         * Parses a dataset from its file name or enum name, e.g. "work-periods" or "WORK_PERIODS".
+         */
+        public static Dataset fromName(String name) {
+            for (Dataset dataset : values()) {
+                if (dataset.fileName.equalsIgnoreCase(name) || dataset.name().equalsIgnoreCase(name)) {
+                    return dataset;
+                }
+            }
+            throw new IllegalArgumentException("Unknown dataset: " + name);
+        }
+    }
+
+    /**
+     * Output formats.
+     */
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() { return extension; }
+        public String contentType() { return contentType; }
+
+        public static Format fromName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private interface RowWriter {
+        void start(String[] columns) throws IOException;
+
+        void row(ResultSet rs, String[] columns) throws IOException, SQLException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start(String[] columns) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(columns[i]);
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs, String[] columns) throws IOException, SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = rs.getString(i + 1);
+                if (value != null) {
+                    writeField(value);
+                }
+            }
+            out.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final Writer out;
+
+        NdjsonRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start(String[] columns) {
+        }
+
+        @Override
+        public void row(ResultSet rs, String[] columns) throws IOException, SQLException {
+            out.write('{');
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeString(columns[i]);
+                out.write(':');
+                // SQLite column types can differ per row, so go by the value rather than the metadata
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    out.write("null");
+                } else if (value instanceof Number) {
+                    out.write(numberText((Number) value));
+                } else {
+                    writeString(value.toString());
+                }
+            }
+            out.write("}\n");
+        }
+
+        private static String numberText(Number value) {
+            if (value instanceof Double || value instanceof Float) {
+                double d = value.doubleValue();
+                return Double.isNaN(d) || Double.isInfinite(d) ? "null" : Double.toString(d);
+            }
+            return value.toString();
+        }
+
+        private void writeString(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': out.write("\\\""); break;
+                    case '\\': out.write("\\\\"); break;
+                    case '\n': out.write("\\n"); break;
+                    case '\r': out.write("\\r"); break;
+                    case '\t': out.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.dataExport.src;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * REST endpoints for streaming data exports.
+ *
+ * Responses have no Content-Length, so they are sent with chunked transfer encoding as rows
+ * are read from the database instead of being assembled first.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class exportController {
+
+    @Autowired
+    private dataExporter exporter;
+
+    /**
+     * GET /api/export/{dataset}?start=2024-01-01&end=2024-12-31&format=csv&gzip=false&userId=1
+     * Streams deliveries, work-periods or transactions for a date range.
+     *
+     * @param dataset deliveries, work-periods or transactions
+     * @param start   First day to include (yyyy-MM-dd)
+     * @param end     Last day to include (yyyy-MM-dd)
+     * @param format  csv or ndjson (default: csv)
+     * @param gzip    Whether to gzip the file (default: false)
+     * @param userId  Only export this user's rows (default: all users)
+     * @return The file as a download, or 400 for invalid parameters
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<?> export(
+            @PathVariable String dataset,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Integer userId) {
+
+        dataExporter.Dataset exportDataset;
+        dataExporter.Format exportFormat;
+        try {
+            exportDataset = dataExporter.Dataset.fromName(dataset);
+            exportFormat = dataExporter.Format.fromName(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid parameters: " + e.getMessage());
+        }
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body("Invalid parameters: start must not be after end");
+        }
+
+        String fileName = exportDataset.fileName() + "_" + start + "_" + end + "." + exportFormat.extension()
+                + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out ->
+                exporter.export(exportDataset, exportFormat, start, end, userId, ZoneId.systemDefault(), gzip, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.dataGenerator.src;
+
+import org.example.DatabaseInitializer;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of the synthetic data generator.
+ *
+ * Creates or extends a SQLite file with the application schema and fills it, for example:
+ * <pre>
+ * java -cp financial-driver-test-0.0.1-SNAPSHOT.jar:... org.example.dataGenerator.src.dataGeneratorMain \
+ *     --db load-test.db --deliveries 1000000 --seed 7
+ * </pre>
+ * The file is written with synchronous=OFF and with its indexes rebuilt after the load,
+ * so it is meant for test data only.
+ */
+public class dataGeneratorMain {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: dataGeneratorMain --db <file> [options]",
+            "  --seed <n>          Random seed (default 42)",
+            "  --users <n>         Number of users, a minimum when --deliveries is set (default 10)",
+            "  --deliveries <n>    Total deliveries; 0 lets every user work the whole range (default 0)",
+            "  --start <date>      First day, YYYY-MM-DD (default 2022-01-01)",
+            "  --days <n>          Number of days (default 365)",
+            "  --restaurants <n>   Number of restaurants (default 300)",
+            "  --zone <id>         Time zone of the shifts (default the system zone)",
+            "  --batch <n>         Rows per JDBC batch (default 5000)");
+
+    public static void main(String[] args) {
+        Map<String, String> arguments;
+        syntheticDataGenerator.Options options;
+        try {
+            arguments = parse(args);
+            options = toOptions(arguments);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + arguments.get("db"), true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("PRAGMA journal_mode = WAL");
+            jdbcTemplate.execute("PRAGMA synchronous = OFF");
+            jdbcTemplate.execute("PRAGMA cache_size = -262144");
+            new DatabaseInitializer(jdbcTemplate).run();
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            deliveryHeatmapDAO heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+            deliveryRollupDAO rollupDAO = new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+            options.setDeferIndexes(true);
+            options.setProgressListener(progress ->
+                    System.out.println("dataGeneratorMain: " + progress));
+            new syntheticDataGenerator(jdbcTemplate, transactionTemplate, heatmapDAO, rollupDAO).generate(options);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            arguments.put(args[i].substring(2), args[++i]);
+        }
+        if (!arguments.containsKey("db")) {
+            throw new IllegalArgumentException("--db is required");
+        }
+        return arguments;
+    }
+
+    static syntheticDataGenerator.Options toOptions(Map<String, String> arguments) {
+        syntheticDataGenerator.Options options = new syntheticDataGenerator.Options();
+        for (Map.Entry<String, String> argument : arguments.entrySet()) {
+            String value = argument.getValue();
+            try {
+                switch (argument.getKey()) {
+                    case "db": break;
+                    case "seed": options.setSeed(Long.parseLong(value)); break;
+                    case "users": options.setUsers(Integer.parseInt(value)); break;
+                    case "deliveries": options.setDeliveries(Long.parseLong(value)); break;
+                    case "start": options.setStartDate(LocalDate.parse(value)); break;
+                    case "days": options.setDays(Integer.parseInt(value)); break;
+                    case "restaurants": options.setRestaurants(Integer.parseInt(value)); break;
+                    case "zone": options.setZone(ZoneId.of(value)); break;
+                    case "batch": options.setBatchSize(Integer.parseInt(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option: --" + argument.getKey());
+                }
+            } catch (NumberFormatException | DateTimeException e) {
+                throw new IllegalArgumentException("Invalid value for --" + argument.getKey() + ": " + value, e);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,784 @@
+package org.example.dataGenerator.src;
+
+import org.example.Money;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Fills a database with seeded, realistic looking drivers for load and scale testing.
+ *
+ * Every generated user gets an account, a vehicle, one or two bank accounts, a history of
+ * work periods with deliveries, and the matching bank transactions (weekly platform payouts,
+ * gas, everyday spending, bills and cash withdrawals). The data follows a few simple models:
+ * <ul>
+ *   <li>each driver has a shift habit (lunch, dinner, late night, lunch and dinner, all day),
+ *       works some days of the week and works more often on the busy days,</li>
+ *   <li>deliveries arrive faster at the lunch and dinner peaks and on Friday to Sunday,</li>
+ *   <li>base pay and tips follow per-platform distributions driven by miles and peak hours,</li>
+ *   <li>restaurant popularity is Zipf-skewed, so a few places get most of the orders.</li>
+ * </ul>
+ * Each user is drawn from its own random stream split off the seed in user order, so
+ * the same options (seed, counts, start date and zone) always write the same rows into a fresh
+ * database. Rows are written with JDBC batches, one transaction per user.
+ *
+ * The rows match the schema created by DatabaseInitializer and SchemaMigrator. deliveryData is
+ * written directly, so the deliveryHeatmap rollup is rebuilt once at the end.
+ */
+public class syntheticDataGenerator {
+
+    // Relative order rate per hour of the day, peaking at lunch and dinner
+    private static final double[] HOUR_DEMAND = {
+            0.35, 0.25, 0.15, 0.10, 0.10, 0.15, 0.25, 0.40, 0.50, 0.55, 0.75, 1.20,
+            1.50, 1.20, 0.75, 0.70, 0.95, 1.40, 1.70, 1.55, 1.15, 0.85, 0.65, 0.50
+    };
+
+    // Relative order rate and chance of working, Monday to Sunday
+    private static final double[] DAY_DEMAND = {0.85, 0.80, 0.85, 0.95, 1.20, 1.25, 1.10};
+
+    // Shift habits: {first start hour, start hour spread, shift hours}; LUNCH_AND_DINNER works two shifts
+    private static final int DINNER = 1;
+    private static final int LUNCH_AND_DINNER = 3;
+    private static final int[][] SHIFTS = {
+            {10, 2, 3}, {16, 2, 4}, {20, 2, 5}, {10, 2, 3}, {9, 3, 8}
+    };
+    private static final double[] SHIFT_HABIT_WEIGHTS = {0.20, 0.35, 0.10, 0.20, 0.15};
+
+    private static final String[] PLATFORMS = {"DoorDash", "Uber Eats", "Grubhub", "Instacart"};
+    private static final double[] PLATFORM_SHARE = {0.45, 0.30, 0.15, 0.10};
+
+    // {pay floor, pay per mile, peak bonus, chance of a tip, median tip}
+    private static final double[][] PLATFORM_PAY = {
+            {2.00, 0.45, 2.00, 0.78, 4.00},
+            {2.50, 0.60, 1.50, 0.70, 3.50},
+            {3.00, 0.50, 1.00, 0.82, 4.50},
+            {6.50, 0.40, 1.00, 0.90, 7.50}
+    };
+
+    private static final String[][] VEHICLES = {
+            // {name, type, mpg, purchase price}
+            {"2016 Honda Civic", "Car", "34", "14500"},
+            {"2018 Toyota Corolla", "Car", "32", "16000"},
+            {"2020 Toyota Prius", "Car", "52", "23000"},
+            {"2014 Ford Focus", "Car", "30", "8500"},
+            {"2019 Nissan Versa", "Car", "35", "12500"},
+            {"2012 Honda Accord", "Car", "27", "9000"},
+            {"Rad Power E-Bike", "E-Bike", "0", "1700"},
+            {"Honda Ruckus Scooter", "Scooter", "100", "2900"}
+    };
+    private static final double[] VEHICLE_SHARE = {0.20, 0.18, 0.14, 0.14, 0.12, 0.10, 0.07, 0.05};
+
+    private static final String[] CHAINS = {
+            "McDonald's", "Chipotle", "Taco Bell", "Chick-fil-A", "Wendy's", "Subway", "Panera Bread",
+            "Burger King", "Popeyes", "Starbucks", "Domino's", "Pizza Hut", "Panda Express", "Five Guys",
+            "Jersey Mike's", "Wingstop", "Olive Garden", "Buffalo Wild Wings", "Shake Shack", "Sonic"
+    };
+    private static final String[] CUISINES = {
+            "Thai", "Pho", "Taqueria", "Sushi", "Deli", "Pizzeria", "Curry House", "Grill", "Noodle Bar", "Bakery"
+    };
+    private static final String[] STREETS = {
+            "Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Elm St", "Park Blvd", "Pine St", "Lake Rd",
+            "Hill St", "Washington Ave", "River Rd", "Sunset Blvd", "2nd St", "3rd Ave", "College Ave"
+    };
+    private static final String[] SHOPS = {
+            "Grocery", "Coffee", "Pharmacy", "Restaurant", "Online order", "Hardware", "Streaming subscription"
+    };
+    private static final String[] GAS_STATIONS = {"Shell", "Chevron", "Exxon", "BP", "Costco Gas", "Speedway"};
+    private static final String[] BILLS = {"Rent", "Phone bill", "Car insurance", "Electric bill"};
+
+    private static final String TYPE_PURCHASE = "purchase";
+    private static final String TYPE_WITHDRAWAL = "withdrawal";
+    private static final String TYPE_DELIVERY_INCOME = "delivery income";
+    private static final String TYPE_OTHER_INCOME = "other income";
+
+    // Deliveries a driver makes per calendar day on average, used to size the number of users
+    static final double DELIVERIES_PER_USER_DAY = 4.0;
+
+    private static final long MINUTE = 60_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final deliveryHeatmapDAO heatmapDAO;
+    private final deliveryRollupDAO rollupDAO;
+
+    /**
+     * @param jdbcTemplate        The database to fill
+     * @param transactionTemplate Transactions on the same connection or pool
+     * @param heatmapDAO          Rebuilt after the load, or null to leave deliveryHeatmap alone
+     */
+    public syntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  deliveryHeatmapDAO heatmapDAO) {
+        this(jdbcTemplate, transactionTemplate, heatmapDAO, null);
+    }
+
+    /**
+     * @param jdbcTemplate        The database to fill
+     * @param transactionTemplate Transactions on the same connection or pool
+     * @param heatmapDAO          Rebuilt after the load, or null to leave deliveryHeatmap alone
+     * @param rollupDAO           Rebuilt after the load, or null to leave deliveryRollup alone
+     */
+    public syntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  deliveryHeatmapDAO heatmapDAO, deliveryRollupDAO rollupDAO) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.heatmapDAO = heatmapDAO;
+        this.rollupDAO = rollupDAO;
+    }
+
+    /**
+     * Generates users with their deliveries and transactions.
+     *
+     * @param options Seed, sizes and batching of the run
+     * @return row counts and throughput of the run
+     */
+    public GenerationReport generate(Options options) {
+        long started = System.currentTimeMillis();
+        Counts counts = new Counts();
+        Restaurants restaurants = new Restaurants(options.getSeed(), options.getRestaurants());
+
+        int users = options.getUsers();
+        long perUser = Long.MAX_VALUE;
+        if (options.getDeliveries() > 0) {
+            long capacity = (long) Math.max(1, options.getDays() * DELIVERIES_PER_USER_DAY);
+            users = (int) Math.max(users, (options.getDeliveries() + capacity - 1) / capacity);
+            perUser = (options.getDeliveries() + users - 1) / users;
+        }
+
+        Ids ids = new Ids(
+                nextId("SELECT COALESCE(MAX(userID), 0) FROM userAccount"),
+                nextId("SELECT COALESCE(MAX(jobsId), 0) FROM JobsTable"),
+                nextId("SELECT COALESCE(MAX(idbankAccount), 0) FROM bankAccount"));
+        System.out.println("syntheticDataGenerator: Generating " + users + " users from seed " + options.getSeed()
+                + (options.getDeliveries() > 0 ? " (" + options.getDeliveries() + " deliveries)" : ""));
+
+        List<String> deferredIndexes = options.isDeferIndexes() ? dropIndexes() : List.of();
+
+        // Each user draws from its own stream; seeds of neighbouring java.util.Random instances are correlated
+        SplittableRandom userSeeds = new SplittableRandom(options.getSeed());
+
+        // Keep adding users until the requested deliveries are reached, in case the first ones fell short
+        for (int index = 0; index < users || counts.deliveries < options.getDeliveries(); index++) {
+            long quota = Math.min(perUser, options.getDeliveries() > 0
+                    ? options.getDeliveries() - counts.deliveries : Long.MAX_VALUE);
+            if (quota <= 0) {
+                break;
+            }
+            Writer writer = new Writer(options.getBatchSize(), counts);
+            Random random = new Random(userSeeds.nextLong());
+            transactionTemplate.executeWithoutResult(status ->
+                    new Driver(options, restaurants, ids, random, quota, writer).generate());
+            if (options.getProgressListener() != null) {
+                options.getProgressListener().accept(counts.toReport(System.currentTimeMillis() - started));
+            }
+        }
+
+        if (!deferredIndexes.isEmpty()) {
+            System.out.println("syntheticDataGenerator: Rebuilding " + deferredIndexes.size() + " indexes");
+            deferredIndexes.forEach(jdbcTemplate::execute);
+        }
+        if (heatmapDAO != null) {
+            heatmapDAO.rebuild();
+        }
+        if (rollupDAO != null) {
+            rollupDAO.rebuild();
+        }
+        GenerationReport report = counts.toReport(System.currentTimeMillis() - started);
+        System.out.println("syntheticDataGenerator: " + report);
+        return report;
+    }
+
+    /**
+     * Drops the secondary indexes of the generated tables and returns the statements that recreate them.
+     * Building an index once after the load is much faster than updating it row by row.
+     */
+    private List<String> dropIndexes() {
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList("SELECT name, sql FROM sqlite_master " +
+                "WHERE type = 'index' AND sql IS NOT NULL AND tbl_name IN " +
+                "('userAccount', 'vehicle', 'bankAccount', 'JobsTable', 'deliveryData', 'transaction') ORDER BY name");
+        List<String> create = new ArrayList<>(indexes.size());
+        for (Map<String, Object> index : indexes) {
+            jdbcTemplate.execute("DROP INDEX \"" + index.get("name") + "\"");
+            create.add((String) index.get("sql"));
+        }
+        return create;
+    }
+
+    private long nextId(String sql) {
+        Long max = jdbcTemplate.queryForObject(sql, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    // Next free primary keys; set explicitly so batches need no generated keys
+    private static final class Ids {
+        long user;
+        long job;
+        long bankAccount;
+
+        Ids(long user, long job, long bankAccount) {
+            this.user = user;
+            this.job = job;
+            this.bankAccount = bankAccount;
+        }
+    }
+
+    /**
+     * One user's history, drawn from its own random stream.
+     */
+    private final class Driver {
+        private final Options options;
+        private final Restaurants restaurants;
+        private final Random random;
+        private final Ids ids;
+        private final Writer writer;
+        private final long quota;
+
+        private final long userId;
+        private final long checkingId;
+        private final long savingsId;
+        private final int shiftHabit;
+        private final double[] workChance = new double[7];
+        private final double[] platformWeights = new double[PLATFORMS.length];
+        private final String[] vehicle;
+        private final String vehicleName;
+        private final double mpg;
+        private final int startingMiles;
+        private final double pace; // deliveries per hour relative to an average driver
+        private final double rent;
+        private final double paycheck; // part-time drivers also have a job paid every other Friday
+
+        private long deliveries;
+        private long milesDriven;
+        private double milesSinceFill;
+        private double gasPrice;
+        private double checkingBalance;
+        private double savingsBalance;
+        private final double[] weekEarnings = new double[PLATFORMS.length];
+
+        Driver(Options options, Restaurants restaurants, Ids ids, Random random, long quota, Writer writer) {
+            this.options = options;
+            this.restaurants = restaurants;
+            this.random = random;
+            this.ids = ids;
+            this.writer = writer;
+            this.quota = quota;
+
+            userId = ids.user++;
+            checkingId = ids.bankAccount++;
+            savingsId = random.nextDouble() < 0.5 ? ids.bankAccount++ : 0;
+
+            shiftHabit = pick(SHIFT_HABIT_WEIGHTS);
+            int workDays = 3 + random.nextInt(4);
+            for (int day = 0; day < 7; day++) {
+                workChance[day] = Math.min(0.95, workDays / 7.0 * DAY_DEMAND[day]);
+            }
+            rent = 350 + random.nextInt(500);
+            paycheck = workDays <= 4 ? 450 + random.nextInt(400) : 0;
+            // One or two platforms carry most of a driver's orders
+            for (int i = 0; i < PLATFORMS.length; i++) {
+                platformWeights[i] = PLATFORM_SHARE[i] * (random.nextDouble() < 0.5 ? 0.1 : 1.0) + 0.01;
+            }
+            vehicle = VEHICLES[pick(VEHICLE_SHARE)];
+            vehicleName = vehicle[0];
+            mpg = Double.parseDouble(vehicle[2]);
+            pace = 0.8 + random.nextDouble() * 0.4;
+            gasPrice = 3.10 + random.nextDouble() * 0.8;
+            checkingBalance = 500 + random.nextInt(3000);
+            savingsBalance = savingsId != 0 ? 1000 + random.nextInt(9000) : 0;
+
+            startingMiles = 10_000 + random.nextInt(90_000);
+
+            writer.user(userId, "driver" + userId, "password", "driver" + userId + "@example.com");
+            writer.bankAccount(checkingId, userId, "Checking", checkingBalance, 0.0001);
+            if (savingsId != 0) {
+                writer.bankAccount(savingsId, userId, "Savings", savingsBalance, 0.0400);
+            }
+        }
+
+        void generate() {
+            ZoneId zone = options.getZone();
+            LocalDate day = options.getStartDate();
+            for (int i = 0; i < options.getDays() && deliveries < quota; i++, day = day.plusDays(1)) {
+                int dayOfWeek = day.getDayOfWeek().getValue() - 1;
+                if (random.nextDouble() < workChance[dayOfWeek]) {
+                    work(day, dayOfWeek, zone);
+                }
+                spend(day);
+                if (day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    payOut(day.plusDays(1));
+                }
+            }
+            payOut(day);
+
+            // Balances and odometer as of the end of the generated history
+            writer.balance(checkingId, round(checkingBalance));
+            if (savingsId != 0) {
+                writer.balance(savingsId, round(savingsBalance));
+            }
+            writer.vehicle(userId, vehicleName, vehicle[1], mpg, startingMiles, startingMiles + milesDriven,
+                    Double.parseDouble(vehicle[3]));
+            writer.flush();
+        }
+
+        private void work(LocalDate day, int dayOfWeek, ZoneId zone) {
+            int[] shift = SHIFTS[shiftHabit];
+            shift(day, dayOfWeek, zone, shift[0] + random.nextInt(shift[1]), shift[2]);
+            if (shiftHabit == LUNCH_AND_DINNER && deliveries < quota) {
+                int[] dinner = SHIFTS[DINNER];
+                shift(day, dayOfWeek, zone, dinner[0] + 1 + random.nextInt(dinner[1]), dinner[2] - 1);
+            }
+        }
+
+        private void shift(LocalDate day, int dayOfWeek, ZoneId zone, int startHour, int hours) {
+            long jobId = ids.job++;
+            long shiftStart = day.atStartOfDay(zone).toInstant().toEpochMilli()
+                    + startHour * 60 * MINUTE + random.nextInt(30) * MINUTE;
+            long shiftEnd = shiftStart + hours * 60 * MINUTE + (random.nextInt(60) - 30) * MINUTE;
+            long time = shiftStart + gapMinutes(startHour, dayOfWeek) * MINUTE;
+            double jobEarnings = 0;
+            int jobMiles = 0;
+
+            while (time < shiftEnd && deliveries < quota) {
+                int hour = (startHour + (int) ((time - shiftStart) / (60 * MINUTE))) % 24;
+                int platform = pick(platformWeights);
+                int miles = (int) Math.max(1, Math.min(20, Math.round(Math.exp(Math.log(3.2) + 0.55 * random.nextGaussian()))));
+                int waiting = random.nextInt(4) == 0 ? 8 + random.nextInt(15) : random.nextInt(8);
+                int total = waiting + 6 + (int) Math.round(miles * (2.5 + random.nextDouble()));
+                double[] pay = PLATFORM_PAY[platform];
+                boolean peak = HOUR_DEMAND[hour] >= 1.2;
+                double basePay = Math.max(pay[0], pay[0] + pay[1] * miles + (peak ? pay[2] * random.nextDouble() : 0)
+                        + 0.6 * random.nextGaussian());
+                double tips = 0;
+                if (random.nextDouble() < pay[3]) {
+                    double tipScale = (peak ? 1.15 : 1.0) * (dayOfWeek >= 4 ? 1.1 : 1.0);
+                    tips = Math.min(40, pay[4] * tipScale * Math.exp(0.6 * random.nextGaussian()));
+                }
+                basePay = round(basePay);
+                tips = round(tips);
+
+                Restaurants.Restaurant restaurant = restaurants.pick(random);
+                String dropOff = (100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)];
+                long end = time + total * MINUTE;
+                writer.delivery(dropOff, restaurant.address, restaurant.name, basePay, tips, PLATFORMS[platform],
+                        total, miles, waiting, time, end, jobId);
+
+                deliveries++;
+                jobEarnings += basePay + tips;
+                jobMiles += miles;
+                weekEarnings[platform] += basePay + tips;
+                time = end + gapMinutes(hour, dayOfWeek) * MINUTE;
+            }
+
+            if (jobMiles == 0 && deliveries >= quota) {
+                ids.job--;
+                return;
+            }
+            // Driving to the first pickup and home again
+            jobMiles += 2 + random.nextInt(8);
+            writer.job(jobId, userId, shiftStart, Math.max(shiftEnd, time), vehicleName, round(jobEarnings));
+            milesDriven += jobMiles;
+            fillUp(day, jobMiles);
+            writer.flushIfFull();
+        }
+
+        // Minutes until the next order, shorter when demand is high
+        private int gapMinutes(int hour, int dayOfWeek) {
+            double mean = 14.0 / (HOUR_DEMAND[hour] * DAY_DEMAND[dayOfWeek] * pace);
+            return (int) Math.min(90, Math.round(-mean * Math.log(1 - random.nextDouble())));
+        }
+
+        private void fillUp(LocalDate day, int miles) {
+            if (mpg <= 0) {
+                return;
+            }
+            milesSinceFill += miles;
+            double range = mpg * 11;
+            if (milesSinceFill >= range * (0.6 + random.nextDouble() * 0.3)) {
+                double amount = round(milesSinceFill / mpg * gasPrice);
+                purchase(day, amount, "Gas - " + GAS_STATIONS[random.nextInt(GAS_STATIONS.length)]);
+                milesSinceFill = 0;
+            }
+        }
+
+        private void spend(LocalDate day) {
+            // Gas prices drift a little every day
+            gasPrice = Math.max(2.5, Math.min(5.5, gasPrice + 0.01 * random.nextGaussian()));
+
+            int purchases = random.nextDouble() < 0.5 ? 0 : 1 + random.nextInt(2);
+            for (int i = 0; i < purchases; i++) {
+                String shop = SHOPS[random.nextInt(SHOPS.length)];
+                purchase(day, round(Math.min(300, 12 * Math.exp(0.7 * random.nextGaussian()))), shop);
+            }
+            if (paycheck > 0 && day.getDayOfWeek() == DayOfWeek.FRIDAY && day.toEpochDay() / 7 % 2 == 0) {
+                double amount = round(paycheck * (0.95 + random.nextDouble() * 0.1));
+                transaction(day, amount, TYPE_OTHER_INCOME, "Paycheck", checkingId);
+                checkingBalance += amount;
+            }
+            if (day.getDayOfMonth() == 1) {
+                for (int i = 0; i < BILLS.length; i++) {
+                    double amount = i == 0 ? rent : 30 + random.nextInt(90);
+                    purchase(day, round(amount), BILLS[i]);
+                }
+                if (savingsId != 0) {
+                    double interest = round(savingsBalance * 0.04 / 12);
+                    transaction(day, interest, TYPE_OTHER_INCOME, "Savings interest", savingsId);
+                    savingsBalance += interest;
+                }
+            }
+            if (random.nextDouble() < 0.04) {
+                double amount = 20 * (1 + random.nextInt(10));
+                transaction(day, -amount, TYPE_WITHDRAWAL, "ATM withdrawal", checkingId);
+                checkingBalance -= amount;
+            }
+            if (random.nextDouble() < 0.01) {
+                double amount = round(50 + random.nextInt(450));
+                transaction(day, amount, TYPE_OTHER_INCOME, "Transfer from friend", checkingId);
+                checkingBalance += amount;
+            }
+        }
+
+        private void payOut(LocalDate day) {
+            for (int i = 0; i < PLATFORMS.length; i++) {
+                if (weekEarnings[i] > 0) {
+                    double amount = round(weekEarnings[i]);
+                    transaction(day, amount, TYPE_DELIVERY_INCOME, PLATFORMS[i] + " weekly payout", checkingId);
+                    checkingBalance += amount;
+                    weekEarnings[i] = 0;
+                }
+            }
+        }
+
+        private void purchase(LocalDate day, double amount, String description) {
+            transaction(day, -amount, TYPE_PURCHASE, description, checkingId);
+            checkingBalance -= amount;
+        }
+
+        private void transaction(LocalDate day, double amount, String type, String description, long accountId) {
+            writer.transaction(userId, amount, type, day.atStartOfDay(options.getZone()).toInstant().toEpochMilli(),
+                    description, accountId);
+        }
+
+        private int pick(double[] weights) {
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            double target = random.nextDouble() * total;
+            for (int i = 0; i < weights.length - 1; i++) {
+                target -= weights[i];
+                if (target < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    /**
+     * Restaurants with Zipf-distributed popularity, the same for every user of a seed.
+     */
+    private static final class Restaurants {
+        private final Restaurant[] restaurants;
+        private final double[] cumulative;
+
+        static final class Restaurant {
+            final String name;
+            final String address;
+
+            Restaurant(String name, String address) {
+                this.name = name;
+                this.address = address;
+            }
+        }
+
+        Restaurants(long seed, int count) {
+            Random random = new Random(seed);
+            List<Restaurant> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = i < CHAINS.length ? CHAINS[i]
+                        : STREETS[random.nextInt(STREETS.length)].split(" ")[0] + " "
+                        + CUISINES[random.nextInt(CUISINES.length)];
+                String address = (100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)];
+                list.add(new Restaurant(name, address));
+            }
+            // Chains are not always the most popular places
+            Collections.shuffle(list, random);
+            restaurants = list.toArray(new Restaurant[0]);
+
+            cumulative = new double[count];
+            double total = 0;
+            for (int rank = 0; rank < count; rank++) {
+                total += 1.0 / Math.pow(rank + 1, 0.9);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < count; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        Restaurant pick(Random random) {
+            double target = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return restaurants[low];
+        }
+    }
+
+    // Buffers rows per table and writes them with JDBC batches, parents before children.
+    // Deliveries and transactions are only flushed between work periods, once their job row is buffered.
+    private final class Writer {
+        private static final String USER_SQL = "INSERT INTO userAccount " +
+                "(userID, userName, password, emailAddress, authorization) VALUES (?, ?, ?, ?, 'user')";
+        private static final String VEHICLE_SQL = "INSERT INTO vehicle " +
+                "(userId, vehicleName, vehicleType, mpg, startingMiles, currentMiles, purchasePrice, isDefault) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 1)";
+        private static final String BANK_ACCOUNT_SQL = "INSERT INTO bankAccount " +
+                "(idbankAccount, userId, accountType, balance, balanceCents, interestRate) VALUES (?, ?, ?, ?, ?, ?)";
+        private static final String BALANCE_SQL = "UPDATE bankAccount SET balance = ?, balanceCents = ? WHERE idbankAccount = ?";
+        private static final String JOB_SQL = "INSERT INTO JobsTable " +
+                "(jobsId, userId, startTime, endTime, vehicle, totalEarnings) VALUES (?, ?, ?, ?, ?, ?)";
+        private static final String DELIVERY_SQL = "INSERT INTO deliveryData " +
+                "(toLocation, fromLocation, resturant, basePay, tips, platform, totalTimeSpent, miles, " +
+                "timeSpentWaiting, startTime, endTime, jobsTableId, basePayCents, tipsCents) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        private static final String TRANSACTION_SQL = "INSERT INTO \"transaction\" " +
+                "(userId, amount, amountCents, transactionType, transactionDate, description, bankAccountId) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        private final int batchSize;
+        private final Counts counts;
+
+        private final List<Object[]> users = new ArrayList<>();
+        private final List<Object[]> vehicles = new ArrayList<>();
+        private final List<Object[]> bankAccounts = new ArrayList<>();
+        private final List<Object[]> balances = new ArrayList<>();
+        private final List<Object[]> jobs = new ArrayList<>();
+        private final List<Object[]> deliveries;
+        private final List<Object[]> transactions;
+
+        Writer(int batchSize, Counts counts) {
+            this.batchSize = batchSize;
+            this.counts = counts;
+            this.deliveries = new ArrayList<>(batchSize + 64);
+            this.transactions = new ArrayList<>(batchSize + 64);
+        }
+
+        void user(long userId, String userName, String password, String email) {
+            users.add(new Object[]{userId, userName, password, email});
+        }
+
+        void vehicle(long userId, String name, String type, double mpg, long startingMiles, long currentMiles,
+                     double purchasePrice) {
+            vehicles.add(new Object[]{userId, name, type, mpg, startingMiles, currentMiles, purchasePrice});
+        }
+
+        void bankAccount(long id, long userId, String type, double balance, double interestRate) {
+            bankAccounts.add(new Object[]{id, userId, type, balance, Money.toCents(balance), interestRate});
+        }
+
+        void balance(long id, double balance) {
+            balances.add(new Object[]{balance, Money.toCents(balance), id});
+        }
+
+        void job(long jobId, long userId, long start, long end, String vehicle, double earnings) {
+            jobs.add(new Object[]{jobId, userId, start, end, vehicle, earnings});
+        }
+
+        void delivery(String to, String from, String restaurant, double basePay, double tips, String platform,
+                      int totalMinutes, int miles, int waitingMinutes, long start, long end, long jobId) {
+            deliveries.add(new Object[]{to, from, restaurant, basePay, tips, platform,
+                    totalMinutes, miles, waitingMinutes, start, end, jobId, Money.toCents(basePay), Money.toCents(tips)});
+        }
+
+        void transaction(long userId, double amount, String type, long date, String description, long accountId) {
+            transactions.add(new Object[]{userId, amount, Money.toCents(amount), type, date, description, accountId});
+        }
+
+        /**
+         * Flushes once a batch is full. Only call it when every buffered child has its parent buffered.
+         */
+        void flushIfFull() {
+            if (deliveries.size() >= batchSize || transactions.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            counts.users += write(USER_SQL, users);
+            counts.vehicles += write(VEHICLE_SQL, vehicles);
+            counts.bankAccounts += write(BANK_ACCOUNT_SQL, bankAccounts);
+            counts.jobs += write(JOB_SQL, jobs);
+            counts.deliveries += write(DELIVERY_SQL, deliveries);
+            counts.transactions += write(TRANSACTION_SQL, transactions);
+            write(BALANCE_SQL, balances);
+        }
+
+        private int write(String sql, List<Object[]> rows) {
+            int written = rows.size();
+            if (written > 0) {
+                // Bound directly; the SQLite driver binds by value type, without Spring's per-value type lookup
+                jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            ps.setObject(column + 1, row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return written;
+                    }
+                });
+                rows.clear();
+            }
+            return written;
+        }
+    }
+
+    private static final class Counts {
+        long users;
+        long vehicles;
+        long bankAccounts;
+        long jobs;
+        long deliveries;
+        long transactions;
+
+        GenerationReport toReport(long elapsedMillis) {
+            return new GenerationReport(users, vehicles, bankAccounts, jobs, deliveries, transactions, elapsedMillis);
+        }
+    }
+
+    /**
+     * What to generate and how to write it.
+     */
+    public static class Options {
+        private long seed = 42L;
+        private int users = 10;
+        private long deliveries;
+        private LocalDate startDate = LocalDate.of(2022, 1, 1);
+        private int days = 365;
+        private int restaurants = 300;
+        private ZoneId zone = ZoneId.systemDefault();
+        private int batchSize = 5000;
+        private boolean deferIndexes;
+        private Consumer<GenerationReport> progressListener;
+
+        public long getSeed() { return seed; }
+        public int getUsers() { return users; }
+        public long getDeliveries() { return deliveries; }
+        public LocalDate getStartDate() { return startDate; }
+        public int getDays() { return days; }
+        public int getRestaurants() { return restaurants; }
+        public ZoneId getZone() { return zone; }
+        public int getBatchSize() { return batchSize; }
+        public boolean isDeferIndexes() { return deferIndexes; }
+        public Consumer<GenerationReport> getProgressListener() { return progressListener; }
+
+        public Options setSeed(long seed) { this.seed = seed; return this; }
+
+        /**
+         * Sets the number of users. With a delivery target this is a minimum, more users are
+         * added when the date range cannot hold the deliveries.
+         */
+        public Options setUsers(int users) { this.users = Math.max(1, users); return this; }
+
+        /**
+         * Stops after this many deliveries in total, spread evenly over the users. 0 lets every user
+         * work the whole date range.
+         */
+        public Options setDeliveries(long deliveries) { this.deliveries = Math.max(0, deliveries); return this; }
+        public Options setStartDate(LocalDate startDate) { this.startDate = startDate; return this; }
+        public Options setDays(int days) { this.days = Math.max(1, days); return this; }
+        public Options setRestaurants(int restaurants) { this.restaurants = Math.max(1, restaurants); return this; }
+        public Options setZone(ZoneId zone) { this.zone = zone; return this; }
+        public Options setBatchSize(int batchSize) { this.batchSize = Math.max(1, batchSize); return this; }
+
+        /**
+         * Drops the secondary indexes during the load and recreates them at the end. Faster for large loads,
+         * but other connections see the tables without their indexes until the run finishes.
+         */
+        public Options setDeferIndexes(boolean deferIndexes) { this.deferIndexes = deferIndexes; return this; }
+
+        /**
+         * Receives the running totals after each user.
+         */
+        public Options setProgressListener(Consumer<GenerationReport> progressListener) { this.progressListener = progressListener; return this; }
+    }
+
+    /**
+     * Row counts and throughput of a run, either in progress or finished.
+     */
+    public static class GenerationReport {
+        private final long users;
+        private final long vehicles;
+        private final long bankAccounts;
+        private final long jobs;
+        private final long deliveries;
+        private final long transactions;
+        private final long elapsedMillis;
+
+        public GenerationReport(long users, long vehicles, long bankAccounts, long jobs, long deliveries,
+                                long transactions, long elapsedMillis) {
+            this.users = users;
+            this.vehicles = vehicles;
+            this.bankAccounts = bankAccounts;
+            this.jobs = jobs;
+            this.deliveries = deliveries;
+            this.transactions = transactions;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getUsers() { return users; }
+        public long getVehicles() { return vehicles; }
+        public long getBankAccounts() { return bankAccounts; }
+        public long getJobs() { return jobs; }
+        public long getDeliveries() { return deliveries; }
+        public long getTransactions() { return transactions; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public long getRows() {
+            return users + vehicles + bankAccounts + jobs + deliveries + transactions;
+        }
+
+        /**
+         * Gets written rows per second.
+         */
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? getRows() * 1000.0 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d users, %d vehicles, %d bank accounts, %d work periods, %d deliveries, " +
+                            "%d transactions in %.1f s (%.0f rows/s)", users, vehicles, bankAccounts, jobs,
+                    deliveries, transactions, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.dataImport.src;
+
+import org.example.deliveryRecorder.src.deliveryDataService;
+import org.example.deliveryRecorder.src.deliveryDataServiceDAO;
+import org.example.deliveryRecorder.src.deliveryRecord;
+import org.example.deliveryRecorder.src.workPeriodServiceDAO;
+import org.example.reportGenerator.src.DeliveryColumns;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Imports platform delivery exports into deliveryData.
+ *
+ * Rows are validated with deliveryDataService.validateDelivery and each chunk is written through
+ * deliveryDataServiceDAO.saveDeliveryGroups, one transaction for all of its work periods, so the
+ * heatmap and rollups stay in step. Unless the import targets one existing work period, one
+ * JobsTable row is created per local day of history and its start/end are widened to cover that
+ * day's deliveries when the import finishes. A work period created for a chunk in which none of
+ * its day's rows could be saved is deleted again, so failed rows never leave empty periods behind.
+ *
+ * Recognised columns (case-insensitive): startTime, endTime, miles, basePay, tips, extraExpenses,
+ * platform, restaurant/resturant, timeSpentWaiting, totalTimeSpent, fromLocation, toLocation.
+ * Times are epoch milliseconds, epoch seconds or ISO-8601 date-times.
+ */
+public class deliveryImportTarget implements importTarget<deliveryDataService> {
+
+    private final deliveryDataServiceDAO deliveryDAO;
+    private final workPeriodServiceDAO workPeriodDAO;
+    private final int userId;
+    private final Long jobsId;
+    private final ZoneId zone;
+
+    // Writer thread only
+    private final DeliveryColumns.DayHourBucketer bucketer;
+    private final Map<Long, WorkPeriodRange> workPeriodsByDay = new HashMap<>();
+
+    public deliveryImportTarget(deliveryDataServiceDAO deliveryDAO, workPeriodServiceDAO workPeriodDAO,
+                                importPipeline.Options options) {
+        this.deliveryDAO = deliveryDAO;
+        this.workPeriodDAO = workPeriodDAO;
+        this.userId = options.getUserId();
+        this.jobsId = options.getJobsId();
+        this.zone = options.getZone();
+        this.bucketer = new DeliveryColumns.DayHourBucketer(zone);
+    }
+
+    @Override
+    public String name() {
+        return "deliveryData";
+    }
+
+    @Override
+    public deliveryDataService parse(importRecordReader.Record record) {
+        long start = parseTime(record.require("startTime", "dateTimeStart"), zone);
+        String end = record.get("endTime", "dateTimeEnd");
+
+        // The setters clamp negatives to 0, so reject them here with validateDelivery's messages
+        int miles = nonNegative(parseInt(record.get("miles", "milesDriven")), "Miles driven cannot be negative.");
+        float basePay = nonNegative(parseFloat(record.get("basePay")), "Base pay cannot be negative.");
+
+        deliveryDataService form = new deliveryDataService();
+        form.setDateTimeStart(start);
+        form.setDateTimeEnd(end != null ? parseTime(end, zone) : 0);
+        form.setMilesDriven(miles);
+        form.setBasePay(basePay);
+        form.setTips(parseFloat(record.get("tips")));
+        form.setExpenses(parseFloat(record.get("extraExpenses", "expenses")));
+        form.setPlatform(record.get("platform"));
+        form.setRestaurant(record.get("restaurant", "resturant"));
+        form.setMinutesSpentWaitingAtResturant(parseInt(record.get("timeSpentWaiting", "minutesSpentWaitingAtResturant", "waitMinutes")));
+        form.setTotalTimeSpent(parseInt(record.get("totalTimeSpent")));
+        form.setFromAddress(record.get("fromLocation", "fromAddress"));
+        form.setToAddress(record.get("toLocation", "toAddress"));
+
+        String error = form.validateDelivery();
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return form;
+    }
+
+    @Override
+    public Map<Integer, String> write(List<deliveryDataService> rows) {
+        // Group rows by work period, remembering each row's index in the batch
+        Map<Long, Long> createdDays = new HashMap<>();
+        Map<Long, List<Integer>> indexesByJob = new LinkedHashMap<>();
+        Map<Long, List<deliveryRecord>> formsByJob = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            long job = jobFor(rows.get(i), createdDays);
+            indexesByJob.computeIfAbsent(job, k -> new ArrayList<>()).add(i);
+            formsByJob.computeIfAbsent(job, k -> new ArrayList<>()).add(deliveryRecord.from(rows.get(i)));
+        }
+
+        Map<Integer, String> failures = new TreeMap<>();
+        Map<Long, deliveryDataServiceDAO.BatchSaveResult> results = deliveryDAO.saveDeliveryGroups(formsByJob);
+        results.forEach((job, result) -> {
+            List<Integer> indexes = indexesByJob.get(job);
+            for (deliveryDataServiceDAO.RowFailure failure : result.getFailures()) {
+                failures.put(indexes.get(failure.getIndex()), failure.getMessage());
+            }
+        });
+
+        // Work periods opened by this chunk that ended up without a delivery
+        createdDays.forEach((job, day) -> {
+            if (results.get(job).getSavedCount() == 0) {
+                workPeriodsByDay.remove(day);
+                workPeriodDAO.deleteWorkPeriod(job);
+            }
+        });
+        return failures;
+    }
+
+    @Override
+    public void finish() {
+        for (WorkPeriodRange range : workPeriodsByDay.values()) {
+            workPeriodDAO.updateWorkPeriodTimes(range.jobsId, range.start, range.end);
+        }
+        if (!workPeriodsByDay.isEmpty()) {
+            System.out.println("deliveryImportTarget: Created " + workPeriodsByDay.size() + " work periods for user " + userId);
+        }
+    }
+
+    private long jobFor(deliveryDataService form, Map<Long, Long> createdDays) {
+        if (jobsId != null) {
+            return jobsId;
+        }
+        long start = form.getDateTimeStart();
+        long end = Math.max(start, form.getDateTimeEnd());
+        long day = bucketer.epochDay(start);
+
+        WorkPeriodRange range = workPeriodsByDay.get(day);
+        if (range == null) {
+            long id = workPeriodDAO.insertImportedWorkPeriod(userId, start, end);
+            if (id < 0) {
+                throw new IllegalStateException("Could not create a work period for user " + userId);
+            }
+            range = new WorkPeriodRange(id, start, end);
+            workPeriodsByDay.put(day, range);
+            createdDays.put(id, day);
+        } else {
+            range.start = Math.min(range.start, start);
+            range.end = Math.max(range.end, end);
+        }
+        return range.jobsId;
+    }
+
+    /**
+     * Parses epoch milliseconds, epoch seconds (10 digits or fewer) or an ISO-8601 date-time.
+     * Date-times without an offset are read in the given zone.
+     */
+    static long parseTime(String value, ZoneId zone) {
+        if (value.chars().allMatch(Character::isDigit)) {
+            long number = Long.parseLong(value);
+            return value.length() <= 10 ? number * 1000L : number;
+        }
+        String iso = value.replace(' ', 'T');
+        try {
+            if (iso.endsWith("Z")) {
+                return Instant.parse(iso).toEpochMilli();
+            }
+            if (iso.length() > 19 && (iso.lastIndexOf('+') > 10 || iso.lastIndexOf('-') > 10)) {
+                return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+            }
+            return LocalDateTime.parse(iso).atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date-time: " + value);
+        }
+    }
+
+    static int parseInt(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return (int) Math.round(Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    static float parseFloat(String value) {
+        if (value == null) {
+            return 0f;
+        }
+        try {
+            return Float.parseFloat(value.startsWith("$") ? value.substring(1) : value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    private static int nonNegative(int value, String message) {
+        if (value < 0) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+
+    private static float nonNegative(float value, String message) {
+        if (value < 0) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+
+    /**
+     * The work period created for one local day and the time span its deliveries cover so far.
+     */
+    private static class WorkPeriodRange {
+        final long jobsId;
+        long start;
+        long end;
+
+        WorkPeriodRange(long jobsId, long start, long end) {
+            this.jobsId = jobsId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.dataImport.src;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST endpoints for bulk history imports.
+ *
+ * The request body is the export file itself (not multipart) and is streamed through the
+ * import pipeline as it arrives, so uploads of any size use constant memory.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class importController {
+
+    @Autowired
+    private importPipeline pipeline;
+
+    /**
+     * POST /api/import/deliveries?userId=1&format=csv
+     * Imports a delivery history export into deliveryData.
+     *
+     * @param userId      The driver the deliveries belong to
+     * @param format      csv, ndjson or json
+     * @param jobsId      Optional work period for all rows; by default one work period is created per day
+     * @param parallelism Optional number of parser threads
+     * @param body        The export file
+     * @return 200 with row counts and the rejects file, or 400 if the input could not be read
+     */
+    @PostMapping("/deliveries")
+    public ResponseEntity<?> importDeliveries(
+            @RequestParam int userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long jobsId,
+            @RequestParam(required = false) Integer parallelism,
+            InputStream body) {
+        try {
+            importPipeline.Options options = options(userId, format, parallelism).setJobsId(jobsId);
+            return ResponseEntity.ok(pipeline.importDeliveries(body, options));
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/import/transactions?userId=1&format=csv
+     * Imports a transaction history export into "transaction".
+     *
+     * @param userId      The user the transactions belong to
+     * @param format      csv, ndjson or json
+     * @param parallelism Optional number of parser threads
+     * @param body        The export file
+     * @return 200 with row counts and the rejects file, or 400 if the input could not be read
+     */
+    @PostMapping("/transactions")
+    public ResponseEntity<?> importTransactions(
+            @RequestParam int userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Integer parallelism,
+            InputStream body) {
+        try {
+            return ResponseEntity.ok(pipeline.importTransactions(body, options(userId, format, parallelism)));
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
+        }
+    }
+
+    private static importPipeline.Options options(int userId, String format, Integer parallelism) {
+        importPipeline.Options options = new importPipeline.Options()
+                .setUserId(userId)
+                .setFormat(importPipeline.Format.fromName(format));
+        if (parallelism != null) {
+            options.setParallelism(parallelism);
+        }
+        return options;
+    }
+}
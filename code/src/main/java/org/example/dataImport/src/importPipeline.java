@@ -0,0 +1,437 @@
+package org.example.dataImport.src;
+
+import org.example.deliveryRecorder.src.deliveryDataServiceDAO;
+import org.example.deliveryRecorder.src.workPeriodServiceDAO;
+import org.example.manageFinances.src.generalFinancialDataDAO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams historical delivery and transaction exports into the database.
+ *
+ * The import runs as three stages joined by bounded queues:
+ * <ol>
+ *   <li>one reader thread splits the input into records and groups them into chunks,</li>
+ *   <li>a pool of parser threads maps and validates each record,</li>
+ *   <li>the calling thread writes each chunk with one JDBC batch (SQLite has a single writer).</li>
+ * </ol>
+ * When the writer falls behind, the queues fill up and the reader blocks, so at most
+ * (2 * queueCapacity + parallelism + 2) chunks are in memory regardless of the file size.
+ * Rejected records are streamed to a rejects CSV with their line number and reason.
+ */
+@Component
+public class importPipeline {
+
+    private final deliveryDataServiceDAO deliveryDAO;
+    private final workPeriodServiceDAO workPeriodDAO;
+    private final generalFinancialDataDAO financialDAO;
+
+    @Autowired
+    public importPipeline(deliveryDataServiceDAO deliveryDAO, workPeriodServiceDAO workPeriodDAO,
+                          generalFinancialDataDAO financialDAO) {
+        this.deliveryDAO = deliveryDAO;
+        this.workPeriodDAO = workPeriodDAO;
+        this.financialDAO = financialDAO;
+    }
+
+    /**
+     * Imports deliveries into deliveryData.
+     *
+     * @param in      The export to read; it is not closed
+     * @param options Format, owner and tuning of the import
+     * @return counts, throughput and the rejects file of the finished import
+     * @throws IOException if the input cannot be read or the rejects file cannot be written
+     */
+    public ImportReport importDeliveries(InputStream in, Options options) throws IOException {
+        return run(in, options, new deliveryImportTarget(deliveryDAO, workPeriodDAO, options));
+    }
+
+    /**
+     * Imports transactions into "transaction".
+     *
+     * @param in      The export to read; it is not closed
+     * @param options Format, owner and tuning of the import
+     * @return counts, throughput and the rejects file of the finished import
+     * @throws IOException if the input cannot be read or the rejects file cannot be written
+     */
+    public ImportReport importTransactions(InputStream in, Options options) throws IOException {
+        return run(in, options, new transactionImportTarget(financialDAO, options));
+    }
+
+    <T> ImportReport run(InputStream in, Options options, importTarget<T> target) throws IOException {
+        Path rejectsFile = options.getRejectsFile() != null
+                ? options.getRejectsFile()
+                : Files.createTempFile("import-rejects-" + target.name() + "-", ".csv");
+        int parsers = options.getParallelism();
+        BlockingQueue<Chunk<importRecordReader.RawRecord>> rawQueue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        BlockingQueue<Chunk<Parsed<T>>> parsedQueue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        Progress progress = new Progress(target.name());
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parsers + 1, runnable -> {
+            Thread thread = new Thread(runnable, "import-" + target.name() + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        System.out.println("importPipeline: Importing " + target.name() + " (" + options.getFormat()
+                + ", " + parsers + " parser threads, batch " + options.getBatchSize() + ")");
+        try (RejectsWriter rejects = new RejectsWriter(rejectsFile)) {
+            Future<?> reader = workers.submit(() -> {
+                read(in, options, rawQueue, parsers, progress);
+                return null;
+            });
+            List<Future<?>> parserTasks = new ArrayList<>(parsers);
+            for (int i = 0; i < parsers; i++) {
+                parserTasks.add(workers.submit(() -> {
+                    parse(target, rawQueue, parsedQueue, rejects, progress);
+                    return null;
+                }));
+            }
+
+            write(target, parsedQueue, parsers, rejects, progress, options);
+            // Every parser has sent its end marker; a failed one stops the import before the reader is awaited
+            for (Future<?> parser : parserTasks) {
+                parser.get();
+            }
+            target.finish();
+            reader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Import of " + target.name() + " failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import of " + target.name() + " was interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        ImportReport report = progress.report(rejectsFile);
+        System.out.println("importPipeline: Finished " + report);
+        return report;
+    }
+
+    /**
+     * Reader stage: groups records into chunks and always ends with one end marker per parser.
+     */
+    private void read(InputStream in, Options options, BlockingQueue<Chunk<importRecordReader.RawRecord>> rawQueue,
+                      int parsers, Progress progress) throws IOException, InterruptedException {
+        try {
+            importRecordReader reader = new importRecordReader(in, options.getFormat());
+            List<importRecordReader.RawRecord> chunk = new ArrayList<>(options.getBatchSize());
+            importRecordReader.RawRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                progress.read.incrementAndGet();
+                if (chunk.size() == options.getBatchSize()) {
+                    rawQueue.put(new Chunk<>(chunk));
+                    chunk = new ArrayList<>(options.getBatchSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                rawQueue.put(new Chunk<>(chunk));
+            }
+        } finally {
+            for (int i = 0; i < parsers; i++) {
+                rawQueue.put(Chunk.end());
+            }
+        }
+    }
+
+    /**
+     * Parser stage: maps and validates records, sending failures straight to the rejects file.
+     */
+    private <T> void parse(importTarget<T> target, BlockingQueue<Chunk<importRecordReader.RawRecord>> rawQueue,
+                           BlockingQueue<Chunk<Parsed<T>>> parsedQueue, RejectsWriter rejects,
+                           Progress progress) throws IOException, InterruptedException {
+        try {
+            Chunk<importRecordReader.RawRecord> chunk;
+            while (!(chunk = rawQueue.take()).isEnd()) {
+                List<Parsed<T>> rows = new ArrayList<>(chunk.rows.size());
+                for (importRecordReader.RawRecord record : chunk.rows) {
+                    try {
+                        rows.add(new Parsed<>(record, target.parse(record.parse())));
+                    } catch (RuntimeException e) {
+                        rejects.reject(record, e.getMessage());
+                        progress.rejected.incrementAndGet();
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    parsedQueue.put(new Chunk<>(rows));
+                }
+            }
+        } finally {
+            parsedQueue.put(Chunk.end());
+        }
+    }
+
+    /**
+     * Writer stage: runs on the calling thread until every parser has finished.
+     */
+    private <T> void write(importTarget<T> target, BlockingQueue<Chunk<Parsed<T>>> parsedQueue, int parsers,
+                           RejectsWriter rejects, Progress progress, Options options)
+            throws IOException, InterruptedException {
+        long lastReport = System.nanoTime();
+        int finishedParsers = 0;
+        while (finishedParsers < parsers) {
+            Chunk<Parsed<T>> chunk = parsedQueue.take();
+            if (chunk.isEnd()) {
+                finishedParsers++;
+                continue;
+            }
+
+            List<T> rows = new ArrayList<>(chunk.rows.size());
+            for (Parsed<T> parsed : chunk.rows) {
+                rows.add(parsed.row);
+            }
+            Map<Integer, String> failures = target.write(rows);
+            for (Map.Entry<Integer, String> failure : failures.entrySet()) {
+                rejects.reject(chunk.rows.get(failure.getKey()).record, failure.getValue());
+            }
+            progress.written.addAndGet(rows.size() - failures.size());
+            progress.rejected.addAndGet(failures.size());
+
+            long now = System.nanoTime();
+            if (now - lastReport >= options.getProgressIntervalMillis() * 1_000_000L) {
+                lastReport = now;
+                ImportReport snapshot = progress.report(null);
+                System.out.println("importPipeline: " + snapshot);
+                if (options.getProgressListener() != null) {
+                    options.getProgressListener().accept(snapshot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Record formats the pipeline can read.
+     */
+    public enum Format {
+        CSV, NDJSON, JSON;
+
+        /**
+         * Picks the format from a file name or format name: .csv, .ndjson/.jsonl or .json.
+         */
+        public static Format fromName(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith("ndjson") || lower.endsWith("jsonl")) {
+                return NDJSON;
+            }
+            if (lower.endsWith("json")) {
+                return JSON;
+            }
+            if (lower.endsWith("csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unknown import format: " + name);
+        }
+    }
+
+    /**
+     * Settings for one import. Defaults suit a multi-year history on a laptop.
+     */
+    public static class Options {
+        private Format format = Format.CSV;
+        private int userId;
+        private Long jobsId;
+        private ZoneId zone = ZoneId.systemDefault();
+        private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private int batchSize = 1000;
+        private int queueCapacity = 8;
+        private Path rejectsFile;
+        private long progressIntervalMillis = 5000;
+        private Consumer<ImportReport> progressListener;
+
+        public Format getFormat() { return format; }
+        public int getUserId() { return userId; }
+        public Long getJobsId() { return jobsId; }
+        public ZoneId getZone() { return zone; }
+        public int getParallelism() { return parallelism; }
+        public int getBatchSize() { return batchSize; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public Path getRejectsFile() { return rejectsFile; }
+        public long getProgressIntervalMillis() { return progressIntervalMillis; }
+        public Consumer<ImportReport> getProgressListener() { return progressListener; }
+
+        public Options setFormat(Format format) { this.format = format; return this; }
+        public Options setUserId(int userId) { this.userId = userId; return this; }
+
+        /**
+         * Puts every imported delivery into this work period instead of one new work period per day.
+         */
+        public Options setJobsId(Long jobsId) { this.jobsId = jobsId; return this; }
+        public Options setZone(ZoneId zone) { this.zone = zone; return this; }
+        public Options setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); return this; }
+        public Options setBatchSize(int batchSize) { this.batchSize = Math.max(1, batchSize); return this; }
+        public Options setQueueCapacity(int queueCapacity) { this.queueCapacity = Math.max(1, queueCapacity); return this; }
+
+        /**
+         * Sets where rejected records are written. Defaults to a temp file.
+         */
+        public Options setRejectsFile(Path rejectsFile) { this.rejectsFile = rejectsFile; return this; }
+        public Options setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; return this; }
+
+        /**
+         * Receives a progress snapshot from the writer thread every progress interval.
+         */
+        public Options setProgressListener(Consumer<ImportReport> progressListener) { this.progressListener = progressListener; return this; }
+    }
+
+    /**
+     * Row counts and throughput of an import, either in progress or finished.
+     */
+    public static class ImportReport {
+        private final String target;
+        private final long rowsRead;
+        private final long rowsWritten;
+        private final long rowsRejected;
+        private final long elapsedMillis;
+        private final String rejectsFile;
+
+        public ImportReport(String target, long rowsRead, long rowsWritten, long rowsRejected,
+                            long elapsedMillis, String rejectsFile) {
+            this.target = target;
+            this.rowsRead = rowsRead;
+            this.rowsWritten = rowsWritten;
+            this.rowsRejected = rowsRejected;
+            this.elapsedMillis = elapsedMillis;
+            this.rejectsFile = rejectsFile;
+        }
+
+        public String getTarget() { return target; }
+        public long getRowsRead() { return rowsRead; }
+        public long getRowsWritten() { return rowsWritten; }
+        public long getRowsRejected() { return rowsRejected; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /**
+         * Gets the rejects file path, or null for an in-progress snapshot.
+         */
+        public String getRejectsFile() { return rejectsFile; }
+
+        /**
+         * Gets finished rows (written + rejected) per second.
+         */
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? (rowsWritten + rowsRejected) * 1000.0 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d read, %d written, %d rejected in %.1f s (%.0f rows/s)",
+                    target, rowsRead, rowsWritten, rowsRejected, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Counters shared by the three stages.
+     */
+    private static class Progress {
+        final String target;
+        final long started = System.nanoTime();
+        final AtomicLong read = new AtomicLong();
+        final AtomicLong written = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+
+        Progress(String target) {
+            this.target = target;
+        }
+
+        ImportReport report(Path rejectsFile) {
+            return new ImportReport(target, read.get(), written.get(), rejected.get(),
+                    (System.nanoTime() - started) / 1_000_000L,
+                    rejectsFile != null ? rejectsFile.toString() : null);
+        }
+    }
+
+    /**
+     * A batch of records passed between stages; an empty end marker tells the next stage to stop.
+     */
+    private static class Chunk<E> {
+        private static final Chunk<?> END = new Chunk<>(new ArrayList<>(0));
+
+        final List<E> rows;
+
+        Chunk(List<E> rows) {
+            this.rows = rows;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <E> Chunk<E> end() {
+            return (Chunk<E>) END;
+        }
+
+        boolean isEnd() {
+            return this == END;
+        }
+    }
+
+    /**
+     * A validated row together with the record it came from, for reporting write failures.
+     */
+    private static class Parsed<T> {
+        final importRecordReader.RawRecord record;
+        final T row;
+
+        Parsed(importRecordReader.RawRecord record, T row) {
+            this.record = record;
+            this.row = row;
+        }
+    }
+
+    /**
+     * Thread-safe writer for the rejects CSV: line, error, record.
+     */
+    private static class RejectsWriter implements Closeable {
+        private final BufferedWriter out;
+
+        RejectsWriter(Path file) throws IOException {
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            out.write("line,error,record");
+            out.newLine();
+        }
+
+        synchronized void reject(importRecordReader.RawRecord record, String error) throws IOException {
+            out.write(Long.toString(record.line()));
+            out.write(',');
+            out.write(quote(error != null ? error : "Unknown error"));
+            out.write(',');
+            out.write(quote(record.text()));
+            out.newLine();
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
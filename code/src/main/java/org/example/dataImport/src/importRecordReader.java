@@ -0,0 +1,335 @@
+package org.example.dataImport.src;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import records one at a time from a CSV, NDJSON or JSON-array stream.
+ *
+ * The reader only finds record boundaries, so it stays cheap enough to run on a single thread.
+ * Splitting a CSV line into fields or parsing an NDJSON line happens later in {@link RawRecord#parse()},
+ * which the pipeline runs on its parser threads. Only the current record is held in memory, and a
+ * CSV quoted field that is not closed within {@link #MAX_RECORD_LINES} lines or
+ * {@link #MAX_RECORD_CHARS} characters rejects only the line it starts on; the lines read after it
+ * are read again as records, so an unterminated quote never buffers the rest of the file.
+ */
+public class importRecordReader implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Most physical lines one CSV record may span. */
+    static final int MAX_RECORD_LINES = 100;
+    /** Most characters one multi-line CSV record may hold. */
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private final importPipeline.Format format;
+    private final BufferedReader reader;
+    private final JsonParser jsonParser;
+    private final Map<String, Integer> header;
+    private final Deque<String> pushedBack = new ArrayDeque<>();
+
+    private long line;
+    private long recordCount;
+
+    public importRecordReader(InputStream in, importPipeline.Format format) throws IOException {
+        this.format = format;
+        if (format == importPipeline.Format.JSON) {
+            this.reader = null;
+            this.jsonParser = MAPPER.getFactory().createParser(in);
+            if (jsonParser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("JSON import must be an array of objects");
+            }
+            this.header = null;
+        } else {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+            this.jsonParser = null;
+            this.header = format == importPipeline.Format.CSV ? readHeader() : null;
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the input
+     */
+    public RawRecord next() throws IOException {
+        switch (format) {
+            case CSV:
+                return nextCsv();
+            case NDJSON:
+                return nextNdjson();
+            default:
+                return nextJson();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonParser != null) {
+            jsonParser.close();
+        } else {
+            reader.close();
+        }
+    }
+
+    private Map<String, Integer> readHeader() throws IOException {
+        RawRecord first = nextCsv();
+        if (first == null) {
+            return Collections.emptyMap();
+        }
+        String text = first.text.startsWith("\uFEFF") ? first.text.substring(1) : first.text;
+        List<String> names = splitCsv(text);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            index.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        recordCount = 0;
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Reads one CSV record, joining physical lines while a quoted field is still open.
+     */
+    private RawRecord nextCsv() throws IOException {
+        String text;
+        do {
+            text = readCsvLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isEmpty());
+
+        long startLine = line;
+        recordCount++;
+        // Quote state is carried from line to line, so each line is scanned once
+        if (!hasOddQuotes(text)) {
+            return new RawRecord(startLine, text, null, header, null);
+        }
+        List<String> more = new ArrayList<>();
+        int length = text.length();
+        String next;
+        while (more.size() + 1 < MAX_RECORD_LINES && (next = readCsvLine()) != null) {
+            more.add(next);
+            length += 1 + next.length();
+            if (hasOddQuotes(next)) {
+                return new RawRecord(startLine, text + "\n" + String.join("\n", more), null, header, null);
+            }
+            if (length > MAX_RECORD_CHARS) {
+                break;
+            }
+        }
+
+        // The quote never closed: reject the first line and read the following lines again as records
+        for (int i = more.size() - 1; i >= 0; i--) {
+            pushedBack.push(more.get(i));
+        }
+        line = startLine;
+        return new RawRecord(startLine, text, null, header, "Unterminated quoted field (not closed within "
+                + MAX_RECORD_LINES + " lines or " + MAX_RECORD_CHARS + " characters)");
+    }
+
+    // Next physical CSV line, taking lines given back by an unterminated record first
+    private String readCsvLine() throws IOException {
+        line++;
+        return pushedBack.isEmpty() ? reader.readLine() : pushedBack.pop();
+    }
+
+    private RawRecord nextNdjson() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.trim().isEmpty());
+        recordCount++;
+        return new RawRecord(line, text, null, null, null);
+    }
+
+    private RawRecord nextJson() throws IOException {
+        JsonToken token = jsonParser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at element " + (recordCount + 1));
+        }
+        JsonNode node = MAPPER.readTree(jsonParser);
+        recordCount++;
+        return new RawRecord(recordCount, null, node, null, null);
+    }
+
+    // An odd number of quotes on a line flips whether a quoted field is open after it
+    private static boolean hasOddQuotes(String text) {
+        boolean odd = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                odd = !odd;
+            }
+        }
+        return odd;
+    }
+
+    /**
+     * Splits one CSV record into fields. Quoted fields may contain commas, newlines and "" escapes.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One unparsed record: a CSV or NDJSON text, or an already tokenized JSON-array element.
+     */
+    public static class RawRecord {
+        private final long line;
+        private final String text;
+        private final JsonNode node;
+        private final Map<String, Integer> header;
+        private final String error;
+
+        RawRecord(long line, String text, JsonNode node, Map<String, Integer> header, String error) {
+            this.line = line;
+            this.text = text;
+            this.node = node;
+            this.header = header;
+            this.error = error;
+        }
+
+        /**
+         * Gets the line the record starts on, or its element number for a JSON array.
+         */
+        public long line() { return line; }
+
+        /**
+         * Gets the record as it appeared in the input, for the rejects file.
+         */
+        public String text() { return text != null ? text : node.toString(); }
+
+        /**
+         * Splits or parses the record into named fields.
+         *
+         * @throws IllegalArgumentException if the record is malformed
+         */
+        public Record parse() {
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            if (header != null) {
+                return new Record(header, splitCsv(text));
+            }
+            JsonNode object = node;
+            if (object == null) {
+                try {
+                    object = MAPPER.readTree(text);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            if (object == null || !object.isObject()) {
+                throw new IllegalArgumentException("Record is not a JSON object");
+            }
+            Map<String, Integer> names = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                names.putIfAbsent(field.getKey().toLowerCase(Locale.ROOT), values.size());
+                values.add(field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            return new Record(names, values);
+        }
+    }
+
+    /**
+     * A parsed record with case-insensitive access to its fields.
+     */
+    public static class Record {
+        private final Map<String, Integer> names;
+        private final List<String> values;
+
+        Record(Map<String, Integer> names, List<String> values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        /**
+         * Gets the first non-blank value among the given column names.
+         *
+         * @return the trimmed value, or null if none of the columns has one
+         */
+        public String get(String... columns) {
+            for (String column : columns) {
+                Integer index = names.get(column.toLowerCase(Locale.ROOT));
+                if (index != null && index < values.size()) {
+                    String value = values.get(index);
+                    if (value != null && !value.trim().isEmpty()) {
+                        return value.trim();
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gets the first non-blank value among the given column names.
+         *
+         * @throws IllegalArgumentException if none of the columns has a value
+         */
+        public String require(String... columns) {
+            String value = get(columns);
+            if (value == null) {
+                throw new IllegalArgumentException(columns[0] + " is required.");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.dataImport.src;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table the import pipeline can load: how to turn a record into a row and how to write a batch of rows.
+ *
+ * parse is called concurrently from the parser threads and must not touch shared state.
+ * write and finish are only called from the single writer thread.
+ *
+ * @param <T> the validated row type
+ */
+public interface importTarget<T> {
+
+    /**
+     * Gets the table name used in progress messages.
+     */
+    String name();
+
+    /**
+     * Maps and validates one record.
+     *
+     * @throws IllegalArgumentException with the reject reason if the record is invalid
+     */
+    T parse(importRecordReader.Record record);
+
+    /**
+     * Writes one batch of rows.
+     *
+     * @param rows the rows to write, in input order
+     * @return failure messages by index in rows, empty when every row was written
+     */
+    Map<Integer, String> write(List<T> rows);
+
+    /**
+     * Called once after the last batch has been written.
+     */
+    default void finish() {
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.dataImport.src;
+
+import org.example.manageFinances.src.TransactionDates;
+import org.example.manageFinances.src.generalFinancialDataDAO;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports bank or platform transaction exports into "transaction".
+ *
+ * Rows are validated with generalFinancialDataDAO.validateTransaction and written through
+ * generalFinancialDataDAO.saveTransactions. Bank account balances are left unchanged.
+ *
+ * Recognised columns (case-insensitive): amount, transactionType/type, transactionDate/date,
+ * description, bankAccountId. Dates are 'YYYY-MM-DD', ISO-8601 date-times or epoch milliseconds.
+ */
+public class transactionImportTarget implements importTarget<generalFinancialDataDAO.TransactionRecord> {
+
+    private final generalFinancialDataDAO financialDAO;
+    private final int userId;
+    private final ZoneId zone;
+
+    public transactionImportTarget(generalFinancialDataDAO financialDAO, importPipeline.Options options) {
+        this.financialDAO = financialDAO;
+        this.userId = options.getUserId();
+        this.zone = options.getZone();
+    }
+
+    @Override
+    public String name() {
+        return "transaction";
+    }
+
+    @Override
+    public generalFinancialDataDAO.TransactionRecord parse(importRecordReader.Record record) {
+        String type = record.require("transactionType", "type");
+        float amount = deliveryImportTarget.parseFloat(record.require("amount"));
+        String error = generalFinancialDataDAO.validateTransaction(type, amount);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        generalFinancialDataDAO.TransactionRecord transaction = new generalFinancialDataDAO.TransactionRecord();
+        transaction.setUserId(userId);
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        long date = parseDate(record.require("transactionDate", "date"), zone);
+        transaction.setTransactionTime(date);
+        transaction.setTransactionDate(TransactionDates.display(date));
+        transaction.setDescription(record.get("description"));
+        transaction.setBankAccountId(deliveryImportTarget.parseInt(record.get("bankAccountId")));
+        return transaction;
+    }
+
+    @Override
+    public Map<Integer, String> write(List<generalFinancialDataDAO.TransactionRecord> rows) {
+        return financialDAO.saveTransactions(userId, rows);
+    }
+
+    /**
+     * Converts a date to the epoch milliseconds stored in transactionDate. A 'YYYY-MM-DD' day is
+     * the start of that day in the import's time zone.
+     */
+    static long parseDate(String value, ZoneId zone) {
+        try {
+            if (value.length() == 10 && value.charAt(4) == '-') {
+                return LocalDate.parse(value).atStartOfDay(zone).toInstant().toEpochMilli();
+            }
+            return deliveryImportTarget.parseTime(value, zone);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+}
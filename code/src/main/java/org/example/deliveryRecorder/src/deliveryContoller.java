@@ -12,7 +12,6 @@ public class deliveryContoller {
     // The DAO handles database interactions
     @Autowired
     private deliveryDataServiceDAO deliveryDAO;
-    private long jobsId;
 
     // The Overview handles the current session/workday state (injected via Spring)
     @Autowired
@@ -39,13 +38,20 @@ public class deliveryContoller {
     }*/
 
     /**
-     * Saves a fully formed delivery object to the database.
+     * Saves a fully formed delivery object to the session's active work period.
+     * @param session The caller's session
      * @param form The populated form data
      * @return true if successful
      */
-    public boolean saveDeliveryRecord(deliveryDataService form) {
+    public boolean saveDeliveryRecord(sessionContext session, deliveryDataService form) {
+        if (!session.hasActiveWorkPeriod()) {
+            System.out.println("Save failed: no active work period.");
+            return false;
+        }
+
         // 1. Validate again to be safe
-        String error = form.validateDelivery();
+        deliveryRecord delivery = deliveryRecord.from(form);
+        String error = delivery.validateDelivery();
         if (error != null) {
             System.out.println("Save failed: " + error);
             return false;
@@ -53,7 +59,9 @@ public class deliveryContoller {
 
         // 2. Use DAO to persist
         try {
-            deliveryDAO.saveDelivery(form, jobsId);
+            if (!deliveryDAO.saveDelivery(delivery, session.getWorkPeriodId())) {
+                return false;
+            }
             System.out.println("Delivery saved to Database.");
             return true;
         } catch (Exception e) {
@@ -1,10 +1,18 @@
 package org.example.deliveryRecorder.src;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
 
+/**
+ * A mutable delivery form, filled field by field from the GUI or a request body.
+ * Prototype scoped so every caller gets its own form; convert it with deliveryRecord.from()
+ * before handing it to the services.
+ */
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class deliveryDataService {
     @Autowired
     private deliveryDataServiceDAO deliveryDataDAO;
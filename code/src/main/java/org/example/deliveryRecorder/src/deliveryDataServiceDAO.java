@@ -1,9 +1,21 @@
 package org.example.deliveryRecorder.src;
 
 
+import org.example.Money;
+import org.example.UserAggregateCache;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Repository
 public class deliveryDataServiceDAO {
@@ -11,45 +23,46 @@ public class deliveryDataServiceDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    private deliveryDataServiceDAO deliveryDataDAO;
+    // Keeps the delivery insert and its heatmap and rollup updates atomic
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
+    @Autowired
+    private deliveryHeatmapDAO heatmapDAO;
 
-    // Fields (Data Model)
-    private long jobsId;
-    private long dateTime; // Changed to long for timestamp compatibility
-    private int milesDriven;
+    @Autowired
+    private deliveryRollupDAO rollupDAO;
 
-    public long getJobId() {
-        return jobsId;
-    }
+    @Autowired
+    private UserAggregateCache aggregateCache;
 
-    public void setJobId(long jobsId) {
-        this.jobsId = jobsId;
-    }
+    private static final String INSERT_SQL = "INSERT INTO deliveryData(" +
+            "startTime, endTime, miles, basePay, extraExpenses, platform, " +
+            "totalTimeSpent, timeSpentWaiting, resturant, jobsTableId, tips, " +
+            "fromLocation, toLocation, basePayCents, tipsCents, extraExpensesCents" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     public boolean saveDelivery(deliveryDataService form, long jobsId) {
-        String sql = "INSERT INTO deliveryData(" +
-                "startTime, endTime, miles, basePay, extraExpenses, platform, " +
-                "totalTimeSpent, timeSpentWaiting, resturant, jobsTableId, tips, " +
-                "fromLocation, toLocation" +
-                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return saveDelivery(deliveryRecord.from(form), jobsId);
+    }
 
+    /**
+     * Saves one delivery and its heatmap and rollup updates in one transaction.
+     * @param delivery The delivery to save
+     * @param jobsId   The work period the delivery belongs to
+     * @return true if saved
+     */
+    public boolean saveDelivery(deliveryRecord delivery, long jobsId) {
         try {
-            jdbcTemplate.update(sql,
-                    form.getDateTimeStart(),
-                    form.getDateTimeEnd(),
-                    form.getMilesDriven(),
-                    form.getBasePay(),
-                    form.getExpenses(),
-                    form.getPlatform(),
-                    form.getTotalTimeSpent(), // Now calculated from start/end times
-                    form.getMinutesSpentWaitingAtResturant(),
-                    form.getRestaurant(),
-                    jobsId,
-                    form.getTips(),
-                    form.getFromAddressfromAdress(),
-                    form.getToAddressfromAdress()
-            );
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_SQL, insertArgs(delivery, jobsId));
+                List<deliveryHeatmapDAO.DeliveryFact> facts = List.of(new deliveryHeatmapDAO.DeliveryFact(
+                        delivery.getDateTimeStart(), delivery.getBasePay(), delivery.getTips(),
+                        delivery.getMinutesSpentWaitingAtResturant(), delivery.getMilesDriven(), delivery.getPlatform()));
+                heatmapDAO.recordDeliveries(jobsId, facts);
+                rollupDAO.recordDeliveries(jobsId, facts);
+            });
+            invalidateDeliveryAggregates(jobsId);
             return true;
         } catch (Exception e) {
             System.out.println("Error saving delivery: " + e.getMessage());
@@ -58,6 +71,218 @@ public class deliveryDataServiceDAO {
         }
     }
 
+    /**
+     * Saves many deliveries for one work period in a single transaction with one JDBC batch.
+     *
+     * Rows that fail validateDelivery are reported and skipped. If the batch itself is rejected
+     * by the database, it is rolled back to a savepoint and the valid rows are retried one by one,
+     * so a single bad row is reported instead of failing the whole import.
+     *
+     * @param forms  The deliveries to save, in input order
+     * @param jobsId The work period the deliveries belong to
+     * @return BatchSaveResult with the number saved and the failures by input index
+     */
+    public BatchSaveResult saveDeliveries(List<deliveryDataService> forms, long jobsId) {
+        List<deliveryRecord> deliveries = new ArrayList<>(forms.size());
+        for (deliveryDataService form : forms) {
+            deliveries.add(deliveryRecord.from(form));
+        }
+        return saveDeliveryRecords(deliveries, jobsId);
+    }
+
+    /**
+     * Same as saveDeliveries, for deliveries that are already immutable records.
+     * @param forms  The deliveries to save, in input order
+     * @param jobsId The work period the deliveries belong to
+     * @return BatchSaveResult with the number saved and the failures by input index
+     */
+    public BatchSaveResult saveDeliveryRecords(List<deliveryRecord> forms, long jobsId) {
+        return saveDeliveryGroups(Collections.singletonMap(jobsId, forms)).get(jobsId);
+    }
+
+    /**
+     * Saves the deliveries of several work periods in a single transaction: one JDBC batch for all
+     * rows, then one heatmap and one rollup batch. Validation and the row-by-row retry after a
+     * rejected batch work as in saveDeliveries.
+     *
+     * @param formsByJob The deliveries to save by work period, each list in input order
+     * @return BatchSaveResult per work period, with failures by index in that work period's list
+     */
+    public Map<Long, BatchSaveResult> saveDeliveryGroups(Map<Long, List<deliveryRecord>> formsByJob) {
+        Map<Long, BatchSaveResult> results = new LinkedHashMap<>();
+        List<PendingRow> validRows = new ArrayList<>();
+        formsByJob.forEach((jobsId, forms) -> {
+            BatchSaveResult result = new BatchSaveResult(forms.size());
+            results.put(jobsId, result);
+            for (int i = 0; i < forms.size(); i++) {
+                deliveryRecord form = forms.get(i);
+                String error = form == null ? "Delivery is empty." : form.validateDelivery();
+                if (error != null) {
+                    result.addFailure(i, error);
+                } else {
+                    validRows.add(new PendingRow(jobsId, i, form));
+                }
+            }
+        });
+        if (validRows.isEmpty()) {
+            return results;
+        }
+
+        GroupOutcome committed;
+        try {
+            committed = transactionTemplate.execute(status -> {
+                GroupOutcome outcome = new GroupOutcome();
+                Object batchSavepoint = status.createSavepoint();
+                try {
+                    List<Object[]> batch = new ArrayList<>(validRows.size());
+                    for (PendingRow row : validRows) {
+                        batch.add(insertArgs(row.form, row.jobsId));
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    status.releaseSavepoint(batchSavepoint);
+                    outcome.saved.addAll(validRows);
+                } catch (RuntimeException batchError) {
+                    status.rollbackToSavepoint(batchSavepoint);
+                    for (PendingRow row : validRows) {
+                        Object rowSavepoint = status.createSavepoint();
+                        try {
+                            jdbcTemplate.update(INSERT_SQL, insertArgs(row.form, row.jobsId));
+                            status.releaseSavepoint(rowSavepoint);
+                            outcome.saved.add(row);
+                        } catch (RuntimeException rowError) {
+                            status.rollbackToSavepoint(rowSavepoint);
+                            outcome.rejected.put(row, rowError.getMessage());
+                        }
+                    }
+                }
+
+                Map<Long, List<deliveryHeatmapDAO.DeliveryFact>> factsByJob = new LinkedHashMap<>();
+                for (PendingRow row : outcome.saved) {
+                    deliveryRecord form = row.form;
+                    factsByJob.computeIfAbsent(row.jobsId, k -> new ArrayList<>()).add(new deliveryHeatmapDAO.DeliveryFact(
+                            form.getDateTimeStart(), form.getBasePay(), form.getTips(),
+                            form.getMinutesSpentWaitingAtResturant(), form.getMilesDriven(), form.getPlatform()));
+                }
+                heatmapDAO.recordDeliveries(factsByJob);
+                rollupDAO.recordDeliveries(factsByJob);
+                return outcome;
+            });
+        } catch (Exception e) {
+            // Nothing was committed, so every valid row failed with the transaction
+            System.out.println("Error saving delivery batch: " + e.getMessage());
+            e.printStackTrace();
+            for (PendingRow row : validRows) {
+                results.get(row.jobsId).addFailure(row.index, e.getMessage());
+            }
+            results.values().forEach(result -> result.failures.sort(Comparator.comparingInt(RowFailure::getIndex)));
+            return results;
+        }
+
+        // Only counted once the transaction has committed
+        for (PendingRow row : committed.saved) {
+            results.get(row.jobsId).savedCount++;
+        }
+        committed.rejected.forEach((row, message) -> results.get(row.jobsId).addFailure(row.index, message));
+        results.forEach((jobsId, result) -> {
+            if (result.savedCount > 0) {
+                invalidateDeliveryAggregates(jobsId);
+            }
+            result.failures.sort(Comparator.comparingInt(RowFailure::getIndex));
+        });
+        return results;
+    }
+
+    /**
+     * Drops the cached delivery totals of the user who owns the work period.
+     */
+    private void invalidateDeliveryAggregates(long jobsId) {
+        jdbcTemplate.queryForList("SELECT userId FROM JobsTable WHERE jobsId = ? AND userId IS NOT NULL", Integer.class, jobsId)
+                .forEach(userId -> aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.DELIVERIES));
+    }
+
+    private static Object[] insertArgs(deliveryRecord form, long jobsId) {
+        return new Object[]{
+                form.getDateTimeStart(),
+                form.getDateTimeEnd(),
+                form.getMilesDriven(),
+                form.getBasePay(),
+                form.getExpenses(),
+                form.getPlatform(),
+                form.getTotalTimeSpent(), // Now calculated from start/end times
+                form.getMinutesSpentWaitingAtResturant(),
+                form.getRestaurant(),
+                jobsId,
+                form.getTips(),
+                form.getFromAddress(),
+                form.getToAddress(),
+                Money.toCents(form.getBasePay()),
+                Money.toCents(form.getTips()),
+                Money.toCents(form.getExpenses())
+        };
+    }
+
+    /**
+     * Outcome of saveDeliveries: how many rows were stored and why the others were not.
+     */
+    public static class BatchSaveResult {
+        private final int totalCount;
+        private int savedCount;
+        private final List<RowFailure> failures = new ArrayList<>();
+
+        public BatchSaveResult(int totalCount) {
+            this.totalCount = totalCount;
+        }
+
+        void addFailure(int index, String message) {
+            failures.add(new RowFailure(index, message));
+        }
+
+        public int getTotalCount() { return totalCount; }
+        public int getSavedCount() { return savedCount; }
+        public int getFailedCount() { return failures.size(); }
+        public List<RowFailure> getFailures() { return failures; }
+        public boolean isFullySaved() { return failures.isEmpty(); }
+    }
+
+    /**
+     * A valid delivery waiting to be inserted, with its work period and index in that period's list.
+     */
+    private static final class PendingRow {
+        private final long jobsId;
+        private final int index;
+        private final deliveryRecord form;
+
+        PendingRow(long jobsId, int index, deliveryRecord form) {
+            this.jobsId = jobsId;
+            this.index = index;
+            this.form = form;
+        }
+    }
+
+    /**
+     * What the save transaction inserted and refused, applied to the results once it has committed.
+     */
+    private static final class GroupOutcome {
+        private final List<PendingRow> saved = new ArrayList<>();
+        private final Map<PendingRow, String> rejected = new LinkedHashMap<>();
+    }
+
+    /**
+     * A delivery that was not saved, by its index in the submitted list.
+     */
+    public static class RowFailure {
+        private final int index;
+        private final String message;
+
+        public RowFailure(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public String getMessage() { return message; }
+    }
+
 
 }
 
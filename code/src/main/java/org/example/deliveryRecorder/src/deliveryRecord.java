@@ -0,0 +1,205 @@
+package org.example.deliveryRecorder.src;
+
+/**
+ * One delivery as an immutable value, built with {@link Builder}.
+ *
+ * This is what the work period service and the DAO save. Unlike the deliveryDataService form,
+ * a record can be handed between threads and sessions without anyone changing it underneath.
+ */
+public final class deliveryRecord {
+
+    private final long dateTimeStart;
+    private final long dateTimeEnd;
+    private final int milesDriven;
+    private final float basePay;
+    private final float tips;
+    private final float expenses;
+    private final String platform;
+    private final String restaurant;
+    private final String fromAddress;
+    private final String toAddress;
+    private final int minutesSpentWaitingAtResturant;
+    private final int totalTimeSpent;
+
+    private deliveryRecord(Builder builder) {
+        this.dateTimeStart = builder.dateTimeStart;
+        this.dateTimeEnd = builder.dateTimeEnd;
+        this.milesDriven = builder.milesDriven;
+        this.basePay = builder.basePay;
+        this.tips = builder.tips;
+        this.expenses = builder.expenses;
+        this.platform = builder.platform;
+        this.restaurant = builder.restaurant;
+        this.fromAddress = builder.fromAddress;
+        this.toAddress = builder.toAddress;
+        this.minutesSpentWaitingAtResturant = builder.minutesSpentWaitingAtResturant;
+        this.totalTimeSpent = builder.totalTimeSpent;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copies the current values of a delivery form.
+     * @param form The form, as bound from the GUI or a request body
+     * @return a record with the same values, or null if form is null
+     */
+    public static deliveryRecord from(deliveryDataService form) {
+        if (form == null) {
+            return null;
+        }
+        return builder()
+                .dateTimeStart(form.getDateTimeStart())
+                .dateTimeEnd(form.getDateTimeEnd())
+                .milesDriven(form.getMilesDriven())
+                .basePay(form.getBasePay())
+                .tips(form.getTips())
+                .expenses(form.getExpenses())
+                .platform(form.getPlatform())
+                .restaurant(form.getRestaurant())
+                .fromAddress(form.getFromAddressfromAdress())
+                .toAddress(form.getToAddressfromAdress())
+                .minutesSpentWaitingAtResturant(form.getMinutesSpentWaitingAtResturant())
+                .totalTimeSpent(form.getTotalTimeSpent())
+                .build();
+    }
+
+    /**
+     * Validates the delivery data with the same rules as deliveryDataService.
+     * @return A string containing the error message, or null if valid.
+     */
+    public String validateDelivery() {
+        if (milesDriven < 0) {
+            return "Miles driven cannot be negative.";
+        }
+        if (basePay < 0) {
+            return "Base pay cannot be negative.";
+        }
+        if (platform == null || platform.trim().isEmpty()) {
+            return "Platform (e.g., UberEats, DoorDash) is required.";
+        }
+        if (restaurant == null || restaurant.trim().isEmpty()) {
+            return "Restaurant name is required.";
+        }
+        return null;
+    }
+
+    public long getDateTimeStart() { return dateTimeStart; }
+    public long getDateTimeEnd() { return dateTimeEnd; }
+    public int getMilesDriven() { return milesDriven; }
+    public float getBasePay() { return basePay; }
+    public float getTips() { return tips; }
+    public float getExpenses() { return expenses; }
+    public String getPlatform() { return platform; }
+    public String getRestaurant() { return restaurant; }
+    public String getFromAddress() { return fromAddress; }
+    public String getToAddress() { return toAddress; }
+    public int getMinutesSpentWaitingAtResturant() { return minutesSpentWaitingAtResturant; }
+
+    /**
+     * Total time spent in minutes, from the start and end timestamps when both are valid.
+     * @return minutes between start and end, or the explicitly set total otherwise
+     */
+    public int getTotalTimeSpent() {
+        if (dateTimeStart <= 0 || dateTimeEnd <= 0 || dateTimeEnd <= dateTimeStart) {
+            return totalTimeSpent;
+        }
+        return (int) ((dateTimeEnd - dateTimeStart) / (1000 * 60));
+    }
+
+    @Override
+    public String toString() {
+        return "deliveryRecord{restaurant=" + restaurant + ", platform=" + platform +
+                ", basePay=" + basePay + ", tips=" + tips + ", miles=" + milesDriven +
+                ", start=" + dateTimeStart + ", end=" + dateTimeEnd + "}";
+    }
+
+    /**
+     * Collects the values of a deliveryRecord. Builders are not thread safe; the records they build are.
+     */
+    public static final class Builder {
+        private long dateTimeStart;
+        private long dateTimeEnd;
+        private int milesDriven;
+        private float basePay;
+        private float tips;
+        private float expenses;
+        private String platform;
+        private String restaurant;
+        private String fromAddress;
+        private String toAddress;
+        private int minutesSpentWaitingAtResturant;
+        private int totalTimeSpent;
+
+        private Builder() {
+        }
+
+        public Builder dateTimeStart(long dateTimeStart) {
+            this.dateTimeStart = dateTimeStart;
+            return this;
+        }
+
+        public Builder dateTimeEnd(long dateTimeEnd) {
+            this.dateTimeEnd = dateTimeEnd;
+            return this;
+        }
+
+        public Builder milesDriven(int milesDriven) {
+            this.milesDriven = milesDriven;
+            return this;
+        }
+
+        public Builder basePay(float basePay) {
+            this.basePay = basePay;
+            return this;
+        }
+
+        public Builder tips(float tips) {
+            this.tips = tips;
+            return this;
+        }
+
+        public Builder expenses(float expenses) {
+            this.expenses = expenses;
+            return this;
+        }
+
+        public Builder platform(String platform) {
+            this.platform = platform;
+            return this;
+        }
+
+        public Builder restaurant(String restaurant) {
+            this.restaurant = restaurant;
+            return this;
+        }
+
+        public Builder fromAddress(String fromAddress) {
+            this.fromAddress = fromAddress;
+            return this;
+        }
+
+        public Builder toAddress(String toAddress) {
+            this.toAddress = toAddress;
+            return this;
+        }
+
+        public Builder minutesSpentWaitingAtResturant(int minutes) {
+            this.minutesSpentWaitingAtResturant = minutes;
+            return this;
+        }
+
+        /**
+         * Used only when the start or end timestamp is missing.
+         */
+        public Builder totalTimeSpent(int minutes) {
+            this.totalTimeSpent = minutes;
+            return this;
+        }
+
+        public deliveryRecord build() {
+            return new deliveryRecord(this);
+        }
+    }
+}
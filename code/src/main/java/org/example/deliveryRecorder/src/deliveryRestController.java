@@ -0,0 +1,41 @@
+package org.example.deliveryRecorder.src;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/deliveries")
+public class deliveryRestController {
+
+    @Autowired
+    private deliveryDataServiceDAO deliveryDAO;
+
+    /**
+     * POST /api/deliveries/batch
+     * Saves a list of deliveries for one work period in a single transaction.
+     *
+     * @param jobsId     The work period the deliveries belong to
+     * @param deliveries The deliveries to save
+     * @return 200 when every row was saved, 207 when some rows failed, 400 when none were saved.
+     *         The body lists the failed rows by index.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<deliveryDataServiceDAO.BatchSaveResult> saveDeliveries(
+            @RequestParam long jobsId,
+            @RequestBody List<deliveryDataService> deliveries) {
+
+        deliveryDataServiceDAO.BatchSaveResult result = deliveryDAO.saveDeliveries(deliveries, jobsId);
+
+        if (result.isFullySaved()) {
+            return ResponseEntity.ok(result);
+        } else if (result.getSavedCount() > 0) {
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+        } else {
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 
 package org.example.deliveryRecorder.src;
 
+import org.example.KeysetPage;
+import org.example.UserAggregateCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -15,9 +17,13 @@ public class overviewService {
 
     private final overviewServiceDAO overviewDAO;
 
+    // Dashboard totals are re-read on every refresh; writes to deliveryData invalidate them
+    private final UserAggregateCache aggregateCache;
+
     @Autowired
-    public overviewService(overviewServiceDAO overviewDAO) {
+    public overviewService(overviewServiceDAO overviewDAO, UserAggregateCache aggregateCache) {
         this.overviewDAO = overviewDAO;
+        this.aggregateCache = aggregateCache;
     }
 
     // --- Work Period Retrieval ---
@@ -50,18 +56,42 @@ public class overviewService {
         return overviewDAO.findFullOverviewByUserId(userId);
     }
 
+    /**
+     * Gets one page of a user's deliveries for the paged deliveries table.
+     */
+    public KeysetPage<OverviewDTO> getOverviewPage(int userId, KeysetPage.Query query) {
+        return overviewDAO.findOverviewPage(userId, query);
+    }
+
+    /**
+     * Counts a user's deliveries matching the deliveries table filter.
+     */
+    public int countOverview(int userId, String filter) {
+        return overviewDAO.countOverview(userId, filter);
+    }
+
+    /**
+     * Gets a user's deliveries summed per day, restaurant, platform and vehicle.
+     */
+    public List<DeliveryRollup> getDeliveryRollup(int userId) {
+        return overviewDAO.findDeliveryRollup(userId);
+    }
+
     // --- Aggregate Queries ---
 
     public double getTotalEarningsByUser(int userId) {
-        return overviewDAO.calculateTotalEarnings(userId);
+        return aggregateCache.get(userId, UserAggregateCache.Aggregate.TOTAL_EARNINGS,
+                () -> overviewDAO.calculateTotalEarnings(userId));
     }
 
     public int getTotalDeliveriesByUser(int userId) {
-        return overviewDAO.countDeliveriesByUserId(userId);
+        return aggregateCache.get(userId, UserAggregateCache.Aggregate.DELIVERY_COUNT,
+                () -> overviewDAO.countDeliveriesByUserId(userId));
     }
 
     public int getTotalMilesByUser(int userId) {
-        return overviewDAO.calculateTotalMiles(userId);
+        return aggregateCache.get(userId, UserAggregateCache.Aggregate.TOTAL_MILES,
+                () -> overviewDAO.calculateTotalMiles(userId));
     }
 
     // --- DTO for combined view ---
@@ -107,4 +137,42 @@ public class overviewService {
         public String getVehicle() { return vehicle; }
         public int getWorkPeriodId() { return workPeriodId; }
     }
+
+    // --- DTO for dashboard totals ---
+
+    /**
+     * Deliveries of one local day with the same restaurant, platform and vehicle, summed.
+     */
+    public static class DeliveryRollup {
+        private final String day;
+        private final String restaurant;
+        private final String platform;
+        private final String vehicle;
+        private final int deliveryCount;
+        private final long miles;
+        private final double basePay;
+        private final double tips;
+
+        public DeliveryRollup(String day, String restaurant, String platform, String vehicle,
+                              int deliveryCount, long miles, double basePay, double tips) {
+            this.day = day;
+            this.restaurant = restaurant;
+            this.platform = platform;
+            this.vehicle = vehicle;
+            this.deliveryCount = deliveryCount;
+            this.miles = miles;
+            this.basePay = basePay;
+            this.tips = tips;
+        }
+
+        /** Local date as yyyy-MM-dd, or null if the deliveries have no start time. */
+        public String getDay() { return day; }
+        public String getRestaurant() { return restaurant; }
+        public String getPlatform() { return platform; }
+        public String getVehicle() { return vehicle; }
+        public int getDeliveryCount() { return deliveryCount; }
+        public long getMiles() { return miles; }
+        public double getBasePay() { return basePay; }
+        public double getTips() { return tips; }
+    }
 }
\ No newline at end of file
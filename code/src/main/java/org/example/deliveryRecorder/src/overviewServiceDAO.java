@@ -1,13 +1,17 @@
 package org.example.deliveryRecorder.src;
 
+import org.example.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for read-only access to combined delivery and work period data.
@@ -15,23 +19,24 @@ import java.util.List;
 @Repository
 public class overviewServiceDAO {
 
-    private final JdbcTemplate jdbcTemplate;
+    // All overview queries are read-only and run on the reader pool
+    private final JdbcTemplate readJdbcTemplate;
 
     @Autowired
-    public overviewServiceDAO(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public overviewServiceDAO(@Qualifier("readJdbcTemplate") JdbcTemplate readJdbcTemplate) {
+        this.readJdbcTemplate = readJdbcTemplate;
     }
 
     // --- Work Period Queries ---
 
     public List<workPeriodService> findAllWorkPeriodsByUserId(int userId) {
         String sql = "SELECT * FROM JobsTable WHERE userId = ? ORDER BY startTime DESC";
-        return jdbcTemplate.query(sql, new WorkPeriodRowMapper(), userId);
+        return readJdbcTemplate.query(sql, new WorkPeriodRowMapper(), userId);
     }
 
     public workPeriodService findWorkPeriodById(int workPeriodId) {
         String sql = "SELECT * FROM JobsTable WHERE jobsId = ?";
-        return jdbcTemplate.queryForObject(sql, new WorkPeriodRowMapper(), workPeriodId);
+        return readJdbcTemplate.queryForObject(sql, new WorkPeriodRowMapper(), workPeriodId);
     }
 
     // --- Delivery Data Queries ---
@@ -42,39 +47,157 @@ public class overviewServiceDAO {
             "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
             "WHERE j.userId = ? " +
             "ORDER BY d.startTime DESC";
-        return jdbcTemplate.query(sql, new DeliveryDataRowMapper(), userId);
+        return readJdbcTemplate.query(sql, new DeliveryDataRowMapper(), userId);
     }
 
     public List<deliveryDataService> findDeliveriesByWorkPeriodId(int workPeriodId) {
         String sql = "SELECT * FROM deliveryData WHERE jobsTableId = ? ORDER BY startTime DESC";
-        return jdbcTemplate.query(sql, new DeliveryDataRowMapper(), workPeriodId);
+        return readJdbcTemplate.query(sql, new DeliveryDataRowMapper(), workPeriodId);
     }
 
     public deliveryDataService findDeliveryById(int deliveryId) {
         // SQLite uses deliveryDataID as the primary key column
         String sql = "SELECT * FROM deliveryData WHERE deliveryDataID = ?";
-        return jdbcTemplate.queryForObject(sql, new DeliveryDataRowMapper(), deliveryId);
+        return readJdbcTemplate.queryForObject(sql, new DeliveryDataRowMapper(), deliveryId);
     }
 
     // --- Combined Overview Query ---
 
     public List<overviewService.OverviewDTO> findFullOverviewByUserId(int userId) {
-        String sql = "SELECT d.deliveryDataID, d.fromLocation, d.toLocation, d.resturant, d.platform, " +
+        // The primary key column is named differently between databases, the rowid is always there
+        String sql = "SELECT d.rowid AS deliveryDataID, d.fromLocation, d.toLocation, d.resturant, d.platform, " +
             "d.basePay, d.tips, d.miles, d.startTime, j.vehicle, d.jobsTableId " +
             "FROM deliveryData d " +
             "LEFT JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
             "WHERE j.userId = ? " +
             "ORDER BY d.startTime DESC";
-        return jdbcTemplate.query(sql, new OverviewDTORowMapper(), userId);
+        return readJdbcTemplate.query(sql, new OverviewDTORowMapper(), userId);
+    }
+
+    // --- Paged Overview Queries ---
+
+    // Sortable columns of the deliveries table. NULLs are coalesced so the keyset comparison
+    // in KeysetPage always has a value to compare against.
+    private static final Map<String, String> OVERVIEW_SORT_COLUMNS = Map.of(
+            "date", "COALESCE(d.startTime, 0)",
+            "restaurant", "COALESCE(d.resturant, '')",
+            "platform", "COALESCE(d.platform, '')",
+            "vehicle", "COALESCE(j.vehicle, '')",
+            "miles", "COALESCE(d.miles, 0)",
+            "basePay", "COALESCE(d.basePay, 0)",
+            "tips", "COALESCE(d.tips, 0)",
+            "total", "(COALESCE(d.basePay, 0) + COALESCE(d.tips, 0))"
+    );
+
+    private static final String OVERVIEW_PAGE_FROM = "FROM deliveryData d " +
+            "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
+            "WHERE j.userId = ?";
+
+    private static final String OVERVIEW_FILTER = " AND (d.resturant LIKE ? ESCAPE '\\' " +
+            "OR d.platform LIKE ? ESCAPE '\\' OR j.vehicle LIKE ? ESCAPE '\\')";
+
+    /**
+     * Counts a user's deliveries that match a filter.
+     * @param userId The user ID
+     * @param filter Text to look for in restaurant, platform or vehicle, or null for all
+     * @return Number of matching deliveries
+     */
+    public int countOverview(int userId, String filter) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) ").append(OVERVIEW_PAGE_FROM);
+        args.add(userId);
+        appendOverviewFilter(sql, args, filter);
+        Integer count = readJdbcTemplate.queryForObject(sql.toString(), Integer.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Reads one page of a user's deliveries, sorted and filtered in SQL.
+     * The deliveryId of each row is its rowid.
+     * @param userId The user ID
+     * @param query  Sort column (date, restaurant, platform, vehicle, miles, basePay, tips or total),
+     *               filter and page position
+     * @return The page and the cursor to continue after it
+     */
+    public KeysetPage<overviewService.OverviewDTO> findOverviewPage(int userId, KeysetPage.Query query) {
+        String sortExpression = query.sortExpression(OVERVIEW_SORT_COLUMNS, "date");
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT d.rowid AS pageRowId, ").append(sortExpression)
+                .append(" AS sortValue, d.fromLocation, d.toLocation, d.resturant, d.platform, ")
+                .append("d.basePay, d.tips, d.miles, d.startTime, j.vehicle, d.jobsTableId ")
+                .append(OVERVIEW_PAGE_FROM);
+        args.add(userId);
+        appendOverviewFilter(sql, args, query.getFilter());
+        query.appendPage(sql, args, sortExpression, "d.rowid");
+
+        List<KeysetPage.Cursor> last = new ArrayList<>(1);
+        List<overviewService.OverviewDTO> rows = readJdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            last.clear();
+            last.add(new KeysetPage.Cursor(rs.getObject("sortValue"), rs.getLong("pageRowId")));
+            return new overviewService.OverviewDTO(
+                    (int) rs.getLong("pageRowId"),
+                    rs.getString("fromLocation"),
+                    rs.getString("toLocation"),
+                    rs.getString("resturant"),
+                    rs.getString("platform"),
+                    rs.getFloat("basePay"),
+                    rs.getFloat("tips"),
+                    rs.getInt("miles"),
+                    rs.getLong("startTime"),
+                    rs.getString("vehicle"),
+                    rs.getInt("jobsTableId")
+            );
+        }, args.toArray());
+        return new KeysetPage<>(rows, last.isEmpty() ? null : last.get(0));
+    }
+
+    /**
+     * Sums a user's deliveries per local day, restaurant, platform and vehicle.
+     * The dashboards aggregate these groups instead of every delivery row.
+     * @param userId The user ID
+     * @return One row per group, newest day first
+     */
+    public List<overviewService.DeliveryRollup> findDeliveryRollup(int userId) {
+        String sql = "SELECT date(d.startTime / 1000, 'unixepoch', 'localtime') AS day, " +
+            "d.resturant, d.platform, j.vehicle, COUNT(*) AS deliveryCount, " +
+            "COALESCE(SUM(d.miles), 0) AS miles, COALESCE(SUM(d.basePayCents), 0) / 100.0 AS basePay, " +
+            "COALESCE(SUM(d.tipsCents), 0) / 100.0 AS tips " +
+            "FROM deliveryData d " +
+            "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
+            "WHERE j.userId = ? " +
+            "GROUP BY day, d.resturant, d.platform, j.vehicle " +
+            "ORDER BY day DESC";
+        return readJdbcTemplate.query(sql, (rs, rowNum) -> new overviewService.DeliveryRollup(
+                rs.getString("day"),
+                rs.getString("resturant"),
+                rs.getString("platform"),
+                rs.getString("vehicle"),
+                rs.getInt("deliveryCount"),
+                rs.getLong("miles"),
+                rs.getDouble("basePay"),
+                rs.getDouble("tips")
+        ), userId);
+    }
+
+    private static void appendOverviewFilter(StringBuilder sql, List<Object> args, String filter) {
+        if (filter == null || filter.trim().isEmpty()) {
+            return;
+        }
+        String pattern = KeysetPage.likePattern(filter.trim());
+        sql.append(OVERVIEW_FILTER);
+        args.add(pattern);
+        args.add(pattern);
+        args.add(pattern);
     }
 
     // --- Aggregate Queries ---
 
     public double calculateTotalEarnings(int userId) {
-        String sql = "SELECT COALESCE(SUM(d.basePay + d.tips), 0) FROM deliveryData d " +
+        // Summed as integer cents so the total is exact
+        String sql = "SELECT COALESCE(SUM(d.basePayCents + d.tipsCents), 0) / 100.0 FROM deliveryData d " +
             "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
             "WHERE j.userId = ?";
-        Double result = jdbcTemplate.queryForObject(sql, Double.class, userId);
+        Double result = readJdbcTemplate.queryForObject(sql, Double.class, userId);
         return result != null ? result : 0.0;
     }
 
@@ -82,7 +205,7 @@ public class overviewServiceDAO {
         String sql = "SELECT COUNT(*) FROM deliveryData d " +
             "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
             "WHERE j.userId = ?";
-        Integer result = jdbcTemplate.queryForObject(sql, Integer.class, userId);
+        Integer result = readJdbcTemplate.queryForObject(sql, Integer.class, userId);
         return result != null ? result : 0;
     }
 
@@ -90,7 +213,7 @@ public class overviewServiceDAO {
         String sql = "SELECT COALESCE(SUM(d.miles), 0) FROM deliveryData d " +
             "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
             "WHERE j.userId = ?";
-        Integer result = jdbcTemplate.queryForObject(sql, Integer.class, userId);
+        Integer result = readJdbcTemplate.queryForObject(sql, Integer.class, userId);
         return result != null ? result : 0;
     }
 
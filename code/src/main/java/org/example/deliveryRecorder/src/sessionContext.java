@@ -0,0 +1,121 @@
+package org.example.deliveryRecorder.src;
+
+/**
+ * Everything the services need to know about one signed-in driver: who they are and which
+ * work period, if any, is open for them.
+ *
+ * Instances are immutable. Starting or ending a work period returns a new context, so a caller
+ * that serves many drivers keeps one context per driver (per HTTP session, per window, ...)
+ * and the services themselves hold no per-user state.
+ */
+public final class sessionContext {
+
+    private static final sessionContext ANONYMOUS = new sessionContext(-1, null, "user", null);
+
+    private final int userId;
+    private final String username;
+    private final String authorizationLevel;
+    private final ActiveWorkPeriod workPeriod;
+
+    private sessionContext(int userId, String username, String authorizationLevel, ActiveWorkPeriod workPeriod) {
+        this.userId = userId;
+        this.username = username;
+        this.authorizationLevel = authorizationLevel != null ? authorizationLevel : "user";
+        this.workPeriod = workPeriod;
+    }
+
+    /**
+     * The context of a caller that has not logged in.
+     */
+    public static sessionContext anonymous() {
+        return ANONYMOUS;
+    }
+
+    /**
+     * The context of a freshly logged-in user, without an active work period.
+     * @param userId             The user ID from userAccount
+     * @param username           The user name
+     * @param authorizationLevel "admin" or "user"; null is treated as "user"
+     */
+    public static sessionContext forUser(int userId, String username, String authorizationLevel) {
+        return new sessionContext(userId, username, authorizationLevel, null);
+    }
+
+    /**
+     * Returns a copy of this context with the given work period open.
+     */
+    public sessionContext withWorkPeriod(ActiveWorkPeriod workPeriod) {
+        return new sessionContext(userId, username, authorizationLevel, workPeriod);
+    }
+
+    /**
+     * Returns a copy of this context without an active work period.
+     */
+    public sessionContext withoutWorkPeriod() {
+        return workPeriod == null ? this : new sessionContext(userId, username, authorizationLevel, null);
+    }
+
+    public boolean isLoggedIn() {
+        return userId != -1;
+    }
+
+    public boolean hasActiveWorkPeriod() {
+        return workPeriod != null;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getAuthorizationLevel() {
+        return authorizationLevel;
+    }
+
+    /**
+     * @return the active work period, or null if none is open
+     */
+    public ActiveWorkPeriod getWorkPeriod() {
+        return workPeriod;
+    }
+
+    /**
+     * @return the active work period ID, or -1 if none is open
+     */
+    public long getWorkPeriodId() {
+        return workPeriod != null ? workPeriod.getJobsId() : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "sessionContext{userId=" + userId + ", username=" + username +
+                ", authorizationLevel=" + authorizationLevel + ", workPeriod=" + workPeriod + "}";
+    }
+
+    /**
+     * A work period that has been inserted into JobsTable and not yet ended.
+     */
+    public static final class ActiveWorkPeriod {
+        private final long jobsId;
+        private final String vehicle;
+        private final long startTime;
+
+        public ActiveWorkPeriod(long jobsId, String vehicle, long startTime) {
+            this.jobsId = jobsId;
+            this.vehicle = vehicle;
+            this.startTime = startTime;
+        }
+
+        public long getJobsId() { return jobsId; }
+        public String getVehicle() { return vehicle; }
+        public long getStartTime() { return startTime; }
+
+        @Override
+        public String toString() {
+            return "ActiveWorkPeriod{jobsId=" + jobsId + ", vehicle=" + vehicle + ", startTime=" + startTime + "}";
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.deliveryRecorder.src;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -14,10 +15,15 @@ public class vehicleDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
     public vehicle findByModel(String vehicleModel) {
         String sql = "SELECT * FROM vehicle WHERE vehicleName = ?";
         try {
-            return jdbcTemplate.queryForObject(sql, new Object[]{vehicleModel},
+            return readJdbcTemplate.queryForObject(sql, new Object[]{vehicleModel},
                 (ResultSet rs, int rowNum) -> {
                     vehicle v = new vehicle();
                     v.setVehicleType(rs.getString("vehicleType"));
@@ -47,7 +53,7 @@ public class vehicleDAO {
 
     public List<vehicle> findAll() {
         String sql = "SELECT * FROM vehicle";
-        return jdbcTemplate.query(sql,
+        return readJdbcTemplate.query(sql,
             (ResultSet rs, int rowNum) -> {
                 vehicle v = new vehicle();
                 v.setVehicleType(rs.getString("vehicleType"));
@@ -106,7 +112,7 @@ public class vehicleDAO {
     public String getCurrentVehicleDriven(String vehicleModel) {
         String sql = "SELECT currentVehicleDriven FROM vehicle WHERE vehicleName = ?";
         try {
-            return jdbcTemplate.queryForObject(sql, new Object[]{vehicleModel}, String.class);
+            return readJdbcTemplate.queryForObject(sql, new Object[]{vehicleModel}, String.class);
         } catch (EmptyResultDataAccessException e) {
             return null; // Vehicle not found
         }
@@ -121,7 +127,7 @@ public class vehicleDAO {
         // First, try to find a vehicle marked as current (currentVehicleDriven = 'true' or 'yes' or '1')
         String sql = "SELECT * FROM vehicle WHERE currentVehicleDriven = 'true' OR currentVehicleDriven = 'yes' OR currentVehicleDriven = '1' LIMIT 1";
         try {
-            List<vehicle> currentVehicles = jdbcTemplate.query(sql,
+            List<vehicle> currentVehicles = readJdbcTemplate.query(sql,
                 (ResultSet rs, int rowNum) -> {
                     vehicle v = new vehicle();
                     v.setVehicleType(rs.getString("vehicleType"));
@@ -152,7 +158,7 @@ public class vehicleDAO {
         // If no vehicle is marked as current, get the first vehicle and mark it as current
         String firstSql = "SELECT * FROM vehicle LIMIT 1";
         try {
-            List<vehicle> vehicles = jdbcTemplate.query(firstSql,
+            List<vehicle> vehicles = readJdbcTemplate.query(firstSql,
                 (ResultSet rs, int rowNum) -> {
                     vehicle v = new vehicle();
                     v.setVehicleType(rs.getString("vehicleType"));
@@ -9,6 +9,10 @@ import java.util.List;
 /**
  * A class to group multiple deliveries together as a work period containing common information.
  * It manages work period data and can add delivery details to the database.
+ *
+ * The methods that take a sessionContext keep no per-user state in this singleton and are safe
+ * to call for many drivers at once. The fields below are only filled on instances read back from
+ * the database, and by the deprecated single-user methods.
  */
 @Service
 public class workPeriodService {
@@ -27,11 +31,125 @@ public class workPeriodService {
 
     private List<deliveryDataService> deliveries = new ArrayList<>();
 
+    // --- Session based methods ---
+
+    /**
+     * Starts a work period for the session's user.
+     * @param session   The caller's session; must be logged in
+     * @param vehicle   The vehicle being used
+     * @param startTime The start time (epoch milliseconds)
+     * @return a copy of the session with the new work period active, or the session unchanged if
+     *         the user is not logged in or the insert failed
+     */
+    public sessionContext startWorkPeriod(sessionContext session, String vehicle, long startTime) {
+        if (!session.isLoggedIn()) {
+            System.out.println("Error: Cannot start a work period without a logged-in user.");
+            return session;
+        }
+
+        long newJobsId = workPeriodDAO.insertStartedWorkPeriod(session.getUserId(), vehicle, startTime);
+        if (newJobsId == -1) {
+            System.out.println("Failed to create work period.");
+            return session;
+        }
+        System.out.println("Work period created successfully with ID: " + newJobsId);
+        return session.withWorkPeriod(new sessionContext.ActiveWorkPeriod(newJobsId, vehicle, startTime));
+    }
+
+    /**
+     * Adds a delivery to the session's active work period.
+     * @param session  The caller's session
+     * @param delivery The delivery to add
+     * @return true if saved, false if there is no active work period or the delivery is invalid
+     */
+    public boolean addDelivery(sessionContext session, deliveryRecord delivery) {
+        if (!session.hasActiveWorkPeriod()) {
+            System.out.println("Error: Work period must be started first. Call startWorkPeriod().");
+            return false;
+        }
+
+        String validationError = delivery.validateDelivery();
+        if (validationError != null) {
+            System.out.println("Validation Error: " + validationError);
+            return false;
+        }
+
+        if (deliveryDataDAO.saveDelivery(delivery, session.getWorkPeriodId())) {
+            System.out.println("Delivery added to work period ID: " + session.getWorkPeriodId());
+            return true;
+        }
+        System.out.println("Failed to add delivery to database.");
+        return false;
+    }
+
+    /**
+     * Adds many deliveries to the session's active work period in one database transaction.
+     * @param session The caller's session
+     * @param batch   The deliveries to add
+     * @return Per-row outcome of the batch, or null if there is no active work period
+     */
+    public deliveryDataServiceDAO.BatchSaveResult addDeliveries(sessionContext session, List<deliveryRecord> batch) {
+        if (!session.hasActiveWorkPeriod()) {
+            System.out.println("Error: Work period must be started first. Call startWorkPeriod().");
+            return null;
+        }
+
+        deliveryDataServiceDAO.BatchSaveResult result = deliveryDataDAO.saveDeliveryRecords(batch, session.getWorkPeriodId());
+        System.out.println("Batch added " + result.getSavedCount() + " of " + result.getTotalCount() +
+                " deliveries to work period ID: " + session.getWorkPeriodId());
+        return result;
+    }
+
+    /**
+     * Ends the session's active work period, storing its end time and the miles of its deliveries.
+     * @param session The caller's session
+     * @param endTime The end time (epoch milliseconds)
+     * @return a copy of the session without an active work period
+     */
+    public sessionContext endWorkPeriod(sessionContext session, long endTime) {
+        return endWorkPeriod(session, endTime, -1);
+    }
+
+    /**
+     * Ends the session's active work period and stores its end time and total vehicle miles.
+     * @param session    The caller's session
+     * @param endTime    The end time (epoch milliseconds)
+     * @param totalMiles Total miles driven during the period (use -1 to auto-calculate from deliveries)
+     * @return a copy of the session without an active work period
+     */
+    public sessionContext endWorkPeriod(sessionContext session, long endTime, int totalMiles) {
+        sessionContext.ActiveWorkPeriod active = session.getWorkPeriod();
+        if (active == null) {
+            System.out.println("Error: No active work period to end.");
+            return session;
+        }
+
+        long jobsId = active.getJobsId();
+        int miles = totalMiles == -1 ? calculateTotalVehicleMiles(jobsId) : totalMiles;
+        if (!workPeriodDAO.updateWorkPeriodEnd(jobsId, endTime, miles)) {
+            System.out.println("Failed to store the end of work period ID: " + jobsId);
+        }
+        return session.withoutWorkPeriod();
+    }
+
+    /**
+     * Sums the miles of all deliveries in a work period without touching this instance.
+     * @param targetJobId the jobId to calculate miles for
+     * @return the total miles, or 0 if no deliveries found
+     */
+    public int calculateTotalVehicleMiles(long targetJobId) {
+        return workPeriodDAO.sumMilesByJobId(targetJobId);
+    }
+
+    // --- Single-user methods ---
+
     /**
      * Creates a new work period in the database for the specified user and stores the generated ID.
      * @param userId the user to associate the work period with
      * @return The generated jobsId, or -1 if failed
+     * @deprecated keeps the work period in this shared instance; use {@link #startWorkPeriod(sessionContext, String, long)}
      */
+    @Deprecated
     public long createWorkPeriod(int userId) {
         this.jobsId = workPeriodDAO.insertWorkPeriod(this, userId);
         if (jobsId != -1) {
@@ -46,7 +164,9 @@ public class workPeriodService {
      * Adds a new delivery to this work period.
      * @param delivery The delivery details to add
      * @return true if successful, false otherwise
+     * @deprecated uses the work period kept in this shared instance; use {@link #addDelivery(sessionContext, deliveryRecord)}
      */
+    @Deprecated
     public boolean addDelivery(deliveryDataService delivery) {
         if (jobsId == -1) {
             System.out.println("Error: Work period must be created first. Call createWorkPeriod().");
@@ -69,6 +189,26 @@ public class workPeriodService {
         }
     }
 
+    /**
+     * Adds many deliveries to this work period in one database transaction.
+     * Unlike addDelivery, the saved deliveries are not kept in memory.
+     * @param batch The deliveries to add
+     * @return Per-row outcome of the batch, or null if no work period has been created
+     * @deprecated uses the work period kept in this shared instance; use {@link #addDeliveries(sessionContext, List)}
+     */
+    @Deprecated
+    public deliveryDataServiceDAO.BatchSaveResult addDeliveries(List<deliveryDataService> batch) {
+        if (jobsId == -1) {
+            System.out.println("Error: Work period must be created first. Call createWorkPeriod().");
+            return null;
+        }
+
+        deliveryDataServiceDAO.BatchSaveResult result = deliveryDataDAO.saveDeliveries(batch, jobsId);
+        System.out.println("Batch added " + result.getSavedCount() + " of " + result.getTotalCount() +
+                " deliveries to work period ID: " + jobsId);
+        return result;
+    }
+
     public void deleteWorkPeriod() {
         if (jobsId != -1) {
             workPeriodDAO.deleteWorkPeriod(jobsId);
@@ -1,13 +1,19 @@
 package org.example.deliveryRecorder.src;
 
+import org.example.UserAggregateCache;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.List;
 
 @Repository
 public class workPeriodServiceDAO {
@@ -15,6 +21,23 @@ public class workPeriodServiceDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private deliveryHeatmapDAO heatmapDAO;
+
+    @Autowired
+    private deliveryRollupDAO rollupDAO;
+
+    @Autowired
+    private UserAggregateCache aggregateCache;
+
     /**
      * Inserts a new work period into the jobsTable.
      * @param workPeriod The workPeriodService object containing work period details
@@ -44,6 +67,92 @@ public class workPeriodServiceDAO {
         }
     }
 
+    /**
+     * Inserts a work period that has just started, so it has no end time or miles yet.
+     * @param userId    The user the work period belongs to
+     * @param vehicle   The vehicle driven
+     * @param startTime Start of the work period in epoch milliseconds
+     * @return The auto-generated job ID, or -1 if insertion failed
+     */
+    public long insertStartedWorkPeriod(int userId, String vehicle, long startTime) {
+        String sql = "INSERT INTO JobsTable (userId, startTime, vehicle) VALUES (?, ?, ?)";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                ps.setInt(1, userId);
+                ps.setLong(2, startTime);
+                ps.setString(3, vehicle);
+                return ps;
+            }, keyHolder);
+
+            Number generatedId = keyHolder.getKey();
+            return generatedId != null ? generatedId.longValue() : -1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Inserts a work period for imported history, which has no vehicle or odometer reading.
+     * @param userId    The user the work period belongs to
+     * @param startTime Start of the work period in epoch milliseconds
+     * @param endTime   End of the work period in epoch milliseconds
+     * @return The auto-generated job ID, or -1 if insertion failed
+     */
+    public long insertImportedWorkPeriod(int userId, long startTime, long endTime) {
+        String sql = "INSERT INTO JobsTable (userId, startTime, endTime) VALUES (?, ?, ?)";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                ps.setInt(1, userId);
+                ps.setLong(2, startTime);
+                ps.setLong(3, endTime);
+                return ps;
+            }, keyHolder);
+
+            Number generatedId = keyHolder.getKey();
+            return generatedId != null ? generatedId.longValue() : -1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Sets the start and end time of a work period, leaving vehicle details untouched.
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateWorkPeriodTimes(long jobId, long startTime, long endTime) {
+        String sql = "UPDATE JobsTable SET startTime=?, endTime=? WHERE jobsId=?";
+        try {
+            return jdbcTemplate.update(sql, startTime, endTime, jobId) == 1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Closes a work period: sets its end time and the vehicle miles driven during it.
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateWorkPeriodEnd(long jobId, long endTime, int totalVehicleMiles) {
+        String sql = "UPDATE JobsTable SET endTime=?, totalVehicleMiles=? WHERE jobsId=?";
+        try {
+            return jdbcTemplate.update(sql, endTime, totalVehicleMiles, jobId) == 1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Updates an existing work period record.
      * @param jobId The ID of the work period to update
@@ -75,9 +184,11 @@ public class workPeriodServiceDAO {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteWorkPeriod(long jobId) {
-        String sql = "DELETE FROM JobsTable WHERE id = ?";
+        String sql = "DELETE FROM JobsTable WHERE jobsId = ?";
         try {
+            List<Integer> owners = ownerOf(jobId);
             int rows = jdbcTemplate.update(sql, jobId);
+            owners.forEach(userId -> aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.DELIVERIES));
             return rows == 1;
         } catch (Exception e) {
             e.printStackTrace();
@@ -92,24 +203,39 @@ public class workPeriodServiceDAO {
                 ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try {
-            int rows = jdbcTemplate.update(sql,
-                    form.getDateTimeStart(),
-                    form.getMilesDriven(),
-                    form.getBasePay(),
-                    form.getExpenses(),
-                    form.getPlatform(),
-                    form.getTotalTimeSpent(),
-                    form.getMinutesSpentWaitingAtResturant(),
-                    form.getRestaurant(),
-                    jobsId
-            );
-            return rows == 1;
+            Integer rows = transactionTemplate.execute(status -> {
+                int inserted = jdbcTemplate.update(sql,
+                        form.getDateTimeStart(),
+                        form.getMilesDriven(),
+                        form.getBasePay(),
+                        form.getExpenses(),
+                        form.getPlatform(),
+                        form.getTotalTimeSpent(),
+                        form.getMinutesSpentWaitingAtResturant(),
+                        form.getRestaurant(),
+                        jobsId
+                );
+                // This insert does not store tips, so the heatmap and rollups must not count them either
+                List<deliveryHeatmapDAO.DeliveryFact> facts = List.of(new deliveryHeatmapDAO.DeliveryFact(
+                        form.getDateTimeStart(), form.getBasePay(), 0f,
+                        form.getMinutesSpentWaitingAtResturant(), form.getMilesDriven(), form.getPlatform()));
+                heatmapDAO.recordDeliveries(jobsId, facts);
+                rollupDAO.recordDeliveries(jobsId, facts);
+                return inserted;
+            });
+            ownerOf(jobsId).forEach(userId -> aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.DELIVERIES));
+            return rows != null && rows == 1;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    private List<Integer> ownerOf(long jobId) {
+        return jdbcTemplate.queryForList("SELECT userId FROM JobsTable WHERE jobsId = ? AND userId IS NOT NULL",
+                Integer.class, jobId);
+    }
+
     /**
      * Sums all miles from deliveries associated with a specific jobId.
      * @param jobId The work period/job ID to sum miles for
@@ -118,7 +244,7 @@ public class workPeriodServiceDAO {
     public int sumMilesByJobId(long jobId) {
         String sql = "SELECT COALESCE(SUM(miles), 0) FROM deliveryData WHERE jobsTableId = ?";
         try {
-            Integer totalMiles = jdbcTemplate.queryForObject(sql, Integer.class, jobId);
+            Integer totalMiles = readJdbcTemplate.queryForObject(sql, Integer.class, jobId);
             return totalMiles != null ? totalMiles : 0;
         } catch (Exception e) {
             System.out.println("Error summing miles for jobId " + jobId + ": " + e.getMessage());
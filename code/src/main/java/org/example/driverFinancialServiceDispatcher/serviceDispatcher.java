@@ -1,30 +1,51 @@
 package org.example.driverFinancialServiceDispatcher;
 
+import org.example.KeysetPage;
+import org.example.Money;
+import org.example.dataExport.src.dataExporter;
 import org.example.deliveryRecorder.src.deliveryContoller;
 import org.example.deliveryRecorder.src.deliveryDataService;
+import org.example.deliveryRecorder.src.deliveryDataServiceDAO;
+import org.example.deliveryRecorder.src.deliveryRecord;
 import org.example.deliveryRecorder.src.overviewService;
+import org.example.deliveryRecorder.src.sessionContext;
 import org.example.deliveryRecorder.src.vehicle;
 import org.example.deliveryRecorder.src.vehicleDAO;
 import org.example.deliveryRecorder.src.workPeriodService;
 import org.example.gui.FinanceAppFrame;
+import org.example.manageFinances.src.LedgerTotals;
 import org.example.manageFinances.src.addBankAccount;
 import org.example.manageFinances.src.generalFinancialData;
+import org.example.manageFinances.src.ledgerDAO;
 import org.example.manageFinances.src.selectBankAccount;
 import org.example.manageFinances.src.selectBankAccountDAO;
+import org.example.reportGenerator.src.PlanRequest;
+import org.example.reportGenerator.src.ReportRequest;
 import org.example.reportGenerator.src.deliveryCalculator;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
 import org.example.reportGenerator.src.generalReports;
 import org.example.reportGenerator.src.reportDAO;
 import org.example.reportGenerator.src.reportGenerator;
 import org.example.userAccountController.src.userAccountController;
 import org.example.userAccountController.src.createAccountDAO;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.stereotype.Component;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class serviceDispatcher {
 
@@ -47,6 +68,10 @@ public class serviceDispatcher {
      * - Report generation (analytics, calculations)
      *
      * To run the application with full database support, use FinancialDriverApplication.main()
+     *
+     * User identity and the active work period live in an immutable sessionContext. The methods
+     * that take a sessionContext serve any number of drivers at once; the methods without one act
+     * on the single desktop session of the Swing GUI.
      */
     @Component
     public static class ServiceDispatcher {
@@ -66,8 +91,9 @@ public class serviceDispatcher {
         @Autowired
         private workPeriodService workPeriodService;
 
+        // Prototype scoped: every getObject() is a fresh, unshared form
         @Autowired
-        private deliveryDataService deliveryDataService;
+        private ObjectProvider<deliveryDataService> deliveryForms;
 
         @Autowired
         private deliveryContoller deliveryController;
@@ -93,36 +119,35 @@ public class serviceDispatcher {
         @Autowired
         private org.example.manageFinances.src.generalFinancialDataDAO generalFinancialDataDAO;
 
+        @Autowired
+        private ledgerDAO ledger;
+
         // =========================================================
         //   REPORT GENERATOR MODULE
         // =========================================================
         @Autowired
         private reportDAO reportDAO;
 
+        @Autowired
+        private deliveryHeatmapDAO deliveryHeatmapDAO;
+
         @Autowired
         private generalReports generalReportsService;
 
         @Autowired
         private reportGenerator reportGeneratorService;
 
+        @Autowired
+        private dataExporter dataExporter;
+
         // Calculator instance (uses reportDAO)
         private deliveryCalculator calculator;
 
         // Reference to the GUI frame
         private FinanceAppFrame financeAppFrame;
 
-        // Current logged-in user ID
-        private int currentUserId = -1;
-
-        // Current logged-in username
-        private String currentUsername = null;
-
-        // Current work period ID
-        private long currentWorkPeriodId = -1;
-
-        // Current user's authorization handler
-        private org.example.userAccountController.src.loginAuthorization userAuthorization =
-                new org.example.userAccountController.src.loginAuthorization();
+        // Session of the desktop GUI user; replaced as a whole, never modified in place
+        private volatile sessionContext session = sessionContext.anonymous();
 
         // Spring application context
         private static ConfigurableApplicationContext springContext;
@@ -153,7 +178,7 @@ public class serviceDispatcher {
          * Initializes the delivery calculator with the reportDAO.
          */
         private void initializeCalculator() {
-            this.calculator = new deliveryCalculator(reportDAO);
+            this.calculator = new deliveryCalculator(reportDAO, deliveryHeatmapDAO);
         }
 
         /**
@@ -183,27 +208,38 @@ public class serviceDispatcher {
          * @return true if login successful
          */
         public boolean login(String username, String password) {
-            boolean success = accountController.handleLoginRequest(username, password);
-            if (success) {
-                // Get actual userId from database after login
-                Integer userId = accountDAO.getUserIdByUsername(username);
-                if (userId != null) {
-                    currentUserId = userId;
-                    currentUsername = username;
-
-                    // Get and set user authorization level
-                    String authLevel = accountDAO.getAuthorizationByUsername(username);
-                    userAuthorization.setAuthorizationLevel(authLevel);
-
-                    System.out.println("ServiceDispatcher: User '" + username + "' logged in successfully. UserID: " + currentUserId + ", Authorization: " + authLevel);
-                } else {
-                    // Fallback - shouldn't happen if login succeeded
-                    currentUserId = -1;
-                    userAuthorization.setAuthorizationLevel("user");
-                    System.out.println("ServiceDispatcher: WARNING - Could not retrieve user ID after successful login.");
-                }
+            if (!accountController.handleLoginRequest(username, password)) {
+                return false;
             }
-            return success;
+            session = openSession(username);
+            return true;
+        }
+
+        /**
+         * Checks the credentials and opens a session for the user, leaving the desktop session alone.
+         * @param username The username
+         * @param password The password
+         * @return the new session, or null if the credentials are wrong
+         */
+        public sessionContext openSession(String username, String password) {
+            if (!accountController.handleLoginRequest(username, password)) {
+                return null;
+            }
+            return openSession(username);
+        }
+
+        private sessionContext openSession(String username) {
+            // Get actual userId from database after login
+            Integer userId = accountDAO.getUserIdByUsername(username);
+            if (userId == null) {
+                // Fallback - shouldn't happen if login succeeded
+                System.out.println("ServiceDispatcher: WARNING - Could not retrieve user ID after successful login.");
+                return sessionContext.anonymous();
+            }
+
+            String authLevel = accountDAO.getAuthorizationByUsername(username);
+            System.out.println("ServiceDispatcher: User '" + username + "' logged in successfully. UserID: " + userId + ", Authorization: " + authLevel);
+            return sessionContext.forUser(userId, username, authLevel);
         }
 
         /**
@@ -231,42 +267,39 @@ public class serviceDispatcher {
          */
         public void logout() {
             try {
-                if (currentWorkPeriodId != -1) {
-                    // Attempt to end the active work period by setting endTime to now and calculating miles
-                    long now = System.currentTimeMillis();
-                    try {
-                        workPeriodService.setEndTime(now);
-                        // Try to auto-calculate miles
-                        workPeriodService.calculateAndSetTotalVehicleMiles(currentWorkPeriodId);
-                        // Persist the work period
-                        workPeriodService.saveWorkPeriod();
-                        System.out.println("ServiceDispatcher: Auto-ended work period " + currentWorkPeriodId + " on logout.");
-                    } catch (Exception ex) {
-                        System.err.println("ServiceDispatcher: Failed to auto-end work period on logout: " + ex.getMessage());
-                    }
-                }
+                closeSession(session);
             } finally {
-                // Reset in-memory workPeriodService state
-                try { if (workPeriodService != null) workPeriodService.reset(); } catch (Exception ignored) {}
-
-                // Reset session fields
-                currentUserId = -1;
-                currentUsername = null;
-                currentWorkPeriodId = -1;
-
-                // Reset authorization
-                if (userAuthorization != null) userAuthorization.setAuthorizationLevel("user");
+                // Reset session; authorization comes from the session, so it resets with it
+                session = sessionContext.anonymous();
 
                 System.out.println("ServiceDispatcher: User logged out and session reset.");
             }
         }
 
+        /**
+         * Closes a session: ends its active work period, if any, with the current time as end time.
+         * @param closing The session to close
+         * @return the anonymous session
+         */
+        public sessionContext closeSession(sessionContext closing) {
+            if (closing.hasActiveWorkPeriod()) {
+                long jobId = closing.getWorkPeriodId();
+                try {
+                    workPeriodService.endWorkPeriod(closing, System.currentTimeMillis());
+                    System.out.println("ServiceDispatcher: Auto-ended work period " + jobId + " on logout.");
+                } catch (Exception ex) {
+                    System.err.println("ServiceDispatcher: Failed to auto-end work period on logout: " + ex.getMessage());
+                }
+            }
+            return sessionContext.anonymous();
+        }
+
         /**
          * Checks if a user is currently logged in.
          * @return true if logged in
          */
         public boolean isLoggedIn() {
-            return currentUserId != -1;
+            return session.isLoggedIn();
         }
 
         /**
@@ -274,7 +307,7 @@ public class serviceDispatcher {
          * @return the username, or null if not logged in
          */
         public String getCurrentUsername() {
-            return currentUsername;
+            return session.getUsername();
         }
 
         /**
@@ -282,7 +315,19 @@ public class serviceDispatcher {
          * @return the user ID, or -1 if not logged in
          */
         public int getCurrentUserId() {
-            return currentUserId;
+            return session.getUserId();
+        }
+
+        /**
+         * Gets the desktop session.
+         * @return the session of the GUI user, anonymous if nobody is logged in
+         */
+        public sessionContext getCurrentSession() {
+            return session;
+        }
+
+        private int currentUserId() {
+            return session.getUserId();
         }
 
         // =========================================================
@@ -296,15 +341,23 @@ public class serviceDispatcher {
          * @return The work period ID, or -1 if failed
          */
         public long startWorkPeriod(String vehicle, long startTime) {
-            if (currentUserId == -1) {
+            session = startWorkPeriod(session, vehicle, startTime);
+            return session.getWorkPeriodId();
+        }
+
+        /**
+         * Starts a new work period for the session's user.
+         * @param current The caller's session
+         * @param vehicle The vehicle being used
+         * @param startTime The start time (epoch milliseconds)
+         * @return the session with the new work period active, or unchanged if it could not be started
+         */
+        public sessionContext startWorkPeriod(sessionContext current, String vehicle, long startTime) {
+            if (!current.isLoggedIn()) {
                 System.out.println("ServiceDispatcher: Cannot start work period - user not logged in.");
-                return -1;
+                return current;
             }
-
-            workPeriodService.setVehicle(vehicle);
-            workPeriodService.setStartTime(startTime);
-            currentWorkPeriodId = workPeriodService.createWorkPeriod(currentUserId);
-            return currentWorkPeriodId;
+            return workPeriodService.startWorkPeriod(current, vehicle, startTime);
         }
 
         /**
@@ -313,23 +366,26 @@ public class serviceDispatcher {
          * @param totalMiles Total miles driven during the period (use -1 to auto-calculate from deliveries)
          */
         public void endWorkPeriod(long endTime, int totalMiles) {
-            if (currentWorkPeriodId == -1) {
-                System.out.println("ServiceDispatcher: No active work period to end.");
-                return;
-            }
-
-            workPeriodService.setEndTime(endTime);
+            session = endWorkPeriod(session, endTime, totalMiles);
+        }
 
-            if (totalMiles == -1) {
-                // Auto-calculate total miles from all deliveries in this work period
-                workPeriodService.calculateAndSetTotalVehicleMiles(currentWorkPeriodId);
-            } else {
-                workPeriodService.setTotalVehicleMiles(totalMiles);
+        /**
+         * Ends the session's active work period and stores its end time and total miles.
+         * @param current The caller's session
+         * @param endTime The end time (epoch milliseconds)
+         * @param totalMiles Total miles driven during the period (use -1 to auto-calculate from deliveries)
+         * @return the session without an active work period
+         */
+        public sessionContext endWorkPeriod(sessionContext current, long endTime, int totalMiles) {
+            if (!current.hasActiveWorkPeriod()) {
+                System.out.println("ServiceDispatcher: No active work period to end.");
+                return current;
             }
 
-            // TODO: Update work period in database with end time and miles
-            System.out.println("ServiceDispatcher: Work period ended. ID: " + currentWorkPeriodId +
-                    ", Total Miles: " + workPeriodService.getTotalVehicleMiles());
+            long jobId = current.getWorkPeriodId();
+            sessionContext ended = workPeriodService.endWorkPeriod(current, endTime, totalMiles);
+            System.out.println("ServiceDispatcher: Work period ended. ID: " + jobId);
+            return ended;
         }
 
         /**
@@ -337,11 +393,12 @@ public class serviceDispatcher {
          * @return the total miles, or 0 if no active work period
          */
         public int calculateWorkPeriodMiles() {
-            if (currentWorkPeriodId == -1) {
+            long jobId = session.getWorkPeriodId();
+            if (jobId == -1) {
                 System.out.println("ServiceDispatcher: No active work period.");
                 return 0;
             }
-            return workPeriodService.calculateAndSetTotalVehicleMiles(currentWorkPeriodId);
+            return workPeriodService.calculateTotalVehicleMiles(jobId);
         }
 
         /**
@@ -350,7 +407,7 @@ public class serviceDispatcher {
          * @return the total miles for that work period
          */
         public int calculateMilesForJob(long jobId) {
-            return workPeriodService.calculateAndSetTotalVehicleMiles(jobId);
+            return workPeriodService.calculateTotalVehicleMiles(jobId);
         }
 
         /**
@@ -358,7 +415,7 @@ public class serviceDispatcher {
          * @return the work period ID, or -1 if no active period
          */
         public long getCurrentWorkPeriodId() {
-            return currentWorkPeriodId;
+            return session.getWorkPeriodId();
         }
 
         // =========================================================
@@ -379,25 +436,58 @@ public class serviceDispatcher {
          */
         public boolean addDelivery(String restaurant, float basePay, float tips, String platform,
                                     int miles, long startTime, long endTime, int waitTime) {
-            if (currentWorkPeriodId == -1) {
+            deliveryRecord delivery = deliveryRecord.builder()
+                    .restaurant(restaurant)
+                    .basePay(basePay)
+                    .tips(tips)
+                    .platform(platform)
+                    .milesDriven(miles)
+                    .dateTimeStart(startTime)
+                    .dateTimeEnd(endTime)
+                    .minutesSpentWaitingAtResturant(waitTime)
+                    .build();
+            return addDelivery(session, delivery);
+        }
+
+        /**
+         * Adds a delivery to the session's active work period.
+         * @param current The caller's session
+         * @param delivery The delivery to add
+         * @return true if delivery added successfully
+         */
+        public boolean addDelivery(sessionContext current, deliveryRecord delivery) {
+            if (!current.hasActiveWorkPeriod()) {
                 System.out.println("ServiceDispatcher: Cannot add delivery - no active work period.");
                 return false;
             }
+            return workPeriodService.addDelivery(current, delivery);
+        }
 
-            deliveryDataService.setRestaurant(restaurant);
-            deliveryDataService.setBasePay(basePay);
-            deliveryDataService.setExpenses(tips); // Tips stored in expenses field? Check data model
-            deliveryDataService.setPlatform(platform);
-            deliveryDataService.setMilesDriven(miles);
-            deliveryDataService.setDateTimeStart(startTime);
-            deliveryDataService.setDateTimeEnd(endTime);
-            deliveryDataService.setMinutesSpentWaitingAtResturant(waitTime);
-
-            // Calculate total time spent
-            int totalMinutes = (int) ((endTime - startTime) / 60000);
-            deliveryDataService.setTotalTimeSpent(totalMinutes);
+        /**
+         * Adds many deliveries to the current work period in one transaction.
+         * @param deliveries The deliveries to add
+         * @return Per-row outcome of the batch, or null if there is no active work period
+         */
+        public deliveryDataServiceDAO.BatchSaveResult addDeliveries(List<deliveryDataService> deliveries) {
+            List<deliveryRecord> records = new ArrayList<>(deliveries.size());
+            for (deliveryDataService form : deliveries) {
+                records.add(deliveryRecord.from(form));
+            }
+            return addDeliveries(session, records);
+        }
 
-            return workPeriodService.addDelivery(deliveryDataService);
+        /**
+         * Adds many deliveries to the session's active work period in one transaction.
+         * @param current The caller's session
+         * @param deliveries The deliveries to add
+         * @return Per-row outcome of the batch, or null if there is no active work period
+         */
+        public deliveryDataServiceDAO.BatchSaveResult addDeliveries(sessionContext current, List<deliveryRecord> deliveries) {
+            if (!current.hasActiveWorkPeriod()) {
+                System.out.println("ServiceDispatcher: Cannot add deliveries - no active work period.");
+                return null;
+            }
+            return workPeriodService.addDeliveries(current, deliveries);
         }
 
         // =========================================================
@@ -510,8 +600,8 @@ public class serviceDispatcher {
 
             // Get total delivery miles for the current user
             int deliveryMiles = 0;
-            if (currentUserId != -1) {
-                deliveryMiles = overviewService.getTotalMilesByUser(currentUserId);
+            if (currentUserId() != -1) {
+                deliveryMiles = overviewService.getTotalMilesByUser(currentUserId());
             }
 
             // Calculate depreciation with delivery miles
@@ -618,11 +708,11 @@ public class serviceDispatcher {
          * @return List of bank accounts, or empty list if not logged in
          */
         public List<selectBankAccount> getCurrentUserBankAccounts() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 System.out.println("ServiceDispatcher: Cannot get accounts - user not logged in.");
                 return List.of();
             }
-            return selectBankAccountDAO.getAccountsForUser(currentUserId);
+            return selectBankAccountDAO.getAccountsForUser(currentUserId());
         }
 
         /**
@@ -651,6 +741,36 @@ public class serviceDispatcher {
             selectBankAccountDAO.updateBalance(accountId, newBalance);
         }
 
+        /**
+         * Gets a bank account's income, expense and net totals from its latest ledger checkpoint.
+         * @param bankAccountId The bank account ID
+         * @return The account's totals
+         */
+        public LedgerTotals getBankAccountLedgerTotals(int bankAccountId) {
+            return ledger.totals(ledgerDAO.Scope.ACCOUNT, bankAccountId);
+        }
+
+        /**
+         * Gets a bank account's totals for the transactions dated within a period.
+         * @param bankAccountId The bank account ID
+         * @param from First day of the period (inclusive)
+         * @param to Last day of the period (inclusive)
+         * @return The account's totals for the period
+         */
+        public LedgerTotals getBankAccountTotalsBetween(int bankAccountId, LocalDate from, LocalDate to) {
+            return ledger.totalsBetween(ledgerDAO.Scope.ACCOUNT, bankAccountId, from, to);
+        }
+
+        /**
+         * Gets a bank account's balance at the end of a day, from the running balance of its postings.
+         * @param bankAccountId The bank account ID
+         * @param date The day
+         * @return The balance on that day
+         */
+        public float getBankAccountBalanceAsOf(int bankAccountId, LocalDate date) {
+            return (float) Money.toDollars(ledger.balanceAsOfCents(bankAccountId, date));
+        }
+
         /**
          * Updates the interest rate of a bank account.
          * @param accountId The account ID
@@ -683,10 +803,10 @@ public class serviceDispatcher {
          * @return Total other income across all accounts
          */
         public float getTotalOtherIncome() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 return 0.0f;
             }
-            List<selectBankAccount> accounts = selectBankAccountDAO.getAccountsForUser(currentUserId);
+            List<selectBankAccount> accounts = selectBankAccountDAO.getAccountsForUser(currentUserId());
             float totalOtherIncome = 0.0f;
             for (selectBankAccount account : accounts) {
                 totalOtherIncome += account.getOtherIncome();
@@ -699,10 +819,10 @@ public class serviceDispatcher {
          * @return Total account fees across all accounts
          */
         public float getTotalAccountFees() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 return 0.0f;
             }
-            List<selectBankAccount> accounts = selectBankAccountDAO.getAccountsForUser(currentUserId);
+            List<selectBankAccount> accounts = selectBankAccountDAO.getAccountsForUser(currentUserId());
             float totalFees = 0.0f;
             for (selectBankAccount account : accounts) {
                 totalFees += account.getAccountFees();
@@ -853,8 +973,8 @@ public class serviceDispatcher {
          * @return Total assets value, or 0 if not logged in
          */
         public float getCurrentUserTotalAssets() {
-            if (currentUserId == -1) return 0;
-            return generalFinancialDataService.getTotalAssets(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return generalFinancialDataService.getTotalAssets(currentUserId());
         }
 
         /**
@@ -871,8 +991,8 @@ public class serviceDispatcher {
          * @return Total expenses value, or 0 if not logged in
          */
         public float getCurrentUserTotalExpenses() {
-            if (currentUserId == -1) return 0;
-            return generalFinancialDataService.getTotalExpense(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return generalFinancialDataService.getTotalExpense(currentUserId());
         }
 
         /**
@@ -889,8 +1009,8 @@ public class serviceDispatcher {
          * @return Net financial position, or 0 if not logged in
          */
         public float getCurrentUserNetFinancialPosition() {
-            if (currentUserId == -1) return 0;
-            return generalFinancialDataService.getNetFinancialPosition(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return generalFinancialDataService.getNetFinancialPosition(currentUserId());
         }
 
         /**
@@ -907,8 +1027,26 @@ public class serviceDispatcher {
          * @return Map of transactions, or empty map if not logged in
          */
         public Map<String, List<Float>> getCurrentUserTransactions() {
-            if (currentUserId == -1) return Map.of();
-            return generalFinancialDataService.getAllTransactions(currentUserId);
+            if (currentUserId() == -1) return Map.of();
+            return generalFinancialDataService.getAllTransactions(currentUserId());
+        }
+
+        /**
+         * Gets a user's transactions by type with per-type totals, read in one query.
+         * @param userId The user ID
+         * @return TransactionBreakdown for the user
+         */
+        public org.example.manageFinances.src.TransactionBreakdown getTransactionBreakdown(int userId) {
+            return generalFinancialDataService.getTransactionBreakdown(userId);
+        }
+
+        /**
+         * Gets the current user's transactions by type with per-type totals.
+         * @return TransactionBreakdown, or an empty one if not logged in
+         */
+        public org.example.manageFinances.src.TransactionBreakdown getCurrentUserTransactionBreakdown() {
+            if (currentUserId() == -1) return org.example.manageFinances.src.TransactionBreakdown.empty();
+            return generalFinancialDataService.getTransactionBreakdown(currentUserId());
         }
 
         /**
@@ -916,8 +1054,49 @@ public class serviceDispatcher {
          * @return List of TransactionSummary objects, or empty list if not logged in.
          */
         public List<org.example.manageFinances.src.generalFinancialData.TransactionSummary> getCurrentUserAllTransactionDetails() {
-            if (currentUserId == -1) return List.of();
-            return generalFinancialDataService.getAllTransactionDetails(currentUserId);
+            if (currentUserId() == -1) return List.of();
+            return generalFinancialDataService.getAllTransactionDetails(currentUserId());
+        }
+
+        /**
+         * Gets one page of the current user's transactions for the paged transactions table.
+         * @param types Transaction types to include, or null for all.
+         * @param query Sort, description filter and page position.
+         * @return The page, or an empty page if not logged in.
+         */
+        public KeysetPage<org.example.manageFinances.src.generalFinancialData.TransactionSummary> getCurrentUserTransactionDetailsPage(
+                List<String> types, KeysetPage.Query query) {
+            if (currentUserId() == -1) return new KeysetPage<>(List.of(), null);
+            return generalFinancialDataService.getTransactionDetailsPage(currentUserId(), types, query);
+        }
+
+        /**
+         * Counts the current user's transactions matching the transactions table filters.
+         * @return Number of matching transactions, or 0 if not logged in.
+         */
+        public int countCurrentUserTransactionDetails(List<String> types, String filter) {
+            if (currentUserId() == -1) return 0;
+            return generalFinancialDataService.countTransactionDetails(currentUserId(), types, filter);
+        }
+
+        /**
+         * Gets the current user's transactions dated from one day to another, both included, newest first.
+         * @return List of TransactionRecord objects, or empty list if not logged in.
+         */
+        public List<org.example.manageFinances.src.generalFinancialDataDAO.TransactionRecord> getCurrentUserTransactionsBetween(
+                LocalDate from, LocalDate to) {
+            if (currentUserId() == -1) return List.of();
+            return generalFinancialDataDAO.getTransactionsForUserBetween(currentUserId(), from, to);
+        }
+
+        /**
+         * Gets the current user's transactions of one calendar month, newest first.
+         * @return List of TransactionRecord objects, or empty list if not logged in.
+         */
+        public List<org.example.manageFinances.src.generalFinancialDataDAO.TransactionRecord> getCurrentUserTransactionsInMonth(
+                YearMonth month) {
+            if (currentUserId() == -1) return List.of();
+            return generalFinancialDataDAO.getTransactionsForUserInMonth(currentUserId(), month);
         }
 
         /**
@@ -925,8 +1104,8 @@ public class serviceDispatcher {
          * @return Total income, or 0 if not logged in.
          */
         public float getCurrentUserTotalIncome() {
-            if (currentUserId == -1) return 0;
-            return generalFinancialDataService.getTotalIncome(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return generalFinancialDataService.getTotalIncome(currentUserId());
         }
 
         // =========================================================
@@ -942,6 +1121,18 @@ public class serviceDispatcher {
             return generalFinancialDataDAO.getTransactionsForBankAccount(bankAccountId);
         }
 
+        /**
+         * Gets a bank account's transactions dated from one day to another, both included, newest first.
+         * @param bankAccountId The bank account ID.
+         * @param from First day of the window.
+         * @param to Last day of the window.
+         * @return List of TransactionRecord objects.
+         */
+        public List<org.example.manageFinances.src.generalFinancialDataDAO.TransactionRecord> getTransactionsForBankAccountBetween(
+                int bankAccountId, LocalDate from, LocalDate to) {
+            return generalFinancialDataDAO.getTransactionsForBankAccountBetween(bankAccountId, from, to);
+        }
+
         /**
          * Gets detailed transaction records for a bank account filtered by type.
          * @param bankAccountId The bank account ID.
@@ -960,10 +1151,10 @@ public class serviceDispatcher {
          * @param description Optional description.
          */
         public void addTransactionForBankAccount(float amount, String transactionType, int bankAccountId, String description) {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 throw new IllegalStateException("User must be logged in to add transactions.");
             }
-            generalFinancialDataDAO.addTransactionForBankAccount(currentUserId, amount, transactionType, bankAccountId, description);
+            generalFinancialDataDAO.addTransactionForBankAccount(currentUserId(), amount, transactionType, bankAccountId, description);
         }
 
         // =========================================================
@@ -1044,6 +1235,19 @@ public class serviceDispatcher {
             return generalReportsService.getCurrentMonthDeliveryIncomeFromDB();
         }
 
+        /**
+         * Gets the current user's delivery earnings for every day, week or month between two days.
+         * @param grain Period length
+         * @param from First day of the range
+         * @param to Last day of the range
+         * @return Totals by the first day of each period, or an empty map if not logged in.
+         */
+        public NavigableMap<LocalDate, deliveryRollupDAO.Totals> getCurrentUserEarningsSeries(
+                deliveryRollupDAO.Grain grain, LocalDate from, LocalDate to) {
+            if (currentUserId() == -1) return new TreeMap<>();
+            return generalReportsService.getEarningsSeries(currentUserId(), grain, from, to);
+        }
+
         // =========================================================
         //   FINANCIAL PLAN METHODS
         // =========================================================
@@ -1114,6 +1318,15 @@ public class serviceDispatcher {
             return reportGeneratorService.createFinancialPlan();
         }
 
+        /**
+         * Creates a financial plan for explicit parameters, without touching the GUI's plan settings.
+         * @param request The plan parameters
+         * @return FinancialPlan containing recommendations and projections
+         */
+        public reportGenerator.FinancialPlan createFinancialPlan(PlanRequest request) {
+            return reportGeneratorService.createFinancialPlan(request);
+        }
+
         /**
          * Retrieves the current financial plan.
          * @return Current financial plan based on configured settings
@@ -1130,6 +1343,15 @@ public class serviceDispatcher {
             return reportGeneratorService.getDeliveryReportsData();
         }
 
+        /**
+         * Gets delivery report data for explicit parameters.
+         * @param request The report parameters
+         * @return DeliveryReportData containing summary statistics
+         */
+        public reportGenerator.DeliveryReportData getDeliveryReportsData(ReportRequest request) {
+            return reportGeneratorService.getDeliveryReportsData(request);
+        }
+
         /**
          * Gets general financial report data for the configured date range.
          * @return GeneralReportData containing overall financial summary
@@ -1138,6 +1360,15 @@ public class serviceDispatcher {
             return reportGeneratorService.getGeneralReportsData();
         }
 
+        /**
+         * Gets general financial report data for explicit parameters.
+         * @param request The report parameters
+         * @return GeneralReportData containing overall financial summary
+         */
+        public reportGenerator.GeneralReportData getGeneralReportsData(ReportRequest request) {
+            return reportGeneratorService.getGeneralReportsData(request);
+        }
+
         /**
          * Exports report data as a formatted string.
          * @return Formatted report string
@@ -1146,6 +1377,26 @@ public class serviceDispatcher {
             return reportGeneratorService.exportData();
         }
 
+        /**
+         * Streams the logged-in user's deliveries, work periods or transactions for the
+         * report date range to an output stream, e.g. a file chosen in the GUI.
+         * @param dataset The data to export
+         * @param format  CSV or NDJSON
+         * @param gzip    Whether to gzip the output
+         * @param out     Where to write; it is not closed
+         * @return The number of rows exported
+         */
+        public long exportDataset(dataExporter.Dataset dataset, dataExporter.Format format, boolean gzip,
+                                  OutputStream out) throws IOException {
+            if (currentUserId() == -1) {
+                throw new IllegalStateException("User must be logged in to export data.");
+            }
+            return dataExporter.export(dataset, format,
+                    reportGeneratorService.getStartDate().toLocalDate(),
+                    reportGeneratorService.getEndDate().toLocalDate(),
+                    currentUserId(), ZoneId.systemDefault(), gzip, out);
+        }
+
         // =========================================================
         //   DELIVERY CALCULATOR METHODS
         // =========================================================
@@ -1208,7 +1459,7 @@ public class serviceDispatcher {
          * @return true if saved successfully
          */
         public boolean saveDeliveryRecord(deliveryDataService deliveryData) {
-            return deliveryController.saveDeliveryRecord(deliveryData);
+            return deliveryController.saveDeliveryRecord(session, deliveryData);
         }
 
         /**
@@ -1226,11 +1477,12 @@ public class serviceDispatcher {
         }*/
 
         /**
-         * Gets the delivery data service for direct field manipulation.
+         * Gets a new, empty delivery form for direct field manipulation.
+         * Each call returns a separate form, so callers never share one.
          * @return The delivery data service
          */
         public deliveryDataService getDeliveryDataService() {
-            return deliveryDataService;
+            return deliveryForms.getObject();
         }
 
         /**
@@ -1250,11 +1502,11 @@ public class serviceDispatcher {
          * @return List of OverviewDTO containing delivery and work period information
          */
         public List<overviewService.OverviewDTO> getCurrentUserPastDeliveries() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 System.out.println("ServiceDispatcher: Cannot get past deliveries - user not logged in.");
                 return List.of();
             }
-            return overviewService.getFullOverviewByUser(currentUserId);
+            return overviewService.getFullOverviewByUser(currentUserId());
         }
 
         /**
@@ -1266,13 +1518,42 @@ public class serviceDispatcher {
             return overviewService.getFullOverviewByUser(userId);
         }
 
+        /**
+         * Gets one page of the current user's deliveries for the paged deliveries table.
+         * @param query Sort, filter and page position
+         * @return The page, or an empty page if not logged in
+         */
+        public KeysetPage<overviewService.OverviewDTO> getCurrentUserDeliveryPage(KeysetPage.Query query) {
+            if (currentUserId() == -1) return new KeysetPage<>(List.of(), null);
+            return overviewService.getOverviewPage(currentUserId(), query);
+        }
+
+        /**
+         * Counts the current user's deliveries matching the deliveries table filter.
+         * @return Number of matching deliveries, or 0 if not logged in
+         */
+        public int countCurrentUserDeliveries(String filter) {
+            if (currentUserId() == -1) return 0;
+            return overviewService.countOverview(currentUserId(), filter);
+        }
+
+        /**
+         * Gets the current user's deliveries summed per day, restaurant, platform and vehicle,
+         * which is all the dashboard statistics need.
+         * @return Rollup rows, or an empty list if not logged in
+         */
+        public List<overviewService.DeliveryRollup> getCurrentUserDeliveryRollup() {
+            if (currentUserId() == -1) return List.of();
+            return overviewService.getDeliveryRollup(currentUserId());
+        }
+
         /**
          * Gets total earnings for the current user across all deliveries.
          * @return Total earnings (base pay + tips)
          */
         public double getCurrentUserTotalDeliveryEarnings() {
-            if (currentUserId == -1) return 0.0;
-            return overviewService.getTotalEarningsByUser(currentUserId);
+            if (currentUserId() == -1) return 0.0;
+            return overviewService.getTotalEarningsByUser(currentUserId());
         }
 
         /**
@@ -1289,8 +1570,8 @@ public class serviceDispatcher {
          * @return Total delivery count
          */
         public int getCurrentUserTotalDeliveries() {
-            if (currentUserId == -1) return 0;
-            return overviewService.getTotalDeliveriesByUser(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return overviewService.getTotalDeliveriesByUser(currentUserId());
         }
 
         /**
@@ -1307,8 +1588,8 @@ public class serviceDispatcher {
          * @return Total miles driven
          */
         public int getCurrentUserTotalMiles() {
-            if (currentUserId == -1) return 0;
-            return overviewService.getTotalMilesByUser(currentUserId);
+            if (currentUserId() == -1) return 0;
+            return overviewService.getTotalMilesByUser(currentUserId());
         }
 
         /**
@@ -1325,11 +1606,11 @@ public class serviceDispatcher {
          * @return List of work periods
          */
         public List<workPeriodService> getCurrentUserWorkPeriods() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 System.out.println("ServiceDispatcher: Cannot get work periods - user not logged in.");
                 return List.of();
             }
-            return overviewService.getAllWorkPeriodsByUser(currentUserId);
+            return overviewService.getAllWorkPeriodsByUser(currentUserId());
         }
 
         /**
@@ -1346,11 +1627,11 @@ public class serviceDispatcher {
          * @return List of deliveries
          */
         public List<deliveryDataService> getCurrentUserDeliveries() {
-            if (currentUserId == -1) {
+            if (currentUserId() == -1) {
                 System.out.println("ServiceDispatcher: Cannot get deliveries - user not logged in.");
                 return List.of();
             }
-            return overviewService.getAllDeliveriesByUser(currentUserId);
+            return overviewService.getAllDeliveriesByUser(currentUserId());
         }
 
         /**
@@ -1399,49 +1680,85 @@ public class serviceDispatcher {
          * @param userId The user ID to set
          */
         public void setCurrentUserId(int userId) {
-            this.currentUserId = userId;
+            sessionContext current = session;
+            this.session = sessionContext.forUser(userId, current.getUsername(), current.getAuthorizationLevel());
         }
 
         /**
-         * Gets the current user's authorization handler.
+         * Gets an authorization handler for the desktop session. It is built from the session's
+         * authorization level on each call, so changing it does not change the session.
          * @return The loginAuthorization object for the current user
          */
         public org.example.userAccountController.src.loginAuthorization getUserAuthorization() {
-            return userAuthorization;
+            return authorizationFor(session);
         }
 
         /**
-         * Checks if the current user is an admin.
+         * Checks if the desktop session's user is an admin.
          * @return true if the current user has admin authorization
          */
         public boolean isCurrentUserAdmin() {
-            return userAuthorization.isAdmin();
+            return isAdmin(session);
+        }
+
+        /**
+         * Checks if a session's user is an admin.
+         * @param current The caller's session
+         * @return true if the session has admin authorization
+         */
+        public boolean isAdmin(sessionContext current) {
+            return authorizationFor(current).isAdmin();
         }
 
         /**
-         * Checks if the current user can view data flow information.
+         * Checks if the desktop session's user can view data flow information.
          * @return true if data flow info should be visible
          */
         public boolean canViewDataFlow() {
-            return userAuthorization.canViewDataFlow();
+            return canViewDataFlow(session);
+        }
+
+        /**
+         * Checks if a session's user can view data flow information.
+         * @param current The caller's session
+         * @return true if data flow info should be visible
+         */
+        public boolean canViewDataFlow(sessionContext current) {
+            return authorizationFor(current).canViewDataFlow();
         }
 
         /**
-         * Filters text based on user authorization level.
+         * Filters text based on the desktop session's authorization level.
          * Removes data flow and technical information for non-admin users.
          * @param text The text to filter
          * @return Filtered text appropriate for the user's authorization level
          */
         public String filterTextForUser(String text) {
-            return userAuthorization.filterForUser(text);
+            return filterForUser(session, text);
+        }
+
+        /**
+         * Filters text based on a session's authorization level.
+         * Removes data flow and technical information for non-admin users.
+         * @param current The caller's session
+         * @param text    The text to filter
+         * @return Filtered text appropriate for the session's authorization level
+         */
+        public String filterForUser(sessionContext current, String text) {
+            return authorizationFor(current).filterForUser(text);
         }
 
         /**
-         * Gets the current user's authorization level.
+         * Gets the desktop session's authorization level.
          * @return "admin" or "user"
          */
         public String getCurrentUserAuthorizationLevel() {
-            return userAuthorization.getAuthorizationLevel();
+            return authorizationFor(session).getAuthorizationLevel();
+        }
+
+        // Derived per call from the immutable session, so concurrent sessions never share it
+        private org.example.userAccountController.src.loginAuthorization authorizationFor(sessionContext current) {
+            return new org.example.userAccountController.src.loginAuthorization(current.getAuthorizationLevel());
         }
 
         // =========================================================
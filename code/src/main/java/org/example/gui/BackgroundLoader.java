@@ -0,0 +1,268 @@
+package org.example.gui;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the GUI's database loads on a small bounded pool so the Event Dispatch Thread never waits
+ * on JDBC.
+ *
+ * Every load has a key such as "deliveries". Submitting a load while another one with the same key
+ * is queued or running cancels the older one, so clicking refresh ten times costs at most one extra
+ * query and only the newest result ever reaches the screen. Cancellation is cooperative: a running
+ * load checks {@link Context#isCancelled()} between steps and its published rows and result are
+ * dropped once it has been superseded, but its thread is never interrupted in the middle of a query.
+ *
+ * All {@link Load} callbacks except {@link Load#load} run on the Event Dispatch Thread.
+ */
+public class BackgroundLoader {
+
+    /** Rows handed to {@link Load#process} per EDT update. */
+    public static final int PUBLISH_CHUNK_ROWS = 500;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Running> running = new HashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final List<IntConsumer> activityListeners = new ArrayList<>();
+
+    /**
+     * @param threads    Number of loads that may run at once; keep it small, SQLite serialises writers anyway
+     * @param queueLimit Maximum number of loads waiting for a thread
+     */
+    public BackgroundLoader(int threads, int queueLimit) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "gui-db-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueLimit), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Work to do off the Event Dispatch Thread, with callbacks to show its results.
+     *
+     * @param <V> Final result
+     * @param <C> Chunk type published while loading, e.g. a table row
+     */
+    public abstract static class Load<V, C> {
+
+        /** Runs on a loader thread; must not touch Swing components. */
+        protected abstract V load(Context<C> context) throws Exception;
+
+        /** Called on the EDT before the load is queued, e.g. to clear a table. */
+        protected void started() {
+        }
+
+        /** Called on the EDT with rows published since the last call. */
+        protected void process(List<C> chunk) {
+        }
+
+        /** Called on the EDT with the result unless the load was cancelled or superseded. */
+        protected void done(V result) {
+        }
+
+        /** Called on the EDT if {@link #load} threw, unless the load was cancelled or superseded. */
+        protected void failed(Exception error) {
+            System.err.println("BackgroundLoader: Load failed: " + error.getMessage());
+            error.printStackTrace();
+        }
+    }
+
+    /**
+     * Handle a running load uses to publish rows and check whether it is still wanted.
+     */
+    public interface Context<C> {
+
+        /** Queues a row for {@link Load#process}; rows are passed to the EDT in chunks. */
+        void publish(C row);
+
+        /** Sends any queued rows to the EDT now. */
+        void flush();
+
+        /** Whether the load was cancelled or replaced by a newer one with the same key. */
+        boolean isCancelled();
+    }
+
+    /**
+     * Queues a load, cancelling any queued or running load with the same key. Call from the EDT.
+     *
+     * @return false if the queue is full and the load was not started
+     */
+    public <V, C> boolean submit(String key, Load<V, C> load) {
+        cancel(key);
+        Running task = new Running(key);
+        load.started();
+        fireActivity(active.incrementAndGet());
+        try {
+            synchronized (running) {
+                running.put(key, task);
+                task.future = executor.submit(() -> run(task, load));
+            }
+        } catch (RejectedExecutionException e) {
+            synchronized (running) {
+                running.remove(key, task);
+            }
+            fireActivity(active.decrementAndGet());
+            System.err.println("BackgroundLoader: Too many loads queued, skipped '" + key + "'.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Cancels the queued or running load with this key, if any. Its callbacks will not run.
+     */
+    public void cancel(String key) {
+        Running previous;
+        synchronized (running) {
+            previous = running.remove(key);
+        }
+        if (previous != null) {
+            previous.cancelled = true;
+            if (previous.started.compareAndSet(false, true)) {
+                // Never started, so run() will not decrement the count
+                previous.future.cancel(false);
+                executor.purge();
+                fireActivity(active.decrementAndGet());
+            }
+        }
+    }
+
+    /**
+     * Cancels every load, e.g. on logout.
+     */
+    public void cancelAll() {
+        List<String> keys;
+        synchronized (running) {
+            keys = new ArrayList<>(running.keySet());
+        }
+        keys.forEach(this::cancel);
+    }
+
+    /**
+     * Adds a listener called on the EDT whenever the number of queued plus running loads changes.
+     */
+    public void addActivityListener(IntConsumer listener) {
+        activityListeners.add(listener);
+    }
+
+    /**
+     * Gets the number of loads queued or running.
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Stops accepting loads and cancels the queued ones.
+     */
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private <V, C> void run(Running task, Load<V, C> load) {
+        if (!task.started.compareAndSet(false, true)) {
+            return;
+        }
+        RowContext<C> context = new RowContext<>(task, load);
+        Runnable outcome;
+        try {
+            V result = load.load(context);
+            context.flush();
+            outcome = () -> {
+                if (finish(task)) {
+                    load.done(result);
+                }
+            };
+        } catch (Exception e) {
+            outcome = () -> {
+                if (finish(task)) {
+                    load.failed(e);
+                }
+            };
+        }
+        // Count the load as finished before its callback runs, so done() sees an accurate active count
+        fireActivity(active.decrementAndGet());
+        SwingUtilities.invokeLater(outcome);
+    }
+
+    // Runs on the EDT; true if this load is still the current one for its key
+    private boolean finish(Running task) {
+        synchronized (running) {
+            if (task.cancelled) {
+                return false;
+            }
+            running.remove(task.key, task);
+            return true;
+        }
+    }
+
+    private void fireActivity(int count) {
+        SwingUtilities.invokeLater(() -> activityListeners.forEach(listener -> listener.accept(count)));
+    }
+
+    private static final class Running {
+        private final String key;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        Running(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class RowContext<C> implements Context<C> {
+        private final Running task;
+        private final Load<?, C> load;
+        private List<C> pending = new ArrayList<>();
+
+        RowContext(Running task, Load<?, C> load) {
+            this.task = task;
+            this.load = load;
+        }
+
+        @Override
+        public void publish(C row) {
+            pending.add(row);
+            if (pending.size() >= PUBLISH_CHUNK_ROWS) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<C> chunk = pending;
+            pending = new ArrayList<>();
+            SwingUtilities.invokeLater(() -> {
+                if (!task.cancelled) {
+                    load.process(chunk);
+                }
+            });
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.cancelled || Thread.currentThread().isInterrupted();
+        }
+    }
+}
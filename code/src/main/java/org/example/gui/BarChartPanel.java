@@ -2,12 +2,50 @@ package org.example.gui;
 
 import javax.swing.*;
 import java.awt.*;
-
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Bar chart with a value above and a label below each bar.
+ *
+ * Everything that depends only on the data (value strings, text widths, the largest value) is
+ * worked out in setData. The chart is drawn once into an image that later paints copy, and is only
+ * drawn again when the data, the size or the screen scale changes; a resize redoes the bar
+ * geometry from the cached widths without formatting or measuring any text.
+ */
 public class BarChartPanel extends JPanel {
+
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 13);
+    private static final Font MESSAGE_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final Font LABEL_FONT = new Font("Segoe UI", Font.PLAIN, 10);
+    private static final Color BACKGROUND = new Color(24, 28, 43);
+    private static final Color BORDER = new Color(55, 65, 81);
+    private static final Color TITLE = new Color(235, 239, 255);
+    private static final Color BAR = new Color(129, 140, 248);
+    private static final Color VALUE_TEXT = new Color(156, 163, 175);
+    private static final Color LABEL_TEXT = new Color(107, 114, 128);
+
+    private static final int PADDING = 16;
+    private static final int TOP = PADDING + 18; // space for title
+    private static final int BOTTOM = PADDING + 24; // space for labels
+    private static final int BAR_GAP = 8;
+
     private String title;
     private String[] labels = new String[0];
     private double[] values = new double[0];
 
+    // From setData
+    private double max;
+    private String[] valueTexts = new String[0];
+    private int[] valueWidths = new int[0];
+    private int[] labelWidths = new int[0];
+
+    // Last drawn frame and what it was drawn for
+    private BufferedImage frame;
+    private int frameWidth;
+    private int frameHeight;
+    private double frameScale;
+
     // Public no-arg constructor for IntelliJ GUI Designer
     public BarChartPanel() {
         this("Chart");
@@ -16,9 +54,9 @@ public class BarChartPanel extends JPanel {
     // Keep constructor that accepts a title (make it public so Designer can access it too)
     public BarChartPanel(String title) {
         this.title = title;
-        setBackground(new Color(24, 28, 43));
+        setBackground(BACKGROUND);
         setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(55, 65, 81)),
+                BorderFactory.createLineBorder(BORDER),
                 BorderFactory.createEmptyBorder(10, 10, 10, 10)
         ));
         setPreferredSize(new Dimension(280, 180));
@@ -29,86 +67,110 @@ public class BarChartPanel extends JPanel {
             this.labels = new String[0];
             this.values = new double[0];
         } else {
-            this.labels = data.labels;
-            this.values = data.values;
+            this.labels = data.labels != null ? data.labels : new String[0];
+            this.values = data.values != null ? data.values : new double[0];
+        }
+
+        int n = labels.length;
+        FontMetrics metrics = getFontMetrics(LABEL_FONT);
+        max = 0;
+        valueTexts = new String[n];
+        valueWidths = new int[n];
+        labelWidths = new int[n];
+        for (int i = 0; i < n; i++) {
+            double value = i < values.length ? values[i] : 0;
+            max = Math.max(max, value);
+            valueTexts[i] = String.format("$%.0f", value);
+            valueWidths[i] = metrics.stringWidth(valueTexts[i]);
+            labelWidths[i] = metrics.stringWidth(labels[i]);
         }
+
+        frame = null;
         repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
         int width = getWidth();
         int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // Draw at device resolution so the copy stays sharp on scaled screens
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        double scale = Math.max(1.0, Math.max(transform.getScaleX(), transform.getScaleY()));
+        if (frame == null || width != frameWidth || height != frameHeight || scale != frameScale) {
+            frame = render(width, height, scale);
+            frameWidth = width;
+            frameHeight = height;
+            frameScale = scale;
+        }
+        g.drawImage(frame, 0, 0, width, height, null);
+    }
 
-        int padding = 16;
-        int top = padding + 18; // space for title
-        int bottom = padding + 24; // space for labels
-        int left = padding;
-        int right = padding;
+    /** The last drawn frame, or null if the next paint draws a new one. */
+    BufferedImage cachedFrame() {
+        return frame;
+    }
+
+    private BufferedImage render(int width, int height, double scale) {
+        BufferedImage image = new BufferedImage(
+                (int) Math.ceil(width * scale), (int) Math.ceil(height * scale), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.scale(scale, scale);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        int left = PADDING;
 
         // Title
-        g2.setFont(new Font("Segoe UI", Font.BOLD, 13));
-        g2.setColor(new Color(235, 239, 255));
-        g2.drawString(title, left, padding + 12);
-
-        if (labels == null || labels.length == 0) {
-            g2.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-            g2.setColor(new Color(107, 114, 128));
-            g2.drawString("No data yet", left, height / 2);
-            g2.dispose();
-            return;
-        }
+        g2.setFont(TITLE_FONT);
+        g2.setColor(TITLE);
+        g2.drawString(title, left, PADDING + 12);
 
-        double max = 0;
-        for (double v : values) {
-            if (v > max) max = v;
+        if (labels.length == 0) {
+            drawMessage(g2, "No data yet", height);
+            return image;
         }
         if (max <= 0) {
-            g2.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-            g2.setColor(new Color(107, 114, 128));
-            g2.drawString("No positive values to display", left, height / 2);
-            g2.dispose();
-            return;
+            drawMessage(g2, "No positive values to display", height);
+            return image;
         }
 
-        int chartHeight = height - top - bottom;
-        int chartWidth = width - left - right;
+        int chartHeight = height - TOP - BOTTOM;
+        int chartWidth = width - left - PADDING;
         int n = labels.length;
-        int barWidth = Math.max(8, chartWidth / Math.max(n, 1) - 8);
-
-        double scale = (double) chartHeight / max;
-
-        int x = left + 8;
-
-        g2.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+        int barWidth = Math.max(8, chartWidth / Math.max(n, 1) - BAR_GAP);
+        double scaleY = (double) chartHeight / max;
+        int x = left + BAR_GAP;
+        int labelY = TOP + chartHeight + 14;
 
+        g2.setFont(LABEL_FONT);
         for (int i = 0; i < n; i++) {
-            double value = values[i];
-            int barHeight = (int) Math.round(value * scale);
+            double value = i < values.length ? values[i] : 0;
+            int barHeight = (int) Math.round(value * scaleY);
+            int barX = x + i * (barWidth + BAR_GAP);
+            int barY = TOP + chartHeight - barHeight;
 
-            int barX = x + i * (barWidth + 8);
-            int barY = top + chartHeight - barHeight;
-
-            g2.setColor(new Color(129, 140, 248));
+            g2.setColor(BAR);
             g2.fillRoundRect(barX, barY, barWidth, barHeight, 6, 6);
 
-            g2.setColor(new Color(156, 163, 175));
-            String valueText = String.format("$%.0f", value);
-            int valWidth = g2.getFontMetrics().stringWidth(valueText);
-            g2.drawString(valueText, barX + (barWidth - valWidth) / 2, barY - 4);
-
-            String labelText = labels[i];
-            int labelWidth = g2.getFontMetrics().stringWidth(labelText);
-            int labelX = barX + (barWidth - labelWidth) / 2;
-            int labelY = top + chartHeight + 14;
-            g2.setColor(new Color(107, 114, 128));
-            g2.drawString(labelText, labelX, labelY);
+            g2.setColor(VALUE_TEXT);
+            g2.drawString(valueTexts[i], barX + (barWidth - valueWidths[i]) / 2, barY - 4);
+
+            g2.setColor(LABEL_TEXT);
+            g2.drawString(labels[i], barX + (barWidth - labelWidths[i]) / 2, labelY);
         }
 
         g2.dispose();
+        return image;
+    }
+
+    private static void drawMessage(Graphics2D g2, String message, int height) {
+        g2.setFont(MESSAGE_FONT);
+        g2.setColor(LABEL_TEXT);
+        g2.drawString(message, PADDING, height / 2);
+        g2.dispose();
     }
 }
@@ -0,0 +1,348 @@
+package org.example.gui;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory delivery statistics for the dashboards.
+ *
+ * Rows are kept in primitive columns in the same order as the deliveries table, with restaurant,
+ * platform and vehicle names stored once in a dictionary. Every change also updates running totals
+ * per day, kept in a map sorted by date, and a running total of all dated rows. A date range is
+ * answered by merging the days in the range, and the all-time view by reading the running total,
+ * so refreshing a dashboard never parses or re-scans the rows.
+ *
+ * A row may stand for several deliveries (a rollup row); its count is used as the weight.
+ * Rows without a parsable date count toward {@link #summarizeEverything()} only, like before.
+ * Not thread safe; use it from the Event Dispatch Thread.
+ */
+public class DeliveryStatsStore {
+
+    private static final long NO_DAY = Long.MIN_VALUE;
+
+    // Row columns, index-aligned with the table
+    private int size;
+    private long[] day = new long[64];
+    private int[] count = new int[64];
+    private double[] miles = new double[64];
+    private double[] earnings = new double[64];
+    private int[] restaurant = new int[64];
+    private int[] platform = new int[64];
+    private int[] vehicle = new int[64];
+
+    // Name dictionary shared by the restaurant, platform and vehicle columns
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    private final TreeMap<Long, Totals> byDay = new TreeMap<>();
+    private final Totals allDated = new Totals();
+    private final Totals undated = new Totals();
+
+    // Earnings by day at every chart resolution, built on first use after a change
+    private TimeSeriesPyramid earningsPyramid;
+
+    /**
+     * Inserts a row at a table index.
+     *
+     * @param index      Table row index
+     * @param date       Delivery day, or null if the row's date could not be read
+     * @param restaurant Restaurant name, or null
+     * @param platform   Platform name, or null for "Unknown"
+     * @param vehicle    Vehicle as shown in the table, or null
+     * @param deliveries Number of deliveries the row stands for
+     * @param miles      Miles driven
+     * @param earnings   Pay plus tips
+     */
+    public void insert(int index, LocalDate date, String restaurant, String platform, String vehicle,
+                       int deliveries, double miles, double earnings) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+        }
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        size++;
+        set(index, date, restaurant, platform, vehicle, deliveries, miles, earnings);
+        apply(index, 1);
+    }
+
+    /**
+     * Replaces the row at a table index.
+     */
+    public void update(int index, LocalDate date, String restaurant, String platform, String vehicle,
+                       int deliveries, double miles, double earnings) {
+        checkIndex(index);
+        apply(index, -1);
+        set(index, date, restaurant, platform, vehicle, deliveries, miles, earnings);
+        apply(index, 1);
+    }
+
+    /**
+     * Removes the rows from {@code first} to {@code last}, inclusive.
+     */
+    public void remove(int first, int last) {
+        checkIndex(first);
+        checkIndex(last);
+        for (int i = first; i <= last; i++) {
+            apply(i, -1);
+        }
+        shift(last + 1, first, size - last - 1);
+        size -= last - first + 1;
+    }
+
+    /**
+     * Removes every row.
+     */
+    public void clear() {
+        size = 0;
+        byDay.clear();
+        allDated.clear();
+        undated.clear();
+        nameIds.clear();
+        names.clear();
+        earningsPyramid = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Totals of the dated rows between two days, inclusive.
+     *
+     * @param start First day, or null for no lower bound
+     * @param end   Last day, or null for no upper bound
+     */
+    public Summary summarize(LocalDate start, LocalDate end) {
+        if (start == null && end == null) {
+            return allDated.toSummary(byDay);
+        }
+        long from = start != null ? start.toEpochDay() : Long.MIN_VALUE + 1;
+        long to = end != null ? end.toEpochDay() : Long.MAX_VALUE;
+        Totals range = new Totals();
+        Map<Long, Totals> days = from <= to ? byDay.subMap(from, true, to, true) : Map.of();
+        for (Totals totals : days.values()) {
+            range.add(totals);
+        }
+        return range.toSummary(days);
+    }
+
+    /**
+     * Earnings of the dated rows by day, week, month and quarter, for the zoomable charts.
+     * Kept until the next change, so zooming and panning never re-aggregate the rows.
+     */
+    public TimeSeriesPyramid earningsPyramid() {
+        if (earningsPyramid == null) {
+            TreeMap<Long, Double> earningsByDay = new TreeMap<>();
+            byDay.forEach((epochDay, totals) -> earningsByDay.put(epochDay, totals.earnings));
+            earningsPyramid = TimeSeriesPyramid.ofDays(earningsByDay);
+        }
+        return earningsPyramid;
+    }
+
+    /**
+     * Totals of every row, including rows without a date.
+     */
+    public Summary summarizeEverything() {
+        Totals everything = new Totals();
+        everything.add(allDated);
+        everything.add(undated);
+        return everything.toSummary(byDay);
+    }
+
+    private void set(int index, LocalDate date, String restaurantName, String platformName, String vehicleName,
+                     int deliveries, double rowMiles, double rowEarnings) {
+        day[index] = date != null ? date.toEpochDay() : NO_DAY;
+        count[index] = Math.max(1, deliveries);
+        miles[index] = rowMiles;
+        earnings[index] = rowEarnings;
+        restaurant[index] = nameId(restaurantName != null ? restaurantName.trim() : "");
+        platform[index] = nameId(platformName != null ? platformName : "Unknown");
+        vehicle[index] = nameId(vehicleName != null ? vehicleName : "");
+    }
+
+    // Adds (sign 1) or subtracts (sign -1) a row from its day and the running totals
+    private void apply(int index, int sign) {
+        if (day[index] == NO_DAY) {
+            undated.add(index, sign);
+            return;
+        }
+        earningsPyramid = null;
+        Totals totals = byDay.computeIfAbsent(day[index], d -> new Totals());
+        totals.add(index, sign);
+        if (totals.deliveries == 0) {
+            byDay.remove(day[index]);
+        }
+        allDated.add(index, sign);
+    }
+
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= day.length) {
+            return;
+        }
+        int length = Math.max(capacity, day.length * 2);
+        day = Arrays.copyOf(day, length);
+        count = Arrays.copyOf(count, length);
+        miles = Arrays.copyOf(miles, length);
+        earnings = Arrays.copyOf(earnings, length);
+        restaurant = Arrays.copyOf(restaurant, length);
+        platform = Arrays.copyOf(platform, length);
+        vehicle = Arrays.copyOf(vehicle, length);
+    }
+
+    private void shift(int from, int to, int length) {
+        if (length <= 0) {
+            return;
+        }
+        System.arraycopy(day, from, day, to, length);
+        System.arraycopy(count, from, count, to, length);
+        System.arraycopy(miles, from, miles, to, length);
+        System.arraycopy(earnings, from, earnings, to, length);
+        System.arraycopy(restaurant, from, restaurant, to, length);
+        System.arraycopy(platform, from, platform, to, length);
+        System.arraycopy(vehicle, from, vehicle, to, length);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+        }
+    }
+
+    /**
+     * Deliveries, miles and earnings of one restaurant, platform or vehicle.
+     */
+    public static final class Group {
+        private int deliveries;
+        private double miles;
+        private double earnings;
+
+        public int getDeliveries() { return deliveries; }
+        public double getMiles() { return miles; }
+        public double getEarnings() { return earnings; }
+    }
+
+    /**
+     * Totals of a date range. The maps are copies in first-seen order and may be modified.
+     */
+    public static final class Summary {
+        private final int deliveries;
+        private final double miles;
+        private final double earnings;
+        private final Map<String, Group> byRestaurant;
+        private final Map<String, Group> byPlatform;
+        private final Map<String, Group> byVehicle;
+        private final Map<LocalDate, Double> earningsByDay;
+
+        private Summary(int deliveries, double miles, double earnings, Map<String, Group> byRestaurant,
+                        Map<String, Group> byPlatform, Map<String, Group> byVehicle,
+                        Map<LocalDate, Double> earningsByDay) {
+            this.deliveries = deliveries;
+            this.miles = miles;
+            this.earnings = earnings;
+            this.byRestaurant = byRestaurant;
+            this.byPlatform = byPlatform;
+            this.byVehicle = byVehicle;
+            this.earningsByDay = earningsByDay;
+        }
+
+        public int getDeliveries() { return deliveries; }
+        public double getMiles() { return miles; }
+        public double getEarnings() { return earnings; }
+
+        /** Restaurants, without the empty name. */
+        public Map<String, Group> getByRestaurant() { return byRestaurant; }
+        public Map<String, Group> getByPlatform() { return byPlatform; }
+        public Map<String, Group> getByVehicle() { return byVehicle; }
+
+        /** Earnings per day, oldest first. */
+        public Map<LocalDate, Double> getEarningsByDay() { return earningsByDay; }
+    }
+
+    // Running totals of a set of rows, keyed by name id
+    private final class Totals {
+        private int deliveries;
+        private double miles;
+        private double earnings;
+        private final Map<Integer, Group> byRestaurant = new LinkedHashMap<>();
+        private final Map<Integer, Group> byPlatform = new LinkedHashMap<>();
+        private final Map<Integer, Group> byVehicle = new LinkedHashMap<>();
+
+        void add(int index, int sign) {
+            int rowCount = DeliveryStatsStore.this.count[index] * sign;
+            double rowMiles = DeliveryStatsStore.this.miles[index] * sign;
+            double rowEarnings = DeliveryStatsStore.this.earnings[index] * sign;
+            deliveries += rowCount;
+            miles += rowMiles;
+            earnings += rowEarnings;
+            addGroup(byRestaurant, restaurant[index], rowCount, rowMiles, rowEarnings);
+            addGroup(byPlatform, platform[index], rowCount, rowMiles, rowEarnings);
+            addGroup(byVehicle, vehicle[index], rowCount, rowMiles, rowEarnings);
+        }
+
+        void add(Totals other) {
+            deliveries += other.deliveries;
+            miles += other.miles;
+            earnings += other.earnings;
+            other.byRestaurant.forEach((id, g) -> addGroup(byRestaurant, id, g.deliveries, g.miles, g.earnings));
+            other.byPlatform.forEach((id, g) -> addGroup(byPlatform, id, g.deliveries, g.miles, g.earnings));
+            other.byVehicle.forEach((id, g) -> addGroup(byVehicle, id, g.deliveries, g.miles, g.earnings));
+        }
+
+        void clear() {
+            deliveries = 0;
+            miles = 0;
+            earnings = 0;
+            byRestaurant.clear();
+            byPlatform.clear();
+            byVehicle.clear();
+        }
+
+        Summary toSummary(Map<Long, Totals> days) {
+            Map<LocalDate, Double> earningsByDay = new LinkedHashMap<>();
+            days.forEach((epochDay, totals) -> earningsByDay.put(LocalDate.ofEpochDay(epochDay), totals.earnings));
+            Map<String, Group> restaurants = named(byRestaurant);
+            restaurants.remove("");
+            return new Summary(deliveries, miles, earnings, restaurants, named(byPlatform), named(byVehicle),
+                    earningsByDay);
+        }
+
+        private Map<String, Group> named(Map<Integer, Group> groups) {
+            Map<String, Group> copy = new LinkedHashMap<>();
+            groups.forEach((id, g) -> {
+                Group group = new Group();
+                group.deliveries = g.deliveries;
+                group.miles = g.miles;
+                group.earnings = g.earnings;
+                copy.put(names.get(id), group);
+            });
+            return copy;
+        }
+
+        private void addGroup(Map<Integer, Group> groups, int id, int groupCount, double groupMiles,
+                              double groupEarnings) {
+            Group group = groups.computeIfAbsent(id, key -> new Group());
+            group.deliveries += groupCount;
+            group.miles += groupMiles;
+            group.earnings += groupEarnings;
+            if (group.deliveries == 0) {
+                groups.remove(id);
+            }
+        }
+    }
+}
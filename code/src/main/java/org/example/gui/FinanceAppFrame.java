@@ -1,5 +1,6 @@
 package org.example.gui;
 
+import org.example.dataExport.src.dataExporter;
 import org.example.deliveryRecorder.src.overviewService;
 import org.example.driverFinancialServiceDispatcher.serviceDispatcher;
 import org.example.manageFinances.src.selectBankAccount;
@@ -19,14 +20,23 @@ import javax.swing.JSeparator;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFileChooser;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.RowFilter;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
 import javax.swing.border.Border;
 
 import java.awt.BorderLayout;
@@ -50,6 +60,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +101,13 @@ public class FinanceAppFrame extends JFrame {
     private static final double DEFAULT_CAR_MPG = 28.0;        // Average car MPG
     private static final double DEFAULT_MOTORCYCLE_MPG = 50.0; // Average motorcycle MPG
 
+    // Paged tables: rows read per query and pages kept in memory per table
+    private static final int TABLE_PAGE_ROWS = 100;
+    private static final int TABLE_CACHED_PAGES = 10;
+
+    // Hidden column of deliveryTableModel: number of deliveries a row stands for (1 unless it is a rollup row)
+    private static final int DELIVERY_COUNT_COLUMN = 10;
+
     private Font primaryFont(int style, int size) {
         return new Font("Segoe UI", style, size);
     }
@@ -122,6 +140,13 @@ public class FinanceAppFrame extends JFrame {
 
     private DefaultTableModel deliveryTableModel;
     private JTable deliveryTable;
+    // Saved deliveries page by page from the database while logged in; deliveryTableModel then only
+    // holds the per-day rollup the dashboards are computed from
+    private PagedTableModel<overviewService.OverviewDTO> deliveryPageModel;
+    private TableRowSorter<DefaultTableModel> deliveryRowSorter;
+    // Typed copy of deliveryTableModel with running totals, kept in step by a table model listener
+    private final DeliveryStatsStore deliveryStats = new DeliveryStatsStore();
+    private JTextField deliverySearchField;
 
     private JLabel deliveriesSummaryLabel;
 
@@ -172,7 +197,7 @@ public class FinanceAppFrame extends JFrame {
     private JComboBox<Integer> reportEndDayCombo;
 
     private BarChartPanel platformChart;
-    private BarChartPanel dailyChart;
+    private TimeSeriesChartPanel dailyChart;
 
     // =========================================================
     //   ACCOUNT / PROFILE FIELDS (IN-MEMORY)
@@ -223,7 +248,9 @@ public class FinanceAppFrame extends JFrame {
     private JLabel bankTransactionCountLabel;
 
     // Summary tab fields
-    private DefaultTableModel summaryTransactionTableModel;
+    private PagedTableModel<org.example.manageFinances.src.generalFinancialData.TransactionSummary> summaryTransactionTableModel;
+    // Transaction types shown in the summary table, or null for all
+    private List<String> summaryTransactionTypes;
     private JLabel summaryAssetsValueLabel;
     private JLabel summaryIncomeValueLabel;
     private JLabel summaryExpensesValueLabel;
@@ -258,6 +285,14 @@ public class FinanceAppFrame extends JFrame {
 
     private serviceDispatcher.ServiceDispatcher serviceDispatcher;
 
+    // =========================================================
+    //   BACKGROUND LOADING
+    // =========================================================
+
+    // Database loads for the screens run here so the Event Dispatch Thread never waits on JDBC
+    private final BackgroundLoader backgroundLoader = new BackgroundLoader(2, 16);
+    private JProgressBar loadingProgressBar;
+
     // =========================================================
     //   WORK PERIOD TRACKING
     // =========================================================
@@ -514,6 +549,23 @@ public class FinanceAppFrame extends JFrame {
 
         sidebar.add(Box.createVerticalGlue());
 
+        // Shown while any background load is queued or running
+        loadingProgressBar = new JProgressBar();
+        loadingProgressBar.setIndeterminate(true);
+        loadingProgressBar.setStringPainted(true);
+        loadingProgressBar.setString("Loading...");
+        loadingProgressBar.setFont(primaryFont(Font.PLAIN, 11));
+        loadingProgressBar.setAlignmentX(Component.LEFT_ALIGNMENT);
+        loadingProgressBar.setMaximumSize(new Dimension(Integer.MAX_VALUE, 16));
+        loadingProgressBar.setVisible(false);
+        sidebar.add(loadingProgressBar);
+        backgroundLoader.addActivityListener(active -> {
+            loadingProgressBar.setString(active > 1 ? "Loading (" + active + ")..." : "Loading...");
+            loadingProgressBar.setVisible(active > 0);
+        });
+
+        sidebar.add(Box.createVerticalStrut(8));
+
         JLabel footer = new JLabel("v0.1 • Student project");
         footer.setForeground(COLOR_TEXT_MUTED);
         footer.setFont(primaryFont(Font.PLAIN, 11));
@@ -830,9 +882,9 @@ public class FinanceAppFrame extends JFrame {
             accountStatusLabel.setText(getAccountStatusText());
             clearLoginFields();
             showAutoCloseSuccess("Signed in as " + username);
-            loadVehiclesFromDatabase(); // Load vehicles from database
+            // These load in the background; each screen fills in as its data arrives
+            loadVehiclesFromDatabase(); // Load vehicles and the current vehicle from database
             loadDeliveriesFromDatabase(); // Load past deliveries from database
-            loadCurrentVehicle(); // Load and display current vehicle
             loadBankAccountsFromDatabase(); // Load bank accounts from database
             updateHomeOverview();
             showScreen("HOME");
@@ -865,7 +917,10 @@ public class FinanceAppFrame extends JFrame {
     }
 
     /**
-     * Loads all past deliveries from the database for the current user and populates the delivery table.
+     * Shows the current user's saved deliveries and refreshes the delivery statistics.
+     * The deliveries table switches to the paged model, which reads only the rows on screen. The
+     * dashboards read deliveryTableModel, which is filled with the per-day rollup of the deliveries
+     * instead of every delivery, so opening the app costs the same for one month of data as for ten years.
      */
     private void loadDeliveriesFromDatabase() {
         if (serviceDispatcher == null || !serviceDispatcher.isLoggedIn()) {
@@ -873,130 +928,269 @@ public class FinanceAppFrame extends JFrame {
             return;
         }
 
-        try {
-            // Clear existing table data
-            deliveryTableModel.setRowCount(0);
-
-            // Fetch deliveries from database via serviceDispatcher
-            List<overviewService.OverviewDTO> deliveries = serviceDispatcher.getCurrentUserPastDeliveries();
+        showDeliveryPages(true);
+        deliveryPageModel.refresh();
 
-            if (deliveries == null || deliveries.isEmpty()) {
-                System.out.println("FinanceAppFrame: No deliveries found for current user.");
-                updateDeliverySummaryLabel();
-                return;
+        backgroundLoader.submit("deliveries", new BackgroundLoader.Load<Integer, Object[]>() {
+            @Override
+            protected void started() {
+                // Clear existing table data
+                deliveryTableModel.setRowCount(0);
             }
 
-            System.out.println("FinanceAppFrame: Loading " + deliveries.size() + " deliveries from database.");
+            @Override
+            protected Integer load(BackgroundLoader.Context<Object[]> context) {
+                List<overviewService.DeliveryRollup> rollup = serviceDispatcher.getCurrentUserDeliveryRollup();
 
-            // Date/time formatters
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+                int deliveries = 0;
+                for (overviewService.DeliveryRollup group : rollup) {
+                    if (context.isCancelled()) {
+                        break;
+                    }
+                    double total = group.getBasePay() + group.getTips();
+                    context.publish(new Object[]{
+                        group.getDay() != null ? group.getDay() : "",
+                        "",
+                        "",
+                        group.getRestaurant() != null ? group.getRestaurant() : "",
+                        group.getPlatform() != null ? group.getPlatform() : "",
+                        group.getVehicle() != null ? group.getVehicle() : "",
+                        (double) group.getMiles(),
+                        group.getBasePay(),
+                        group.getTips(),
+                        total,
+                        group.getDeliveryCount()
+                    });
+                    deliveries += group.getDeliveryCount();
+                }
+                System.out.println("FinanceAppFrame: Loaded " + rollup.size() + " delivery rollup rows.");
+                return deliveries;
+            }
 
-            for (overviewService.OverviewDTO delivery : deliveries) {
-                // Convert epoch timestamp to formatted date and time
-                String date = "";
-                String startTime = "";
+            @Override
+            protected void process(List<Object[]> rows) {
+                appendRows(deliveryTableModel, rows);
+            }
 
-                long timestamp = delivery.getDateTime();
-                if (timestamp > 0) {
-                    LocalDateTime dateTime = LocalDateTime.ofInstant(
-                        Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
-                    date = dateTime.format(dateFormatter);
-                    startTime = dateTime.format(timeFormatter);
-                }
+            @Override
+            protected void done(Integer count) {
+                // Update UI components with loaded data
+                updateDeliverySummaryLabel();
+                updateSidebarStats();
+                updateReportStats();
+                updateHomeOverview();
 
-                // Get values from DTO
-                String restaurant = delivery.getRestaurant() != null ? delivery.getRestaurant() : "";
-                String platform = delivery.getPlatform() != null ? delivery.getPlatform() : "";
-                String vehicle = delivery.getVehicle() != null ? delivery.getVehicle() : "";
-                double miles = delivery.getMilesDriven();
-                double basePay = delivery.getBasePay();
-                double tips = delivery.getTips();
-                double total = basePay + tips;
-
-                // End time is not stored separately, so leave blank or calculate if needed
-                String endTime = "";
-
-                // Add row to table
-                deliveryTableModel.addRow(new Object[]{
-                    date,
-                    startTime,
-                    endTime,
-                    restaurant,
-                    platform,
-                    vehicle,
-                    miles,
-                    basePay,
-                    tips,
-                    total
-                });
+                System.out.println("FinanceAppFrame: Successfully loaded statistics for " + count + " deliveries.");
             }
 
-            // Update UI components with loaded data
-            updateDeliverySummaryLabel();
-            updateSidebarStats();
-            updateReportStats();
+            @Override
+            protected void failed(Exception e) {
+                System.err.println("FinanceAppFrame: Error loading deliveries from database: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
 
-            System.out.println("FinanceAppFrame: Successfully loaded " + deliveries.size() + " deliveries.");
+    /**
+     * Formats a saved delivery as a deliveries table row. Runs on the background loader.
+     */
+    private static Object[] toDeliveryRow(overviewService.OverviewDTO delivery) {
+        // Convert epoch timestamp to formatted date and time
+        String date = "";
+        String startTime = "";
+
+        long timestamp = delivery.getDateTime();
+        if (timestamp > 0) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+            date = dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE);
+            startTime = dateTime.format(DateTimeFormatter.ofPattern("HH:mm"));
+        }
+
+        double basePay = delivery.getBasePay();
+        double tips = delivery.getTips();
+
+        // End time is not stored separately, so leave blank
+        return new Object[]{
+            date,
+            startTime,
+            "",
+            delivery.getRestaurant() != null ? delivery.getRestaurant() : "",
+            delivery.getPlatform() != null ? delivery.getPlatform() : "",
+            delivery.getVehicle() != null ? delivery.getVehicle() : "",
+            (double) delivery.getMilesDriven(),
+            basePay,
+            tips,
+            basePay + tips
+        };
+    }
 
-        } catch (Exception e) {
-            System.err.println("FinanceAppFrame: Error loading deliveries from database: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Switches the deliveries table between the saved deliveries read page by page from the database
+     * and the in-memory rows used before login. Both models share the table's columns.
+     */
+    private void showDeliveryPages(boolean paged) {
+        if (paged == (deliveryTable.getModel() == deliveryPageModel)) {
+            return;
+        }
+        // The row sorter would read every row of the paged model, so it only belongs to the local one
+        deliveryTable.setRowSorter(null);
+        if (paged) {
+            deliveryTable.setModel(deliveryPageModel);
+            deliveryPageModel.showSortIn(deliveryTable);
+        } else {
+            deliveryTable.setModel(deliveryTableModel);
+            deliveryTable.setRowSorter(deliveryRowSorter);
+            for (int i = 0; i < deliveryTable.getColumnModel().getColumnCount(); i++) {
+                TableColumn column = deliveryTable.getColumnModel().getColumn(i);
+                column.setHeaderValue(deliveryTableModel.getColumnName(column.getModelIndex()));
+            }
+            deliveryTable.getTableHeader().repaint();
         }
+        applyDeliverySearch();
     }
 
     /**
-     * Updates the delivery summary label with count and total from table.
+     * Applies the deliveries search text: in SQL while paged, with a row filter otherwise.
      */
-    private void updateDeliverySummaryLabel() {
-        if (deliveryTableModel == null || deliveriesSummaryLabel == null) {
+    private void applyDeliverySearch() {
+        String text = deliverySearchField != null ? deliverySearchField.getText().trim() : "";
+        if (deliveryTable.getModel() == deliveryPageModel) {
+            deliveryPageModel.setFilter(text);
+        } else {
+            deliveryRowSorter.setRowFilter(text.isEmpty() ? null
+                    : RowFilter.regexFilter("(?i)" + java.util.regex.Pattern.quote(text), 3, 4, 5));
+        }
+        updateDeliverySummaryLabel();
+    }
+
+    /**
+     * Applies a change of deliveryTableModel to the delivery statistics, parsing only the changed rows.
+     */
+    private void syncDeliveryStats(TableModelEvent e) {
+        int first = e.getFirstRow();
+        int last = e.getLastRow();
+        if (first == TableModelEvent.HEADER_ROW || last == Integer.MAX_VALUE) {
+            // Whole table changed
+            deliveryStats.clear();
+            for (int i = 0; i < deliveryTableModel.getRowCount(); i++) {
+                putDeliveryStats(i, true);
+            }
             return;
         }
+        switch (e.getType()) {
+            case TableModelEvent.INSERT:
+                for (int i = first; i <= last; i++) {
+                    putDeliveryStats(i, true);
+                }
+                break;
+            case TableModelEvent.DELETE:
+                deliveryStats.remove(first, last);
+                break;
+            default:
+                for (int i = first; i <= last; i++) {
+                    putDeliveryStats(i, false);
+                }
+                break;
+        }
+    }
 
-        int count = deliveryTableModel.getRowCount();
-        double total = 0.0;
+    private void putDeliveryStats(int row, boolean insert) {
+        Object dateObj = deliveryTableModel.getValueAt(row, 0);
+        LocalDate date = dateObj != null ? parseDateSafe(dateObj.toString().trim()) : null;
+        Object restObj = deliveryTableModel.getValueAt(row, 3);
+        Object platformObj = deliveryTableModel.getValueAt(row, 4);
+        Object carObj = deliveryTableModel.getValueAt(row, 5);
+        String restaurant = restObj != null ? restObj.toString() : null;
+        String platform = platformObj != null ? platformObj.toString() : null;
+        String car = carObj != null ? carObj.toString() : null;
+        double miles = cellToDouble(deliveryTableModel.getValueAt(row, 6));
+        double total = cellToDouble(deliveryTableModel.getValueAt(row, 9));
+        if (insert) {
+            deliveryStats.insert(row, date, restaurant, platform, car, deliveryCountAt(row), miles, total);
+        } else {
+            deliveryStats.update(row, date, restaurant, platform, car, deliveryCountAt(row), miles, total);
+        }
+    }
 
-        for (int i = 0; i < count; i++) {
-            Object totalObj = deliveryTableModel.getValueAt(i, 9); // Total column
-            if (totalObj instanceof Number) {
-                total += ((Number) totalObj).doubleValue();
-            }
+    private static double cellToDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException ignored) { }
         }
+        return 0.0;
+    }
 
-        deliveriesSummaryLabel.setText(count + " deliveries \u2022 Total: $" + String.format("%.2f", total));
+    /**
+     * Gets how many deliveries a row of deliveryTableModel stands for.
+     */
+    private int deliveryCountAt(int row) {
+        Object count = deliveryTableModel.getValueAt(row, DELIVERY_COUNT_COLUMN);
+        return count instanceof Number ? ((Number) count).intValue() : 1;
     }
 
     /**
-     * Loads and displays the current vehicle from the database.
-     * If no vehicle is set as current, the first vehicle in the database is used.
+     * Appends rows to a table model with a single insert event instead of one event per row.
      */
-    private void loadCurrentVehicle() {
-        if (serviceDispatcher == null) {
-            System.out.println("FinanceAppFrame: ServiceDispatcher not available, cannot load current vehicle.");
+    private static void appendRows(DefaultTableModel model, List<Object[]> rows) {
+        if (rows.isEmpty()) {
             return;
         }
+        int firstRow = model.getRowCount();
+        @SuppressWarnings("unchecked")
+        java.util.Vector<java.util.Vector<Object>> data = (java.util.Vector) model.getDataVector();
+        for (Object[] row : rows) {
+            java.util.Vector<Object> values = new java.util.Vector<>(row.length);
+            java.util.Collections.addAll(values, row);
+            data.add(values);
+        }
+        model.fireTableRowsInserted(firstRow, model.getRowCount() - 1);
+    }
 
-        try {
-            org.example.deliveryRecorder.src.vehicle currentVehicle = serviceDispatcher.getCurrentVehicle();
+    /**
+     * Updates the delivery summary label with count and total from table.
+     */
+    private void updateDeliverySummaryLabel() {
+        if (deliveryTableModel == null || deliveriesSummaryLabel == null) {
+            return;
+        }
 
-            if (currentVehicle != null) {
-                String vehicleDisplay = currentVehicle.getVehicleModel();
-                if (currentVehicle.getVehicleType() != null && !currentVehicle.getVehicleType().isEmpty()) {
-                    vehicleDisplay = currentVehicle.getVehicleType() + " - " + currentVehicle.getVehicleModel();
-                }
+        DeliveryStatsStore.Summary everything = deliveryStats.summarizeEverything();
+        int count = everything.getDeliveries();
+        double total = everything.getEarnings();
 
-                sidebarCurrentVehicleLabel.setText(vehicleDisplay);
-                System.out.println("FinanceAppFrame: Current vehicle loaded: " + vehicleDisplay);
+        String summary = count + " deliveries \u2022 Total: $" + String.format("%.2f", total);
+        if (deliveryTable != null && deliveryTable.getModel() == deliveryPageModel
+                && deliveryPageModel.getFilter() != null && deliveryPageModel.isCounted()) {
+            summary += " \u2022 Matching: " + deliveryPageModel.getRowCount();
+        } else if (deliveryRowSorter != null && deliveryRowSorter.getRowFilter() != null) {
+            summary += " \u2022 Matching: " + deliveryRowSorter.getViewRowCount();
+        }
+        deliveriesSummaryLabel.setText(summary);
+    }
 
-                // Also select this vehicle in the delivery car combo if it exists
-                selectVehicleInCombo(currentVehicle.getVehicleModel());
-            } else {
-                sidebarCurrentVehicleLabel.setText("No vehicle set");
-                System.out.println("FinanceAppFrame: No vehicles found in database.");
+    /**
+     * Shows the current vehicle in the sidebar and selects it in the delivery car combo.
+     */
+    private void showCurrentVehicle(org.example.deliveryRecorder.src.vehicle currentVehicle) {
+        if (currentVehicle != null) {
+            String vehicleDisplay = currentVehicle.getVehicleModel();
+            if (currentVehicle.getVehicleType() != null && !currentVehicle.getVehicleType().isEmpty()) {
+                vehicleDisplay = currentVehicle.getVehicleType() + " - " + currentVehicle.getVehicleModel();
             }
-        } catch (Exception e) {
-            System.err.println("FinanceAppFrame: Error loading current vehicle: " + e.getMessage());
-            sidebarCurrentVehicleLabel.setText("Error loading vehicle");
+
+            sidebarCurrentVehicleLabel.setText(vehicleDisplay);
+            System.out.println("FinanceAppFrame: Current vehicle loaded: " + vehicleDisplay);
+
+            // Also select this vehicle in the delivery car combo if it exists
+            selectVehicleInCombo(currentVehicle.getVehicleModel());
+        } else {
+            sidebarCurrentVehicleLabel.setText("No vehicle set");
+            System.out.println("FinanceAppFrame: No vehicles found in database.");
         }
     }
 
@@ -1043,51 +1237,69 @@ public class FinanceAppFrame extends JFrame {
             return;
         }
 
-        try {
-            List<org.example.manageFinances.src.selectBankAccount> accounts =
-                    serviceDispatcher.getCurrentUserBankAccounts();
-
-            bankAccountTableModel.setRowCount(0); // Clear table
-
-            for (org.example.manageFinances.src.selectBankAccount acc : accounts) {
-                bankAccountTableModel.addRow(new Object[]{
-                        acc.getAccountID(),
-                        acc.getAccountName(),
-                        acc.getAccountType(),
-                        String.format("$%.2f", acc.getBalance())
-                });
+        backgroundLoader.submit("bankAccounts", new BackgroundLoader.Load<Integer, Object[]>() {
+            @Override
+            protected void started() {
+                bankAccountTableModel.setRowCount(0); // Clear table
             }
 
-            // Clear transactions and details
-            if (bankTransactionTableModel != null) {
-                bankTransactionTableModel.setRowCount(0);
-            }
-            if (bankAccountIdValue != null) {
-                bankAccountIdValue.setText("-");
-                bankAccountNameValue.setText("-");
-                bankAccountTypeValue.setText("-");
-                bankAccountBalanceValue.setText("-");
+            @Override
+            protected Integer load(BackgroundLoader.Context<Object[]> context) {
+                List<org.example.manageFinances.src.selectBankAccount> accounts =
+                        serviceDispatcher.getCurrentUserBankAccounts();
+
+                for (org.example.manageFinances.src.selectBankAccount acc : accounts) {
+                    context.publish(new Object[]{
+                            acc.getAccountID(),
+                            acc.getAccountName(),
+                            acc.getAccountType(),
+                            String.format("$%.2f", acc.getBalance())
+                    });
+                }
+                return accounts.size();
             }
-            if (bankTotalIncomeLabel != null) {
-                bankTotalIncomeLabel.setText("Total Income: $0.00");
-                bankTotalExpensesLabel.setText("Total Expenses: $0.00");
-                bankNetLabel.setText("Net: $0.00");
-                bankTransactionCountLabel.setText("Transactions: 0");
+
+            @Override
+            protected void process(List<Object[]> rows) {
+                appendRows(bankAccountTableModel, rows);
             }
 
-            System.out.println("FinanceAppFrame: Loaded " + accounts.size() + " bank account(s) from database.");
+            @Override
+            protected void done(Integer count) {
+                // Clear transactions and details
+                if (bankTransactionTableModel != null) {
+                    bankTransactionTableModel.setRowCount(0);
+                }
+                if (bankAccountIdValue != null) {
+                    bankAccountIdValue.setText("-");
+                    bankAccountNameValue.setText("-");
+                    bankAccountTypeValue.setText("-");
+                    bankAccountBalanceValue.setText("-");
+                }
+                if (bankTotalIncomeLabel != null) {
+                    bankTotalIncomeLabel.setText("Total Income: $0.00");
+                    bankTotalExpensesLabel.setText("Total Expenses: $0.00");
+                    bankNetLabel.setText("Net: $0.00");
+                    bankTransactionCountLabel.setText("Transactions: 0");
+                }
 
-            // Also load summary transactions (auto-load on login)
-            loadSummaryTransactions("All Transactions");
+                System.out.println("FinanceAppFrame: Loaded " + count + " bank account(s) from database.");
 
-        } catch (Exception ex) {
-            System.err.println("Error loading bank accounts: " + ex.getMessage());
-            ex.printStackTrace();
-        }
+                // Also load summary transactions (auto-load on login)
+                loadSummaryTransactions("All Transactions");
+            }
+
+            @Override
+            protected void failed(Exception ex) {
+                System.err.println("Error loading bank accounts: " + ex.getMessage());
+                ex.printStackTrace();
+            }
+        });
     }
 
     /**
-     * Loads all vehicles from the database and populates the car combo box and car table.
+     * Loads all vehicles and the current vehicle from the database and populates the car combo box,
+     * the car table, the default vehicle combo and the sidebar.
      */
     private void loadVehiclesFromDatabase() {
         if (serviceDispatcher == null) {
@@ -1095,51 +1307,71 @@ public class FinanceAppFrame extends JFrame {
             return;
         }
 
-        try {
-            List<org.example.deliveryRecorder.src.vehicle> vehicles = serviceDispatcher.getAllVehicles();
+        backgroundLoader.submit("vehicles", new BackgroundLoader.Load<Object[], Void>() {
+            @Override
+            protected Object[] load(BackgroundLoader.Context<Void> context) {
+                List<org.example.deliveryRecorder.src.vehicle> vehicles = serviceDispatcher.getAllVehicles();
+                org.example.deliveryRecorder.src.vehicle current = serviceDispatcher.getCurrentVehicle();
+                return new Object[]{vehicles, current};
+            }
 
-            if (vehicles == null || vehicles.isEmpty()) {
-                System.out.println("FinanceAppFrame: No vehicles found in database.");
-                return;
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void done(Object[] result) {
+                List<org.example.deliveryRecorder.src.vehicle> vehicles =
+                        (List<org.example.deliveryRecorder.src.vehicle>) result[0];
+                org.example.deliveryRecorder.src.vehicle current = (org.example.deliveryRecorder.src.vehicle) result[1];
+                showVehicles(vehicles);
+                showCurrentVehicle(current);
+                refreshDefaultVehicleCombo(vehicles, current);
             }
 
-            System.out.println("FinanceAppFrame: Loading " + vehicles.size() + " vehicles from database.");
+            @Override
+            protected void failed(Exception e) {
+                System.err.println("FinanceAppFrame: Error loading vehicles from database: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
 
-            // Clear existing data
-            carTableModel.setRowCount(0);
-            ((DefaultComboBoxModel<String>) deliveryCarCombo.getModel()).removeAllElements();
+    /**
+     * Fills the car table and the delivery car combo with loaded vehicles.
+     */
+    private void showVehicles(List<org.example.deliveryRecorder.src.vehicle> vehicles) {
+        if (vehicles == null || vehicles.isEmpty()) {
+            System.out.println("FinanceAppFrame: No vehicles found in database.");
+            return;
+        }
 
-            for (org.example.deliveryRecorder.src.vehicle v : vehicles) {
-                String vehicleName = v.getVehicleModel();
-                if (vehicleName == null || vehicleName.isEmpty()) {
-                    continue;
-                }
+        System.out.println("FinanceAppFrame: Loading " + vehicles.size() + " vehicles from database.");
 
-                int carId = nextCarId++;
-                // Use MPG from database, or default based on vehicle type if not set
-                double mpg = v.getVehicleMpg();
-                if (mpg <= 0) {
-                    mpg = getDefaultMpgForVehicleType(v.getVehicleType());
-                }
-                String vehicleType = v.getVehicleType();
-                String displayName = (vehicleType != null && !vehicleType.isEmpty())
-                        ? vehicleType + " - " + vehicleName
-                        : vehicleName;
-                carTableModel.addRow(new Object[]{carId, displayName, mpg});
+        // Clear existing data
+        carTableModel.setRowCount(0);
+        ((DefaultComboBoxModel<String>) deliveryCarCombo.getModel()).removeAllElements();
 
-                String displayString = carId + " - " + displayName;
-                ((DefaultComboBoxModel<String>) deliveryCarCombo.getModel()).addElement(displayString);
+        for (org.example.deliveryRecorder.src.vehicle v : vehicles) {
+            String vehicleName = v.getVehicleModel();
+            if (vehicleName == null || vehicleName.isEmpty()) {
+                continue;
             }
 
-            System.out.println("FinanceAppFrame: Successfully loaded " + vehicles.size() + " vehicles.");
-
-            // Also refresh the default vehicle combo in settings
-            refreshDefaultVehicleCombo();
+            int carId = nextCarId++;
+            // Use MPG from database, or default based on vehicle type if not set
+            double mpg = v.getVehicleMpg();
+            if (mpg <= 0) {
+                mpg = getDefaultMpgForVehicleType(v.getVehicleType());
+            }
+            String vehicleType = v.getVehicleType();
+            String displayName = (vehicleType != null && !vehicleType.isEmpty())
+                    ? vehicleType + " - " + vehicleName
+                    : vehicleName;
+            carTableModel.addRow(new Object[]{carId, displayName, mpg});
 
-        } catch (Exception e) {
-            System.err.println("FinanceAppFrame: Error loading vehicles from database: " + e.getMessage());
-            e.printStackTrace();
+            String displayString = carId + " - " + displayName;
+            ((DefaultComboBoxModel<String>) deliveryCarCombo.getModel()).addElement(displayString);
         }
+
+        System.out.println("FinanceAppFrame: Successfully loaded " + vehicles.size() + " vehicles.");
     }
 
     /**
@@ -1164,39 +1396,43 @@ public class FinanceAppFrame extends JFrame {
     }
 
     /**
-     * Refreshes the default vehicle combo box in the Settings tab with vehicles from the database.
+     * Refreshes the default vehicle combo box in the Settings tab from the car table.
+     * Vehicles from the database are filled in by loadVehiclesFromDatabase once they are loaded.
      */
     private void refreshDefaultVehicleCombo() {
+        refreshDefaultVehicleCombo(null, null);
+    }
+
+    /**
+     * Refreshes the default vehicle combo box in the Settings tab.
+     * @param vehicles Vehicles loaded from the database, or null to use the car table
+     * @param currentVehicleObj The current vehicle to select, or null
+     */
+    private void refreshDefaultVehicleCombo(List<org.example.deliveryRecorder.src.vehicle> vehicles,
+                                            org.example.deliveryRecorder.src.vehicle currentVehicleObj) {
         if (defaultVehicleCombo == null) {
             return;
         }
 
         defaultVehicleCombo.removeAllItems();
 
-        // Try to load from database first
-        if (serviceDispatcher != null) {
-            try {
-                List<org.example.deliveryRecorder.src.vehicle> vehicles = serviceDispatcher.getAllVehicles();
-                if (vehicles != null && !vehicles.isEmpty()) {
-                    for (org.example.deliveryRecorder.src.vehicle v : vehicles) {
-                        String vehicleName = v.getVehicleModel();
-                        String vehicleType = v.getVehicleType();
-                        if (vehicleName == null || vehicleName.isEmpty()) {
-                            continue;
-                        }
-                        String displayStr;
-                        if (vehicleType != null && !vehicleType.isEmpty()) {
-                            displayStr = vehicleType + " - " + vehicleName;
-                        } else {
-                            displayStr = vehicleName;
-                        }
-                        defaultVehicleCombo.addItem(displayStr);
-                    }
-                    System.out.println("FinanceAppFrame: Loaded " + vehicles.size() + " vehicles into default vehicle dropdown.");
+        // Use the vehicles from the database first
+        if (vehicles != null && !vehicles.isEmpty()) {
+            for (org.example.deliveryRecorder.src.vehicle v : vehicles) {
+                String vehicleName = v.getVehicleModel();
+                String vehicleType = v.getVehicleType();
+                if (vehicleName == null || vehicleName.isEmpty()) {
+                    continue;
                 }
-            } catch (Exception ex) {
-                System.err.println("FinanceAppFrame: Error loading vehicles for default dropdown: " + ex.getMessage());
+                String displayStr;
+                if (vehicleType != null && !vehicleType.isEmpty()) {
+                    displayStr = vehicleType + " - " + vehicleName;
+                } else {
+                    displayStr = vehicleName;
+                }
+                defaultVehicleCombo.addItem(displayStr);
             }
+            System.out.println("FinanceAppFrame: Loaded " + vehicles.size() + " vehicles into default vehicle dropdown.");
         }
 
         // Fallback: if no vehicles loaded from database, try carTableModel
@@ -1210,23 +1446,16 @@ public class FinanceAppFrame extends JFrame {
         }
 
         // Try to select the current vehicle
-        if (serviceDispatcher != null) {
-            try {
-                org.example.deliveryRecorder.src.vehicle currentVehicleObj = serviceDispatcher.getCurrentVehicle();
-                if (currentVehicleObj != null) {
-                    String currentVehicle = currentVehicleObj.getVehicleModel();
-                    if (currentVehicle != null && !currentVehicle.isEmpty()) {
-                        for (int i = 0; i < defaultVehicleCombo.getItemCount(); i++) {
-                            String item = defaultVehicleCombo.getItemAt(i);
-                            if (item != null && item.contains(currentVehicle)) {
-                                defaultVehicleCombo.setSelectedIndex(i);
-                                break;
-                            }
-                        }
+        if (currentVehicleObj != null) {
+            String currentVehicle = currentVehicleObj.getVehicleModel();
+            if (currentVehicle != null && !currentVehicle.isEmpty()) {
+                for (int i = 0; i < defaultVehicleCombo.getItemCount(); i++) {
+                    String item = defaultVehicleCombo.getItemAt(i);
+                    if (item != null && item.contains(currentVehicle)) {
+                        defaultVehicleCombo.setSelectedIndex(i);
+                        break;
                     }
                 }
-            } catch (Exception ex) {
-                System.err.println("FinanceAppFrame: Error getting current vehicle: " + ex.getMessage());
             }
         }
     }
@@ -1580,68 +1809,14 @@ public class FinanceAppFrame extends JFrame {
         }
 
         // Aggregate for selected range
-        int rows = deliveryTableModel.getRowCount();
-        int deliveries = 0;
-        double totalEarnings = 0.0;
-        double totalMiles = 0.0;
-        double gasCost = 0.0;
-
-        Map<String, Integer> restaurantCounts = new LinkedHashMap<>();
-        Map<String, Integer> platformCounts = new LinkedHashMap<>();
+        DeliveryStatsStore.Summary summary = deliveryStats.summarize(start, end);
+        int deliveries = summary.getDeliveries();
+        double totalEarnings = summary.getEarnings();
+        double totalMiles = summary.getMiles();
+        double gasCost = estimateGasCost(summary);
 
-        for (int i = 0; i < rows; i++) {
-            Object dateObj = deliveryTableModel.getValueAt(i, 0); // Date column
-            if (dateObj == null) continue;
-            String dateStr = dateObj.toString().trim();
-            LocalDate rowDate = parseDateSafe(dateStr);
-            if (rowDate == null) continue;
-
-            if (start != null && rowDate.isBefore(start)) continue;
-            if (end != null && rowDate.isAfter(end)) continue;
-
-            deliveries++;
-
-            // Total earnings
-            Object totalObj = deliveryTableModel.getValueAt(i, 9); // Total column
-            double total = 0.0;
-            if (totalObj instanceof Number) {
-                total = ((Number) totalObj).doubleValue();
-            } else if (totalObj != null) {
-                try {
-                    total = Double.parseDouble(totalObj.toString());
-                } catch (NumberFormatException ignored) { }
-            }
-            totalEarnings += total;
-
-            // Miles
-            Object milesObj = deliveryTableModel.getValueAt(i, 6);
-            double miles = 0.0;
-            if (milesObj instanceof Number) {
-                miles = ((Number) milesObj).doubleValue();
-            } else if (milesObj != null) {
-                try {
-                    miles = Double.parseDouble(milesObj.toString());
-                } catch (NumberFormatException ignored) { }
-            }
-            totalMiles += miles;
-
-            // Gas cost per row
-            gasCost += computeGasCostForRow(i);
-
-            // Restaurant counts
-            Object restObj = deliveryTableModel.getValueAt(i, 3);
-            if (restObj != null) {
-                String rest = restObj.toString().trim();
-                if (!rest.isEmpty()) {
-                    restaurantCounts.put(rest, restaurantCounts.getOrDefault(rest, 0) + 1);
-                }
-            }
-
-            // Platform counts
-            Object platformObj = deliveryTableModel.getValueAt(i, 4);
-            String platform = platformObj == null ? "Unknown" : platformObj.toString();
-            platformCounts.put(platform, platformCounts.getOrDefault(platform, 0) + 1);
-        }
+        Map<String, Integer> restaurantCounts = deliveryCounts(summary.getByRestaurant());
+        Map<String, Integer> platformCounts = deliveryCounts(summary.getByPlatform());
 
         double net = totalEarnings - gasCost;
 
@@ -1860,8 +2035,31 @@ public class FinanceAppFrame extends JFrame {
         JLabel pastLabel = new JLabel("Past deliveries");
         pastLabel.setFont(primaryFont(Font.BOLD, 13));
         pastLabel.setForeground(COLOR_TEXT_SECONDARY);
-        pastLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        topBox.add(pastLabel);
+
+        // Search restaurant, platform and car; filtered in SQL while the table is paged
+        deliverySearchField = createInputField();
+        deliverySearchField.setToolTipText("Search restaurant, platform or car");
+        deliverySearchField.setPreferredSize(new Dimension(220, deliverySearchField.getPreferredSize().height));
+        Timer searchDelay = new Timer(300, e -> applyDeliverySearch());
+        searchDelay.setRepeats(false);
+        deliverySearchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+        });
+
+        JPanel pastRow = new JPanel(new BorderLayout(8, 0));
+        pastRow.setBackground(COLOR_BG_CARD);
+        pastRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+        pastRow.add(pastLabel, BorderLayout.WEST);
+        pastRow.add(deliverySearchField, BorderLayout.EAST);
+        pastRow.setMaximumSize(new Dimension(Integer.MAX_VALUE, pastRow.getPreferredSize().height));
+        topBox.add(pastRow);
         topBox.add(Box.createVerticalStrut(4));
 
         centerPanel.add(topBox, BorderLayout.NORTH);
@@ -1871,18 +2069,29 @@ public class FinanceAppFrame extends JFrame {
                 "Date", "Start", "End", "Restaurant", "Platform",
                 "Car", "Miles", "Pay", "Tip", "Total"
         };
-        deliveryTableModel = new DefaultTableModel(deliveryColumns, 0) {
+        Class<?>[] deliveryColumnClasses = {
+                String.class, String.class, String.class, String.class, String.class,
+                String.class, Double.class, Double.class, Double.class, Double.class
+        };
+        String[] statsColumns = Arrays.copyOf(deliveryColumns, DELIVERY_COUNT_COLUMN + 1);
+        statsColumns[DELIVERY_COUNT_COLUMN] = "Count";
+        deliveryTableModel = new DefaultTableModel(statsColumns, 0) {
             @Override
             public boolean isCellEditable(int row, int col) { return false; }
 
             @Override
             public Class<?> getColumnClass(int col) {
-                if (col >= 6) return Double.class;
-                return String.class;
+                if (col == DELIVERY_COUNT_COLUMN) return Integer.class;
+                return deliveryColumnClasses[col];
             }
         };
 
+        deliveryTableModel.addTableModelListener(this::syncDeliveryStats);
+
         deliveryTable = new JTable(deliveryTableModel);
+        // The count column is only for the statistics; both table models share the remaining columns
+        deliveryTable.removeColumn(deliveryTable.getColumnModel().getColumn(DELIVERY_COUNT_COLUMN));
+        deliveryTable.setAutoCreateColumnsFromModel(false);
         deliveryTable.setFillsViewportHeight(true);
         deliveryTable.setRowHeight(22);
         deliveryTable.setBackground(COLOR_BG_MAIN);
@@ -1891,7 +2100,30 @@ public class FinanceAppFrame extends JFrame {
         deliveryTable.setSelectionBackground(COLOR_ACCENT_DARK);
         deliveryTable.setSelectionForeground(COLOR_TEXT_PRIMARY);
         deliveryTable.setFont(primaryFont(Font.PLAIN, 12));
-        deliveryTable.setAutoCreateRowSorter(true);
+        deliveryRowSorter = new TableRowSorter<>(deliveryTableModel);
+        deliveryTable.setRowSorter(deliveryRowSorter);
+
+        // Sort keys understood by overviewServiceDAO; Start sorts by the same timestamp as Date
+        String[] deliverySortKeys = {
+                "date", "date", null, "restaurant", "platform",
+                "vehicle", "miles", "basePay", "tips", "total"
+        };
+        deliveryPageModel = new PagedTableModel<>(backgroundLoader, "deliveryPages", deliveryColumns,
+                deliveryColumnClasses, deliverySortKeys, 0, false,
+                new PagedTableModel.PageSource<>() {
+                    @Override
+                    public int count(String filter) {
+                        return serviceDispatcher.countCurrentUserDeliveries(filter);
+                    }
+
+                    @Override
+                    public org.example.KeysetPage<overviewService.OverviewDTO> fetch(org.example.KeysetPage.Query query) {
+                        return serviceDispatcher.getCurrentUserDeliveryPage(query);
+                    }
+                },
+                FinanceAppFrame::toDeliveryRow, TABLE_PAGE_ROWS, TABLE_CACHED_PAGES);
+        deliveryPageModel.attachTo(deliveryTable);
+        deliveryPageModel.setCountListener(this::updateDeliverySummaryLabel);
 
         JTableHeader header = deliveryTable.getTableHeader();
         header.setBackground(COLOR_BG_CARD);
@@ -1923,15 +2155,16 @@ public class FinanceAppFrame extends JFrame {
                 int viewRow = deliveryTable.getSelectedRow();
                 if (viewRow >= 0) {
                     int modelRow = deliveryTable.convertRowIndexToModel(viewRow);
-                    setDeliveryDateFromString(Objects.toString(deliveryTableModel.getValueAt(modelRow, 0), ""));
-                    deliveryStartTimeField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 1), ""));
-                    deliveryEndTimeField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 2), ""));
-                    deliveryRestaurantField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 3), ""));
-                    deliveryPlatformCombo.setSelectedItem(Objects.toString(deliveryTableModel.getValueAt(modelRow, 4), ""));
-                    deliveryCarCombo.setSelectedItem(Objects.toString(deliveryTableModel.getValueAt(modelRow, 5), ""));
-                    deliveryMilesField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 6), ""));
-                    deliveryPayField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 7), ""));
-                    deliveryTipField.setText(Objects.toString(deliveryTableModel.getValueAt(modelRow, 8), ""));
+                    TableModel model = deliveryTable.getModel();
+                    setDeliveryDateFromString(Objects.toString(model.getValueAt(modelRow, 0), ""));
+                    deliveryStartTimeField.setText(Objects.toString(model.getValueAt(modelRow, 1), ""));
+                    deliveryEndTimeField.setText(Objects.toString(model.getValueAt(modelRow, 2), ""));
+                    deliveryRestaurantField.setText(Objects.toString(model.getValueAt(modelRow, 3), ""));
+                    deliveryPlatformCombo.setSelectedItem(Objects.toString(model.getValueAt(modelRow, 4), ""));
+                    deliveryCarCombo.setSelectedItem(Objects.toString(model.getValueAt(modelRow, 5), ""));
+                    deliveryMilesField.setText(Objects.toString(model.getValueAt(modelRow, 6), ""));
+                    deliveryPayField.setText(Objects.toString(model.getValueAt(modelRow, 7), ""));
+                    deliveryTipField.setText(Objects.toString(model.getValueAt(modelRow, 8), ""));
                 }
             }
         });
@@ -2053,11 +2286,15 @@ public class FinanceAppFrame extends JFrame {
             }
         }
 
-        // Add to local table for display
+        // Add to the statistics and show the saved row
         deliveryTableModel.addRow(new Object[]{
                 date, start, end, restaurant, platform, carDisplay,
-                miles, pay, tip, total
+                miles, pay, tip, total, 1
         });
+        if (deliveryTable.getModel() == deliveryPageModel) {
+            deliveryPageModel.refresh();
+        }
+        updateDeliverySummaryLabel();
 
         updateSidebarStats();
         updateReportStats();
@@ -2083,6 +2320,17 @@ public class FinanceAppFrame extends JFrame {
     }
 
     private void handleUpdateDelivery() {
+        if (deliveryTable.getModel() == deliveryPageModel) {
+            // The statistics only hold per-day totals of saved deliveries, so there is no row to change
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Saved deliveries cannot be edited here.",
+                    "Update delivery",
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+            return;
+        }
+
         int selectedViewRow = deliveryTable.getSelectedRow();
         if (selectedViewRow < 0) {
             JOptionPane.showMessageDialog(
@@ -2419,6 +2667,7 @@ public class FinanceAppFrame extends JFrame {
 
         String carDisplay = (String) deliveryCarCombo.getItemAt(0);
 
+        showDeliveryPages(false);
         deliveryTableModel.setRowCount(0);
 
         // Lots of demo data: different days, platforms, restaurants, miles, amounts
@@ -2577,13 +2826,34 @@ public class FinanceAppFrame extends JFrame {
         // Transactions table - read-only, use class field
         // Column order: Description (first), Date, Type, Amount, Account
         String[] columnNames = {"Description", "Date", "Type", "Amount", "Account"};
-        summaryTransactionTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Read-only
-            }
-        };
+        // Read page by page; sorting and the type filter run in SQL
+        String[] sortKeys = {"description", "date", "type", "amount", "account"};
+        Class<?>[] columnClasses = {String.class, String.class, String.class, String.class, Object.class};
+        summaryTransactionTableModel = new PagedTableModel<>(backgroundLoader, "summaryTransactionPages",
+                columnNames, columnClasses, sortKeys, 1, false,
+                new PagedTableModel.PageSource<>() {
+                    @Override
+                    public int count(String filter) {
+                        return serviceDispatcher.countCurrentUserTransactionDetails(summaryTransactionTypes, filter);
+                    }
+
+                    @Override
+                    public org.example.KeysetPage<org.example.manageFinances.src.generalFinancialData.TransactionSummary> fetch(
+                            org.example.KeysetPage.Query query) {
+                        return serviceDispatcher.getCurrentUserTransactionDetailsPage(summaryTransactionTypes, query);
+                    }
+                },
+                tx -> new Object[]{
+                        tx.getDescription() != null ? tx.getDescription() : "-",
+                        tx.getTransactionDate() != null ? tx.getTransactionDate() : "-",
+                        tx.getTransactionType() != null ? tx.getTransactionType() : "-",
+                        formatTransactionAmount(tx.getAmount()),
+                        tx.getBankAccountId() > 0 ? tx.getBankAccountId() : "-"
+                },
+                TABLE_PAGE_ROWS, TABLE_CACHED_PAGES);
         JTable summaryTable = new JTable(summaryTransactionTableModel);
+        summaryTransactionTableModel.attachTo(summaryTable);
+        summaryTransactionTableModel.showSortIn(summaryTable);
         summaryTable.setBackground(COLOR_BG_INPUT);
         summaryTable.setForeground(COLOR_TEXT_PRIMARY);
         summaryTable.setSelectionBackground(COLOR_ACCENT);
@@ -2769,96 +3039,27 @@ public class FinanceAppFrame extends JFrame {
             return;
         }
 
-        try {
-            // Get summary values
-            float totalAssets = serviceDispatcher.getCurrentUserTotalAssets();
-            float totalIncome = serviceDispatcher.getCurrentUserTotalIncome();
-            float totalExpenses = serviceDispatcher.getCurrentUserTotalExpenses();
-            //float netPosition = totalAssets + totalIncome - totalExpenses;
-
-            // Update summary cards
-            assetsLabel.setText(String.format("$%.2f", totalAssets));
-            incomeLabel.setText(String.format("$%.2f", totalIncome));
-            expensesLabel.setText(String.format("$%.2f", totalExpenses));
-            //netLabel.setText(String.format("%s$%.2f", netPosition < 0 ? "-" : "", Math.abs(netPosition)));
-            //netLabel.setForeground(netPosition >= 0 ? COLOR_SUCCESS : new Color(239, 68, 68));
-
-            // Get all transactions
-            List<org.example.manageFinances.src.generalFinancialData.TransactionSummary> transactions =
-                    serviceDispatcher.getCurrentUserAllTransactionDetails();
-
-            tableModel.setRowCount(0); // Clear table
-
-            int displayedCount = 0;
-            for (org.example.manageFinances.src.generalFinancialData.TransactionSummary tx : transactions) {
-                // Apply filter
-                String type = tx.getTransactionType() != null ? tx.getTransactionType().toLowerCase() : "";
-                boolean include = false;
-
-                switch (filter) {
-                    case "All Transactions":
-                        include = true;
-                        break;
-                    case "Income Only":
-                        include = type.contains("income");
-                        break;
-                    case "Expenses Only":
-                        include = type.equals("purchase") || type.equals("withdrawal");
-                        break;
-                    case "Purchases":
-                        include = type.equals("purchase");
-                        break;
-                    case "Withdrawals":
-                        include = type.equals("withdrawal");
-                        break;
-                    case "Delivery Income":
-                        include = type.equals("delivery income");
-                        break;
-                    case "Other Income":
-                        include = type.equals("other income");
-                        break;
-                    default:
-                        include = true;
-                }
-
-                if (include) {
-                    String amountStr;
-                    float amount = tx.getAmount();
-                    if (amount < 0) {
-                        amountStr = String.format("($%.2f)", Math.abs(amount));
+        loadTransactionSummary("allTransactionsSummary", tableModel, assetsLabel, incomeLabel, expensesLabel,
+                countLabel, filter,
+                tx -> new Object[]{
+                        tx.getTransactionId(),
+                        tx.getTransactionDate() != null ? tx.getTransactionDate() : "-",
+                        tx.getTransactionType() != null ? tx.getTransactionType() : "-",
+                        formatTransactionAmount(tx.getAmount()),
+                        tx.getBankAccountId() > 0 ? tx.getBankAccountId() : "-",
+                        tx.getDescription() != null ? tx.getDescription() : "-"
+                },
+                total -> {
+                    if (total == 0) {
+                        showAutoCloseSuccess("No transactions found.");
                     } else {
-                        amountStr = String.format("$%.2f", amount);
+                        showAutoCloseSuccess("Loaded " + total + " transaction(s).");
                     }
-
-                    tableModel.addRow(new Object[]{
-                            tx.getTransactionId(),
-                            tx.getTransactionDate() != null ? tx.getTransactionDate() : "-",
-                            tx.getTransactionType() != null ? tx.getTransactionType() : "-",
-                            amountStr,
-                            tx.getBankAccountId() > 0 ? tx.getBankAccountId() : "-",
-                            tx.getDescription() != null ? tx.getDescription() : "-"
-                    });
-                    displayedCount++;
-                }
-            }
-
-            countLabel.setText("Total Transactions: " + transactions.size() +
-                    (displayedCount != transactions.size() ? " (Showing: " + displayedCount + ")" : ""));
-
-            if (transactions.isEmpty()) {
-                showAutoCloseSuccess("No transactions found.");
-            } else {
-                showAutoCloseSuccess("Loaded " + transactions.size() + " transaction(s).");
-            }
-
-        } catch (Exception ex) {
-            System.err.println("Error loading transactions summary: " + ex.getMessage());
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Error loading summary: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+                },
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error loading summary: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     /**
@@ -2875,100 +3076,178 @@ public class FinanceAppFrame extends JFrame {
             return; // UI not initialized yet
         }
 
-        try {
-            // Get summary values
-            float totalAssets = serviceDispatcher.getCurrentUserTotalAssets();
-            float totalIncome = serviceDispatcher.getCurrentUserTotalIncome();
-            float totalExpenses = serviceDispatcher.getCurrentUserTotalExpenses();
-            //float netPosition = totalAssets + totalIncome - totalExpenses;
-
-            // Update summary cards
-            if (summaryAssetsValueLabel != null) {
-                summaryAssetsValueLabel.setText(String.format("$%.2f", totalAssets));
+        // The table reads its own pages; only the totals and counts are loaded here
+        summaryTransactionTypes = transactionTypesFor(filter != null ? filter : "All Transactions");
+        summaryTransactionTableModel.refresh();
+
+        List<String> types = summaryTransactionTypes;
+        backgroundLoader.submit("summaryTransactions", new BackgroundLoader.Load<float[], Void>() {
+            private int totalCount;
+            private int shownCount;
+
+            @Override
+            protected float[] load(BackgroundLoader.Context<Void> context) {
+                float[] totals = {
+                        serviceDispatcher.getCurrentUserTotalAssets(),
+                        serviceDispatcher.getCurrentUserTotalIncome(),
+                        serviceDispatcher.getCurrentUserTotalExpenses()
+                };
+                totalCount = serviceDispatcher.countCurrentUserTransactionDetails(null, null);
+                shownCount = types == null ? totalCount : serviceDispatcher.countCurrentUserTransactionDetails(types, null);
+                return totals;
             }
-            if (summaryIncomeValueLabel != null) {
-                summaryIncomeValueLabel.setText(String.format("$%.2f", totalIncome));
+
+            @Override
+            protected void done(float[] totals) {
+                summaryAssetsValueLabel.setText(String.format("$%.2f", totals[0]));
+                summaryIncomeValueLabel.setText(String.format("$%.2f", totals[1]));
+                summaryExpensesValueLabel.setText(String.format("$%.2f", totals[2]));
+                summaryTransactionCountLabel.setText("Total Transactions: " + totalCount +
+                        (shownCount != totalCount ? " (Showing: " + shownCount + ")" : ""));
+                System.out.println("FinanceAppFrame: Loaded summary for " + totalCount + " transactions.");
             }
-            if (summaryExpensesValueLabel != null) {
-                summaryExpensesValueLabel.setText(String.format("$%.2f", totalExpenses));
+
+            @Override
+            protected void failed(Exception ex) {
+                System.err.println("Error loading transactions summary: " + ex.getMessage());
+                ex.printStackTrace();
             }
-            /*if (summaryNetValueLabel != null) {
-                summaryNetValueLabel.setText(String.format("%s$%.2f", netPosition < 0 ? "-" : "", Math.abs(netPosition)));
-                summaryNetValueLabel.setForeground(netPosition >= 0 ? COLOR_SUCCESS : new Color(239, 68, 68));
-            }*/
+        });
+    }
 
-            // Get all transactions
-            List<org.example.manageFinances.src.generalFinancialData.TransactionSummary> transactions =
-                    serviceDispatcher.getCurrentUserAllTransactionDetails();
+    /**
+     * Loads the summary totals and the filtered transaction rows in the background.
+     * Changing the filter again while a load is running replaces it.
+     */
+    private void loadTransactionSummary(String key, DefaultTableModel tableModel, JLabel assetsLabel,
+            JLabel incomeLabel, JLabel expensesLabel, JLabel countLabel, String filter,
+            java.util.function.Function<org.example.manageFinances.src.generalFinancialData.TransactionSummary, Object[]> toRow,
+            java.util.function.IntConsumer onLoaded, java.util.function.Consumer<Exception> onError) {
 
-            summaryTransactionTableModel.setRowCount(0); // Clear table
+        String activeFilter = filter != null ? filter : "All Transactions";
 
-            int displayedCount = 0;
-            for (org.example.manageFinances.src.generalFinancialData.TransactionSummary tx : transactions) {
-                // Apply filter
-                String type = tx.getTransactionType() != null ? tx.getTransactionType().toLowerCase() : "";
-                boolean include = false;
+        backgroundLoader.submit(key, new BackgroundLoader.Load<int[], Object[]>() {
+            private float totalAssets;
+            private float totalIncome;
+            private float totalExpenses;
 
-                if (filter == null) filter = "All Transactions";
+            @Override
+            protected void started() {
+                tableModel.setRowCount(0); // Clear table
+            }
 
-                switch (filter) {
-                    case "All Transactions":
-                        include = true;
-                        break;
-                    case "Income Only":
-                        include = type.contains("income");
-                        break;
-                    case "Expenses Only":
-                        include = type.equals("purchase") || type.equals("withdrawal");
-                        break;
-                    case "Purchases":
-                        include = type.equals("purchase");
-                        break;
-                    case "Withdrawals":
-                        include = type.equals("withdrawal");
-                        break;
-                    case "Delivery Income":
-                        include = type.equals("delivery income");
-                        break;
-                    case "Other Income":
-                        include = type.equals("other income");
+            @Override
+            protected int[] load(BackgroundLoader.Context<Object[]> context) {
+                // Get summary values
+                totalAssets = serviceDispatcher.getCurrentUserTotalAssets();
+                totalIncome = serviceDispatcher.getCurrentUserTotalIncome();
+                totalExpenses = serviceDispatcher.getCurrentUserTotalExpenses();
+
+                // Get all transactions
+                List<org.example.manageFinances.src.generalFinancialData.TransactionSummary> transactions =
+                        serviceDispatcher.getCurrentUserAllTransactionDetails();
+
+                int displayedCount = 0;
+                for (org.example.manageFinances.src.generalFinancialData.TransactionSummary tx : transactions) {
+                    if (context.isCancelled()) {
                         break;
-                    default:
-                        include = true;
+                    }
+                    if (matchesTransactionFilter(activeFilter, tx.getTransactionType())) {
+                        context.publish(toRow.apply(tx));
+                        displayedCount++;
+                    }
                 }
+                return new int[]{transactions.size(), displayedCount};
+            }
 
-                if (include) {
-                    String amountStr;
-                    float amount = tx.getAmount();
-                    if (amount < 0) {
-                        amountStr = String.format("($%.2f)", Math.abs(amount));
-                    } else {
-                        amountStr = String.format("$%.2f", amount);
-                    }
+            @Override
+            protected void process(List<Object[]> rows) {
+                appendRows(tableModel, rows);
+            }
 
-                    // Column order: Description, Date, Type, Amount, Account
-                    summaryTransactionTableModel.addRow(new Object[]{
-                            tx.getDescription() != null ? tx.getDescription() : "-",
-                            tx.getTransactionDate() != null ? tx.getTransactionDate() : "-",
-                            tx.getTransactionType() != null ? tx.getTransactionType() : "-",
-                            amountStr,
-                            tx.getBankAccountId() > 0 ? tx.getBankAccountId() : "-"
-                    });
-                    displayedCount++;
+            @Override
+            protected void done(int[] counts) {
+                // Update summary cards
+                if (assetsLabel != null) {
+                    assetsLabel.setText(String.format("$%.2f", totalAssets));
+                }
+                if (incomeLabel != null) {
+                    incomeLabel.setText(String.format("$%.2f", totalIncome));
+                }
+                if (expensesLabel != null) {
+                    expensesLabel.setText(String.format("$%.2f", totalExpenses));
                 }
+                if (countLabel != null) {
+                    countLabel.setText("Total Transactions: " + counts[0] +
+                            (counts[1] != counts[0] ? " (Showing: " + counts[1] + ")" : ""));
+                }
+                onLoaded.accept(counts[0]);
             }
 
-            if (summaryTransactionCountLabel != null) {
-                summaryTransactionCountLabel.setText("Total Transactions: " + transactions.size() +
-                        (displayedCount != transactions.size() ? " (Showing: " + displayedCount + ")" : ""));
+            @Override
+            protected void failed(Exception ex) {
+                System.err.println("Error loading transactions summary: " + ex.getMessage());
+                ex.printStackTrace();
+                if (onError != null) {
+                    onError.accept(ex);
+                }
             }
+        });
+    }
 
-            System.out.println("FinanceAppFrame: Loaded " + transactions.size() + " summary transactions.");
+    /**
+     * Checks whether a transaction type is shown under a summary filter.
+     */
+    private static boolean matchesTransactionFilter(String filter, String transactionType) {
+        String type = transactionType != null ? transactionType.toLowerCase() : "";
+        switch (filter) {
+            case "All Transactions":
+                return true;
+            case "Income Only":
+                return type.contains("income");
+            case "Expenses Only":
+                return type.equals("purchase") || type.equals("withdrawal");
+            case "Purchases":
+                return type.equals("purchase");
+            case "Withdrawals":
+                return type.equals("withdrawal");
+            case "Delivery Income":
+                return type.equals("delivery income");
+            case "Other Income":
+                return type.equals("other income");
+            default:
+                return true;
+        }
+    }
 
-        } catch (Exception ex) {
-            System.err.println("Error loading summary transactions: " + ex.getMessage());
-            ex.printStackTrace();
+    /**
+     * Gets the transaction types shown under a summary filter, or null for all of them.
+     * Must agree with {@link #matchesTransactionFilter}.
+     */
+    private static List<String> transactionTypesFor(String filter) {
+        switch (filter) {
+            case "Income Only":
+                return List.of("delivery income", "other income");
+            case "Expenses Only":
+                return List.of("purchase", "withdrawal");
+            case "Purchases":
+                return List.of("purchase");
+            case "Withdrawals":
+                return List.of("withdrawal");
+            case "Delivery Income":
+                return List.of("delivery income");
+            case "Other Income":
+                return List.of("other income");
+            default:
+                return null;
+        }
+    }
+
+    private static String formatTransactionAmount(float amount) {
+        if (amount < 0) {
+            return String.format("($%.2f)", Math.abs(amount));
         }
+        return String.format("$%.2f", amount);
     }
 
     /**
@@ -4308,7 +4587,7 @@ public class FinanceAppFrame extends JFrame {
         chartsPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
 
         platformChart = new BarChartPanel("Earnings by platform");
-        dailyChart = new BarChartPanel("Earnings by day");
+        dailyChart = new TimeSeriesChartPanel("Earnings");
 
         chartsPanel.add(platformChart);
         chartsPanel.add(dailyChart);
@@ -5266,35 +5545,117 @@ public class FinanceAppFrame extends JFrame {
                 return;
             }
 
-            String exportData = serviceDispatcher.exportReportData();
-
-            // Show export dialog
-            JTextArea exportArea = new JTextArea(exportData);
-            exportArea.setEditable(false);
-            exportArea.setFont(new Font("Consolas", Font.PLAIN, 11));
-            JScrollPane scrollPane = new JScrollPane(exportArea);
-            scrollPane.setPreferredSize(new Dimension(500, 400));
-
-            int option = JOptionPane.showOptionDialog(this,
-                    scrollPane,
-                    "Export Financial Report",
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.PLAIN_MESSAGE,
-                    null,
-                    new String[]{"Copy to Clipboard", "Close"},
-                    "Copy to Clipboard");
-
-            if (option == 0) {
-                java.awt.datatransfer.StringSelection selection =
-                        new java.awt.datatransfer.StringSelection(exportData);
-                java.awt.Toolkit.getDefaultToolkit().getSystemClipboard().setContents(selection, null);
-                showAutoCloseSuccess("Report copied to clipboard");
-            }
+            // Build the report off the Event Dispatch Thread so the window stays responsive
+            exportButton.setEnabled(false);
+            new SwingWorker<String, Void>() {
+                @Override
+                protected String doInBackground() {
+                    return serviceDispatcher.exportReportData();
+                }
+
+                @Override
+                protected void done() {
+                    exportButton.setEnabled(true);
+                    try {
+                        showExportReportDialog(get());
+                    } catch (Exception ex) {
+                        JOptionPane.showMessageDialog(FinanceAppFrame.this,
+                                "Could not build the report: " + ex.getMessage(),
+                                "Export Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
         });
 
         return panel;
     }
 
+    /**
+     * Shows the exported report text with options to copy it or save the raw data.
+     */
+    private void showExportReportDialog(String exportData) {
+        JTextArea exportArea = new JTextArea(exportData);
+        exportArea.setEditable(false);
+        exportArea.setFont(new Font("Consolas", Font.PLAIN, 11));
+        JScrollPane scrollPane = new JScrollPane(exportArea);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+
+        int option = JOptionPane.showOptionDialog(this,
+                scrollPane,
+                "Export Financial Report",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                new String[]{"Copy to Clipboard", "Save Data...", "Close"},
+                "Copy to Clipboard");
+
+        if (option == 0) {
+            java.awt.datatransfer.StringSelection selection =
+                    new java.awt.datatransfer.StringSelection(exportData);
+            java.awt.Toolkit.getDefaultToolkit().getSystemClipboard().setContents(selection, null);
+            showAutoCloseSuccess("Report copied to clipboard");
+        } else if (option == 1) {
+            saveDataExport();
+        }
+    }
+
+    /**
+     * Asks which data to export and where, then streams it to the file in the background.
+     * Rows are written as they are read, so long date ranges do not build up in memory.
+     */
+    private void saveDataExport() {
+        JComboBox<dataExporter.Dataset> datasetCombo = new JComboBox<>(dataExporter.Dataset.values());
+        JComboBox<dataExporter.Format> formatCombo = new JComboBox<>(dataExporter.Format.values());
+        JCheckBox gzipBox = new JCheckBox("Compress (gzip)");
+
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        optionsPanel.add(new JLabel("Data:"));
+        optionsPanel.add(datasetCombo);
+        optionsPanel.add(new JLabel("Format:"));
+        optionsPanel.add(formatCombo);
+        optionsPanel.add(new JLabel(""));
+        optionsPanel.add(gzipBox);
+
+        int confirm = JOptionPane.showConfirmDialog(this, optionsPanel, "Export Data",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (confirm != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        dataExporter.Dataset dataset = (dataExporter.Dataset) datasetCombo.getSelectedItem();
+        dataExporter.Format format = (dataExporter.Format) formatCombo.getSelectedItem();
+        boolean gzip = gzipBox.isSelected();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(dataset.fileName() + "." + format.extension() + (gzip ? ".gz" : "")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path target = chooser.getSelectedFile().toPath();
+
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                try (java.io.OutputStream out = java.nio.file.Files.newOutputStream(target)) {
+                    return serviceDispatcher.exportDataset(dataset, format, gzip, out);
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showAutoCloseSuccess("Exported " + get() + " rows to " + target.getFileName());
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(FinanceAppFrame.this,
+                            "Export failed: " + ex.getMessage(),
+                            "Export Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     /**
      * Returns the welcome/instruction text for the Financial Plan tab.
      * Data flow information is only shown to admin users.
@@ -5568,79 +5929,20 @@ public class FinanceAppFrame extends JFrame {
                 reportTotalMilesLabel.setText("Total miles driven: 0.0 mi");
             }
             if (platformChart != null) platformChart.setData(new ChartData(new String[0], new double[0]));
-            if (dailyChart != null) dailyChart.setData(new ChartData(new String[0], new double[0]));
+            if (dailyChart != null) dailyChart.setSeries(null, null, null);
             return;
         }
 
-        int rows = deliveryTableModel.getRowCount();
+        DeliveryStatsStore.Summary summary = deliveryStats.summarize(start, end);
+        int deliveries = summary.getDeliveries();
+        double totalEarnings = summary.getEarnings();
+        double gasCost = estimateGasCost(summary);
+        double totalMiles = summary.getMiles();
 
-        int deliveries = 0;
-        double totalEarnings = 0.0;
-        double gasCost = 0.0;
-        double totalMiles = 0.0;
-
-        Map<String, Integer> restaurantCounts = new LinkedHashMap<>();
-        Map<String, Integer> platformCounts = new LinkedHashMap<>();
+        Map<String, Integer> restaurantCounts = deliveryCounts(summary.getByRestaurant());
+        Map<String, Integer> platformCounts = deliveryCounts(summary.getByPlatform());
         Map<String, Double> byPlatform = new LinkedHashMap<>();
-        Map<String, Double> byDate = new LinkedHashMap<>();
-
-        for (int i = 0; i < rows; i++) {
-            Object dateObj = deliveryTableModel.getValueAt(i, 0); // Date column
-            if (dateObj == null) continue;
-            String dateStr = dateObj.toString().trim();
-            LocalDate rowDate = parseDateSafe(dateStr);
-            if (rowDate == null) continue;
-
-            if (start != null && rowDate.isBefore(start)) continue;
-            if (end != null && rowDate.isAfter(end)) continue;
-
-            // In range -> include in aggregates
-            deliveries++;
-
-            Object totalObj = deliveryTableModel.getValueAt(i, 9); // Total column
-            double total = 0.0;
-            if (totalObj instanceof Number) {
-                total = ((Number) totalObj).doubleValue();
-            } else if (totalObj != null) {
-                try {
-                    total = Double.parseDouble(totalObj.toString());
-                } catch (NumberFormatException ignored) {}
-            }
-            totalEarnings += total;
-
-            // Miles for this row
-            Object milesObj = deliveryTableModel.getValueAt(i, 6);
-            double miles = 0.0;
-            if (milesObj instanceof Number) {
-                miles = ((Number) milesObj).doubleValue();
-            } else if (milesObj != null) {
-                try {
-                    miles = Double.parseDouble(milesObj.toString());
-                } catch (NumberFormatException ignored) {}
-            }
-            totalMiles += miles;
-
-            // Gas cost for this row
-            gasCost += computeGasCostForRow(i);
-
-            // Restaurant counts
-            Object restObj = deliveryTableModel.getValueAt(i, 3);
-            if (restObj != null) {
-                String rest = restObj.toString().trim();
-                if (!rest.isEmpty()) {
-                    restaurantCounts.put(rest, restaurantCounts.getOrDefault(rest, 0) + 1);
-                }
-            }
-
-            // Platform totals + counts
-            Object platformObj = deliveryTableModel.getValueAt(i, 4);
-            String platform = platformObj == null ? "Unknown" : platformObj.toString();
-            byPlatform.put(platform, byPlatform.getOrDefault(platform, 0.0) + total);
-            platformCounts.put(platform, platformCounts.getOrDefault(platform, 0) + 1);
-
-            // Date totals
-            byDate.put(dateStr, byDate.getOrDefault(dateStr, 0.0) + total);
-        }
+        summary.getByPlatform().forEach((platform, group) -> byPlatform.put(platform, group.getEarnings()));
 
         double avg = deliveries > 0 ? totalEarnings / deliveries : 0.0;
 
@@ -5708,7 +6010,8 @@ public class FinanceAppFrame extends JFrame {
             platformChart.setData(mapToArrays(byPlatform));
         }
         if (dailyChart != null) {
-            dailyChart.setData(mapToArrays(byDate));
+            // Zoomable; the chart reads only the visible window of the pyramid at a width-sized resolution
+            dailyChart.setSeries(deliveryStats.earningsPyramid(), start, end);
         }
     }
 
@@ -5716,26 +6019,22 @@ public class FinanceAppFrame extends JFrame {
     //   GAS COST CALCULATION HELPERS
     // =========================================================
 
-    private double computeGasCostForRow(int rowIndex) {
-        if (deliveryTableModel == null || carTableModel == null) return 0.0;
-
-        Object milesObj = deliveryTableModel.getValueAt(rowIndex, 6); // Miles
-        Object carObj = deliveryTableModel.getValueAt(rowIndex, 5);   // Car display
-
-        if (milesObj == null || carObj == null) return 0.0;
-
-        double miles;
-        try {
-            miles = (milesObj instanceof Number)
-                    ? ((Number) milesObj).doubleValue()
-                    : Double.parseDouble(milesObj.toString());
-        } catch (NumberFormatException ex) {
-            return 0.0;
+    /**
+     * Estimates the gas cost of a summary from the miles driven in each car.
+     */
+    private double estimateGasCost(DeliveryStatsStore.Summary summary) {
+        double cost = 0.0;
+        for (Map.Entry<String, DeliveryStatsStore.Group> entry : summary.getByVehicle().entrySet()) {
+            cost += computeGasCost(entry.getKey(), entry.getValue().getMiles());
         }
+        return cost;
+    }
+
+    private double computeGasCost(String carDisplay, double miles) {
+        if (carTableModel == null) return 0.0;
 
         if (miles <= 0) return 0.0;
 
-        String carDisplay = carObj.toString();
         double mpg = lookupMpgForCarDisplay(carDisplay);
         if (mpg <= 0) return 0.0;
 
@@ -5750,41 +6049,24 @@ public class FinanceAppFrame extends JFrame {
     }
 
     private double computeTotalGasCostFromDeliveries() {
-        if (deliveryTableModel == null) return 0.0;
+        if (carTableModel == null) return 0.0;
 
         // Collect total miles and average MPG for all deliveries
         double totalMiles = 0.0;
         double totalMpgWeighted = 0.0;
-        int validDeliveries = 0;
-
-        int rows = deliveryTableModel.getRowCount();
-        for (int i = 0; i < rows; i++) {
-            Object milesObj = deliveryTableModel.getValueAt(i, 6);
-            Object carObj = deliveryTableModel.getValueAt(i, 5);
-
-            if (milesObj == null || carObj == null) continue;
-
-            double miles;
-            try {
-                miles = (milesObj instanceof Number)
-                        ? ((Number) milesObj).doubleValue()
-                        : Double.parseDouble(milesObj.toString());
-            } catch (NumberFormatException ex) {
-                continue;
-            }
 
+        for (Map.Entry<String, DeliveryStatsStore.Group> entry : deliveryStats.summarizeEverything().getByVehicle().entrySet()) {
+            double miles = entry.getValue().getMiles();
             if (miles <= 0) continue;
 
-            String carDisplay = carObj.toString();
-            double mpg = lookupMpgForCarDisplay(carDisplay);
+            double mpg = lookupMpgForCarDisplay(entry.getKey());
             if (mpg <= 0) continue;
 
             totalMiles += miles;
             totalMpgWeighted += mpg * miles; // Weight MPG by miles for accurate averaging
-            validDeliveries++;
         }
 
-        if (validDeliveries == 0 || totalMiles <= 0) return 0.0;
+        if (totalMiles <= 0) return 0.0;
 
         // Calculate weighted average MPG
         double avgMpg = totalMpgWeighted / totalMiles;
@@ -5799,6 +6081,15 @@ public class FinanceAppFrame extends JFrame {
         }
     }
 
+    /**
+     * Gets the delivery count of each group, keeping the order.
+     */
+    private static Map<String, Integer> deliveryCounts(Map<String, DeliveryStatsStore.Group> groups) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        groups.forEach((name, group) -> counts.put(name, group.getDeliveries()));
+        return counts;
+    }
+
     private double lookupMpgForCarDisplay(String carDisplay) {
         if (carDisplay == null) return DEFAULT_CAR_MPG;
 
@@ -5850,22 +6141,9 @@ public class FinanceAppFrame extends JFrame {
     // =========================================================
 
     private void updateSidebarStats() {
-        double totalEarnings = 0.0;
-        int deliveries = 0;
-
-        if (deliveryTableModel != null) {
-            deliveries = deliveryTableModel.getRowCount();
-            for (int i = 0; i < deliveries; i++) {
-                Object val = deliveryTableModel.getValueAt(i, 9);
-                if (val instanceof Number) {
-                    totalEarnings += ((Number) val).doubleValue();
-                } else if (val != null) {
-                    try {
-                        totalEarnings += Double.parseDouble(val.toString());
-                    } catch (NumberFormatException ignored) {}
-                }
-            }
-        }
+        DeliveryStatsStore.Summary summary = deliveryStats.summarizeEverything();
+        double totalEarnings = summary.getEarnings();
+        int deliveries = summary.getDeliveries();
 
         double expenses = computeTotalGasCostFromDeliveries();
         double net = totalEarnings - expenses;
@@ -6016,6 +6294,9 @@ public class FinanceAppFrame extends JFrame {
      * Called when user logs out or switches accounts.
      */
     private void clearAllFormFields() {
+        // Results of loads started for the previous user must not reach the screen
+        backgroundLoader.cancelAll();
+
         // Clear login status
         isLoggedIn = false;
         savedUsername = "";
@@ -6051,8 +6332,11 @@ public class FinanceAppFrame extends JFrame {
 
         // Clear delivery table
         if (deliveryTableModel != null) {
+            showDeliveryPages(false);
+            deliveryPageModel.clear();
             deliveryTableModel.setRowCount(0);
         }
+        if (deliverySearchField != null) deliverySearchField.setText("");
 
         // Clear login fields on account screen
         if (accountLoginUserField != null) accountLoginUserField.setText("");
@@ -6090,7 +6374,7 @@ public class FinanceAppFrame extends JFrame {
         // Clear bank account tables
         if (bankAccountTableModel != null) bankAccountTableModel.setRowCount(0);
         if (bankTransactionTableModel != null) bankTransactionTableModel.setRowCount(0);
-        if (summaryTransactionTableModel != null) summaryTransactionTableModel.setRowCount(0);
+        if (summaryTransactionTableModel != null) summaryTransactionTableModel.clear();
 
         // Reset bank account labels
         if (bankAccountIdValue != null) bankAccountIdValue.setText("-");
@@ -6142,7 +6426,7 @@ public class FinanceAppFrame extends JFrame {
             platformChart.setData(new ChartData(new String[]{}, new double[]{}));
         }
         if (dailyChart != null) {
-            dailyChart.setData(new ChartData(new String[]{}, new double[]{}));
+            dailyChart.setSeries(null, null, null);
         }
 
         // Reset account status
@@ -0,0 +1,416 @@
+package org.example.gui;
+
+import org.example.KeysetPage;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Read-only table model that shows a database query one page at a time.
+ *
+ * Only the row count is loaded up front. When the table asks for a row that is not cached, the
+ * cell is shown empty and its page is read on the {@link BackgroundLoader}; the rows appear when
+ * the page arrives. Pages are kept in an LRU cache of {@code maxCachedPages}, so memory depends on
+ * the page size and not on how many rows the query has. Pages are read with keyset pagination
+ * whenever the previous page's end is known, which is always the case while scrolling.
+ *
+ * If a page read fails, no further pages are read until {@link #refresh}; the missing rows stay
+ * empty instead of every repaint starting the same failing query again.
+ *
+ * Sorting and filtering are done by the query: clicking a column header re-sorts in SQL, and
+ * {@link #setFilter} re-counts and re-reads with a WHERE clause. Never give a paged table a
+ * RowSorter; it would read every row to sort them.
+ *
+ * @param <R> Row type returned by the page source
+ */
+public class PagedTableModel<R> extends AbstractTableModel {
+
+    /**
+     * Reads the rows behind the table. Both methods run on a loader thread.
+     */
+    public interface PageSource<R> {
+
+        /** Counts the rows matching the filter. */
+        int count(String filter);
+
+        /** Reads one page. */
+        KeysetPage<R> fetch(KeysetPage.Query query);
+    }
+
+    // Pages requested but not loaded; only the most recent ones are worth loading
+    private static final int MAX_WANTED_PAGES = 4;
+    // Page ends remembered for keyset reads; a page whose predecessor's end was dropped uses OFFSET
+    static final int MAX_PAGE_ENDS = 256;
+
+    private final BackgroundLoader loader;
+    private final String name;
+    private final String[] columns;
+    private final Class<?>[] columnClasses;
+    private final String[] sortKeys;
+    private final PageSource<R> source;
+    private final Function<R, Object[]> toRow;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    private final LinkedHashMap<Integer, Page<R>> pages;
+    // Ends of the pages read most recently, so the next page can seek instead of using OFFSET
+    private final Map<Integer, KeysetPage.Cursor> pageEnds = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, KeysetPage.Cursor> eldest) {
+            return size() > MAX_PAGE_ENDS;
+        }
+    };
+    private final LinkedHashSet<Integer> wantedPages = new LinkedHashSet<>();
+
+    private int rowCount;
+    private boolean counted;
+    private int sortColumn = -1;
+    private boolean ascending;
+    private String filter;
+    private int generation;
+    private boolean fetching;
+    private boolean failed;
+    private Runnable countListener;
+
+    /**
+     * @param loader         Where queries run
+     * @param name           Unique name used for the loader keys, e.g. "deliveries"
+     * @param columns        Column names
+     * @param columnClasses  Column classes for the renderers
+     * @param sortKeys       Sort column name passed to the page source for each column, or null if
+     *                       the column cannot be sorted
+     * @param defaultSort    Column sorted by until a header is clicked, or -1 for the source's default
+     * @param ascending      Direction of the default sort
+     * @param source         Reads the counts and pages
+     * @param toRow          Turns a row into cell values; runs on the loader thread
+     * @param pageSize       Rows per page
+     * @param maxCachedPages Number of pages kept in memory
+     */
+    public PagedTableModel(BackgroundLoader loader, String name, String[] columns, Class<?>[] columnClasses,
+                           String[] sortKeys, int defaultSort, boolean ascending, PageSource<R> source,
+                           Function<R, Object[]> toRow, int pageSize, int maxCachedPages) {
+        this.loader = loader;
+        this.name = name;
+        this.columns = columns.clone();
+        this.columnClasses = columnClasses.clone();
+        this.sortKeys = sortKeys.clone();
+        this.sortColumn = defaultSort;
+        this.ascending = ascending;
+        this.source = source;
+        this.toRow = toRow;
+        this.pageSize = pageSize;
+        this.maxCachedPages = Math.max(2, maxCachedPages);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page<R>> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnClasses[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    /**
+     * Gets a cell, or null while its page is still loading.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page<R> page = pages.get(row / pageSize);
+        if (page == null) {
+            requestPage(row / pageSize);
+            return null;
+        }
+        int index = row % pageSize;
+        return index < page.cells.size() ? page.cells.get(index)[column] : null;
+    }
+
+    /**
+     * Gets the row behind a table row, or null while its page is still loading.
+     */
+    public R getRow(int row) {
+        Page<R> page = pages.get(row / pageSize);
+        int index = row % pageSize;
+        return page != null && index < page.rows.size() ? page.rows.get(index) : null;
+    }
+
+    /**
+     * Whether the row count has been loaded since the last refresh.
+     */
+    public boolean isCounted() {
+        return counted;
+    }
+
+    /**
+     * Whether a page read failed since the last refresh; no pages are read until the next refresh.
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /** Number of page ends kept for keyset reads. */
+    int pageEndCount() {
+        return pageEnds.size();
+    }
+
+    /**
+     * Sets a listener called on the EDT whenever a new row count arrives.
+     */
+    public void setCountListener(Runnable countListener) {
+        this.countListener = countListener;
+    }
+
+    /**
+     * Sets the text filter passed to the page source and reloads.
+     */
+    public void setFilter(String filter) {
+        String normalized = filter == null || filter.trim().isEmpty() ? null : filter.trim();
+        if (!Objects.equals(normalized, this.filter)) {
+            this.filter = normalized;
+            refresh();
+        }
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sorts by a column; sorting by the current column again flips the direction.
+     */
+    public void toggleSort(int column) {
+        if (column < 0 || column >= sortKeys.length || sortKeys[column] == null) {
+            return;
+        }
+        if (column == sortColumn) {
+            ascending = !ascending;
+        } else {
+            sortColumn = column;
+            ascending = true;
+        }
+        refresh();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Drops every cached page and re-counts, e.g. after rows were added.
+     * Rows keep their current count until the new count arrives so the table does not flicker empty.
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        pageEnds.clear();
+        wantedPages.clear();
+        fetching = false;
+        failed = false;
+        loader.cancel(name + ":page");
+
+        int countGeneration = generation;
+        String countFilter = filter;
+        loader.submit(name + ":count", new BackgroundLoader.Load<Integer, Void>() {
+            @Override
+            protected Integer load(BackgroundLoader.Context<Void> context) {
+                return source.count(countFilter);
+            }
+
+            @Override
+            protected void done(Integer count) {
+                if (countGeneration != generation) {
+                    return;
+                }
+                rowCount = count;
+                counted = true;
+                fireTableDataChanged();
+                if (countListener != null) {
+                    countListener.run();
+                }
+            }
+        });
+        fireTableDataChanged();
+    }
+
+    /**
+     * Empties the table without querying, e.g. on logout.
+     */
+    public void clear() {
+        generation++;
+        loader.cancel(name + ":count");
+        loader.cancel(name + ":page");
+        pages.clear();
+        pageEnds.clear();
+        wantedPages.clear();
+        fetching = false;
+        failed = false;
+        rowCount = 0;
+        counted = false;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sorts through this model when a header of the table is clicked while the table shows this model.
+     * The table must not have a RowSorter while it does.
+     */
+    public void attachTo(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (table.getModel() != PagedTableModel.this) {
+                    return;
+                }
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn >= 0) {
+                    toggleSort(table.convertColumnIndexToModel(viewColumn));
+                    showSortIn(table);
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows an arrow for the sort direction in the sorted column's header.
+     */
+    public void showSortIn(JTable table) {
+        for (int i = 0; i < table.getColumnModel().getColumnCount(); i++) {
+            TableColumn column = table.getColumnModel().getColumn(i);
+            int modelColumn = column.getModelIndex();
+            String arrow = modelColumn == sortColumn ? (ascending ? " ▲" : " ▼") : "";
+            column.setHeaderValue(columns[modelColumn] + arrow);
+        }
+        table.getTableHeader().repaint();
+    }
+
+    private void requestPage(int pageIndex) {
+        if (failed) {
+            return;
+        }
+        wantedPages.remove(pageIndex);
+        wantedPages.add(pageIndex);
+        // Pages the user has scrolled past are not worth reading any more
+        Iterator<Integer> oldest = wantedPages.iterator();
+        while (wantedPages.size() > MAX_WANTED_PAGES && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+        fetchNext();
+    }
+
+    private void fetchNext() {
+        if (fetching || wantedPages.isEmpty()) {
+            return;
+        }
+        // Newest request first: it is what is on screen now
+        Integer pageIndex = null;
+        for (Integer wanted : wantedPages) {
+            pageIndex = wanted;
+        }
+        wantedPages.remove(pageIndex);
+        if (pages.containsKey(pageIndex)) {
+            fetchNext();
+            return;
+        }
+
+        int pageNumber = pageIndex;
+        int fetchGeneration = generation;
+        KeysetPage.Cursor after = pageNumber > 0 ? pageEnds.get(pageNumber - 1) : null;
+        KeysetPage.Query query = new KeysetPage.Query(sortColumn >= 0 ? sortKeys[sortColumn] : null, ascending,
+                filter, after, (long) pageNumber * pageSize, pageSize);
+
+        fetching = true;
+        boolean submitted = loader.submit(name + ":page", new BackgroundLoader.Load<Page<R>, Void>() {
+            @Override
+            protected Page<R> load(BackgroundLoader.Context<Void> context) {
+                KeysetPage<R> result = source.fetch(query);
+                List<Object[]> cells = new ArrayList<>(result.getRows().size());
+                for (R row : result.getRows()) {
+                    cells.add(toRow.apply(row));
+                }
+                return new Page<>(result.getRows(), cells, result.getNext());
+            }
+
+            @Override
+            protected void done(Page<R> page) {
+                if (fetchGeneration != generation) {
+                    return;
+                }
+                fetching = false;
+                pages.put(pageNumber, page);
+                if (page.end != null) {
+                    pageEnds.put(pageNumber, page.end);
+                }
+                int first = pageNumber * pageSize;
+                int last = Math.min(rowCount, first + pageSize) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+                fetchNext();
+            }
+
+            @Override
+            protected void failed(Exception error) {
+                super.failed(error);
+                if (fetchGeneration == generation) {
+                    fetching = false;
+                    failed = true;
+                    wantedPages.clear();
+                }
+            }
+        });
+        if (!submitted) {
+            fetching = false;
+        }
+    }
+
+    private static final class Page<R> {
+        private final List<R> rows;
+        private final List<Object[]> cells;
+        private final KeysetPage.Cursor end;
+
+        Page(List<R> rows, List<Object[]> cells, KeysetPage.Cursor end) {
+            this.rows = rows;
+            this.cells = cells;
+            this.end = end;
+        }
+    }
+}
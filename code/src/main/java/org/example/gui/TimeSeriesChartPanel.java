@@ -0,0 +1,275 @@
+package org.example.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Zoomable line chart of a {@link TimeSeriesPyramid}.
+ *
+ * The mouse wheel zooms around the pointer, dragging pans and a double click shows the whole range
+ * again. Each change of window or size asks the pyramid for the visible periods only, at the
+ * resolution the plot width can show (about one point per two pixels), and keeps the resulting
+ * pixel coordinates; painting just draws them, so a five-year window costs the same as a week.
+ */
+public class TimeSeriesChartPanel extends JPanel {
+
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 13);
+    private static final Font LABEL_FONT = new Font("Segoe UI", Font.PLAIN, 10);
+    private static final Font EMPTY_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(24, 28, 43);
+    private static final Color BORDER = new Color(55, 65, 81);
+    private static final Color TITLE = new Color(235, 239, 255);
+    private static final Color LINE = new Color(129, 140, 248);
+    private static final Color FILL = new Color(129, 140, 248, 60);
+    private static final Color VALUE_TEXT = new Color(156, 163, 175);
+    private static final Color LABEL_TEXT = new Color(107, 114, 128);
+    private static final Stroke LINE_STROKE = new BasicStroke(1.5f);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+    private static final int PADDING = 16;
+    private static final int TOP = PADDING + 18; // space for title
+    private static final int BOTTOM = PADDING + 24; // space for labels
+    private static final int PIXELS_PER_POINT = 2;
+    private static final int MIN_WINDOW_DAYS = 7;
+    private static final double ZOOM_STEP = 1.25;
+
+    private final String title;
+
+    private TimeSeriesPyramid pyramid;
+    // Whole range and visible window, in epoch days, inclusive
+    private long extentFrom;
+    private long extentTo;
+    private long windowFrom;
+    private long windowTo;
+
+    // Layout of the current window and size; rebuilt when either changes
+    private boolean layoutValid;
+    private int layoutWidth;
+    private int layoutHeight;
+    private String layoutTitle;
+    private String maxText;
+    private String fromText;
+    private String toText;
+    private int[] xs = new int[0];
+    private int[] ys = new int[0];
+    private Polygon area;
+
+    private Point dragStart;
+    private long dragWindowFrom;
+
+    public TimeSeriesChartPanel() {
+        this("Chart");
+    }
+
+    public TimeSeriesChartPanel(String title) {
+        this.title = title;
+        setBackground(BACKGROUND);
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(BORDER),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)
+        ));
+        setPreferredSize(new Dimension(280, 180));
+        setToolTipText("Scroll to zoom, drag to pan, double-click to reset");
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getPreciseWheelRotation(), e.getX());
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+                dragWindowFrom = windowFrom;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStart != null) {
+                    pan(dragStart.x - e.getX());
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragStart = null;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    setWindow(extentFrom, extentTo);
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Shows a series between two days, zoomed out to the whole range.
+     *
+     * @param pyramid Series to show, or null to clear the chart
+     * @param from    First day, or null for the first day with a value
+     * @param to      Last day, or null for the last day with a value
+     */
+    public void setSeries(TimeSeriesPyramid pyramid, LocalDate from, LocalDate to) {
+        this.pyramid = pyramid != null && !pyramid.isEmpty() ? pyramid : null;
+        if (this.pyramid != null) {
+            extentFrom = (from != null ? from : this.pyramid.firstDay()).toEpochDay();
+            extentTo = (to != null ? to : this.pyramid.lastDay()).toEpochDay();
+            if (extentTo < extentFrom) {
+                extentTo = extentFrom;
+            }
+        }
+        windowFrom = extentFrom;
+        windowTo = extentTo;
+        invalidateLayout();
+    }
+
+    /**
+     * Shows the days from {@code from} to {@code to}, kept inside the range given to setSeries.
+     */
+    public void setWindow(LocalDate from, LocalDate to) {
+        setWindow(from.toEpochDay(), to.toEpochDay());
+    }
+
+    private void setWindow(long from, long to) {
+        long length = Math.min(Math.max(to - from, MIN_WINDOW_DAYS - 1), extentTo - extentFrom);
+        from = Math.max(extentFrom, Math.min(from, extentTo - length));
+        if (from == windowFrom && from + length == windowTo) {
+            return;
+        }
+        windowFrom = from;
+        windowTo = from + length;
+        invalidateLayout();
+    }
+
+    public LocalDate getWindowFrom() { return LocalDate.ofEpochDay(windowFrom); }
+    public LocalDate getWindowTo() { return LocalDate.ofEpochDay(windowTo); }
+
+    private void zoom(double notches, int mouseX) {
+        if (pyramid == null) {
+            return;
+        }
+        long length = windowTo - windowFrom;
+        long newLength = Math.round(length * Math.pow(ZOOM_STEP, notches));
+        if (newLength == length) {
+            newLength += notches > 0 ? 1 : -1;
+        }
+        // Keep the day under the pointer where it is
+        double anchor = Math.max(0, Math.min(1, (double) (mouseX - PADDING) / Math.max(1, plotWidth())));
+        long anchorDay = windowFrom + Math.round(length * anchor);
+        long from = anchorDay - Math.round(newLength * anchor);
+        setWindow(from, from + newLength);
+    }
+
+    private void pan(int pixels) {
+        if (pyramid == null) {
+            return;
+        }
+        long length = windowTo - windowFrom;
+        long days = Math.round((double) pixels * (length + 1) / Math.max(1, plotWidth()));
+        setWindow(dragWindowFrom + days, dragWindowFrom + days + length);
+    }
+
+    private int plotWidth() {
+        return getWidth() - 2 * PADDING;
+    }
+
+    private void invalidateLayout() {
+        layoutValid = false;
+        repaint();
+    }
+
+    // Fetches the visible periods at the resolution the width can show and maps them to pixels
+    private void layoutChart(int width, int height) {
+        layoutValid = true;
+        layoutWidth = width;
+        layoutHeight = height;
+        xs = new int[0];
+        ys = new int[0];
+        area = null;
+        layoutTitle = title;
+        if (pyramid == null) {
+            return;
+        }
+
+        int chartWidth = width - 2 * PADDING;
+        int chartHeight = height - TOP - BOTTOM;
+        TimeSeriesPyramid.Series series = pyramid.view(windowFrom, windowTo, Math.max(1, chartWidth / PIXELS_PER_POINT));
+        layoutTitle = title + " (by " + series.getLevel().noun() + ")";
+        fromText = DAY_FORMAT.format(LocalDate.ofEpochDay(windowFrom));
+        toText = DAY_FORMAT.format(LocalDate.ofEpochDay(windowTo));
+        double max = series.max();
+        maxText = String.format("$%.0f", max);
+        if (series.size() == 0 || max <= 0 || chartWidth <= 0 || chartHeight <= 0) {
+            return;
+        }
+
+        double daysPerPixel = (double) (windowTo - windowFrom + 1) / chartWidth;
+        double scale = chartHeight / max;
+        int n = series.size();
+        xs = new int[n];
+        ys = new int[n];
+        area = new Polygon();
+        int baseline = TOP + chartHeight;
+        for (int i = 0; i < n; i++) {
+            long day = Math.max(windowFrom, series.startDay(i));
+            xs[i] = PADDING + (int) Math.round((day - windowFrom) / daysPerPixel);
+            ys[i] = baseline - (int) Math.round(series.value(i) * scale);
+        }
+        area.addPoint(xs[0], baseline);
+        for (int i = 0; i < n; i++) {
+            area.addPoint(xs[i], ys[i]);
+        }
+        area.addPoint(xs[n - 1], baseline);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (!layoutValid || width != layoutWidth || height != layoutHeight) {
+            layoutChart(width, height);
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g2.setFont(TITLE_FONT);
+        g2.setColor(TITLE);
+        g2.drawString(layoutTitle, PADDING, PADDING + 12);
+
+        if (pyramid == null || xs.length == 0) {
+            g2.setFont(EMPTY_FONT);
+            g2.setColor(LABEL_TEXT);
+            g2.drawString(pyramid == null ? "No data yet" : "No earnings in this range", PADDING, height / 2);
+            g2.dispose();
+            return;
+        }
+
+        g2.setColor(FILL);
+        g2.fillPolygon(area);
+        g2.setColor(LINE);
+        g2.setStroke(LINE_STROKE);
+        g2.drawPolyline(xs, ys, xs.length);
+
+        g2.setFont(LABEL_FONT);
+        FontMetrics metrics = g2.getFontMetrics();
+        int labelY = height - BOTTOM + 14;
+        g2.setColor(VALUE_TEXT);
+        g2.drawString(maxText, width - PADDING - metrics.stringWidth(maxText), TOP - 4);
+        g2.setColor(LABEL_TEXT);
+        g2.drawString(fromText, PADDING, labelY);
+        g2.drawString(toText, width - PADDING - metrics.stringWidth(toText), labelY);
+        g2.dispose();
+    }
+}
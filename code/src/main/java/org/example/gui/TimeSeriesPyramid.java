@@ -0,0 +1,280 @@
+package org.example.gui;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * A daily series kept at four resolutions: days, ISO weeks, months and quarters, each level the
+ * sums of the days in its periods, sorted by period start.
+ *
+ * A chart asks for a window and the number of points it can draw. The finest level that fits
+ * (a few times over) is read with two binary searches, so only the visible periods are touched,
+ * and anything still over the budget is thinned with Largest-Triangle-Three-Buckets, which keeps
+ * the peaks and dips. The points drawn therefore stay within the budget however long the window is.
+ */
+public final class TimeSeriesPyramid {
+
+    /** How far over the point budget a level may be before a coarser one is used; LTTB takes the rest. */
+    static final int OVERSAMPLE = 4;
+
+    private static final TimeSeriesPyramid EMPTY = new TimeSeriesPyramid(new long[0], new double[0]);
+
+    /**
+     * Resolutions, finest first. Periods are identified by the epoch day they start on.
+     */
+    public enum Level {
+        DAY("day"),
+        WEEK("week"),
+        MONTH("month"),
+        QUARTER("quarter");
+
+        private final String noun;
+
+        Level(String noun) {
+            this.noun = noun;
+        }
+
+        /** Lowercase name for chart titles, e.g. "week". */
+        public String noun() { return noun; }
+
+        /** First day of the period holding an epoch day. */
+        public long periodStart(long epochDay) {
+            switch (this) {
+                case DAY:
+                    return epochDay;
+                case WEEK:
+                    return epochDay - (LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+                case MONTH:
+                    return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+                default:
+                    LocalDate date = LocalDate.ofEpochDay(epochDay);
+                    return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1).toEpochDay();
+            }
+        }
+
+        /** Number of periods from the one holding {@code fromDay} to the one holding {@code toDay}. */
+        long periodsBetween(long fromDay, long toDay) {
+            if (toDay < fromDay) {
+                return 0;
+            }
+            switch (this) {
+                case DAY:
+                    return toDay - fromDay + 1;
+                case WEEK:
+                    return (periodStart(toDay) - periodStart(fromDay)) / 7 + 1;
+                default:
+                    long months = monthIndex(toDay) - monthIndex(fromDay);
+                    return this == MONTH ? months + 1 : (monthIndex(toDay) / 3 - monthIndex(fromDay) / 3) + 1;
+            }
+        }
+
+        private static long monthIndex(long epochDay) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(epochDay));
+            return month.getYear() * 12L + month.getMonthValue() - 1;
+        }
+    }
+
+    private final long[][] starts = new long[Level.values().length][];
+    private final double[][] values = new double[Level.values().length][];
+
+    private TimeSeriesPyramid(long[] days, double[] dayValues) {
+        starts[Level.DAY.ordinal()] = days;
+        values[Level.DAY.ordinal()] = dayValues;
+        roll(Level.DAY, Level.WEEK);
+        roll(Level.DAY, Level.MONTH);
+        roll(Level.MONTH, Level.QUARTER);
+    }
+
+    /**
+     * Builds a pyramid from values by epoch day.
+     *
+     * @param byEpochDay Daily values, oldest first
+     */
+    public static TimeSeriesPyramid ofDays(NavigableMap<Long, Double> byEpochDay) {
+        if (byEpochDay.isEmpty()) {
+            return EMPTY;
+        }
+        long[] days = new long[byEpochDay.size()];
+        double[] dayValues = new double[days.length];
+        int i = 0;
+        for (Map.Entry<Long, Double> entry : byEpochDay.entrySet()) {
+            days[i] = entry.getKey();
+            dayValues[i++] = entry.getValue();
+        }
+        return new TimeSeriesPyramid(days, dayValues);
+    }
+
+    // One pass over a finer level, summing consecutive periods that fall in the same coarser period
+    private void roll(Level from, Level to) {
+        long[] finer = starts[from.ordinal()];
+        double[] finerValues = values[from.ordinal()];
+        long[] coarse = new long[finer.length];
+        double[] coarseValues = new double[finer.length];
+        int n = 0;
+        for (int i = 0; i < finer.length; i++) {
+            long start = to.periodStart(finer[i]);
+            if (n == 0 || coarse[n - 1] != start) {
+                coarse[n++] = start;
+            }
+            coarseValues[n - 1] += finerValues[i];
+        }
+        starts[to.ordinal()] = Arrays.copyOf(coarse, n);
+        values[to.ordinal()] = Arrays.copyOf(coarseValues, n);
+    }
+
+    public boolean isEmpty() {
+        return starts[Level.DAY.ordinal()].length == 0;
+    }
+
+    /** First day with a value, or null if the series is empty. */
+    public LocalDate firstDay() {
+        long[] days = starts[Level.DAY.ordinal()];
+        return days.length > 0 ? LocalDate.ofEpochDay(days[0]) : null;
+    }
+
+    /** Last day with a value, or null if the series is empty. */
+    public LocalDate lastDay() {
+        long[] days = starts[Level.DAY.ordinal()];
+        return days.length > 0 ? LocalDate.ofEpochDay(days[days.length - 1]) : null;
+    }
+
+    /**
+     * Finest level with at most {@code maxPeriods} periods between two days; quarters if none fits.
+     */
+    public static Level levelFor(long fromDay, long toDay, int maxPeriods) {
+        for (Level level : Level.values()) {
+            if (level.periodsBetween(fromDay, toDay) <= maxPeriods) {
+                return level;
+            }
+        }
+        return Level.QUARTER;
+    }
+
+    /**
+     * The periods of one level that overlap two days, inclusive. Periods without a value are absent.
+     */
+    public Series window(Level level, long fromDay, long toDay) {
+        long[] levelStarts = starts[level.ordinal()];
+        int first = lowerBound(levelStarts, level.periodStart(fromDay));
+        int end = lowerBound(levelStarts, toDay + 1);
+        if (end <= first) {
+            return new Series(level, new long[0], new double[0]);
+        }
+        return new Series(level, Arrays.copyOfRange(levelStarts, first, end),
+                Arrays.copyOfRange(values[level.ordinal()], first, end));
+    }
+
+    /**
+     * The points to draw for a window: the finest level within {@link #OVERSAMPLE} times the budget,
+     * thinned to the budget with LTTB when it is still over.
+     *
+     * @param fromDay   First visible epoch day
+     * @param toDay     Last visible epoch day
+     * @param maxPoints Points the chart can draw, usually from its pixel width
+     */
+    public Series view(long fromDay, long toDay, int maxPoints) {
+        int budget = Math.max(3, maxPoints);
+        Series series = window(levelFor(fromDay, toDay, budget * OVERSAMPLE), fromDay, toDay);
+        if (series.size() <= budget) {
+            return series;
+        }
+        int[] keep = largestTriangleThreeBuckets(series.starts, series.values, budget);
+        long[] keptStarts = new long[keep.length];
+        double[] keptValues = new double[keep.length];
+        for (int i = 0; i < keep.length; i++) {
+            keptStarts[i] = series.starts[keep[i]];
+            keptValues[i] = series.values[keep[i]];
+        }
+        return new Series(series.level, keptStarts, keptValues);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013). Keeps the first and last
+     * points and, from each of {@code threshold - 2} equal buckets in between, the point forming
+     * the largest triangle with the previously kept point and the average of the next bucket.
+     *
+     * @return indices of the kept points, ascending
+     */
+    static int[] largestTriangleThreeBuckets(long[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        kept[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket; the last point for the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Period starts and values of one level, oldest first.
+     */
+    public static final class Series {
+        private final Level level;
+        private final long[] starts;
+        private final double[] values;
+
+        Series(Level level, long[] starts, double[] values) {
+            this.level = level;
+            this.starts = starts;
+            this.values = values;
+        }
+
+        public Level getLevel() { return level; }
+        public int size() { return starts.length; }
+        public long startDay(int i) { return starts[i]; }
+        public LocalDate start(int i) { return LocalDate.ofEpochDay(starts[i]); }
+        public double value(int i) { return values[i]; }
+
+        public double max() {
+            double max = 0;
+            for (double value : values) {
+                max = Math.max(max, value);
+            }
+            return max;
+        }
+    }
+}
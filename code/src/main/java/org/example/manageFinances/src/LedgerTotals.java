@@ -0,0 +1,77 @@
+package org.example.manageFinances.src;
+
+import org.example.Money;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Income, expense and net flow of a set of transactions, in cents.
+ *
+ * Income is the sum of delivery and other income, expense the sum of purchases and withdrawals as a
+ * positive number, and net the signed sum of every amount. Totals of consecutive ranges add up, so a
+ * checkpoint plus the transactions after it gives the totals to date.
+ */
+public final class LedgerTotals {
+
+    public static final LedgerTotals ZERO = new LedgerTotals(0, 0, 0, 0);
+
+    private final long incomeCents;
+    private final long expenseCents;
+    private final long netCents;
+    private final int transactionCount;
+
+    public LedgerTotals(long incomeCents, long expenseCents, long netCents, int transactionCount) {
+        this.incomeCents = incomeCents;
+        this.expenseCents = expenseCents;
+        this.netCents = netCents;
+        this.transactionCount = transactionCount;
+    }
+
+    /**
+     * Reads the incomeCents, expenseCents, netCents and transactionCount columns of the current row.
+     */
+    static LedgerTotals fromRow(ResultSet rs) throws SQLException {
+        return new LedgerTotals(rs.getLong("incomeCents"), rs.getLong("expenseCents"),
+                rs.getLong("netCents"), rs.getInt("transactionCount"));
+    }
+
+    public long incomeCents() { return incomeCents; }
+    public long expenseCents() { return expenseCents; }
+    public long netCents() { return netCents; }
+    public int transactionCount() { return transactionCount; }
+    public double income() { return Money.toDollars(incomeCents); }
+    public double expense() { return Money.toDollars(expenseCents); }
+    public double net() { return Money.toDollars(netCents); }
+
+    public LedgerTotals plus(LedgerTotals other) {
+        return new LedgerTotals(incomeCents + other.incomeCents, expenseCents + other.expenseCents,
+                netCents + other.netCents, transactionCount + other.transactionCount);
+    }
+
+    public LedgerTotals minus(LedgerTotals other) {
+        return new LedgerTotals(incomeCents - other.incomeCents, expenseCents - other.expenseCents,
+                netCents - other.netCents, transactionCount - other.transactionCount);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LedgerTotals)) return false;
+        LedgerTotals that = (LedgerTotals) o;
+        return incomeCents == that.incomeCents && expenseCents == that.expenseCents
+                && netCents == that.netCents && transactionCount == that.transactionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(incomeCents, expenseCents, netCents, transactionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerTotals[income=" + Money.ofCents(incomeCents) + ", expense=" + Money.ofCents(expenseCents)
+                + ", net=" + Money.ofCents(netCents) + ", count=" + transactionCount + "]";
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.manageFinances.src;
+
+import org.example.Money;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's or bank account's transactions partitioned by type, read in one scan.
+ *
+ * Amounts are kept in integer cents in one primitive array per type, and the count, sum, min and max
+ * of each type are accumulated in the same pass. Rows arrive in (type, amount) order from the covering
+ * index, so within a type the amounts are sorted ascending. Rows whose type is not one of the four
+ * known types have no buffer of their own; they count toward the overall totals and are kept in
+ * the "allTransactions" list.
+ */
+public class TransactionBreakdown {
+
+    /**
+     * The transaction types, in the order of their buffers.
+     */
+    public static final List<String> TYPES = List.of(
+            generalFinancialData.TYPE_PURCHASE, generalFinancialData.TYPE_WITHDRAWAL,
+            generalFinancialData.TYPE_DELIVERY_INCOME, generalFinancialData.TYPE_OTHER_INCOME);
+
+    // Keys of the Map<String, List<Float>> returned by getAllTransactions, by type index
+    private static final String[] LEGACY_KEYS = {"purchases", "withdrawals", "deliveryIncome", "otherIncome"};
+    private static final String ALL_KEY = "allTransactions";
+
+    private final long[][] amountCents;
+    private final long[] sumCents;
+    private final long[] minCents;
+    private final long[] maxCents;
+    private final long[] otherAmountCents;
+    private final long otherSumCents;
+
+    private TransactionBreakdown(Builder builder) {
+        int types = TYPES.size();
+        this.amountCents = new long[types][];
+        for (int type = 0; type < types; type++) {
+            amountCents[type] = Arrays.copyOf(builder.amountCents[type], builder.counts[type]);
+        }
+        this.sumCents = builder.sumCents.clone();
+        this.minCents = builder.minCents.clone();
+        this.maxCents = builder.maxCents.clone();
+        this.otherAmountCents = Arrays.copyOf(builder.otherAmountCents, builder.otherCount);
+        this.otherSumCents = builder.otherSumCents;
+    }
+
+    public static TransactionBreakdown empty() {
+        return new Builder().build();
+    }
+
+    public int count(String type) { return amountCents[index(type)].length; }
+    public long sumCents(String type) { return sumCents[index(type)]; }
+
+    /**
+     * @return the smallest amount of this type in cents, or 0 if there is none
+     */
+    public long minCents(String type) { return count(type) > 0 ? minCents[index(type)] : 0; }
+
+    /**
+     * @return the largest amount of this type in cents, or 0 if there is none
+     */
+    public long maxCents(String type) { return count(type) > 0 ? maxCents[index(type)] : 0; }
+
+    /**
+     * @return a copy of this type's amounts in cents
+     */
+    public long[] amountsCents(String type) { return amountCents[index(type)].clone(); }
+
+    public int totalCount() {
+        int total = otherAmountCents.length;
+        for (long[] amounts : amountCents) {
+            total += amounts.length;
+        }
+        return total;
+    }
+
+    public long totalSumCents() {
+        long total = otherSumCents;
+        for (long sum : sumCents) {
+            total += sum;
+        }
+        return total;
+    }
+
+    /**
+     * Converts to the map shape getAllTransactions has always returned: "purchases", "withdrawals",
+     * "deliveryIncome", "otherIncome" and "allTransactions", each a list of dollar amounts.
+     */
+    public Map<String, List<Float>> toAmountLists() {
+        Map<String, List<Float>> lists = new HashMap<>();
+        List<Float> all = new ArrayList<>(totalCount());
+        for (int type = 0; type < amountCents.length; type++) {
+            List<Float> amounts = new ArrayList<>(amountCents[type].length);
+            for (long cents : amountCents[type]) {
+                amounts.add((float) Money.toDollars(cents));
+            }
+            lists.put(LEGACY_KEYS[type], amounts);
+            all.addAll(amounts);
+        }
+        for (long cents : otherAmountCents) {
+            all.add((float) Money.toDollars(cents));
+        }
+        lists.put(ALL_KEY, all);
+        return lists;
+    }
+
+    private static int index(String type) {
+        int index = type != null ? TYPES.indexOf(type.toLowerCase()) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid transaction type: " + type);
+        }
+        return index;
+    }
+
+    /**
+     * Streams rows of (transactionType, amountCents) into the per-type buffers.
+     */
+    public static class Builder implements RowCallbackHandler {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final long[][] amountCents = new long[TYPES.size()][INITIAL_CAPACITY];
+        private final int[] counts = new int[TYPES.size()];
+        private final long[] sumCents = new long[TYPES.size()];
+        private final long[] minCents = new long[TYPES.size()];
+        private final long[] maxCents = new long[TYPES.size()];
+        private long[] otherAmountCents = new long[INITIAL_CAPACITY];
+        private int otherCount;
+        private long otherSumCents;
+
+        // Rows of one type arrive together, so the last lookup is almost always the answer
+        private String lastType;
+        private int lastIndex = -1;
+
+        public Builder() {
+            Arrays.fill(minCents, Long.MAX_VALUE);
+            Arrays.fill(maxCents, Long.MIN_VALUE);
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            add(rs.getString("transactionType"), rs.getLong("amountCents"));
+        }
+
+        public Builder add(String transactionType, long cents) {
+            int type = typeIndex(transactionType);
+            if (type < 0) {
+                if (otherCount == otherAmountCents.length) {
+                    otherAmountCents = Arrays.copyOf(otherAmountCents, otherCount * 2);
+                }
+                otherAmountCents[otherCount++] = cents;
+                otherSumCents += cents;
+                return this;
+            }
+            int row = counts[type];
+            if (row == amountCents[type].length) {
+                amountCents[type] = Arrays.copyOf(amountCents[type], row * 2);
+            }
+            amountCents[type][row] = cents;
+            counts[type] = row + 1;
+            sumCents[type] += cents;
+            if (cents < minCents[type]) minCents[type] = cents;
+            if (cents > maxCents[type]) maxCents[type] = cents;
+            return this;
+        }
+
+        private int typeIndex(String transactionType) {
+            if (transactionType == null) {
+                return -1;
+            }
+            if (!transactionType.equals(lastType)) {
+                lastType = transactionType;
+                lastIndex = TYPES.indexOf(transactionType.toLowerCase());
+            }
+            return lastIndex;
+        }
+
+        public TransactionBreakdown build() {
+            return new TransactionBreakdown(this);
+        }
+    }
+}
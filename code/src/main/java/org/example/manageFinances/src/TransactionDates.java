@@ -0,0 +1,56 @@
+package org.example.manageFinances.src;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * Conversions for "transaction".transactionDate, which holds epoch milliseconds.
+ *
+ * Days and months are taken in the system time zone, the zone SQLite's 'localtime' modifier uses
+ * when the reports and the ledger bucket the same values in SQL.
+ */
+public final class TransactionDates {
+
+    private TransactionDates() {}
+
+    /**
+     * Gets the epoch milliseconds at which a day starts.
+     */
+    public static long startOfDay(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Gets the epoch milliseconds at which a month starts.
+     */
+    public static long startOfMonth(YearMonth month) {
+        return startOfDay(month.atDay(1));
+    }
+
+    /**
+     * Gets the epoch milliseconds of the start of a 'YYYY-MM-DD' day, or null for null.
+     */
+    public static Long parseDay(String day) {
+        return day != null ? startOfDay(LocalDate.parse(day)) : null;
+    }
+
+    /**
+     * Gets the epoch milliseconds of a value read from transactionDate, or null if it has none.
+     */
+    public static Long time(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * Formats a value read from transactionDate as 'YYYY-MM-DD' for display. Text a writer stored
+     * that could not be read as a date is shown as it is.
+     */
+    public static String display(Object value) {
+        if (value instanceof Number) {
+            return LocalDate.ofInstant(Instant.ofEpochMilli(((Number) value).longValue()), ZoneId.systemDefault()).toString();
+        }
+        return value != null ? value.toString() : null;
+    }
+}
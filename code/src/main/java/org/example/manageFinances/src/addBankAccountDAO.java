@@ -1,5 +1,6 @@
 package org.example.manageFinances.src;
 
+import org.example.UserAggregateCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -10,6 +11,9 @@ public class addBankAccountDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private UserAggregateCache aggregateCache;
+
     /**
      * Saves a new bank account to the database.
      * @param account the addBankAccount object containing account details
@@ -36,6 +40,7 @@ public class addBankAccountDAO {
                     account.getOtherIncome()
             );
             if (rowsAffected > 0) {
+                aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS);
                 System.out.println("Bank account '" + account.getAccountName() + "' created successfully for user ID: " + userId);
             }
             return rowsAffected > 0;
@@ -1,13 +1,18 @@
 package org.example.manageFinances.src;
 
+import org.example.KeysetPage;
+import org.example.Money;
+import org.example.UserAggregateCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 @Service
 public class generalFinancialData {
@@ -15,6 +20,19 @@ public class generalFinancialData {
     @Autowired
     protected JdbcTemplate jdbcTemplate;
 
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    protected JdbcTemplate readJdbcTemplate;
+
+    // Per-user totals for the dashboard; null for selectBankAccount rows built outside Spring
+    @Autowired
+    protected UserAggregateCache aggregateCache;
+
+    // Checkpointed income and expense totals; null for rows built outside Spring, which sum in SQL
+    @Autowired
+    protected ledgerDAO ledger;
+
     // Valid transaction types
     public static final String TYPE_PURCHASE = "purchase";
     public static final String TYPE_WITHDRAWAL = "withdrawal";
@@ -34,9 +52,20 @@ public class generalFinancialData {
      * @return The total assets value.
      */
     public float getTotalAssets(int userId) {
-        String sql = "SELECT SUM(balance) FROM bankAccount WHERE userId = ?";
-        Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId}, Float.class);
-        return (total != null) ? total : 0.0f;
+        return (float) Money.toDollars(getTotalAssetsCents(userId));
+    }
+
+    /**
+     * Calculates the total assets in cents, summed exactly in SQL.
+     * @param userId The ID of the user.
+     * @return The total assets in cents.
+     */
+    public long getTotalAssetsCents(int userId) {
+        return cached(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> {
+            String sql = "SELECT COALESCE(SUM(balanceCents), 0) FROM bankAccount WHERE userId = ?";
+            Long total = readJdbcTemplate.queryForObject(sql, Long.class, userId);
+            return (total != null) ? total : 0L;
+        });
     }
 
     /**
@@ -45,9 +74,24 @@ public class generalFinancialData {
      * @return The total expenses value (as a positive number).
      */
     public float getTotalExpense(int userId) {
-        String sql = "SELECT SUM(ABS(amount)) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
-        Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId, TYPE_PURCHASE, TYPE_WITHDRAWAL}, Float.class);
-        return (total != null) ? total : 0.0f;
+        return (float) Money.toDollars(getTotalExpenseCents(userId));
+    }
+
+    /**
+     * Calculates the total expenses in cents (as a positive number), from the user's latest ledger
+     * checkpoint and the transactions after it.
+     * @param userId The ID of the user.
+     * @return The total expenses in cents.
+     */
+    public long getTotalExpenseCents(int userId) {
+        return cached(userId, UserAggregateCache.Aggregate.TOTAL_EXPENSE, () -> {
+            if (ledger != null) {
+                return ledger.totals(ledgerDAO.Scope.USER, userId).expenseCents();
+            }
+            String sql = "SELECT COALESCE(SUM(ABS(amountCents)), 0) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
+            Long total = readJdbcTemplate.queryForObject(sql, Long.class, userId, TYPE_PURCHASE, TYPE_WITHDRAWAL);
+            return (total != null) ? total : 0L;
+        });
     }
 
     /**
@@ -56,9 +100,27 @@ public class generalFinancialData {
      * @return The total income value.
      */
     public float getTotalIncome(int userId) {
-        String sql = "SELECT SUM(amount) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
-        Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId, TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME}, Float.class);
-        return (total != null) ? total : 0.0f;
+        return (float) Money.toDollars(getTotalIncomeCents(userId));
+    }
+
+    /**
+     * Calculates total income in cents, from the user's latest ledger checkpoint and the transactions after it.
+     * @param userId The ID of the user.
+     * @return The total income in cents.
+     */
+    public long getTotalIncomeCents(int userId) {
+        return cached(userId, UserAggregateCache.Aggregate.TOTAL_INCOME, () -> {
+            if (ledger != null) {
+                return ledger.totals(ledgerDAO.Scope.USER, userId).incomeCents();
+            }
+            String sql = "SELECT COALESCE(SUM(amountCents), 0) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
+            Long total = readJdbcTemplate.queryForObject(sql, Long.class, userId, TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME);
+            return (total != null) ? total : 0L;
+        });
+    }
+
+    private long cached(int userId, UserAggregateCache.Aggregate aggregate, Supplier<Long> loader) {
+        return aggregateCache != null ? aggregateCache.get(userId, aggregate, loader) : loader.get();
     }
 
     /**
@@ -67,9 +129,7 @@ public class generalFinancialData {
      * @return Net financial position.
      */
     public float getNetFinancialPosition(int userId) {
-        float assets = getTotalAssets(userId);
-        float expenses = getTotalExpense(userId);
-        return assets - expenses;
+        return (float) Money.toDollars(getTotalAssetsCents(userId) - getTotalExpenseCents(userId));
     }
 
     /**
@@ -101,8 +161,12 @@ public class generalFinancialData {
             }
         }
 
-        String sql = "INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate) VALUES (?, ?, ?, date('now'))";
-        jdbcTemplate.update(sql, userId, amount, normalizedType);
+        String sql = "INSERT INTO \"transaction\" (userId, amount, amountCents, transactionType, transactionDate) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sql, userId, amount, Money.toCents(amount), normalizedType, System.currentTimeMillis());
+        if (aggregateCache != null) {
+            aggregateCache.invalidate(userId, generalFinancialDataDAO.aggregateFor(normalizedType));
+        }
     }
 
     /**
@@ -111,34 +175,29 @@ public class generalFinancialData {
      * @return A map with keys: "purchases", "withdrawals", "deliveryIncome", "otherIncome", "allTransactions"
      */
     public Map<String, List<Float>> getAllTransactions(int userId) {
-        Map<String, List<Float>> financialData = new HashMap<>();
-
-        // Get all transactions
-        String allSql = "SELECT amount FROM \"transaction\" WHERE userId = ?";
-        List<Float> allTransactions = jdbcTemplate.queryForList(allSql, new Object[]{userId}, Float.class);
-        financialData.put("allTransactions", allTransactions);
-
-        // Get purchases
-        String purchasesSql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        List<Float> purchases = jdbcTemplate.queryForList(purchasesSql, new Object[]{userId, TYPE_PURCHASE}, Float.class);
-        financialData.put("purchases", purchases);
-
-        // Get withdrawals
-        String withdrawalsSql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        List<Float> withdrawals = jdbcTemplate.queryForList(withdrawalsSql, new Object[]{userId, TYPE_WITHDRAWAL}, Float.class);
-        financialData.put("withdrawals", withdrawals);
-
-        // Get delivery income
-        String deliveryIncomeSql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        List<Float> deliveryIncome = jdbcTemplate.queryForList(deliveryIncomeSql, new Object[]{userId, TYPE_DELIVERY_INCOME}, Float.class);
-        financialData.put("deliveryIncome", deliveryIncome);
+        return getTransactionBreakdown(userId).toAmountLists();
+    }
 
-        // Get other income
-        String otherIncomeSql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        List<Float> otherIncome = jdbcTemplate.queryForList(otherIncomeSql, new Object[]{userId, TYPE_OTHER_INCOME}, Float.class);
-        financialData.put("otherIncome", otherIncome);
+    /**
+     * Reads a user's transactions partitioned by type, with per-type sums, counts and min/max,
+     * in one scan of the (userId, transactionType, amountCents) index.
+     * @param userId The ID of the user.
+     * @return The user's TransactionBreakdown.
+     */
+    public TransactionBreakdown getTransactionBreakdown(int userId) {
+        return readTransactionBreakdown("userId", userId);
+    }
 
-        return financialData;
+    /**
+     * Runs the breakdown scan for one owner column (userId or bankAccountId).
+     */
+    protected TransactionBreakdown readTransactionBreakdown(String ownerColumn, int ownerId) {
+        // The ORDER BY is free on the (owner, type, cents) index and keeps the planner on it
+        String sql = "SELECT transactionType, amountCents FROM \"transaction\" WHERE " + ownerColumn + " = ? " +
+                "ORDER BY transactionType, amountCents";
+        TransactionBreakdown.Builder builder = new TransactionBreakdown.Builder();
+        readJdbcTemplate.query(sql, builder, ownerId);
+        return builder.build();
     }
 
     /**
@@ -152,7 +211,7 @@ public class generalFinancialData {
             throw new IllegalArgumentException("Invalid transaction type: " + transactionType);
         }
         String sql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        return jdbcTemplate.queryForList(sql, new Object[]{userId, transactionType.toLowerCase()}, Float.class);
+        return readJdbcTemplate.queryForList(sql, new Object[]{userId, transactionType.toLowerCase()}, Float.class);
     }
 
     /**
@@ -184,13 +243,15 @@ public class generalFinancialData {
                      "LEFT JOIN bankAccount b ON t.bankAccountId = b.idbankAccount " +
                      "WHERE t.userId = ? " +
                      "ORDER BY t.transactionDate DESC, t.transactionId DESC";
-        return jdbcTemplate.query(sql, new Object[]{userId}, (rs, rowNum) -> {
+        return readJdbcTemplate.query(sql, new Object[]{userId}, (rs, rowNum) -> {
             TransactionSummary summary = new TransactionSummary();
             summary.setTransactionId(rs.getInt("transactionId"));
             summary.setUserId(rs.getInt("userId"));
             summary.setAmount(rs.getFloat("amount"));
             summary.setTransactionType(rs.getString("transactionType"));
-            summary.setTransactionDate(rs.getString("transactionDate"));
+            Object date = rs.getObject("transactionDate");
+            summary.setTransactionDate(TransactionDates.display(date));
+            summary.setTransactionTime(TransactionDates.time(date));
             summary.setDescription(rs.getString("description"));
             summary.setBankAccountId(rs.getInt("bankAccountId"));
             summary.setBankAccountType(rs.getString("bankAccountType"));
@@ -198,6 +259,92 @@ public class generalFinancialData {
         });
     }
 
+    // Sortable columns of the transactions table; NULLs are coalesced for the keyset comparison
+    private static final Map<String, String> TRANSACTION_SORT_COLUMNS = Map.of(
+            "id", "t.transactionId",
+            "date", "COALESCE(t.transactionDate, 0)",
+            "type", "COALESCE(t.transactionType, '')",
+            "amount", "COALESCE(t.amount, 0)",
+            "account", "COALESCE(t.bankAccountId, 0)",
+            "description", "COALESCE(t.description, '')"
+    );
+
+    /**
+     * Counts a user's transactions matching the transactions table filters.
+     * @param userId The user ID.
+     * @param types Transaction types to include, or null for all.
+     * @param filter Text to look for in the description, or null.
+     * @return Number of matching transactions.
+     */
+    public int countTransactionDetails(int userId, List<String> types, String filter) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM \"transaction\" t WHERE t.userId = ?");
+        args.add(userId);
+        appendTransactionFilter(sql, args, types, filter);
+        Integer count = readJdbcTemplate.queryForObject(sql.toString(), Integer.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Reads one page of a user's transactions, sorted and filtered in SQL.
+     * @param userId The user ID.
+     * @param types Transaction types to include, or null for all.
+     * @param query Sort column (id, date, type, amount, account or description), description filter
+     *              and page position.
+     * @return The page and the cursor to continue after it.
+     */
+    public KeysetPage<TransactionSummary> getTransactionDetailsPage(int userId, List<String> types, KeysetPage.Query query) {
+        String sortExpression = query.sortExpression(TRANSACTION_SORT_COLUMNS, "date");
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(sortExpression).append(" AS sortValue, ")
+                .append("t.transactionId, t.userId, t.amount, t.transactionType, t.transactionDate, ")
+                .append("t.description, t.bankAccountId, b.accountType as bankAccountType ")
+                .append("FROM \"transaction\" t ")
+                .append("LEFT JOIN bankAccount b ON t.bankAccountId = b.idbankAccount ")
+                .append("WHERE t.userId = ?");
+        args.add(userId);
+        appendTransactionFilter(sql, args, types, query.getFilter());
+        query.appendPage(sql, args, sortExpression, "t.transactionId");
+
+        List<KeysetPage.Cursor> last = new ArrayList<>(1);
+        List<TransactionSummary> rows = readJdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            last.clear();
+            last.add(new KeysetPage.Cursor(rs.getObject("sortValue"), rs.getLong("transactionId")));
+            TransactionSummary summary = new TransactionSummary();
+            summary.setTransactionId(rs.getInt("transactionId"));
+            summary.setUserId(rs.getInt("userId"));
+            summary.setAmount(rs.getFloat("amount"));
+            summary.setTransactionType(rs.getString("transactionType"));
+            Object date = rs.getObject("transactionDate");
+            summary.setTransactionDate(TransactionDates.display(date));
+            summary.setTransactionTime(TransactionDates.time(date));
+            summary.setDescription(rs.getString("description"));
+            summary.setBankAccountId(rs.getInt("bankAccountId"));
+            summary.setBankAccountType(rs.getString("bankAccountType"));
+            return summary;
+        }, args.toArray());
+        return new KeysetPage<>(rows, last.isEmpty() ? null : last.get(0));
+    }
+
+    private static void appendTransactionFilter(StringBuilder sql, List<Object> args, List<String> types, String filter) {
+        if (types != null) {
+            if (types.isEmpty()) {
+                sql.append(" AND 0");
+                return;
+            }
+            sql.append(" AND LOWER(t.transactionType) IN (");
+            for (int i = 0; i < types.size(); i++) {
+                sql.append(i > 0 ? ", ?" : "?");
+                args.add(types.get(i));
+            }
+            sql.append(')');
+        }
+        if (filter != null && !filter.trim().isEmpty()) {
+            sql.append(" AND t.description LIKE ? ESCAPE '\\'");
+            args.add(KeysetPage.likePattern(filter.trim()));
+        }
+    }
+
     /**
      * Inner class to hold detailed transaction summary data.
      */
@@ -207,6 +354,7 @@ public class generalFinancialData {
         private float amount;
         private String transactionType;
         private String transactionDate;
+        private Long transactionTime;
         private String description;
         private int bankAccountId;
         private String bankAccountType;
@@ -217,6 +365,8 @@ public class generalFinancialData {
         public float getAmount() { return amount; }
         public String getTransactionType() { return transactionType; }
         public String getTransactionDate() { return transactionDate; }
+        /** Epoch milliseconds of the transaction, or null when it has no date. */
+        public Long getTransactionTime() { return transactionTime; }
         public String getDescription() { return description; }
         public int getBankAccountId() { return bankAccountId; }
         public String getBankAccountType() { return bankAccountType; }
@@ -227,6 +377,7 @@ public class generalFinancialData {
         public void setAmount(float amount) { this.amount = amount; }
         public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
         public void setTransactionDate(String transactionDate) { this.transactionDate = transactionDate; }
+        public void setTransactionTime(Long transactionTime) { this.transactionTime = transactionTime; }
         public void setDescription(String description) { this.description = description; }
         public void setBankAccountId(int bankAccountId) { this.bankAccountId = bankAccountId; }
         public void setBankAccountType(String bankAccountType) { this.bankAccountType = bankAccountType; }
@@ -1,12 +1,22 @@
 package org.example.manageFinances.src;
 
+import org.example.Money;
+import org.example.UserAggregateCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Repository
 public class generalFinancialDataDAO {
@@ -14,6 +24,20 @@ public class generalFinancialDataDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserAggregateCache aggregateCache;
+
+    @Autowired
+    private ledgerDAO ledger;
+
     // Valid transaction types - must match generalFinancialData constants
     public static final String TYPE_PURCHASE = "purchase";
     public static final String TYPE_WITHDRAWAL = "withdrawal";
@@ -28,38 +52,50 @@ public class generalFinancialDataDAO {
     private static final List<String> POSITIVE_TYPES = Arrays.asList(TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME);
 
     public Float getTotalAssets(int userId) {
-        String sql = "SELECT SUM(balance) FROM bankAccount WHERE userId = ?";
-        try {
-            Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId}, Float.class);
-            return (total != null) ? total : 0.0f;
-        } catch (EmptyResultDataAccessException e) {
-            return 0.0f;
-        }
+        return (float) Money.toDollars(getTotalAssetsCents(userId));
+    }
+
+    /**
+     * Gets the sum of a user's bank account balances in cents.
+     */
+    public long getTotalAssetsCents(int userId) {
+        return sumCents("SELECT COALESCE(SUM(balanceCents), 0) FROM bankAccount WHERE userId = ?", userId);
     }
 
     /**
      * Gets total expenses (purchases + withdrawals) from the transaction table.
      */
     public Float getTotalExpense(int userId) {
-        String sql = "SELECT SUM(ABS(amount)) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
-        try {
-            Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId, TYPE_PURCHASE, TYPE_WITHDRAWAL}, Float.class);
-            return (total != null) ? total : 0.0f;
-        } catch (EmptyResultDataAccessException e) {
-            return 0.0f;
-        }
+        return (float) Money.toDollars(getTotalExpenseCents(userId));
+    }
+
+    /**
+     * Gets total expenses in cents, as a positive number, from the user's latest ledger checkpoint.
+     */
+    public long getTotalExpenseCents(int userId) {
+        return ledger.totals(ledgerDAO.Scope.USER, userId).expenseCents();
     }
 
     /**
      * Gets total income (delivery income + other income) from the transaction table.
      */
     public Float getTotalIncome(int userId) {
-        String sql = "SELECT SUM(amount) FROM \"transaction\" WHERE userId = ? AND transactionType IN (?, ?)";
+        return (float) Money.toDollars(getTotalIncomeCents(userId));
+    }
+
+    /**
+     * Gets total income in cents, from the user's latest ledger checkpoint.
+     */
+    public long getTotalIncomeCents(int userId) {
+        return ledger.totals(ledgerDAO.Scope.USER, userId).incomeCents();
+    }
+
+    private long sumCents(String sql, Object... args) {
         try {
-            Float total = jdbcTemplate.queryForObject(sql, new Object[]{userId, TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME}, Float.class);
-            return (total != null) ? total : 0.0f;
+            Long total = readJdbcTemplate.queryForObject(sql, Long.class, args);
+            return (total != null) ? total : 0L;
         } catch (EmptyResultDataAccessException e) {
-            return 0.0f;
+            return 0L;
         }
     }
 
@@ -71,7 +107,7 @@ public class generalFinancialDataDAO {
             throw new IllegalArgumentException("Invalid transaction type: " + transactionType);
         }
         String sql = "SELECT amount FROM \"transaction\" WHERE userId = ? AND transactionType = ?";
-        return jdbcTemplate.queryForList(sql, new Object[]{userId, transactionType.toLowerCase()}, Float.class);
+        return readJdbcTemplate.queryForList(sql, new Object[]{userId, transactionType.toLowerCase()}, Float.class);
     }
 
     /**
@@ -79,7 +115,7 @@ public class generalFinancialDataDAO {
      */
     public List<Float> getAllTransactions(int userId) {
         String sql = "SELECT amount FROM \"transaction\" WHERE userId = ?";
-        return jdbcTemplate.queryForList(sql, new Object[]{userId}, Float.class);
+        return readJdbcTemplate.queryForList(sql, new Object[]{userId}, Float.class);
     }
 
     /**
@@ -138,8 +174,10 @@ public class generalFinancialDataDAO {
             }
         }
 
-        String sql = "INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate) VALUES (?, ?, ?, date('now'))";
-        jdbcTemplate.update(sql, userId, amount, normalizedType);
+        String sql = "INSERT INTO \"transaction\" (userId, amount, amountCents, transactionType, transactionDate) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sql, userId, amount, Money.toCents(amount), normalizedType, System.currentTimeMillis());
+        aggregateCache.invalidate(userId, aggregateFor(normalizedType));
     }
 
     /**
@@ -170,6 +208,100 @@ public class generalFinancialDataDAO {
         addTransaction(userId, amount, TYPE_OTHER_INCOME);
     }
 
+    /**
+     * Validates a transaction type and amount with the same rules as addTransaction.
+     * @return A string containing the error message, or null if valid.
+     */
+    public static String validateTransaction(String transactionType, float amount) {
+        if (transactionType == null || !VALID_TRANSACTION_TYPES.contains(transactionType.toLowerCase())) {
+            return "Invalid transaction type: " + transactionType + ". Must be one of: " + VALID_TRANSACTION_TYPES;
+        }
+        if (POSITIVE_TYPES.contains(transactionType.toLowerCase()) && amount < 0) {
+            return "Income transactions must have positive amounts. Got: " + amount;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts many transactions for one user with one JDBC batch in a single transaction.
+     *
+     * Records must already pass validateTransaction; types are lower-cased and purchase/withdrawal
+     * amounts made negative here, as addTransaction does. If the batch is rejected by the database,
+     * the rows are retried one by one behind savepoints so only the offending rows fail.
+     * Bank account balances are not changed, these are historical records.
+     *
+     * @param userId  The user the transactions belong to
+     * @param records The transactions to insert; transactionTime (epoch ms) is used when set, otherwise
+     *                transactionDate ('YYYY-MM-DD') as the start of that day. bankAccountId 0 means none
+     * @return Failure messages by index in records, empty when every row was inserted
+     */
+    public Map<Integer, String> saveTransactions(int userId, List<TransactionRecord> records) {
+        String sql = "INSERT INTO \"transaction\" (userId, amount, amountCents, transactionType, transactionDate, description, bankAccountId) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        Map<Integer, String> failures = new TreeMap<>();
+        if (records.isEmpty()) {
+            return failures;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Object batchSavepoint = status.createSavepoint();
+            try {
+                List<Object[]> batch = new ArrayList<>(records.size());
+                for (TransactionRecord record : records) {
+                    batch.add(insertArgs(userId, record));
+                }
+                jdbcTemplate.batchUpdate(sql, batch);
+                status.releaseSavepoint(batchSavepoint);
+            } catch (RuntimeException batchError) {
+                status.rollbackToSavepoint(batchSavepoint);
+                for (int i = 0; i < records.size(); i++) {
+                    Object rowSavepoint = status.createSavepoint();
+                    try {
+                        jdbcTemplate.update(sql, insertArgs(userId, records.get(i)));
+                        status.releaseSavepoint(rowSavepoint);
+                    } catch (RuntimeException rowError) {
+                        status.rollbackToSavepoint(rowSavepoint);
+                        failures.put(i, rowError.getMessage());
+                    }
+                }
+            }
+        });
+        aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_EXPENSE, UserAggregateCache.Aggregate.TOTAL_INCOME);
+        return failures;
+    }
+
+    /**
+     * Gets the cached total a transaction of this type counts towards.
+     */
+    static UserAggregateCache.Aggregate aggregateFor(String normalizedType) {
+        return NEGATIVE_TYPES.contains(normalizedType)
+                ? UserAggregateCache.Aggregate.TOTAL_EXPENSE
+                : UserAggregateCache.Aggregate.TOTAL_INCOME;
+    }
+
+    /**
+     * Makes a purchase or withdrawal amount negative; other amounts are returned as they are.
+     */
+    static float signedAmount(String normalizedType, float amount) {
+        return NEGATIVE_TYPES.contains(normalizedType) && amount > 0 ? -amount : amount;
+    }
+
+    private static Object[] insertArgs(int userId, TransactionRecord record) {
+        String normalizedType = record.getTransactionType().toLowerCase();
+        float amount = signedAmount(normalizedType, record.getAmount());
+        return new Object[]{
+                userId,
+                amount,
+                Money.toCents(amount),
+                normalizedType,
+                record.getTransactionTime() != null
+                        ? record.getTransactionTime()
+                        : TransactionDates.parseDay(record.getTransactionDate()),
+                record.getDescription(),
+                record.getBankAccountId() > 0 ? record.getBankAccountId() : null
+        };
+    }
+
     /**
      * Validates if a transaction type is valid.
      */
@@ -181,25 +313,31 @@ public class generalFinancialDataDAO {
     //   BANK ACCOUNT-SPECIFIC TRANSACTION METHODS
     // =========================================================
 
+    private static final String RECORD_COLUMNS =
+            "SELECT transactionId, userId, amount, transactionType, transactionDate, description, bankAccountId FROM \"transaction\" ";
+
+    private static final RowMapper<TransactionRecord> RECORD_MAPPER = (rs, rowNum) -> {
+        TransactionRecord record = new TransactionRecord();
+        record.setTransactionId(rs.getInt("transactionId"));
+        record.setUserId(rs.getInt("userId"));
+        record.setAmount(rs.getFloat("amount"));
+        record.setTransactionType(rs.getString("transactionType"));
+        Object date = rs.getObject("transactionDate");
+        record.setTransactionDate(TransactionDates.display(date));
+        record.setTransactionTime(TransactionDates.time(date));
+        record.setDescription(rs.getString("description"));
+        record.setBankAccountId(rs.getInt("bankAccountId"));
+        return record;
+    };
+
     /**
      * Gets all detailed transaction records for a specific bank account.
      * @param bankAccountId The bank account ID.
      * @return List of TransactionRecord objects.
      */
     public List<TransactionRecord> getTransactionsForBankAccount(int bankAccountId) {
-        String sql = "SELECT transactionId, userId, amount, transactionType, transactionDate, description, bankAccountId " +
-                     "FROM \"transaction\" WHERE bankAccountId = ? ORDER BY transactionDate DESC, transactionId DESC";
-        return jdbcTemplate.query(sql, new Object[]{bankAccountId}, (rs, rowNum) -> {
-            TransactionRecord record = new TransactionRecord();
-            record.setTransactionId(rs.getInt("transactionId"));
-            record.setUserId(rs.getInt("userId"));
-            record.setAmount(rs.getFloat("amount"));
-            record.setTransactionType(rs.getString("transactionType"));
-            record.setTransactionDate(rs.getString("transactionDate"));
-            record.setDescription(rs.getString("description"));
-            record.setBankAccountId(rs.getInt("bankAccountId"));
-            return record;
-        });
+        String sql = RECORD_COLUMNS + "WHERE bankAccountId = ? ORDER BY transactionDate DESC, transactionId DESC";
+        return readJdbcTemplate.query(sql, new Object[]{bankAccountId}, RECORD_MAPPER);
     }
 
     /**
@@ -212,23 +350,57 @@ public class generalFinancialDataDAO {
         if (!VALID_TRANSACTION_TYPES.contains(transactionType.toLowerCase())) {
             throw new IllegalArgumentException("Invalid transaction type: " + transactionType);
         }
-        String sql = "SELECT transactionId, userId, amount, transactionType, transactionDate, description, bankAccountId " +
-                     "FROM \"transaction\" WHERE bankAccountId = ? AND transactionType = ? ORDER BY transactionDate DESC, transactionId DESC";
-        return jdbcTemplate.query(sql, new Object[]{bankAccountId, transactionType.toLowerCase()}, (rs, rowNum) -> {
-            TransactionRecord record = new TransactionRecord();
-            record.setTransactionId(rs.getInt("transactionId"));
-            record.setUserId(rs.getInt("userId"));
-            record.setAmount(rs.getFloat("amount"));
-            record.setTransactionType(rs.getString("transactionType"));
-            record.setTransactionDate(rs.getString("transactionDate"));
-            record.setDescription(rs.getString("description"));
-            record.setBankAccountId(rs.getInt("bankAccountId"));
-            return record;
-        });
+        String sql = RECORD_COLUMNS + "WHERE bankAccountId = ? AND transactionType = ? ORDER BY transactionDate DESC, transactionId DESC";
+        return readJdbcTemplate.query(sql, new Object[]{bankAccountId, transactionType.toLowerCase()}, RECORD_MAPPER);
     }
 
+    // =========================================================
+    //   DATE RANGE METHODS
+    // =========================================================
+
     /**
-     * Adds a transaction tied to a specific bank account.
+     * Gets a user's transactions dated from one day to another, both included, newest first.
+     * The window is one range scan of the (userId, transactionDate) index.
+     * @param userId The user ID.
+     * @param from First day of the window.
+     * @param to Last day of the window.
+     * @return List of TransactionRecord objects.
+     */
+    public List<TransactionRecord> getTransactionsForUserBetween(int userId, LocalDate from, LocalDate to) {
+        String sql = RECORD_COLUMNS + "WHERE userId = ? AND transactionDate >= ? AND transactionDate < ? " +
+                     "ORDER BY transactionDate DESC, transactionId DESC";
+        return readJdbcTemplate.query(sql, RECORD_MAPPER, userId,
+                TransactionDates.startOfDay(from), TransactionDates.startOfDay(to.plusDays(1)));
+    }
+
+    /**
+     * Gets a user's transactions of one calendar month, newest first.
+     * @param userId The user ID.
+     * @param month The month.
+     * @return List of TransactionRecord objects.
+     */
+    public List<TransactionRecord> getTransactionsForUserInMonth(int userId, YearMonth month) {
+        return getTransactionsForUserBetween(userId, month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Gets a bank account's transactions dated from one day to another, both included, newest first.
+     * The window is one range scan of the (bankAccountId, transactionDate) index.
+     * @param bankAccountId The bank account ID.
+     * @param from First day of the window.
+     * @param to Last day of the window.
+     * @return List of TransactionRecord objects.
+     */
+    public List<TransactionRecord> getTransactionsForBankAccountBetween(int bankAccountId, LocalDate from, LocalDate to) {
+        String sql = RECORD_COLUMNS + "WHERE bankAccountId = ? AND transactionDate >= ? AND transactionDate < ? " +
+                     "ORDER BY transactionDate DESC, transactionId DESC";
+        return readJdbcTemplate.query(sql, RECORD_MAPPER, bankAccountId,
+                TransactionDates.startOfDay(from), TransactionDates.startOfDay(to.plusDays(1)));
+    }
+
+    /**
+     * Adds a transaction tied to a specific bank account and moves the account's balance by its amount.
+     * The transaction is posted through the ledger, so it records the balance it left behind.
      * @param userId The user ID.
      * @param amount The amount.
      * @param transactionType The transaction type.
@@ -236,25 +408,7 @@ public class generalFinancialDataDAO {
      * @param description Optional description.
      */
     public void addTransactionForBankAccount(int userId, float amount, String transactionType, int bankAccountId, String description) {
-        String normalizedType = transactionType.toLowerCase();
-        if (!VALID_TRANSACTION_TYPES.contains(normalizedType)) {
-            throw new IllegalArgumentException("Invalid transaction type: " + transactionType);
-        }
-
-        // Validate and adjust amount sign
-        if (NEGATIVE_TYPES.contains(normalizedType)) {
-            if (amount > 0) {
-                amount = -amount;
-            }
-        } else if (POSITIVE_TYPES.contains(normalizedType)) {
-            if (amount < 0) {
-                throw new IllegalArgumentException("Income transactions must have positive amounts. Got: " + amount);
-            }
-        }
-
-        String sql = "INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate, description, bankAccountId) " +
-                     "VALUES (?, ?, ?, date('now'), ?, ?)";
-        jdbcTemplate.update(sql, userId, amount, normalizedType, description, bankAccountId);
+        ledger.post(userId, bankAccountId, amount, transactionType, description);
     }
 
     /**
@@ -266,6 +420,7 @@ public class generalFinancialDataDAO {
         private float amount;
         private String transactionType;
         private String transactionDate;
+        private Long transactionTime;
         private String description;
         private int bankAccountId;
 
@@ -275,6 +430,8 @@ public class generalFinancialDataDAO {
         public float getAmount() { return amount; }
         public String getTransactionType() { return transactionType; }
         public String getTransactionDate() { return transactionDate; }
+        /** Epoch milliseconds of the transaction, or null when it has no date. */
+        public Long getTransactionTime() { return transactionTime; }
         public String getDescription() { return description; }
         public int getBankAccountId() { return bankAccountId; }
 
@@ -284,6 +441,7 @@ public class generalFinancialDataDAO {
         public void setAmount(float amount) { this.amount = amount; }
         public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
         public void setTransactionDate(String transactionDate) { this.transactionDate = transactionDate; }
+        public void setTransactionTime(Long transactionTime) { this.transactionTime = transactionTime; }
         public void setDescription(String description) { this.description = description; }
         public void setBankAccountId(int bankAccountId) { this.bankAccountId = bankAccountId; }
 
@@ -0,0 +1,308 @@
+package org.example.manageFinances.src;
+
+import org.example.Money;
+import org.example.UserAggregateCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Posts bank account transactions with a running balance and answers totals from checkpoints.
+ *
+ * A posting moves the account's balance and records the balance it left behind on the transaction
+ * row, in one database transaction. Every user and every account also gets a ledgerCheckpoint row at
+ * the start of each month it has transactions in, holding the totals of everything dated before that
+ * instant (local midnight, in the zone SQLite's 'localtime' modifier uses). Totals to date, totals of
+ * a period and net position read the nearest checkpoint and only the transactions after it, so they
+ * cost one month of rows rather than the whole history.
+ *
+ * Checkpoints are built lazily, the first time a total is asked for in a new month. Triggers on the
+ * transaction table drop checkpoints a back-dated insert, an update or a delete has made stale, so
+ * imports and older screens that write the table directly keep the totals right.
+ */
+@Repository
+public class ledgerDAO {
+
+    /**
+     * Whose transactions a total covers.
+     */
+    public enum Scope {
+        USER("user", "userId"),
+        ACCOUNT("account", "bankAccountId");
+
+        private final String key;
+        private final String column;
+
+        Scope(String key, String column) {
+            this.key = key;
+            this.column = column;
+        }
+    }
+
+    private static final String TOTALS_COLUMNS =
+            "COALESCE(SUM(CASE WHEN transactionType IN ('delivery income', 'other income') THEN amountCents END), 0) AS incomeCents, " +
+            "COALESCE(SUM(CASE WHEN transactionType IN ('purchase', 'withdrawal') THEN ABS(amountCents) END), 0) AS expenseCents, " +
+            "COALESCE(SUM(amountCents), 0) AS netCents, " +
+            "COUNT(*) AS transactionCount";
+
+    private static final String LATEST_CHECKPOINT_SQL =
+            "SELECT checkpointTime, incomeCents, expenseCents, netCents, transactionCount FROM ledgerCheckpoint " +
+            "WHERE scope = ? AND ownerId = ? AND checkpointTime <= ? ORDER BY checkpointTime DESC LIMIT 1";
+
+    private static final String SAVE_CHECKPOINT_SQL =
+            "INSERT OR REPLACE INTO ledgerCheckpoint " +
+            "(scope, ownerId, checkpointTime, incomeCents, expenseCents, netCents, transactionCount) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Lower bound of the scan when an owner has no checkpoint yet
+    private static final long NO_CHECKPOINT_TIME = Long.MIN_VALUE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserAggregateCache aggregateCache;
+
+    // ==================== Posting ====================
+
+    /**
+     * Posts a transaction to a bank account, dated now, and moves the account's balance by its amount.
+     * The balance update, the transaction row with its running balance and any checkpoint the new month
+     * needs are written in one database transaction.
+     *
+     * @param userId The user ID.
+     * @param bankAccountId The bank account ID.
+     * @param amount The amount (made negative for purchase/withdrawal).
+     * @param transactionType Must be: "purchase", "withdrawal", "delivery income", or "other income".
+     * @param description Optional description.
+     * @return The account balance after the posting, in cents.
+     * @throws IllegalArgumentException if the type is invalid, an income amount is negative or the account does not exist.
+     */
+    public long post(int userId, int bankAccountId, float amount, String transactionType, String description) {
+        String error = generalFinancialDataDAO.validateTransaction(transactionType, amount);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        String normalizedType = transactionType.toLowerCase();
+        float signedAmount = generalFinancialDataDAO.signedAmount(normalizedType, amount);
+        long amountCents = Money.toCents(signedAmount);
+        long now = System.currentTimeMillis();
+
+        Long balanceAfter = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE bankAccount SET balanceCents = balanceCents + ?, balance = (balanceCents + ?) / 100.0 WHERE idbankAccount = ?",
+                    amountCents, amountCents, bankAccountId);
+            if (updated == 0) {
+                throw new IllegalArgumentException("Bank account not found: " + bankAccountId);
+            }
+            long balance = jdbcTemplate.queryForObject(
+                    "SELECT balanceCents FROM bankAccount WHERE idbankAccount = ?", Long.class, bankAccountId);
+            jdbcTemplate.update("INSERT INTO \"transaction\" " +
+                            "(userId, amount, amountCents, transactionType, transactionDate, description, bankAccountId, balanceAfterCents) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    userId, signedAmount, amountCents, normalizedType, now, description, bankAccountId, balance);
+            long monthStart = TransactionDates.startOfMonth(YearMonth.now());
+            buildCheckpoints(Scope.USER, userId, monthStart);
+            buildCheckpoints(Scope.ACCOUNT, bankAccountId, monthStart);
+            return balance;
+        });
+        aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS,
+                generalFinancialDataDAO.aggregateFor(normalizedType));
+        return balanceAfter;
+    }
+
+    // ==================== Totals ====================
+
+    /**
+     * Gets the totals of every transaction of a user or account, undated ones included.
+     * Reads the checkpoint at the start of this month and the transactions after it.
+     */
+    public LedgerTotals totals(Scope scope, int ownerId) {
+        Checkpoint checkpoint = currentCheckpoint(scope, ownerId);
+        String sql = "SELECT SUM(incomeCents) AS incomeCents, SUM(expenseCents) AS expenseCents, " +
+                "SUM(netCents) AS netCents, SUM(transactionCount) AS transactionCount FROM (" +
+                "SELECT " + TOTALS_COLUMNS + " FROM \"transaction\" WHERE " + scope.column + " = ? AND transactionDate >= ? " +
+                "UNION ALL " +
+                "SELECT " + TOTALS_COLUMNS + " FROM \"transaction\" WHERE " + scope.column + " = ? AND transactionDate IS NULL)";
+        LedgerTotals tail = readJdbcTemplate.queryForObject(sql, (rs, rowNum) -> LedgerTotals.fromRow(rs),
+                ownerId, checkpoint.time, ownerId);
+        return checkpoint.totals.plus(tail);
+    }
+
+    /**
+     * Gets the totals of the transactions of a user or account dated from one day through another.
+     *
+     * @param from First day of the period (inclusive)
+     * @param to   Last day of the period (inclusive)
+     */
+    public LedgerTotals totalsBetween(Scope scope, int ownerId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (to.isBefore(from)) {
+            return LedgerTotals.ZERO;
+        }
+        // Builds the monthly checkpoints up to this month, so both ends find one nearby
+        currentCheckpoint(scope, ownerId);
+        return totalsBefore(scope, ownerId, to.plusDays(1)).minus(totalsBefore(scope, ownerId, from));
+    }
+
+    /**
+     * Gets a user's net position: the sum of their account balances less their total expenses.
+     */
+    public long netPositionCents(int userId) {
+        Long assets = readJdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(balanceCents), 0) FROM bankAccount WHERE userId = ?", Long.class, userId);
+        return (assets != null ? assets : 0L) - totals(Scope.USER, userId).expenseCents();
+    }
+
+    /**
+     * Gets an account's balance at the end of a day, from the running balance of its last posting that day
+     * or before. Days before the account's first posting get the balance that posting started from, and an
+     * account that was never posted to keeps its current balance. Balances set by hand are not back-dated:
+     * they show from today and in the running balance of the next posting.
+     *
+     * @param bankAccountId The bank account ID.
+     * @param date The day to read the balance at.
+     * @return The balance in cents.
+     */
+    public long balanceAsOfCents(int bankAccountId, LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            return currentBalanceCents(bankAccountId);
+        }
+        long endOfDay = TransactionDates.startOfDay(date.plusDays(1));
+        List<Long> before = readJdbcTemplate.queryForList(
+                "SELECT balanceAfterCents FROM \"transaction\" " +
+                "WHERE bankAccountId = ? AND balanceAfterCents IS NOT NULL AND transactionDate < ? " +
+                "ORDER BY transactionDate DESC, transactionId DESC LIMIT 1",
+                Long.class, bankAccountId, endOfDay);
+        if (!before.isEmpty()) {
+            return before.get(0);
+        }
+        List<Long> opening = readJdbcTemplate.queryForList(
+                "SELECT balanceAfterCents - amountCents FROM \"transaction\" " +
+                "WHERE bankAccountId = ? AND balanceAfterCents IS NOT NULL AND transactionDate >= ? " +
+                "ORDER BY transactionDate, transactionId LIMIT 1",
+                Long.class, bankAccountId, endOfDay);
+        return opening.isEmpty() ? currentBalanceCents(bankAccountId) : opening.get(0);
+    }
+
+    /**
+     * Drops and rebuilds the checkpoints of a user or account, for after bulk edits made with triggers off.
+     */
+    public void rebuildCheckpoints(Scope scope, int ownerId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM ledgerCheckpoint WHERE scope = ? AND ownerId = ?", scope.key, ownerId);
+            buildCheckpoints(scope, ownerId, TransactionDates.startOfMonth(YearMonth.now()));
+        });
+        System.out.println("ledgerDAO: Rebuilt " + scope.key + " " + ownerId + " checkpoints");
+    }
+
+    // ==================== Checkpoints ====================
+
+    /**
+     * Gets the checkpoint at the start of this month, building it if this is the first read this month.
+     */
+    private Checkpoint currentCheckpoint(Scope scope, int ownerId) {
+        long monthStart = TransactionDates.startOfMonth(YearMonth.now());
+        Checkpoint latest = latestCheckpoint(readJdbcTemplate, scope, ownerId, monthStart);
+        if (latest != null && latest.time == monthStart) {
+            return latest;
+        }
+        return transactionTemplate.execute(status -> buildCheckpoints(scope, ownerId, monthStart));
+    }
+
+    /**
+     * Sums the transactions between the nearest checkpoint and a day, exclusive.
+     */
+    private LedgerTotals totalsBefore(Scope scope, int ownerId, LocalDate end) {
+        long endTime = TransactionDates.startOfDay(end);
+        Checkpoint checkpoint = latestCheckpoint(readJdbcTemplate, scope, ownerId, endTime);
+        long startTime = checkpoint != null ? checkpoint.time : NO_CHECKPOINT_TIME;
+        LedgerTotals tail = readJdbcTemplate.queryForObject(
+                "SELECT " + TOTALS_COLUMNS + " FROM \"transaction\" " +
+                "WHERE " + scope.column + " = ? AND transactionDate >= ? AND transactionDate < ?",
+                (rs, rowNum) -> LedgerTotals.fromRow(rs), ownerId, startTime, endTime);
+        return checkpoint != null ? checkpoint.totals.plus(tail) : tail;
+    }
+
+    /**
+     * Writes the missing checkpoints up to and including monthStart from one scan of the transactions
+     * after the latest checkpoint, grouped by month. Runs on the writer so no insert can slip between
+     * the scan and the write.
+     */
+    private Checkpoint buildCheckpoints(Scope scope, int ownerId, long monthStart) {
+        Checkpoint latest = latestCheckpoint(jdbcTemplate, scope, ownerId, monthStart);
+        if (latest != null && latest.time == monthStart) {
+            return latest;
+        }
+
+        // Each month's own totals, keyed by the start of the month after it
+        long startTime = latest != null ? latest.time : NO_CHECKPOINT_TIME;
+        List<Checkpoint> months = jdbcTemplate.query(
+                "SELECT strftime('%Y-%m', transactionDate / 1000, 'unixepoch', 'localtime') AS month, " + TOTALS_COLUMNS +
+                " FROM \"transaction\" WHERE " + scope.column + " = ? AND transactionDate >= ? AND transactionDate < ? " +
+                "GROUP BY month ORDER BY month",
+                (rs, rowNum) -> new Checkpoint(
+                        TransactionDates.startOfMonth(YearMonth.parse(rs.getString("month")).plusMonths(1)),
+                        LedgerTotals.fromRow(rs)),
+                ownerId, startTime, monthStart);
+
+        LedgerTotals running = latest != null ? latest.totals : LedgerTotals.ZERO;
+        for (Checkpoint month : months) {
+            running = running.plus(month.totals);
+            if (month.time < monthStart) {
+                saveCheckpoint(scope, ownerId, new Checkpoint(month.time, running));
+            }
+        }
+        Checkpoint current = new Checkpoint(monthStart, running);
+        saveCheckpoint(scope, ownerId, current);
+        return current;
+    }
+
+    private Checkpoint latestCheckpoint(JdbcTemplate template, Scope scope, int ownerId, long onOrBefore) {
+        List<Checkpoint> rows = template.query(LATEST_CHECKPOINT_SQL,
+                (rs, rowNum) -> new Checkpoint(rs.getLong("checkpointTime"), LedgerTotals.fromRow(rs)),
+                scope.key, ownerId, onOrBefore);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void saveCheckpoint(Scope scope, int ownerId, Checkpoint checkpoint) {
+        LedgerTotals totals = checkpoint.totals;
+        jdbcTemplate.update(SAVE_CHECKPOINT_SQL, scope.key, ownerId, checkpoint.time,
+                totals.incomeCents(), totals.expenseCents(), totals.netCents(), totals.transactionCount());
+    }
+
+    private long currentBalanceCents(int bankAccountId) {
+        List<Long> balance = readJdbcTemplate.queryForList(
+                "SELECT balanceCents FROM bankAccount WHERE idbankAccount = ?", Long.class, bankAccountId);
+        return balance.isEmpty() ? 0L : balance.get(0);
+    }
+
+    /**
+     * An instant and its totals: for a checkpoint everything dated before it, for a month of the
+     * build scan everything dated in the month that ends there.
+     */
+    private static final class Checkpoint {
+        private final long time;
+        private final LedgerTotals totals;
+
+        private Checkpoint(long time, LedgerTotals totals) {
+            this.time = time;
+            this.totals = totals;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.manageFinances.src;
 
+import org.example.Money;
+import org.example.UserAggregateCache;
+
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Scanner;
 
 /**
@@ -19,7 +21,7 @@ public class selectBankAccount extends generalFinancialData {
     private String accountName;
     private int userId; // The user who owns this account
 
-    // JdbcTemplate is inherited from generalFinancialData parent class
+    // JdbcTemplate (and readJdbcTemplate for queries) are inherited from generalFinancialData parent class
     // Account-specific database operations use the parent's jdbcTemplate
 
     // Constructors
@@ -102,9 +104,14 @@ public class selectBankAccount extends generalFinancialData {
             }
         }
 
-        String sql = "INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate, bankAccountId) " +
-                     "VALUES (?, ?, ?, date('now'), ?)";
-        jdbcTemplate.update(sql, userId, amount, normalizedType, bankAccountId);
+        String sql = "INSERT INTO \"transaction\" (userId, amount, amountCents, transactionType, transactionDate, bankAccountId) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sql, userId, amount, Money.toCents(amount), normalizedType, System.currentTimeMillis(), bankAccountId);
+        // Same invalidation as ledgerDAO.post, so cached totals never miss an account's transaction
+        if (aggregateCache != null) {
+            aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS,
+                    generalFinancialDataDAO.aggregateFor(normalizedType));
+        }
     }
 
     /**
@@ -125,7 +132,7 @@ public class selectBankAccount extends generalFinancialData {
      */
     public List<Float> getTransactionsForAccount(int bankAccountId) {
         String sql = "SELECT amount FROM \"transaction\" WHERE bankAccountId = ?";
-        return jdbcTemplate.queryForList(sql, new Object[]{bankAccountId}, Float.class);
+        return readJdbcTemplate.queryForList(sql, new Object[]{bankAccountId}, Float.class);
     }
 
     /**
@@ -151,7 +158,7 @@ public class selectBankAccount extends generalFinancialData {
             throw new IllegalArgumentException("Invalid transaction type: " + transactionType);
         }
         String sql = "SELECT amount FROM \"transaction\" WHERE bankAccountId = ? AND transactionType = ?";
-        return jdbcTemplate.queryForList(sql, new Object[]{bankAccountId, transactionType.toLowerCase()}, Float.class);
+        return readJdbcTemplate.queryForList(sql, new Object[]{bankAccountId, transactionType.toLowerCase()}, Float.class);
     }
 
     /**
@@ -171,9 +178,12 @@ public class selectBankAccount extends generalFinancialData {
      * @return Total expenses as a positive number.
      */
     public float getTotalExpensesForAccount(int bankAccountId) {
-        String sql = "SELECT SUM(ABS(amount)) FROM \"transaction\" WHERE bankAccountId = ? AND transactionType IN (?, ?)";
-        Float total = jdbcTemplate.queryForObject(sql, new Object[]{bankAccountId, TYPE_PURCHASE, TYPE_WITHDRAWAL}, Float.class);
-        return (total != null) ? total : 0.0f;
+        if (ledger != null) {
+            return (float) ledger.totals(ledgerDAO.Scope.ACCOUNT, bankAccountId).expense();
+        }
+        String sql = "SELECT COALESCE(SUM(ABS(amountCents)), 0) FROM \"transaction\" WHERE bankAccountId = ? AND transactionType IN (?, ?)";
+        Long total = readJdbcTemplate.queryForObject(sql, Long.class, bankAccountId, TYPE_PURCHASE, TYPE_WITHDRAWAL);
+        return (total != null) ? (float) Money.toDollars(total) : 0.0f;
     }
 
     /**
@@ -193,9 +203,12 @@ public class selectBankAccount extends generalFinancialData {
      * @return Total income.
      */
     public float getTotalIncomeForAccount(int bankAccountId) {
-        String sql = "SELECT SUM(amount) FROM \"transaction\" WHERE bankAccountId = ? AND transactionType IN (?, ?)";
-        Float total = jdbcTemplate.queryForObject(sql, new Object[]{bankAccountId, TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME}, Float.class);
-        return (total != null) ? total : 0.0f;
+        if (ledger != null) {
+            return (float) ledger.totals(ledgerDAO.Scope.ACCOUNT, bankAccountId).income();
+        }
+        String sql = "SELECT COALESCE(SUM(amountCents), 0) FROM \"transaction\" WHERE bankAccountId = ? AND transactionType IN (?, ?)";
+        Long total = readJdbcTemplate.queryForObject(sql, Long.class, bankAccountId, TYPE_DELIVERY_INCOME, TYPE_OTHER_INCOME);
+        return (total != null) ? (float) Money.toDollars(total) : 0.0f;
     }
 
     /**
@@ -215,15 +228,17 @@ public class selectBankAccount extends generalFinancialData {
      * @return Map organized by transaction type.
      */
     public Map<String, List<Float>> getAllTransactionsForAccount(int bankAccountId) {
-        Map<String, List<Float>> financialData = new HashMap<>();
-
-        financialData.put("allTransactions", getTransactionsForAccount(bankAccountId));
-        financialData.put("purchases", getTransactionsForAccountByType(bankAccountId, TYPE_PURCHASE));
-        financialData.put("withdrawals", getTransactionsForAccountByType(bankAccountId, TYPE_WITHDRAWAL));
-        financialData.put("deliveryIncome", getTransactionsForAccountByType(bankAccountId, TYPE_DELIVERY_INCOME));
-        financialData.put("otherIncome", getTransactionsForAccountByType(bankAccountId, TYPE_OTHER_INCOME));
+        return getTransactionBreakdownForAccount(bankAccountId).toAmountLists();
+    }
 
-        return financialData;
+    /**
+     * Reads a bank account's transactions partitioned by type, with per-type sums, counts and min/max,
+     * in one scan of the (bankAccountId, transactionType, amountCents) index.
+     * @param bankAccountId The bank account ID.
+     * @return The account's TransactionBreakdown.
+     */
+    public TransactionBreakdown getTransactionBreakdownForAccount(int bankAccountId) {
+        return readTransactionBreakdown("bankAccountId", bankAccountId);
     }
 
     /**
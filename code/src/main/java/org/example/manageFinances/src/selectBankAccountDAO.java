@@ -1,6 +1,8 @@
 package org.example.manageFinances.src;
 
+import org.example.UserAggregateCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -14,10 +16,18 @@ public class selectBankAccountDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Reader pool for SELECTs; writes stay on jdbcTemplate
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    private UserAggregateCache aggregateCache;
+
     public selectBankAccount findById(String accountID) {
         String sql = "SELECT * FROM bankAccount WHERE idbankAccount = ?";
         try {
-            return jdbcTemplate.queryForObject(sql, new Object[]{accountID},
+            return readJdbcTemplate.queryForObject(sql, new Object[]{accountID},
                 (ResultSet rs, int rowNum) -> new selectBankAccount(
                     String.valueOf(rs.getInt("idbankAccount")),
                     rs.getFloat("balance"),
@@ -34,7 +44,7 @@ public class selectBankAccountDAO {
 
     public List<selectBankAccount> getAccountsForUser(int userId) {
         String sql = "SELECT * FROM bankAccount WHERE userId = ?";
-        return jdbcTemplate.query(sql, new Object[]{userId},
+        return readJdbcTemplate.query(sql, new Object[]{userId},
             (ResultSet rs, int rowNum) -> new selectBankAccount(
                 String.valueOf(rs.getInt("idbankAccount")),
                 rs.getFloat("balance"),
@@ -48,7 +58,7 @@ public class selectBankAccountDAO {
 
     public List<selectBankAccount> findAll() {
         String sql = "SELECT * FROM bankAccount";
-        return jdbcTemplate.query(sql,
+        return readJdbcTemplate.query(sql,
             (ResultSet rs, int rowNum) -> new selectBankAccount(
                 String.valueOf(rs.getInt("idbankAccount")),
                 rs.getFloat("balance"),
@@ -63,6 +73,7 @@ public class selectBankAccountDAO {
     public void updateBalance(String accountID, float newBalance) {
         String sql = "UPDATE bankAccount SET balance = ? WHERE idbankAccount = ?";
         jdbcTemplate.update(sql, newBalance, accountID);
+        invalidateTotalAssets(accountID);
     }
 
     public void updateInterestRate(String accountID, float interestRate) {
@@ -94,7 +105,18 @@ public class selectBankAccountDAO {
     }
 
     public void delete(String accountID) {
+        List<Integer> owners = ownerOf(accountID);
         String sql = "DELETE FROM bankAccount WHERE accountID = ?";
         jdbcTemplate.update(sql, accountID);
+        owners.forEach(userId -> aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS));
+    }
+
+    private void invalidateTotalAssets(String accountID) {
+        ownerOf(accountID).forEach(userId -> aggregateCache.invalidate(userId, UserAggregateCache.Aggregate.TOTAL_ASSETS));
+    }
+
+    private List<Integer> ownerOf(String accountID) {
+        return jdbcTemplate.queryForList("SELECT userId FROM bankAccount WHERE idbankAccount = ? AND userId IS NOT NULL",
+                Integer.class, accountID);
     }
 }
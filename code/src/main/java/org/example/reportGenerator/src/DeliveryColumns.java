@@ -0,0 +1,222 @@
+package org.example.reportGenerator.src;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented batch of deliveries for analytics.
+ *
+ * Each column is a primitive array indexed by row, so loops over millions of deliveries
+ * do no boxing and allocate nothing per row. Platform and restaurant names are
+ * dictionary-encoded: the row stores an int id and the dictionary maps it back to the name.
+ */
+public class DeliveryColumns {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    private final int size;
+    private final long[] startTime;
+    private final float[] basePay;
+    private final float[] tips;
+    private final int[] miles;
+    private final int[] platformId;
+    private final int[] restaurantId;
+    private final String[] platforms;
+    private final String[] restaurants;
+
+    private DeliveryColumns(Builder builder) {
+        this.size = builder.size;
+        this.startTime = Arrays.copyOf(builder.startTime, size);
+        this.basePay = Arrays.copyOf(builder.basePay, size);
+        this.tips = Arrays.copyOf(builder.tips, size);
+        this.miles = Arrays.copyOf(builder.miles, size);
+        this.platformId = Arrays.copyOf(builder.platformId, size);
+        this.restaurantId = Arrays.copyOf(builder.restaurantId, size);
+        this.platforms = builder.platforms.toArray(new String[0]);
+        this.restaurants = builder.restaurants.toArray(new String[0]);
+    }
+
+    public static DeliveryColumns empty() {
+        return new Builder().build();
+    }
+
+    public int size() { return size; }
+    public long startTime(int row) { return startTime[row]; }
+    public float basePay(int row) { return basePay[row]; }
+    public float tips(int row) { return tips[row]; }
+    public float profit(int row) { return basePay[row] + tips[row]; }
+    public int miles(int row) { return miles[row]; }
+    public int platformId(int row) { return platformId[row]; }
+    public int restaurantId(int row) { return restaurantId[row]; }
+    public String platform(int row) { return platforms[platformId[row]]; }
+    public String restaurant(int row) { return restaurants[restaurantId[row]]; }
+
+    /**
+     * Gets the platform names, indexed by platform id.
+     */
+    public String[] platformDictionary() { return platforms.clone(); }
+
+    /**
+     * Gets the restaurant names, indexed by restaurant id.
+     */
+    public String[] restaurantDictionary() { return restaurants.clone(); }
+
+    /**
+     * Sums profit (basePay + tips) by [dayOfWeek (Monday = 0)][hour (0-23)] in the given zone.
+     */
+    public float[][] profitByDayAndHour(ZoneId zone) {
+        float[][] profit = new float[7][24];
+        DayHourBucketer bucketer = new DayHourBucketer(zone);
+        for (int i = 0; i < size; i++) {
+            int bucket = bucketer.bucket(startTime[i]);
+            profit[bucket / 24][bucket % 24] += basePay[i] + tips[i];
+        }
+        return profit;
+    }
+
+    /**
+     * Streams rows of (startTime, basePay, tips, miles, platform, resturant) into growable primitive arrays.
+     * Rows with a NULL startTime are skipped, NULL amounts are read as 0.
+     */
+    public static class Builder implements RowCallbackHandler {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private int size;
+        private long[] startTime = new long[INITIAL_CAPACITY];
+        private float[] basePay = new float[INITIAL_CAPACITY];
+        private float[] tips = new float[INITIAL_CAPACITY];
+        private int[] miles = new int[INITIAL_CAPACITY];
+        private int[] platformId = new int[INITIAL_CAPACITY];
+        private int[] restaurantId = new int[INITIAL_CAPACITY];
+
+        private final List<String> platforms = new ArrayList<>();
+        private final Map<String, Integer> platformIds = new HashMap<>();
+        private final List<String> restaurants = new ArrayList<>();
+        private final Map<String, Integer> restaurantIds = new HashMap<>();
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long time = rs.getLong("startTime");
+            if (rs.wasNull()) {
+                return;
+            }
+            add(time, rs.getFloat("basePay"), rs.getFloat("tips"), rs.getInt("miles"),
+                    rs.getString("platform"), rs.getString("resturant"));
+        }
+
+        public Builder add(long time, float deliveryBasePay, float deliveryTips, int deliveryMiles,
+                           String platform, String restaurant) {
+            if (size == startTime.length) {
+                grow();
+            }
+            startTime[size] = time;
+            basePay[size] = deliveryBasePay;
+            tips[size] = deliveryTips;
+            miles[size] = deliveryMiles;
+            platformId[size] = encode(platform, platforms, platformIds);
+            restaurantId[size] = encode(restaurant, restaurants, restaurantIds);
+            size++;
+            return this;
+        }
+
+        public DeliveryColumns build() {
+            return new DeliveryColumns(this);
+        }
+
+        private static int encode(String value, List<String> dictionary, Map<String, Integer> ids) {
+            String key = value == null || value.isEmpty() ? "Unknown" : value;
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.add(key);
+                ids.put(key, id);
+            }
+            return id;
+        }
+
+        private void grow() {
+            int capacity = startTime.length * 2;
+            startTime = Arrays.copyOf(startTime, capacity);
+            basePay = Arrays.copyOf(basePay, capacity);
+            tips = Arrays.copyOf(tips, capacity);
+            miles = Arrays.copyOf(miles, capacity);
+            platformId = Arrays.copyOf(platformId, capacity);
+            restaurantId = Arrays.copyOf(restaurantId, capacity);
+        }
+    }
+
+    /**
+     * Maps epoch milliseconds to a local (dayOfWeek, hour) bucket without allocating per call.
+     *
+     * The zone's UTC offset is looked up once and reused until the next offset transition,
+     * so a scan over time-ordered or clustered rows touches the zone rules only a few times a year.
+     */
+    public static class DayHourBucketer {
+        private final ZoneRules rules;
+
+        private long validFrom = Long.MAX_VALUE;
+        private long validUntil = Long.MIN_VALUE;
+        private long offsetMillis;
+
+        public DayHourBucketer(ZoneId zone) {
+            this.rules = zone.getRules();
+        }
+
+        /**
+         * Gets the bucket for a timestamp as dayOfWeek * 24 + hour, with Monday = 0.
+         */
+        public int bucket(long epochMilli) {
+            long local = epochMilli + offsetFor(epochMilli);
+            long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+            // 1970-01-01 was a Thursday
+            int day = (int) Math.floorMod(epochDay + 3, 7);
+            int hour = (int) (Math.floorMod(local, MILLIS_PER_DAY) / MILLIS_PER_HOUR);
+            return day * 24 + hour;
+        }
+
+        public int dayOfWeek(long epochMilli) {
+            return bucket(epochMilli) / 24;
+        }
+
+        /**
+         * Gets the local date of a timestamp as an epoch day (days since 1970-01-01).
+         */
+        public long epochDay(long epochMilli) {
+            return Math.floorDiv(epochMilli + offsetFor(epochMilli), MILLIS_PER_DAY);
+        }
+
+        public int hour(long epochMilli) {
+            return bucket(epochMilli) % 24;
+        }
+
+        private long offsetFor(long epochMilli) {
+            if (epochMilli < validFrom || epochMilli >= validUntil) {
+                Instant instant = Instant.ofEpochMilli(epochMilli);
+                offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+                if (rules.isFixedOffset()) {
+                    validFrom = Long.MIN_VALUE;
+                    validUntil = Long.MAX_VALUE;
+                } else {
+                    // previousTransition is exclusive, so step past the instant to include a transition exactly at it
+                    ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+                    ZoneOffsetTransition next = rules.nextTransition(instant);
+                    validFrom = previous != null ? previous.getInstant().toEpochMilli() : Long.MIN_VALUE;
+                    validUntil = next != null ? next.getInstant().toEpochMilli() : Long.MAX_VALUE;
+                }
+            }
+            return offsetMillis;
+        }
+    }
+}
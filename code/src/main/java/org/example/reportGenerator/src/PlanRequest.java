@@ -0,0 +1,98 @@
+package org.example.reportGenerator.src;
+
+import java.util.Objects;
+
+/**
+ * The parameters of one financial plan: the report it is based on and the user's monthly goals.
+ *
+ * Immutable, with value equality, so identical plan requests from many clients share a cache entry.
+ * The "with" methods return a modified copy.
+ */
+public final class PlanRequest {
+
+    private final ReportRequest report;
+    private final float targetMonthlyIncome;
+    private final float estimatedExpenses;
+    private final float otherMonthlyIncome;
+
+    private PlanRequest(ReportRequest report, float targetMonthlyIncome, float estimatedExpenses, float otherMonthlyIncome) {
+        this.report = report;
+        this.targetMonthlyIncome = targetMonthlyIncome;
+        this.estimatedExpenses = estimatedExpenses;
+        this.otherMonthlyIncome = otherMonthlyIncome;
+    }
+
+    /**
+     * A plan over the given report with no goals or expenses set.
+     */
+    public static PlanRequest of(ReportRequest report) {
+        if (report == null) {
+            throw new IllegalArgumentException("Report request must not be null");
+        }
+        return new PlanRequest(report, 0f, 0f, 0f);
+    }
+
+    public PlanRequest withReport(ReportRequest report) {
+        if (report == null) {
+            throw new IllegalArgumentException("Report request must not be null");
+        }
+        return new PlanRequest(report, targetMonthlyIncome, estimatedExpenses, otherMonthlyIncome);
+    }
+
+    /**
+     * @param targetIncome Target monthly income in dollars
+     */
+    public PlanRequest withTargetMonthlyIncome(float targetIncome) {
+        if (targetIncome < 0) {
+            throw new IllegalArgumentException("Target income must be non-negative");
+        }
+        return new PlanRequest(report, targetIncome, estimatedExpenses, otherMonthlyIncome);
+    }
+
+    /**
+     * @param expenses Estimated monthly expenses in dollars
+     */
+    public PlanRequest withEstimatedExpenses(float expenses) {
+        if (expenses < 0) {
+            throw new IllegalArgumentException("Expenses must be non-negative");
+        }
+        return new PlanRequest(report, targetMonthlyIncome, expenses, otherMonthlyIncome);
+    }
+
+    /**
+     * @param otherIncome Other monthly income (from bank accounts) in dollars
+     */
+    public PlanRequest withOtherMonthlyIncome(float otherIncome) {
+        if (otherIncome < 0) {
+            throw new IllegalArgumentException("Other income must be non-negative");
+        }
+        return new PlanRequest(report, targetMonthlyIncome, estimatedExpenses, otherIncome);
+    }
+
+    public ReportRequest report() { return report; }
+    public float targetMonthlyIncome() { return targetMonthlyIncome; }
+    public float estimatedExpenses() { return estimatedExpenses; }
+    public float otherMonthlyIncome() { return otherMonthlyIncome; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlanRequest)) return false;
+        PlanRequest other = (PlanRequest) o;
+        return Float.compare(targetMonthlyIncome, other.targetMonthlyIncome) == 0
+                && Float.compare(estimatedExpenses, other.estimatedExpenses) == 0
+                && Float.compare(otherMonthlyIncome, other.otherMonthlyIncome) == 0
+                && report.equals(other.report);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(report, targetMonthlyIncome, estimatedExpenses, otherMonthlyIncome);
+    }
+
+    @Override
+    public String toString() {
+        return "PlanRequest{" + report + ", target=" + targetMonthlyIncome + ", expenses=" + estimatedExpenses +
+                ", otherIncome=" + otherMonthlyIncome + "}";
+    }
+}
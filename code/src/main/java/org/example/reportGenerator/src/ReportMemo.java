@@ -0,0 +1,86 @@
+package org.example.reportGenerator.src;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU memo for report results.
+ *
+ * Keys must carry everything the result depends on, including a data watermark, so entries never
+ * need invalidating: a change to the data produces new keys and the old entries age out. When several
+ * threads ask for the same missing key at once, one of them computes it and the others wait for that
+ * result. Different keys are computed in parallel, outside the lock.
+ */
+final class ReportMemo<K, V> {
+
+    private final int maxEntries;
+    private final LinkedHashMap<K, CompletableFuture<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    ReportMemo(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CompletableFuture<V>> eldest) {
+                return size() > ReportMemo.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the result for a key, computing it with the loader on a miss.
+     * A loader that throws leaves nothing cached, so the next caller tries again.
+     */
+    V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> future;
+        boolean owner = false;
+        synchronized (entries) {
+            future = entries.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                entries.put(key, future);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            hits.incrementAndGet();
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, future);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    long hits() { return hits.get(); }
+    long misses() { return misses.get(); }
+}
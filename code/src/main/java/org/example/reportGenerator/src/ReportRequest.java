@@ -0,0 +1,104 @@
+package org.example.reportGenerator.src;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * The parameters of one report: the analysis range and the shift length used for the optimal schedule.
+ *
+ * Immutable, with value equality, so a request can be shared between threads and used as a cache key.
+ * The "with" methods return a modified copy.
+ */
+public final class ReportRequest {
+
+    /** Default analysis period in days. */
+    public static final int DEFAULT_DAYS = 90;
+    /** Default shift length for the optimal schedule. */
+    public static final int DEFAULT_WORK_HOURS_PER_DAY = 6;
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final int daysToAnalyze;
+    private final int targetWorkHoursPerDay;
+
+    private ReportRequest(LocalDateTime startDate, LocalDateTime endDate, int daysToAnalyze, int targetWorkHoursPerDay) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.daysToAnalyze = daysToAnalyze;
+        this.targetWorkHoursPerDay = targetWorkHoursPerDay;
+    }
+
+    /**
+     * A report over an explicit date range.
+     *
+     * @param startDate Start of the analysis period
+     * @param endDate   End of the analysis period
+     * @throws IllegalArgumentException if dates are invalid
+     */
+    public static ReportRequest between(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        // The daily average divides by the whole days in the range, like the days-back form
+        int days = (int) Math.max(1, ChronoUnit.DAYS.between(startDate, endDate));
+        return new ReportRequest(startDate, endDate, days, DEFAULT_WORK_HOURS_PER_DAY);
+    }
+
+    /**
+     * A report over the last daysBack days. The end is rounded up to the next full minute,
+     * so the same request made by many callers within a minute shares one cache entry.
+     *
+     * @param daysBack Number of days to analyze from today
+     * @throws IllegalArgumentException if daysBack is not positive
+     */
+    public static ReportRequest lastDays(int daysBack) {
+        if (daysBack <= 0) {
+            throw new IllegalArgumentException("Days back must be a positive number");
+        }
+        LocalDateTime endDate = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        return new ReportRequest(endDate.minusDays(daysBack), endDate, daysBack, DEFAULT_WORK_HOURS_PER_DAY);
+    }
+
+    /**
+     * Returns a copy with another shift length.
+     *
+     * @param hours Number of hours to work per day (1-24)
+     */
+    public ReportRequest withTargetWorkHoursPerDay(int hours) {
+        if (hours < 1 || hours > 24) {
+            throw new IllegalArgumentException("Hours must be between 1 and 24");
+        }
+        return new ReportRequest(startDate, endDate, daysToAnalyze, hours);
+    }
+
+    public LocalDateTime startDate() { return startDate; }
+    public LocalDateTime endDate() { return endDate; }
+    public int daysToAnalyze() { return daysToAnalyze; }
+    public int targetWorkHoursPerDay() { return targetWorkHoursPerDay; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReportRequest)) return false;
+        ReportRequest other = (ReportRequest) o;
+        return daysToAnalyze == other.daysToAnalyze
+                && targetWorkHoursPerDay == other.targetWorkHoursPerDay
+                && startDate.equals(other.startDate)
+                && endDate.equals(other.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startDate, endDate, daysToAnalyze, targetWorkHoursPerDay);
+    }
+
+    @Override
+    public String toString() {
+        return "ReportRequest{" + startDate + " to " + endDate + ", days=" + daysToAnalyze +
+                ", hoursPerDay=" + targetWorkHoursPerDay + "}";
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.reportGenerator.src;
+
+import org.example.Money;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every delivery metric the report DTOs need, computed from a single scan of deliveryData.
+ *
+ * The scan covers the analysis range plus the current month, so totals, counts, averages,
+ * the day-of-week x hour profit matrix and the current-month income all come from one pass
+ * instead of one query per metric. When the two windows are apart they are scanned separately,
+ * so a historical range does not read every delivery between it and today.
+ */
+public class ReportSnapshot {
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final int deliveryCount;
+    private final double basePay;
+    private final double tips;
+    private final float[][] profitByDayAndHour;
+    private final int currentMonthDeliveryCount;
+    private final double currentMonthEarnings;
+
+    public ReportSnapshot(LocalDateTime startDate, LocalDateTime endDate,
+                          int deliveryCount, double basePay, double tips,
+                          float[][] profitByDayAndHour,
+                          int currentMonthDeliveryCount, double currentMonthEarnings) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.deliveryCount = deliveryCount;
+        this.basePay = basePay;
+        this.tips = tips;
+        this.profitByDayAndHour = profitByDayAndHour;
+        this.currentMonthDeliveryCount = currentMonthDeliveryCount;
+        this.currentMonthEarnings = currentMonthEarnings;
+    }
+
+    /**
+     * Gets the disjoint [start, end] windows the scan has to cover, oldest first: the range and
+     * the current month, merged into one window when they overlap.
+     */
+    static List<LocalDateTime[]> scanWindows(LocalDateTime startDate, LocalDateTime endDate, YearMonth currentMonth) {
+        LocalDateTime monthStart = currentMonth.atDay(1).atStartOfDay();
+        LocalDateTime monthEnd = currentMonth.atEndOfMonth().atTime(23, 59, 59);
+        if (!startDate.isAfter(monthEnd) && !monthStart.isAfter(endDate)) {
+            return Collections.singletonList(new LocalDateTime[]{
+                    startDate.isBefore(monthStart) ? startDate : monthStart,
+                    endDate.isAfter(monthEnd) ? endDate : monthEnd});
+        }
+        LocalDateTime[] range = {startDate, endDate};
+        LocalDateTime[] month = {monthStart, monthEnd};
+        return endDate.isBefore(monthStart) ? List.of(range, month) : List.of(month, range);
+    }
+
+    public LocalDateTime startDate() { return startDate; }
+    public LocalDateTime endDate() { return endDate; }
+    public int deliveryCount() { return deliveryCount; }
+    public double basePay() { return basePay; }
+    public double tips() { return tips; }
+    public double totalEarnings() { return basePay + tips; }
+    public double averageEarnings() { return deliveryCount > 0 ? totalEarnings() / deliveryCount : 0; }
+    public int currentMonthDeliveryCount() { return currentMonthDeliveryCount; }
+    public double currentMonthEarnings() { return currentMonthEarnings; }
+
+    /**
+     * Gets total profit by [dayOfWeek (Monday = 0)][hour (0-23)] for the analysis range.
+     * The array is shared, callers must not modify it.
+     */
+    public float[][] profitByDayAndHour() { return profitByDayAndHour; }
+
+    /**
+     * Accumulates a snapshot from rows of (basePayCents, tipsCents, startTime) streamed by reportDAO.scanDeliveryPay.
+     * Pay is summed in integer cents, so the totals do not drift with the number of rows.
+     */
+    public static class Builder implements RowCallbackHandler {
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final DeliveryColumns.DayHourBucketer bucketer;
+        private final long startEpoch;
+        private final long endEpoch;
+        private final long monthStartEpoch;
+        private final long monthEndEpoch;
+
+        private int deliveryCount;
+        private long basePayCents;
+        private long tipsCents;
+        private final float[][] profitByDayAndHour = new float[7][24];
+        private int currentMonthDeliveryCount;
+        private long currentMonthEarningsCents;
+
+        public Builder(LocalDateTime startDate, LocalDateTime endDate, YearMonth currentMonth, ZoneId zone) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.bucketer = new DeliveryColumns.DayHourBucketer(zone);
+            this.startEpoch = startDate.atZone(zone).toInstant().toEpochMilli();
+            this.endEpoch = endDate.atZone(zone).toInstant().toEpochMilli();
+            this.monthStartEpoch = currentMonth.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            this.monthEndEpoch = currentMonth.atEndOfMonth().atTime(23, 59, 59).atZone(zone).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            addCents(rs.getLong("startTime"), rs.getLong("basePayCents"), rs.getLong("tipsCents"));
+        }
+
+        /**
+         * Adds one delivery with pay in dollars, rounded to cents.
+         */
+        public void add(long startTime, float deliveryBasePay, float deliveryTips) {
+            addCents(startTime, Money.toCents(deliveryBasePay), Money.toCents(deliveryTips));
+        }
+
+        /**
+         * Adds one delivery to every metric whose window contains its start time.
+         */
+        public void addCents(long startTime, long deliveryBasePayCents, long deliveryTipsCents) {
+            long profitCents = deliveryBasePayCents + deliveryTipsCents;
+
+            if (startTime >= monthStartEpoch && startTime <= monthEndEpoch) {
+                currentMonthDeliveryCount++;
+                currentMonthEarningsCents += profitCents;
+            }
+
+            if (startTime < startEpoch || startTime > endEpoch) {
+                return;
+            }
+            deliveryCount++;
+            basePayCents += deliveryBasePayCents;
+            tipsCents += deliveryTipsCents;
+
+            int bucket = bucketer.bucket(startTime);
+            profitByDayAndHour[bucket / 24][bucket % 24] += profitCents / 100f;
+        }
+
+        public ReportSnapshot build() {
+            return new ReportSnapshot(startDate, endDate, deliveryCount,
+                    Money.toDollars(basePayCents), Money.toDollars(tipsCents), profitByDayAndHour,
+                    currentMonthDeliveryCount, Money.toDollars(currentMonthEarningsCents));
+        }
+    }
+}
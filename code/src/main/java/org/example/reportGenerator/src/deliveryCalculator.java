@@ -1,20 +1,29 @@
 package org.example.reportGenerator.src;
 
-import java.time.DayOfWeek;
+import org.example.Money;
+
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.Map;
 
 public class deliveryCalculator {
 
     private reportDAO reportDAO;
+    private deliveryHeatmapDAO heatmapDAO;
 
     public deliveryCalculator(reportDAO reportDAO) {
         this.reportDAO = reportDAO;
     }
 
+    /**
+     * Creates a calculator that answers day/hour questions from the deliveryHeatmap rollup
+     * instead of scanning deliveryData.
+     */
+    public deliveryCalculator(reportDAO reportDAO, deliveryHeatmapDAO heatmapDAO) {
+        this.reportDAO = reportDAO;
+        this.heatmapDAO = heatmapDAO;
+    }
+
     public deliveryCalculator() {
         // Default constructor for cases where DAO is not needed
     }
@@ -28,18 +37,12 @@ public class deliveryCalculator {
 
     }
 
+    /**
+     * Sums base pay and tips. Each amount is rounded to cents and added as an integer,
+     * so the result does not drift with the number of deliveries.
+     */
     public float calculuateRevenue(float[] basePay, float[] tips){
-        float totalBasePay = 0;
-        float totalTips = 0;
-    for(int i = 0; i < basePay.length; i++) {
-        totalBasePay += basePay[i];
-    }
-    for(int i = 0; i < tips.length; i++) {
-        totalTips += tips[i];
-
-    }
-    return totalBasePay + totalTips;
-
+        return (float) Money.toDollars(Money.sumCents(basePay) + Money.sumCents(tips));
     }
 
     public float calculateProfitMargin(float revenue, float expenses) {
@@ -216,13 +219,11 @@ public class deliveryCalculator {
     return sortedRestaurants;
 }
 
+    /**
+     * Sums expenses exactly, rounding each one to cents first.
+     */
     public float calculateExpenses(float expenses[]){
-        float totalexpenses = 0;
-
-    for(int i = 0; i < expenses.length; i++) {
-        totalexpenses += expenses[i];
-    }
-    return totalexpenses;
+        return (float) Money.toDollars(Money.sumCents(expenses));
     }
 
     /**
@@ -257,61 +258,23 @@ public class deliveryCalculator {
             throw new IllegalArgumentException("historicalStartTime must not be after historicalEndTime");
         }
 
-        // Convert timestamp to LocalDateTime to get the day of week
-        LocalDateTime referenceDateTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
-        DayOfWeek targetDayOfWeek = referenceDateTime.getDayOfWeek();
-
-        // Convert historical range to LocalDateTime
-        LocalDateTime startDateTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(historicalStartTime), ZoneId.systemDefault());
-        LocalDateTime endDateTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(historicalEndTime), ZoneId.systemDefault());
-
-        // Get all delivery data with timestamps within the historical range
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayWithTimestampByDateRange(startDateTime, endDateTime);
+        ZoneId zone = ZoneId.systemDefault();
+        int targetDay = new DeliveryColumns.DayHourBucketer(zone).dayOfWeek(timestamp);
+        float[] profitByHour = loadProfitByDayAndHour(historicalStartTime, historicalEndTime, zone)[targetDay];
 
         float totalProfit = 0;
-
-        for (Map<String, Object> delivery : deliveries) {
-            Number timeValue = (Number) delivery.get("time");
-            if (timeValue == null) {
-                continue;
-            }
-
-            // Convert delivery timestamp to LocalDateTime
-            LocalDateTime deliveryDateTime = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(timeValue.longValue()), ZoneId.systemDefault());
-
-            // Check if delivery is on the target day of week
-            if (deliveryDateTime.getDayOfWeek() != targetDayOfWeek) {
-                continue;
-            }
-
-            // Check if delivery is within the hour range
-            int deliveryHour = deliveryDateTime.getHour();
+        for (int hour = 0; hour < 24; hour++) {
             boolean inHourRange;
             if (startHour <= endHour) {
                 // Normal range (e.g., 9 AM to 5 PM)
-                inHourRange = deliveryHour >= startHour && deliveryHour <= endHour;
+                inHourRange = hour >= startHour && hour <= endHour;
             } else {
                 // Overnight range (e.g., 10 PM to 2 AM)
-                inHourRange = deliveryHour >= startHour || deliveryHour <= endHour;
+                inHourRange = hour >= startHour || hour <= endHour;
             }
 
-            if (!inHourRange) {
-                continue;
-            }
-
-            // Add basePay and tips to total profit
-            Number basePay = (Number) delivery.get("basePay");
-            Number tips = (Number) delivery.get("tips");
-
-            if (basePay != null) {
-                totalProfit += basePay.floatValue();
-            }
-            if (tips != null) {
-                totalProfit += tips.floatValue();
+            if (inHourRange) {
+                totalProfit += profitByHour[hour];
             }
         }
 
@@ -336,43 +299,35 @@ public class deliveryCalculator {
             throw new IllegalArgumentException("Hours must be between 1 and 24");
         }
 
-        // Convert historical range to LocalDateTime
-        LocalDateTime startDateTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(historicalStartTime), ZoneId.systemDefault());
-        LocalDateTime endDateTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(historicalEndTime), ZoneId.systemDefault());
-
-        // Get all delivery data with timestamps
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayWithTimestampByDateRange(startDateTime, endDateTime);
-
-        // Create a profit matrix: [dayOfWeek (0-6)][hour (0-23)]
-        float[][] profitByDayAndHour = new float[7][24];
-
-        // Populate the profit matrix
-        for (Map<String, Object> delivery : deliveries) {
-            Number timeValue = (Number) delivery.get("time");
-            if (timeValue == null) {
-                continue;
-            }
-
-            LocalDateTime deliveryDateTime = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(timeValue.longValue()), ZoneId.systemDefault());
+        // Profit matrix: [dayOfWeek (Monday = 0)][hour (0-23)]
+        float[][] profitByDayAndHour = loadProfitByDayAndHour(
+                historicalStartTime, historicalEndTime, ZoneId.systemDefault());
 
-            int dayIndex = deliveryDateTime.getDayOfWeek().getValue() - 1; // Monday = 0, Sunday = 6
-            int hour = deliveryDateTime.getHour();
-
-            Number basePay = (Number) delivery.get("basePay");
-            Number tips = (Number) delivery.get("tips");
+        return formatOptimalWorkHours(hours, profitByDayAndHour);
+    }
 
-            float profit = 0;
-            if (basePay != null) {
-                profit += basePay.floatValue();
-            }
-            if (tips != null) {
-                profit += tips.floatValue();
-            }
+    /**
+     * Loads profit by [dayOfWeek][hour] from the heatmap rollup when available, otherwise from deliveryData.
+     */
+    private float[][] loadProfitByDayAndHour(long historicalStartTime, long historicalEndTime, ZoneId zone) {
+        if (heatmapDAO != null) {
+            return heatmapDAO.getProfitByDayAndHour(null, historicalStartTime, historicalEndTime);
+        }
+        LocalDateTime startDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(historicalStartTime), zone);
+        LocalDateTime endDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(historicalEndTime), zone);
+        return reportDAO.getDeliveryColumnsByDateRange(startDateTime, endDateTime).profitByDayAndHour(zone);
+    }
 
-            profitByDayAndHour[dayIndex][hour] += profit;
+    /**
+     * Formats the best consecutive block of hours for each day from a precomputed profit matrix.
+     *
+     * @param hours              The number of consecutive hours to work per day
+     * @param profitByDayAndHour Total profit by [dayOfWeek (Monday = 0)][hour (0-23)]
+     * @return A formatted string showing the optimal work hours for each day of the week
+     */
+    public String formatOptimalWorkHours(int hours, float[][] profitByDayAndHour) {
+        if (hours < 1 || hours > 24) {
+            throw new IllegalArgumentException("Hours must be between 1 and 24");
         }
 
         // Find optimal hours for each day
@@ -381,16 +336,19 @@ public class deliveryCalculator {
 
         String[] dayNames = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
 
+        double[] prefix = new double[25];
         for (int day = 0; day < 7; day++) {
             int bestStartHour = 0;
             float bestProfit = 0;
 
+            // prefix[h] is the profit of hours [0, h), so any block sum is one subtraction
+            for (int h = 0; h < 24; h++) {
+                prefix[h + 1] = prefix[h] + profitByDayAndHour[day][h];
+            }
+
             // Find the best consecutive block of 'hours' length
             for (int startHour = 0; startHour <= 24 - hours; startHour++) {
-                float blockProfit = 0;
-                for (int h = 0; h < hours; h++) {
-                    blockProfit += profitByDayAndHour[day][startHour + h];
-                }
+                float blockProfit = (float) (prefix[startHour + hours] - prefix[startHour]);
 
                 if (blockProfit > bestProfit) {
                     bestProfit = blockProfit;
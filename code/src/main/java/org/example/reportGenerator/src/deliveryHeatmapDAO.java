@@ -0,0 +1,439 @@
+package org.example.reportGenerator.src;
+
+import org.example.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for the deliveryHeatmap rollup: per-user delivery totals by ISO week, weekday and hour.
+ *
+ * The rollup is updated in the same transaction as every delivery insert (see recordDelivery),
+ * so optimal-hour and expected-profit queries read a few hundred rollup rows instead of every
+ * delivery in the range. Edits and deletes are caught by triggers that mark the week stale (V9);
+ * refreshStale() recomputes those weeks from deliveryRollupJob in the background, and a read
+ * whose range holds one first recomputes just that user's stale weeks in the range. Buckets use the system default time zone, call rebuild() after
+ * changing it. Money is kept as integer cents (V10), so bucket totals are exact.
+ */
+@Repository
+public class deliveryHeatmapDAO {
+
+    private static final String UPSERT_SQL = "INSERT INTO deliveryHeatmap " +
+            "(userId, weekStart, dayOfWeek, hour, deliveryCount, basePayCents, tipsCents, waitMinutes, miles) " +
+            "SELECT userId, ?, ?, ?, ?, ?, ?, ?, ? FROM JobsTable WHERE jobsId = ? " +
+            "ON CONFLICT (userId, weekStart, dayOfWeek, hour) DO UPDATE SET " +
+            "deliveryCount = deliveryCount + excluded.deliveryCount, " +
+            "basePayCents = basePayCents + excluded.basePayCents, " +
+            "tipsCents = tipsCents + excluded.tipsCents, " +
+            "waitMinutes = waitMinutes + excluded.waitMinutes, " +
+            "miles = miles + excluded.miles";
+
+    private static final String INSERT_SQL = "INSERT INTO deliveryHeatmap " +
+            "(userId, weekStart, dayOfWeek, hour, deliveryCount, basePayCents, tipsCents, waitMinutes, miles) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RAW_SQL = "SELECT j.userId, d.startTime, d.basePayCents, d.tipsCents, d.timeSpentWaiting, d.miles " +
+            "FROM deliveryData d INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId ";
+
+    private static final int REFRESH_BATCH = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate readJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+
+    @Autowired
+    public deliveryHeatmapDAO(JdbcTemplate jdbcTemplate,
+                              @Qualifier("readJdbcTemplate") JdbcTemplate readJdbcTemplate,
+                              TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readJdbcTemplate = readJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.zone = ZoneId.systemDefault();
+    }
+
+    // ==================== Maintenance ====================
+
+    /**
+     * Adds one delivery to its heatmap bucket. Must run on the writer, inside the transaction
+     * that inserts the delivery, so the rollup never drifts from deliveryData.
+     *
+     * @param jobsId      Work period the delivery belongs to (resolves the user)
+     * @param startTime   Delivery start time in epoch milliseconds
+     * @param basePay     Base pay of the delivery
+     * @param tips        Tips of the delivery
+     * @param waitMinutes Minutes spent waiting at the restaurant
+     * @param miles       Miles driven
+     */
+    public void recordDelivery(long jobsId, long startTime, float basePay, float tips, int waitMinutes, int miles) {
+        recordDeliveries(jobsId, List.of(new DeliveryFact(startTime, basePay, tips, waitMinutes, miles)));
+    }
+
+    /**
+     * Adds a batch of deliveries from one work period, merging deliveries that share a bucket
+     * so each bucket is upserted once. Same transaction rules as recordDelivery.
+     *
+     * @param jobsId     Work period the deliveries belong to (resolves the user)
+     * @param deliveries Deliveries that were just inserted
+     */
+    public void recordDeliveries(long jobsId, List<DeliveryFact> deliveries) {
+        recordDeliveries(Collections.singletonMap(jobsId, deliveries));
+    }
+
+    /**
+     * Adds the deliveries of several work periods with one batch, merging deliveries of a work
+     * period that share a bucket. Same transaction rules as recordDelivery.
+     *
+     * @param deliveriesByJob Deliveries that were just inserted, by work period (resolves the user)
+     */
+    public void recordDeliveries(Map<Long, List<DeliveryFact>> deliveriesByJob) {
+        DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+        Map<List<Long>, RollupRow> rows = new LinkedHashMap<>();
+        deliveriesByJob.forEach((jobsId, deliveries) -> {
+            for (DeliveryFact delivery : deliveries) {
+                int bucket = bucketer.bucket(delivery.startTime);
+                long weekStart = bucketer.epochDay(delivery.startTime) - bucket / 24;
+                // The upsert resolves the user from JobsTable, so the row does not carry it
+                RollupRow row = rows.computeIfAbsent(List.of(jobsId, weekStart, (long) bucket),
+                        key -> new RollupRow(-1, weekStart, bucket));
+                row.deliveryCount++;
+                row.basePayCents += Money.toCents(delivery.basePay);
+                row.tipsCents += Money.toCents(delivery.tips);
+                row.waitMinutes += delivery.waitMinutes;
+                row.miles += delivery.miles;
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        rows.forEach((key, row) -> batch.add(new Object[]{row.weekStart, row.bucket / 24, row.bucket % 24,
+                row.deliveryCount, row.basePayCents, row.tipsCents, row.waitMinutes, row.miles, key.get(0)}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    /**
+     * Recomputes the whole rollup from deliveryData in one transaction.
+     *
+     * @return number of heatmap rows written
+     */
+    public int rebuild() {
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM deliveryHeatmap");
+            jdbcTemplate.update("DELETE FROM deliveryHeatmapStale");
+            return insertFromDeliveries("WHERE d.startTime IS NOT NULL");
+        });
+        int rows = written != null ? written : 0;
+        System.out.println("deliveryHeatmapDAO: Rebuilt heatmap with " + rows + " buckets");
+        return rows;
+    }
+
+    /**
+     * Recomputes the weeks marked stale by edits and deletes from deliveryData. Runs in batches
+     * of short transactions until nothing is stale.
+     *
+     * @return number of stale weeks recomputed
+     */
+    public int refreshStale() {
+        return refreshStale("", new Object[0]);
+    }
+
+    /**
+     * Recomputes only the stale weeks of one user, or of every user when userId is null,
+     * in [fromWeek, toWeek]. Used by reads so they do not rebuild unrelated users and weeks.
+     *
+     * @param userId   User to restrict to, or null for all users
+     * @param fromWeek First week start (local epoch day of a Monday), inclusive
+     * @param toWeek   Last week start, inclusive
+     * @return number of stale weeks recomputed
+     */
+    public int refreshStale(Integer userId, long fromWeek, long toWeek) {
+        return refreshStale(staleFilter(userId), staleArgs(userId, fromWeek, toWeek));
+    }
+
+    private int refreshStale(String filter, Object[] args) {
+        int refreshed = 0;
+        while (true) {
+            Integer weeks = transactionTemplate.execute(status -> refreshBatch(filter, args));
+            if (weeks == null || weeks == 0) {
+                break;
+            }
+            refreshed += weeks;
+        }
+        if (refreshed > 0) {
+            System.out.println("deliveryHeatmapDAO: Refreshed " + refreshed + " stale weeks");
+        }
+        return refreshed;
+    }
+
+    private int refreshBatch(String filter, Object[] args) {
+        Object[] batchArgs = Arrays.copyOf(args, args.length + 1);
+        batchArgs[args.length] = REFRESH_BATCH;
+        List<long[]> stale = jdbcTemplate.query("SELECT userId, weekStart FROM deliveryHeatmapStale" + filter + " LIMIT ?",
+                (rs, rowNum) -> new long[]{rs.getLong("userId"), rs.getLong("weekStart")}, batchArgs);
+        for (long[] entry : stale) {
+            long userId = entry[0];
+            long weekStart = entry[1];
+            jdbcTemplate.update("DELETE FROM deliveryHeatmap WHERE userId = ? AND weekStart = ?", userId, weekStart);
+            insertFromDeliveries("WHERE j.userId = ? AND d.startTime >= ? AND d.startTime < ?",
+                    userId, startOfDay(weekStart), startOfDay(weekStart + 7));
+            jdbcTemplate.update("DELETE FROM deliveryHeatmapStale WHERE userId = ? AND weekStart = ?", userId, weekStart);
+        }
+        return stale.size();
+    }
+
+    // Buckets the matching deliveries in Java, the zone recordDeliveries uses, and inserts the rows
+    private int insertFromDeliveries(String where, Object... args) {
+        DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+        Map<List<Long>, RollupRow> rows = new HashMap<>();
+        jdbcTemplate.query(RAW_SQL + where, rs -> {
+            long startTime = rs.getLong("startTime");
+            long userId = rs.getLong("userId");
+            int bucket = bucketer.bucket(startTime);
+            long weekStart = bucketer.epochDay(startTime) - bucket / 24;
+            RollupRow row = rows.computeIfAbsent(List.of(userId, weekStart, (long) bucket),
+                    key -> new RollupRow(userId, weekStart, bucket));
+            row.deliveryCount++;
+            row.basePayCents += rs.getLong("basePayCents");
+            row.tipsCents += rs.getLong("tipsCents");
+            row.waitMinutes += rs.getInt("timeSpentWaiting");
+            row.miles += rs.getInt("miles");
+        }, args);
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (RollupRow row : rows.values()) {
+            batch.add(new Object[]{row.userId, row.weekStart, row.bucket / 24, row.bucket % 24,
+                    row.deliveryCount, row.basePayCents, row.tipsCents, row.waitMinutes, row.miles});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        return rows.size();
+    }
+
+    /**
+     * Back-fills the rollup on startup when it is empty but deliveries already exist,
+     * e.g. right after the migration that created it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            Integer buckets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM deliveryHeatmap LIMIT 1)", Integer.class);
+            Integer deliveries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM deliveryData LIMIT 1)", Integer.class);
+            if (buckets != null && buckets == 0 && deliveries != null && deliveries > 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            System.out.println("deliveryHeatmapDAO: Backfill skipped - " + e.getMessage());
+        }
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Gets profit (basePay + tips) by [dayOfWeek (Monday = 0)][hour (0-23)] for a time range.
+     *
+     * @param userId    User to restrict to, or null for all users
+     * @param startTime Start of the range in epoch milliseconds (inclusive)
+     * @param endTime   End of the range in epoch milliseconds (inclusive)
+     * @return 7 x 24 profit matrix
+     */
+    public float[][] getProfitByDayAndHour(Integer userId, long startTime, long endTime) {
+        return getHeatmap(userId, startTime, endTime).profit();
+    }
+
+    /**
+     * Gets the heatmap for a time range. Whole ISO weeks come from the rollup, the partial
+     * weeks at either end (at most six days each) are read from deliveryData. The rollup part
+     * is one indexed SUM over up to 168 rows per week, so the cost still grows with the number
+     * of weeks, just far slower than with the number of deliveries.
+     *
+     * @param userId    User to restrict to, or null for all users
+     * @param startTime Start of the range in epoch milliseconds (inclusive)
+     * @param endTime   End of the range in epoch milliseconds (inclusive)
+     * @return Heatmap with counts, profit, wait minutes and miles per bucket
+     */
+    public Heatmap getHeatmap(Integer userId, long startTime, long endTime) {
+        if (startTime > endTime) {
+            throw new IllegalArgumentException("startTime must not be after endTime");
+        }
+        Heatmap heatmap = new Heatmap();
+        DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+
+        // First Monday 00:00 at or after startTime, and the Monday that starts the week containing endTime
+        long firstWeek = bucketer.epochDay(startTime) - bucketer.dayOfWeek(startTime);
+        if (startOfDay(firstWeek) < startTime) {
+            firstWeek += 7;
+        }
+        long endWeek = bucketer.epochDay(endTime + 1) - bucketer.dayOfWeek(endTime + 1);
+
+        if (firstWeek >= endWeek) {
+            addRawDeliveries(heatmap, bucketer, userId, startTime, endTime);
+            return heatmap;
+        }
+
+        refreshIfStale(userId, firstWeek, endWeek - 7);
+        addRollup(heatmap, userId, firstWeek, endWeek - 7);
+        if (startTime < startOfDay(firstWeek)) {
+            addRawDeliveries(heatmap, bucketer, userId, startTime, startOfDay(firstWeek) - 1);
+        }
+        if (startOfDay(endWeek) <= endTime) {
+            addRawDeliveries(heatmap, bucketer, userId, startOfDay(endWeek), endTime);
+        }
+        return heatmap;
+    }
+
+    private void addRollup(Heatmap heatmap, Integer userId, long fromWeek, long toWeek) {
+        String sql = "SELECT dayOfWeek, hour, SUM(deliveryCount) AS deliveryCount, SUM(basePayCents + tipsCents) AS profitCents, " +
+                "SUM(waitMinutes) AS waitMinutes, SUM(miles) AS miles FROM deliveryHeatmap " +
+                "WHERE weekStart BETWEEN ? AND ?" + (userId != null ? " AND userId = ?" : "") +
+                " GROUP BY dayOfWeek, hour";
+        Object[] args = userId != null ? new Object[]{fromWeek, toWeek, userId} : new Object[]{fromWeek, toWeek};
+        readJdbcTemplate.query(sql, rs -> {
+            heatmap.add(rs.getInt("dayOfWeek"), rs.getInt("hour"), rs.getInt("deliveryCount"),
+                    rs.getLong("profitCents"), rs.getInt("waitMinutes"), rs.getInt("miles"));
+        }, args);
+    }
+
+    private void addRawDeliveries(Heatmap heatmap, DeliveryColumns.DayHourBucketer bucketer,
+                                  Integer userId, long startTime, long endTime) {
+        String sql = "SELECT d.startTime, d.basePayCents, d.tipsCents, d.timeSpentWaiting, d.miles FROM deliveryData d " +
+                "WHERE d.startTime BETWEEN ? AND ?" +
+                (userId != null ? " AND d.jobsTableId IN (SELECT jobsId FROM JobsTable WHERE userId = ?)" : "");
+        Object[] args = userId != null ? new Object[]{startTime, endTime, userId} : new Object[]{startTime, endTime};
+        readJdbcTemplate.query(sql, rs -> {
+            int bucket = bucketer.bucket(rs.getLong("startTime"));
+            heatmap.add(bucket / 24, bucket % 24, 1, rs.getLong("basePayCents") + rs.getLong("tipsCents"),
+                    rs.getInt("timeSpentWaiting"), rs.getInt("miles"));
+        }, args);
+    }
+
+    /**
+     * Recomputes the stale weeks in [fromWeek, toWeek] for the requested user first, so reads
+     * never see them. Stale weeks of other users and ranges are left to deliveryRollupJob.
+     */
+    private void refreshIfStale(Integer userId, long fromWeek, long toWeek) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM deliveryHeatmapStale" + staleFilter(userId) + ")";
+        Integer stale = readJdbcTemplate.queryForObject(sql, Integer.class, staleArgs(userId, fromWeek, toWeek));
+        if (stale != null && stale != 0) {
+            refreshStale(userId, fromWeek, toWeek);
+        }
+    }
+
+    private static String staleFilter(Integer userId) {
+        return " WHERE weekStart BETWEEN ? AND ?" + (userId != null ? " AND userId = ?" : "");
+    }
+
+    private static Object[] staleArgs(Integer userId, long fromWeek, long toWeek) {
+        return userId != null ? new Object[]{fromWeek, toWeek, userId} : new Object[]{fromWeek, toWeek};
+    }
+
+    private long startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Accumulator for one rollup row while aggregating deliveries in memory.
+     */
+    private static class RollupRow {
+        final long userId;
+        final long weekStart;
+        final int bucket;
+        int deliveryCount;
+        long basePayCents;
+        long tipsCents;
+        long waitMinutes;
+        long miles;
+
+        RollupRow(long userId, long weekStart, int bucket) {
+            this.userId = userId;
+            this.weekStart = weekStart;
+            this.bucket = bucket;
+        }
+    }
+
+    // ==================== Data Transfer Objects ====================
+
+    /**
+     * The rollup-relevant fields of one delivery, shared with deliveryRollupDAO.
+     */
+    public static class DeliveryFact {
+        private final long startTime;
+        private final float basePay;
+        private final float tips;
+        private final int waitMinutes;
+        private final int miles;
+        private final String platform;
+
+        public DeliveryFact(long startTime, float basePay, float tips, int waitMinutes, int miles) {
+            this(startTime, basePay, tips, waitMinutes, miles, null);
+        }
+
+        /**
+         * @param platform Platform of the delivery, or null; the heatmap ignores it
+         */
+        public DeliveryFact(long startTime, float basePay, float tips, int waitMinutes, int miles, String platform) {
+            this.startTime = startTime;
+            this.basePay = basePay;
+            this.tips = tips;
+            this.waitMinutes = waitMinutes;
+            this.miles = miles;
+            this.platform = platform;
+        }
+
+        public long startTime() { return startTime; }
+        public float basePay() { return basePay; }
+        public float tips() { return tips; }
+        public int waitMinutes() { return waitMinutes; }
+        public int miles() { return miles; }
+        public String platform() { return platform; }
+    }
+
+    /**
+     * Delivery totals by [dayOfWeek (Monday = 0)][hour (0-23)].
+     */
+    public static class Heatmap {
+        private final int[][] deliveryCount = new int[7][24];
+        private final long[][] profitCents = new long[7][24];
+        private final int[][] waitMinutes = new int[7][24];
+        private final int[][] miles = new int[7][24];
+
+        void add(int day, int hour, int count, long bucketProfitCents, int bucketWaitMinutes, int bucketMiles) {
+            deliveryCount[day][hour] += count;
+            profitCents[day][hour] += bucketProfitCents;
+            waitMinutes[day][hour] += bucketWaitMinutes;
+            miles[day][hour] += bucketMiles;
+        }
+
+        public int[][] deliveryCount() { return deliveryCount; }
+        public long[][] profitCents() { return profitCents; }
+
+        /**
+         * Profit in dollars, converted from the exact cent totals.
+         */
+        public float[][] profit() {
+            float[][] dollars = new float[7][24];
+            for (int day = 0; day < 7; day++) {
+                for (int hour = 0; hour < 24; hour++) {
+                    dollars[day][hour] = (float) Money.toDollars(profitCents[day][hour]);
+                }
+            }
+            return dollars;
+        }
+        public int[][] waitMinutes() { return waitMinutes; }
+        public int[][] miles() { return miles; }
+    }
+}
@@ -0,0 +1,508 @@
+package org.example.reportGenerator.src;
+
+import org.example.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * DAO for the deliveryRollup tables: per-user delivery totals by local day, ISO week and month,
+ * split by platform.
+ *
+ * Inserts update their day, week and month rows in the same transaction as the delivery (see
+ * recordDeliveries). Edits and deletes are caught by triggers that mark the day stale; stale days
+ * are recomputed by refreshStale(), which deliveryRollupJob runs in the background and every read
+ * runs first when its range holds one. Range totals are assembled from the coarsest whole periods
+ * that fit, so a three-year range reads about 36 month rows per platform plus the raw deliveries of
+ * the partial days at either end. Buckets use the system default time zone, call rebuild() after
+ * changing it.
+ */
+@Repository
+public class deliveryRollupDAO {
+
+    /** Platform name stored for deliveries without one, the name reportDAO groups them under. */
+    public static final String UNKNOWN_PLATFORM = "Unknown";
+
+    private static final String ROLLUP_COLUMNS =
+            "userId, grain, periodStart, platform, deliveryCount, basePayCents, tipsCents, miles, waitMinutes";
+
+    private static final String SUM_COLUMNS = "SUM(deliveryCount) AS deliveryCount, SUM(basePayCents) AS basePayCents, " +
+            "SUM(tipsCents) AS tipsCents, SUM(miles) AS miles, SUM(waitMinutes) AS waitMinutes";
+
+    private static final String RAW_SUM_COLUMNS = "COUNT(*) AS deliveryCount, SUM(d.basePayCents) AS basePayCents, " +
+            "SUM(d.tipsCents) AS tipsCents, SUM(COALESCE(d.miles, 0)) AS miles, " +
+            "SUM(COALESCE(d.timeSpentWaiting, 0)) AS waitMinutes";
+
+    private static final String RAW_PLATFORM = "COALESCE(NULLIF(d.platform, ''), '" + UNKNOWN_PLATFORM + "')";
+
+    private static final String RAW_FROM = " FROM deliveryData d INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId ";
+
+    private static final String UPSERT_SQL = "INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+            "SELECT userId, ?, ?, ?, ?, ?, ?, ?, ? FROM JobsTable WHERE jobsId = ? AND userId IS NOT NULL " +
+            "ON CONFLICT (userId, grain, periodStart, platform) DO UPDATE SET " +
+            "deliveryCount = deliveryCount + excluded.deliveryCount, " +
+            "basePayCents = basePayCents + excluded.basePayCents, " +
+            "tipsCents = tipsCents + excluded.tipsCents, " +
+            "miles = miles + excluded.miles, " +
+            "waitMinutes = waitMinutes + excluded.waitMinutes";
+
+    // Stale days recomputed per transaction, so a refresh never holds the writer for long
+    private static final int REFRESH_BATCH = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate readJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+
+    @Autowired
+    public deliveryRollupDAO(JdbcTemplate jdbcTemplate,
+                             @Qualifier("readJdbcTemplate") JdbcTemplate readJdbcTemplate,
+                             TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readJdbcTemplate = readJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.zone = ZoneId.systemDefault();
+    }
+
+    /**
+     * Rollup period lengths. Every period starts at local midnight; weeks start on Monday.
+     */
+    public enum Grain {
+        DAY("day"), WEEK("week"), MONTH("month");
+
+        private final String key;
+
+        Grain(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets the value stored in deliveryRollup.grain.
+         */
+        public String key() { return key; }
+
+        /**
+         * Gets the first day of the period containing an epoch day.
+         */
+        public long periodStart(long epochDay) {
+            switch (this) {
+                case WEEK:
+                    // 1970-01-01 was a Thursday
+                    return epochDay - Math.floorMod(epochDay + 3, 7);
+                case MONTH:
+                    return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+                default:
+                    return epochDay;
+            }
+        }
+
+        /**
+         * Gets the first day of the period after the one starting at periodStart.
+         */
+        public long nextPeriod(long periodStart) {
+            switch (this) {
+                case WEEK:
+                    return periodStart + 7;
+                case MONTH:
+                    return LocalDate.ofEpochDay(periodStart).plusMonths(1).toEpochDay();
+                default:
+                    return periodStart + 1;
+            }
+        }
+    }
+
+    // ==================== Maintenance ====================
+
+    /**
+     * Adds a batch of deliveries from one work period to their day, week and month rows, merging
+     * deliveries that share a row so each row is upserted once. Must run on the writer, inside the
+     * transaction that inserts the deliveries, so the rollup never drifts from deliveryData.
+     *
+     * @param jobsId     Work period the deliveries belong to (resolves the user)
+     * @param deliveries Deliveries that were just inserted
+     */
+    public void recordDeliveries(long jobsId, List<deliveryHeatmapDAO.DeliveryFact> deliveries) {
+        recordDeliveries(Collections.singletonMap(jobsId, deliveries));
+    }
+
+    /**
+     * Adds the deliveries of several work periods with one batch. Same transaction rules as the
+     * single work period version.
+     *
+     * @param deliveriesByJob Deliveries that were just inserted, by work period (resolves the user)
+     */
+    public void recordDeliveries(Map<Long, List<deliveryHeatmapDAO.DeliveryFact>> deliveriesByJob) {
+        DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+        Map<List<Object>, Totals> rows = new LinkedHashMap<>();
+        deliveriesByJob.forEach((jobsId, deliveries) -> {
+            for (deliveryHeatmapDAO.DeliveryFact delivery : deliveries) {
+                long day = bucketer.epochDay(delivery.startTime());
+                String platform = platformName(delivery.platform());
+                long basePayCents = Money.toCents(delivery.basePay());
+                long tipsCents = Money.toCents(delivery.tips());
+                for (Grain grain : Grain.values()) {
+                    rows.computeIfAbsent(List.of(jobsId, grain, grain.periodStart(day), platform), key -> new Totals())
+                            .add(1, basePayCents, tipsCents, delivery.miles(), delivery.waitMinutes());
+                }
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        rows.forEach((key, row) -> batch.add(new Object[]{((Grain) key.get(1)).key(), key.get(2), key.get(3),
+                row.deliveryCount, row.basePayCents, row.tipsCents, row.miles, row.waitMinutes, key.get(0)}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    /**
+     * Recomputes the days marked stale by edits and deletes, and the weeks and months that hold
+     * them, from deliveryData. Runs in batches of short transactions until nothing is stale.
+     *
+     * @return number of stale days recomputed
+     */
+    public int refreshStale() {
+        int refreshed = 0;
+        while (true) {
+            Integer days = transactionTemplate.execute(status -> refreshBatch());
+            if (days == null || days == 0) {
+                break;
+            }
+            refreshed += days;
+        }
+        if (refreshed > 0) {
+            System.out.println("deliveryRollupDAO: Refreshed " + refreshed + " stale days");
+        }
+        return refreshed;
+    }
+
+    private int refreshBatch() {
+        List<long[]> stale = jdbcTemplate.query("SELECT userId, epochDay FROM deliveryRollupStale LIMIT ?",
+                (rs, rowNum) -> new long[]{rs.getLong("userId"), rs.getLong("epochDay")}, REFRESH_BATCH);
+        Set<List<Long>> weeks = new LinkedHashSet<>();
+        Set<List<Long>> months = new LinkedHashSet<>();
+        for (long[] entry : stale) {
+            long userId = entry[0];
+            long day = entry[1];
+            jdbcTemplate.update("DELETE FROM deliveryRollup WHERE userId = ? AND grain = ? AND periodStart = ?",
+                    userId, Grain.DAY.key(), day);
+            jdbcTemplate.update("INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+                            "SELECT j.userId, ?, ?, " + RAW_PLATFORM + " AS platformName, " + RAW_SUM_COLUMNS + RAW_FROM +
+                            "WHERE j.userId = ? AND d.startTime >= ? AND d.startTime < ? GROUP BY platformName",
+                    Grain.DAY.key(), day, userId, startOfDay(day), startOfDay(day + 1));
+            jdbcTemplate.update("DELETE FROM deliveryRollupStale WHERE userId = ? AND epochDay = ?", userId, day);
+            weeks.add(List.of(userId, Grain.WEEK.periodStart(day)));
+            months.add(List.of(userId, Grain.MONTH.periodStart(day)));
+        }
+        weeks.forEach(week -> rollUpDays(Grain.WEEK, week.get(0), week.get(1)));
+        months.forEach(month -> rollUpDays(Grain.MONTH, month.get(0), month.get(1)));
+        return stale.size();
+    }
+
+    /**
+     * Rewrites one user's week or month rows as the sum of its day rows.
+     */
+    private void rollUpDays(Grain grain, long userId, long periodStart) {
+        jdbcTemplate.update("DELETE FROM deliveryRollup WHERE userId = ? AND grain = ? AND periodStart = ?",
+                userId, grain.key(), periodStart);
+        jdbcTemplate.update("INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+                        "SELECT userId, ?, ?, platform, " + SUM_COLUMNS + " FROM deliveryRollup " +
+                        "WHERE userId = ? AND grain = ? AND periodStart >= ? AND periodStart < ? GROUP BY platform",
+                grain.key(), periodStart, userId, Grain.DAY.key(), periodStart, grain.nextPeriod(periodStart));
+    }
+
+    /**
+     * Recomputes every rollup row from deliveryData in one transaction.
+     *
+     * @return number of rollup rows written
+     */
+    public int rebuild() {
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM deliveryRollup");
+            jdbcTemplate.update("DELETE FROM deliveryRollupStale");
+            // Days in SQL with 'localtime', the zone recordDeliveries buckets in
+            int rows = jdbcTemplate.update("INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+                    "SELECT j.userId, ?, CAST(julianday(d.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER) AS day, " +
+                    RAW_PLATFORM + " AS platformName, " + RAW_SUM_COLUMNS + RAW_FROM +
+                    "WHERE d.startTime IS NOT NULL AND j.userId IS NOT NULL GROUP BY j.userId, day, platformName",
+                    Grain.DAY.key());
+            rows += jdbcTemplate.update("INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+                    "SELECT userId, ?, periodStart - ((periodStart + 3) % 7 + 7) % 7 AS week, platform, " + SUM_COLUMNS +
+                    " FROM deliveryRollup WHERE grain = ? GROUP BY userId, week, platform",
+                    Grain.WEEK.key(), Grain.DAY.key());
+            rows += jdbcTemplate.update("INSERT INTO deliveryRollup (" + ROLLUP_COLUMNS + ") " +
+                    "SELECT userId, ?, CAST(julianday(periodStart * 86400, 'unixepoch', 'start of month') - 2440587.5 AS INTEGER) AS month, " +
+                    "platform, " + SUM_COLUMNS + " FROM deliveryRollup WHERE grain = ? GROUP BY userId, month, platform",
+                    Grain.MONTH.key(), Grain.DAY.key());
+            return rows;
+        });
+        int rows = written != null ? written : 0;
+        System.out.println("deliveryRollupDAO: Rebuilt rollups with " + rows + " rows");
+        return rows;
+    }
+
+    /**
+     * Back-fills the rollups on startup when they are empty but deliveries already exist,
+     * e.g. right after the migration that created them or a bulk load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM deliveryRollup LIMIT 1)", Integer.class);
+            Integer deliveries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM deliveryData LIMIT 1)", Integer.class);
+            if (rows != null && rows == 0 && deliveries != null && deliveries > 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            System.out.println("deliveryRollupDAO: Backfill skipped - " + e.getMessage());
+        }
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Gets delivery totals for a time range, overall and by platform. Whole months, then whole
+     * weeks, then whole days come from the rollup; the partial days at either end are read from
+     * deliveryData. Deliveries whose work period has no user are not counted.
+     *
+     * @param userId    User to restrict to, or null for all users
+     * @param startTime Start of the range in epoch milliseconds (inclusive)
+     * @param endTime   End of the range in epoch milliseconds (inclusive)
+     * @return RangeTotals for the range
+     */
+    public RangeTotals getTotals(Integer userId, long startTime, long endTime) {
+        if (startTime > endTime) {
+            throw new IllegalArgumentException("startTime must not be after endTime");
+        }
+        DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+        RangeTotals totals = new RangeTotals();
+
+        // Whole days are [firstDay, endDay)
+        long firstDay = bucketer.epochDay(startTime);
+        if (startOfDay(firstDay) < startTime) {
+            firstDay++;
+        }
+        long endDay = bucketer.epochDay(endTime + 1);
+        if (firstDay >= endDay) {
+            addRawDeliveries(totals, userId, startTime, endTime);
+            return totals;
+        }
+
+        refreshIfStale(userId, firstDay, endDay - 1);
+        addPeriods(totals, userId, wholePeriods(firstDay, endDay));
+        if (startTime < startOfDay(firstDay)) {
+            addRawDeliveries(totals, userId, startTime, startOfDay(firstDay) - 1);
+        }
+        if (startOfDay(endDay) <= endTime) {
+            addRawDeliveries(totals, userId, startOfDay(endDay), endTime);
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the totals of every period of one length that overlaps a range of days, each period
+     * with its whole-period totals. Periods without deliveries are left out.
+     *
+     * @param userId User to restrict to, or null for all users
+     * @param grain  Period length
+     * @param from   First day of the range
+     * @param to     Last day of the range
+     * @return Totals by the first day of each period, oldest first
+     */
+    public NavigableMap<LocalDate, Totals> getSeries(Integer userId, Grain grain, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long first = grain.periodStart(from.toEpochDay());
+        long last = grain.periodStart(to.toEpochDay());
+        refreshIfStale(userId, first, grain.nextPeriod(last) - 1);
+
+        String sql = "SELECT periodStart, " + SUM_COLUMNS + " FROM deliveryRollup " +
+                "WHERE grain = ? AND periodStart BETWEEN ? AND ?" + (userId != null ? " AND userId = ?" : "") +
+                " GROUP BY periodStart ORDER BY periodStart";
+        Object[] args = userId != null
+                ? new Object[]{grain.key(), first, last, userId}
+                : new Object[]{grain.key(), first, last};
+        NavigableMap<LocalDate, Totals> series = new TreeMap<>();
+        readJdbcTemplate.query(sql, rs -> {
+            Totals totals = new Totals();
+            totals.add(rs);
+            series.put(LocalDate.ofEpochDay(rs.getLong("periodStart")), totals);
+        }, args);
+        return series;
+    }
+
+    /**
+     * Splits the whole days [firstDay, endDay) into months, weeks and days, coarsest first.
+     * A week never runs into a month that fits whole, so the months are not skipped over.
+     */
+    static Map<Grain, List<Long>> wholePeriods(long firstDay, long endDay) {
+        Map<Grain, List<Long>> periods = new EnumMap<>(Grain.class);
+        for (Grain grain : Grain.values()) {
+            periods.put(grain, new ArrayList<>());
+        }
+        long day = firstDay;
+        while (day < endDay) {
+            long nextMonth = Grain.MONTH.nextPeriod(Grain.MONTH.periodStart(day));
+            long weekLimit = Grain.MONTH.nextPeriod(nextMonth) <= endDay ? nextMonth : endDay;
+            Grain grain;
+            if (Grain.MONTH.periodStart(day) == day && nextMonth <= endDay) {
+                grain = Grain.MONTH;
+            } else if (Grain.WEEK.periodStart(day) == day && day + 7 <= weekLimit) {
+                grain = Grain.WEEK;
+            } else {
+                grain = Grain.DAY;
+            }
+            periods.get(grain).add(day);
+            day = grain.nextPeriod(day);
+        }
+        return periods;
+    }
+
+    private void addPeriods(RangeTotals totals, Integer userId, Map<Grain, List<Long>> periods) {
+        StringBuilder where = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        periods.forEach((grain, starts) -> {
+            if (starts.isEmpty()) {
+                return;
+            }
+            where.append(where.length() > 0 ? " OR " : "").append("(grain = ? AND periodStart IN (");
+            args.add(grain.key());
+            for (int i = 0; i < starts.size(); i++) {
+                where.append(i > 0 ? ", ?" : "?");
+                args.add(starts.get(i));
+            }
+            where.append("))");
+        });
+        if (userId != null) {
+            args.add(userId);
+        }
+        String sql = "SELECT platform, " + SUM_COLUMNS + " FROM deliveryRollup WHERE (" + where + ")" +
+                (userId != null ? " AND userId = ?" : "") + " GROUP BY platform";
+        readJdbcTemplate.query(sql, rs -> {
+            totals.add(rs.getString("platform"), rs);
+        }, args.toArray());
+    }
+
+    private void addRawDeliveries(RangeTotals totals, Integer userId, long startTime, long endTime) {
+        String sql = "SELECT " + RAW_PLATFORM + " AS platformName, " + RAW_SUM_COLUMNS + RAW_FROM +
+                "WHERE d.startTime BETWEEN ? AND ? AND j.userId IS NOT NULL" +
+                (userId != null ? " AND j.userId = ?" : "") + " GROUP BY platformName";
+        Object[] args = userId != null ? new Object[]{startTime, endTime, userId} : new Object[]{startTime, endTime};
+        readJdbcTemplate.query(sql, rs -> {
+            totals.add(rs.getString("platformName"), rs);
+        }, args);
+    }
+
+    /**
+     * Recomputes stale days first when any fall in [firstDay, lastDay], so reads never see them.
+     */
+    private void refreshIfStale(Integer userId, long firstDay, long lastDay) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM deliveryRollupStale WHERE epochDay BETWEEN ? AND ?" +
+                (userId != null ? " AND userId = ?" : "") + ")";
+        Object[] args = userId != null ? new Object[]{firstDay, lastDay, userId} : new Object[]{firstDay, lastDay};
+        Integer stale = readJdbcTemplate.queryForObject(sql, Integer.class, args);
+        if (stale != null && stale != 0) {
+            refreshStale();
+        }
+    }
+
+    private long startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static String platformName(String platform) {
+        return platform == null || platform.isEmpty() ? UNKNOWN_PLATFORM : platform;
+    }
+
+    // ==================== Data Transfer Objects ====================
+
+    /**
+     * Delivery count, pay in cents, miles and wait minutes of a set of deliveries.
+     */
+    public static class Totals {
+        private int deliveryCount;
+        private long basePayCents;
+        private long tipsCents;
+        private long miles;
+        private long waitMinutes;
+
+        void add(int count, long basePayCents, long tipsCents, long miles, long waitMinutes) {
+            this.deliveryCount += count;
+            this.basePayCents += basePayCents;
+            this.tipsCents += tipsCents;
+            this.miles += miles;
+            this.waitMinutes += waitMinutes;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            add(rs.getInt("deliveryCount"), rs.getLong("basePayCents"), rs.getLong("tipsCents"),
+                    rs.getLong("miles"), rs.getLong("waitMinutes"));
+        }
+
+        public int deliveryCount() { return deliveryCount; }
+        public long basePayCents() { return basePayCents; }
+        public long tipsCents() { return tipsCents; }
+        public long earningsCents() { return basePayCents + tipsCents; }
+        public double earnings() { return Money.toDollars(earningsCents()); }
+        public long miles() { return miles; }
+        public long waitMinutes() { return waitMinutes; }
+
+        /**
+         * Gets the count and pay as the DeliveryTotals reportDAO returns.
+         */
+        public reportDAO.DeliveryTotals toDeliveryTotals() {
+            return reportDAO.DeliveryTotals.ofCents(deliveryCount, basePayCents, tipsCents);
+        }
+    }
+
+    /**
+     * Totals of a time range, overall and by platform.
+     */
+    public static class RangeTotals {
+        private final Totals total = new Totals();
+        private final Map<String, Totals> byPlatform = new HashMap<>();
+
+        void add(String platform, ResultSet rs) throws SQLException {
+            Totals row = new Totals();
+            row.add(rs);
+            total.add(row.deliveryCount, row.basePayCents, row.tipsCents, row.miles, row.waitMinutes);
+            byPlatform.computeIfAbsent(platform, key -> new Totals())
+                    .add(row.deliveryCount, row.basePayCents, row.tipsCents, row.miles, row.waitMinutes);
+        }
+
+        public Totals total() { return total; }
+
+        /**
+         * Gets the totals by platform, highest earnings first.
+         */
+        public Map<String, Totals> byPlatform() {
+            Map<String, Totals> sorted = new LinkedHashMap<>();
+            byPlatform.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().earningsCents(), a.getValue().earningsCents()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+    }
+}
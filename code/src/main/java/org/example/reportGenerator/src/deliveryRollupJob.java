@@ -0,0 +1,72 @@
+package org.example.reportGenerator.src;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background refresh of the delivery rollups and the day/hour heatmap.
+ *
+ * Every app.rollup.refresh-seconds the days and weeks that edits, deletes and late changes marked
+ * stale are recomputed on one daemon thread, so reports rarely have to refresh them on the read
+ * path. 0 turns the job off; reads still refresh what they need.
+ */
+@Component
+public class deliveryRollupJob implements DisposableBean {
+
+    private final deliveryRollupDAO rollupDAO;
+    private final deliveryHeatmapDAO heatmapDAO;
+    private final long intervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public deliveryRollupJob(deliveryRollupDAO rollupDAO, deliveryHeatmapDAO heatmapDAO,
+                             @Value("${app.rollup.refresh-seconds:60}") long intervalSeconds) {
+        this.rollupDAO = rollupDAO;
+        this.heatmapDAO = heatmapDAO;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-rollup-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        System.out.println("deliveryRollupJob: Refreshing stale rollup days and heatmap weeks every " + intervalSeconds + "s");
+    }
+
+    /**
+     * Runs one refresh. A failure is logged and the next run tries again.
+     */
+    void refresh() {
+        try {
+            rollupDAO.refreshStale();
+            heatmapDAO.refreshStale();
+        } catch (Exception e) {
+            // An exception escaping a scheduled task would cancel every later run
+            System.out.println("deliveryRollupJob: Refresh failed - " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package org.example.reportGenerator.src;
 
+import org.example.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 
 @Service
 public class generalReports {
@@ -15,18 +18,33 @@ public class generalReports {
     @Autowired
     private reportDAO reportDAO;
 
+    /** Whole days, weeks and months of the range come from here when it is wired. */
+    @Autowired(required = false)
+    private deliveryRollupDAO rollupDAO;
+
     // ==================== Array-based calculations ====================
 
     /**
      * Calculates total income from an array of income values.
+     * Each value is rounded to cents and summed as an integer, so the total is exact.
      *
      * @param income Array of income values
      * @return Sum of all income values, or 0 if array is null
      */
     public float totalIncome(float[] income) {
-        if (income == null) return 0;
-        float sum = 0;
-        for (float v : income) {
+        return (float) Money.toDollars(Money.sumCents(income));
+    }
+
+    /**
+     * Calculates total income from amounts in cents.
+     *
+     * @param incomeCents Array of income values in cents
+     * @return Sum in cents, or 0 if array is null
+     */
+    public long totalIncomeCents(long[] incomeCents) {
+        if (incomeCents == null) return 0;
+        long sum = 0;
+        for (long v : incomeCents) {
             sum += v;
         }
         return sum;
@@ -53,25 +71,18 @@ public class generalReports {
      * @return Total earnings from all deliveries in the range
      */
     public float getTotalEarningsFromDB(LocalDateTime startTime, LocalDateTime endTime) {
-        if (startTime == null || endTime == null) {
-            throw new IllegalArgumentException("Start time and end time must not be null");
-        }
+        return (float) getTotalsFromDB(startTime, endTime).totalEarnings();
+    }
 
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayByDateRange(startTime, endTime);
-        
-        float total = 0;
-        for (Map<String, Object> delivery : deliveries) {
-            Number basePay = (Number) delivery.get("basePay");
-            Number tips = (Number) delivery.get("tips");
-            
-            if (basePay != null) {
-                total += basePay.floatValue();
-            }
-            if (tips != null) {
-                total += tips.floatValue();
-            }
-        }
-        return total;
+    /**
+     * Gets exact total earnings (basePay + tips) for all deliveries within a date range.
+     *
+     * @param startTime Start of the date range (inclusive)
+     * @param endTime   End of the date range (inclusive)
+     * @return Total earnings in cents
+     */
+    public long getTotalEarningsCentsFromDB(LocalDateTime startTime, LocalDateTime endTime) {
+        return getTotalsFromDB(startTime, endTime).totalEarningsCents();
     }
 
     /**
@@ -82,29 +93,45 @@ public class generalReports {
      * @return Average earnings per delivery, or 0 if no deliveries found
      */
     public float getAverageEarningsFromDB(LocalDateTime startTime, LocalDateTime endTime) {
+        return (float) getTotalsFromDB(startTime, endTime).averageEarnings();
+    }
+
+    /**
+     * Gets count, sums and average for a date range in one aggregate query.
+     * Prefer this over calling the total/average/count methods separately.
+     *
+     * @param startTime Start of the date range (inclusive)
+     * @param endTime   End of the date range (inclusive)
+     * @return DeliveryTotals for the range
+     */
+    public reportDAO.DeliveryTotals getTotalsFromDB(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime == null || endTime == null) {
             throw new IllegalArgumentException("Start time and end time must not be null");
         }
-
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayByDateRange(startTime, endTime);
-        
-        if (deliveries == null || deliveries.isEmpty()) {
-            return 0;
+        if (rollupDAO != null) {
+            return rollupDAO.getTotals(null, toMillis(startTime), toMillis(endTime)).total().toDeliveryTotals();
         }
+        return reportDAO.getDeliveryTotalsByDateRange(startTime, endTime);
+    }
 
-        float total = 0;
-        for (Map<String, Object> delivery : deliveries) {
-            Number basePay = (Number) delivery.get("basePay");
-            Number tips = (Number) delivery.get("tips");
-            
-            if (basePay != null) {
-                total += basePay.floatValue();
-            }
-            if (tips != null) {
-                total += tips.floatValue();
-            }
+    /**
+     * Builds a ReportSnapshot for a date range and the current month in one pass, scanning the two
+     * windows separately when they are apart.
+     *
+     * @param startTime Start of the date range (inclusive)
+     * @param endTime   End of the date range (inclusive)
+     * @return ReportSnapshot with every delivery metric for the range
+     */
+    public ReportSnapshot getReportSnapshot(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Start time and end time must not be null");
         }
-        return total / deliveries.size();
+        YearMonth currentMonth = YearMonth.now();
+        ReportSnapshot.Builder builder = new ReportSnapshot.Builder(startTime, endTime, currentMonth, ZoneId.systemDefault());
+        for (LocalDateTime[] window : ReportSnapshot.scanWindows(startTime, endTime, currentMonth)) {
+            reportDAO.scanDeliveryPay(window[0], window[1], builder);
+        }
+        return builder.build();
     }
 
     /**
@@ -141,12 +168,7 @@ public class generalReports {
      * @return Number of deliveries in the range
      */
     public int getDeliveryCountFromDB(LocalDateTime startTime, LocalDateTime endTime) {
-        if (startTime == null || endTime == null) {
-            throw new IllegalArgumentException("Start time and end time must not be null");
-        }
-
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayByDateRange(startTime, endTime);
-        return deliveries != null ? deliveries.size() : 0;
+        return getTotalsFromDB(startTime, endTime).deliveryCount();
     }
 
     /**
@@ -162,30 +184,40 @@ public class generalReports {
             throw new IllegalArgumentException("Start time and end time must not be null");
         }
 
-        List<Map<String, Object>> deliveries = reportDAO.getDeliveryPayWithTimestampByDateRange(startTime, endTime);
-        
-        Map<String, Float> platformEarnings = new java.util.HashMap<>();
-        
-        for (Map<String, Object> delivery : deliveries) {
-            String platform = (String) delivery.get("platform");
-            if (platform == null || platform.isEmpty()) {
-                platform = "Unknown";
-            }
-            
-            float earnings = 0;
-            Number basePay = (Number) delivery.get("basePay");
-            Number tips = (Number) delivery.get("tips");
-            
-            if (basePay != null) {
-                earnings += basePay.floatValue();
-            }
-            if (tips != null) {
-                earnings += tips.floatValue();
-            }
-            
-            platformEarnings.merge(platform, earnings, Float::sum);
+        Map<String, Float> platformEarnings = new LinkedHashMap<>();
+        if (rollupDAO != null) {
+            rollupDAO.getTotals(null, toMillis(startTime), toMillis(endTime)).byPlatform()
+                    .forEach((platform, totals) -> platformEarnings.put(platform, (float) totals.earnings()));
+            return platformEarnings;
         }
-        
+        reportDAO.getDeliveryTotalsByPlatform(startTime, endTime)
+                .forEach((platform, totals) -> platformEarnings.put(platform, (float) totals.totalEarnings()));
+
         return platformEarnings;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets a user's delivery totals for every period of one length between two days, from the
+     * rollup tables. Used for the earnings-over-time views.
+     *
+     * @param userId User to restrict to, or null for all users
+     * @param grain  Period length
+     * @param from   First day of the range
+     * @param to     Last day of the range
+     * @return Totals by the first day of each period, oldest first
+     */
+    public NavigableMap<LocalDate, deliveryRollupDAO.Totals> getEarningsSeries(Integer userId, deliveryRollupDAO.Grain grain,
+                                                                             LocalDate from, LocalDate to) {
+        if (grain == null || from == null || to == null) {
+            throw new IllegalArgumentException("Grain, from and to must not be null");
+        }
+        if (rollupDAO == null) {
+            throw new IllegalStateException("Delivery rollups are not available");
+        }
+        return rollupDAO.getSeries(userId, grain, from, to);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -16,10 +16,16 @@ public class reportController {
 
     private final deliveryCalculator calculator;
 
+    private final deliveryHeatmapDAO heatmapDAO;
+
+    private final deliveryRollupDAO rollupDAO;
+
     @Autowired
-    public reportController(reportDAO reportDAO) {
+    public reportController(reportDAO reportDAO, deliveryHeatmapDAO heatmapDAO, deliveryRollupDAO rollupDAO) {
         this.reportDAO = reportDAO;
-        this.calculator = new deliveryCalculator(reportDAO);
+        this.heatmapDAO = heatmapDAO;
+        this.rollupDAO = rollupDAO;
+        this.calculator = new deliveryCalculator(reportDAO, heatmapDAO);
     }
 
     /**
@@ -88,6 +94,38 @@ public class reportController {
         }
     }
 
+    /**
+     * POST /api/reports/heatmap/rebuild
+     * Recomputes the day/hour heatmap rollup from all deliveries.
+     *
+     * @return Number of heatmap buckets written
+     */
+    @PostMapping("/heatmap/rebuild")
+    public ResponseEntity<String> rebuildHeatmap() {
+        try {
+            int buckets = heatmapDAO.rebuild();
+            return ResponseEntity.ok("Heatmap rebuilt with " + buckets + " buckets");
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error rebuilding heatmap: " + e.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/reports/rollups/rebuild
+     * Recomputes the daily, weekly and monthly delivery rollups from all deliveries.
+     *
+     * @return Number of rollup rows written
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<String> rebuildRollups() {
+        try {
+            int rows = rollupDAO.rebuild();
+            return ResponseEntity.ok("Rollups rebuilt with " + rows + " rows");
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error rebuilding rollups: " + e.getMessage());
+        }
+    }
+
     /**
      * Simple response wrapper for profit data.
      */
@@ -1,12 +1,15 @@
 package org.example.reportGenerator.src;
+import org.example.Money;
+import org.example.SchemaCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.time.LocalDate;
-import java.sql.ResultSet;
-import java.sql.DatabaseMetaData;
 import java.sql.Types;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -16,8 +19,14 @@ import java.time.Instant;
 @Repository
 public class reportDAO {
 
+    // Every query in this DAO is read-only, so it runs on the reader pool
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    @Qualifier("readJdbcTemplate")
+    private JdbcTemplate readJdbcTemplate;
+
+    // Column names and types for getDatestampsFromTable, without a metadata round trip
+    @Autowired
+    private SchemaCatalog schemaCatalog;
 
     /**
      * Retrieves basePay and tips from deliveryData where the timestamp
@@ -32,9 +41,10 @@ public class reportDAO {
         long startEpoch = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endEpoch = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
 
-        String sql = "SELECT basePay, tips FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+        String sql = "SELECT basePayCents / 100.0 AS basePay, tipsCents / 100.0 AS tips " +
+                "FROM deliveryData WHERE startTime BETWEEN ? AND ?";
 
-        return jdbcTemplate.queryForList(sql, startEpoch, endEpoch);
+        return readJdbcTemplate.queryForList(sql, startEpoch, endEpoch);
     }
 
     /**
@@ -49,15 +59,68 @@ public class reportDAO {
         long startEpoch = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endEpoch = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
 
-        String sql = "SELECT basePay, tips, (basePay + tips) AS totalPay " +
+        String sql = "SELECT basePayCents / 100.0 AS basePay, tipsCents / 100.0 AS tips, " +
+                "(basePayCents + tipsCents) / 100.0 AS totalPay " +
                 "FROM deliveryData WHERE startTime BETWEEN ? AND ?";
 
-        return jdbcTemplate.queryForList(sql, startEpoch, endEpoch);
+        return readJdbcTemplate.queryForList(sql, startEpoch, endEpoch);
     }
 
+    // ==================== Aggregate queries ====================
+
     /**
-     * Retrieves datestamps from a specified table and column.
-     * Supports both BIGINT (epoch millis) and DATE column types.
+     * Computes delivery count and pay sums for a date range in a single SQL aggregate,
+     * instead of returning one row per delivery. The sums are integer cents, so they are exact.
+     *
+     * @param startTime The start of the date range (inclusive)
+     * @param endTime   The end of the date range (inclusive)
+     * @return DeliveryTotals for the range (all zero if there are no deliveries)
+     */
+    public DeliveryTotals getDeliveryTotalsByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        String sql = "SELECT COUNT(*) AS deliveryCount, " +
+                "COALESCE(SUM(basePayCents), 0) AS basePayCents, COALESCE(SUM(tipsCents), 0) AS tipsCents " +
+                "FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+
+        return readJdbcTemplate.queryForObject(sql, (rs, rowNum) -> DeliveryTotals.ofCents(
+                rs.getInt("deliveryCount"),
+                rs.getLong("basePayCents"),
+                rs.getLong("tipsCents")
+        ), toEpochMilli(startTime), toEpochMilli(endTime));
+    }
+
+    /**
+     * Computes delivery totals per platform for a date range with GROUP BY.
+     * Deliveries without a platform are grouped under "Unknown".
+     *
+     * @param startTime The start of the date range (inclusive)
+     * @param endTime   The end of the date range (inclusive)
+     * @return Map of platform name to its DeliveryTotals, ordered by total earnings (highest first)
+     */
+    public Map<String, DeliveryTotals> getDeliveryTotalsByPlatform(LocalDateTime startTime, LocalDateTime endTime) {
+        String sql = "SELECT COALESCE(NULLIF(platform, ''), 'Unknown') AS platformName, COUNT(*) AS deliveryCount, " +
+                "COALESCE(SUM(basePayCents), 0) AS basePayCents, COALESCE(SUM(tipsCents), 0) AS tipsCents " +
+                "FROM deliveryData WHERE startTime BETWEEN ? AND ? " +
+                "GROUP BY platformName ORDER BY SUM(basePayCents + tipsCents) DESC";
+
+        Map<String, DeliveryTotals> byPlatform = new LinkedHashMap<>();
+        readJdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            byPlatform.put(rs.getString("platformName"), DeliveryTotals.ofCents(
+                    rs.getInt("deliveryCount"),
+                    rs.getLong("basePayCents"),
+                    rs.getLong("tipsCents")));
+        }, toEpochMilli(startTime), toEpochMilli(endTime));
+        return byPlatform;
+    }
+
+    /**
+     * Retrieves the distinct days found in a date column, oldest first.
+     * Supports epoch-millisecond columns (BIGINT/INTEGER) and DATE/DATETIME/TIMESTAMP columns;
+     * on SQLite each value is bucketed by its stored type, so text dates in a BIGINT column also work.
+     * Epoch values are bucketed in the database's local time.
+     *
+     * The table and column are checked against the SchemaCatalog, so no metadata query runs and
+     * no unknown identifier reaches the SQL. The query only reads the date column, so an index
+     * on it (such as idx_deliveryData_startTime_cents) is scanned instead of the table.
      *
      * @param tableName  The name of the table to query
      * @param dateColumn The column containing datestamp values
@@ -66,58 +129,67 @@ public class reportDAO {
      */
     public List<LocalDate> getDatestampsFromTable(String tableName, String dateColumn) {
         // Validate that the column exists and contains date-compatible data
-        if (!isDateColumn(tableName, dateColumn)) {
+        String columnType = schemaCatalog.getColumnType(tableName, dateColumn);
+        if (!isDateColumnType(columnType)) {
             throw new IllegalArgumentException(
                     "Column '" + dateColumn + "' in table '" + tableName + "' does not contain datestamp data");
         }
 
-        String columnType = getColumnType(tableName, dateColumn);
-        String sql;
+        SchemaCatalog.Dialect dialect = schemaCatalog.getDialect();
+        String table = dialect.quote(schemaCatalog.getTableName(tableName));
+        String column = dialect.quote(schemaCatalog.getColumnName(tableName, dateColumn));
+        String sql = "SELECT " + dayBucket(dialect, column, columnType) + " AS dateValue " +
+                "FROM " + table + " WHERE " + column + " IS NOT NULL " +
+                "GROUP BY dateValue ORDER BY dateValue";
 
-        if ("BIGINT".equalsIgnoreCase(columnType)) {
-            // Convert epoch milliseconds to date
-            sql = "SELECT DISTINCT DATE(FROM_UNIXTIME(" + dateColumn + " / 1000)) AS dateValue " +
-                    "FROM " + tableName + " WHERE " + dateColumn + " IS NOT NULL ORDER BY dateValue";
-        } else {
-            // Already a DATE type
-            sql = "SELECT DISTINCT " + dateColumn + " AS dateValue " +
-                    "FROM " + tableName + " WHERE " + dateColumn + " IS NOT NULL ORDER BY dateValue";
-        }
-
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            java.sql.Date sqlDate = rs.getDate("dateValue");
-            return sqlDate != null ? sqlDate.toLocalDate() : null;
+        return readJdbcTemplate.query(sql, (rs, rowNum) -> {
+            String day = rs.getString("dateValue");
+            return day != null && day.length() >= 10 ? LocalDate.parse(day.substring(0, 10)) : null;
         });
     }
 
     /**
-     * Checks if the specified column contains date/timestamp data.
+     * Builds the SQL expression that turns a date column into its 'YYYY-MM-DD' day.
      */
-    private boolean isDateColumn(String tableName, String columnName) {
-        String columnType = getColumnType(tableName, columnName);
+    private static String dayBucket(SchemaCatalog.Dialect dialect, String column, String columnType) {
+        boolean epochMillis = isEpochColumnType(columnType);
+        switch (dialect) {
+            case SQLITE:
+                // Type affinity does not stop text dates in integer columns, so decide per value
+                return "CASE typeof(" + column + ") " +
+                        "WHEN 'integer' THEN date(" + column + " / 1000, 'unixepoch', 'localtime') " +
+                        "WHEN 'real' THEN date(" + column + " / 1000, 'unixepoch', 'localtime') " +
+                        "ELSE substr(" + column + ", 1, 10) END";
+            case MYSQL:
+                return epochMillis
+                        ? "DATE(FROM_UNIXTIME(" + column + " / 1000))"
+                        : "DATE(" + column + ")";
+            default:
+                if (epochMillis) {
+                    throw new UnsupportedOperationException(
+                            "Epoch date bucketing is not supported for this database (" + dialect + ")");
+                }
+                return "CAST(" + column + " AS DATE)";
+        }
+    }
+
+    /**
+     * Checks if a declared column type holds date/timestamp data.
+     */
+    private static boolean isDateColumnType(String columnType) {
         if (columnType == null) return false;
 
-        return columnType.equalsIgnoreCase("DATE") ||
-                columnType.equalsIgnoreCase("DATETIME") ||
-                columnType.equalsIgnoreCase("TIMESTAMP") ||
-                columnType.equalsIgnoreCase("BIGINT"); // Epoch timestamps stored as BIGINT
+        return columnType.equals("DATE") ||
+                columnType.equals("DATETIME") ||
+                columnType.equals("TIMESTAMP") ||
+                isEpochColumnType(columnType);
     }
 
     /**
-     * Gets the SQL type of a column.
+     * Epoch timestamps are stored as BIGINT (INTEGER in older databases).
      */
-    private String getColumnType(String tableName, String columnName) {
-        try {
-            DatabaseMetaData metaData = jdbcTemplate.getDataSource().getConnection().getMetaData();
-            try (ResultSet rs = metaData.getColumns(null, null, tableName, columnName)) {
-                if (rs.next()) {
-                    return rs.getString("TYPE_NAME");
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to retrieve column metadata", e);
-        }
-        return null;
+    private static boolean isEpochColumnType(String columnType) {
+        return "BIGINT".equals(columnType) || "INTEGER".equals(columnType);
     }
 
     /**
@@ -142,9 +214,50 @@ public class reportDAO {
         long endEpoch = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
 
         // Use 'startTime' column (actual DB column) and alias it as 'time' for backward compatibility
-        String sql = "SELECT basePay, tips, startTime AS time FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+        String sql = "SELECT basePayCents / 100.0 AS basePay, tipsCents / 100.0 AS tips, startTime AS time " +
+                "FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+
+        return readJdbcTemplate.queryForList(sql, startEpoch, endEpoch);
+    }
 
-        return jdbcTemplate.queryForList(sql, startEpoch, endEpoch);
+    /**
+     * Streams basePayCents, tipsCents and startTime for every delivery in the range to the handler,
+     * without materializing the rows. Used to build a ReportSnapshot in one pass.
+     *
+     * @param startTime The start of the date range (inclusive)
+     * @param endTime   The end of the date range (inclusive)
+     * @param handler   Callback invoked once per delivery row
+     */
+    public void scanDeliveryPay(LocalDateTime startTime, LocalDateTime endTime, RowCallbackHandler handler) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("startTime and endTime must not be null");
+        }
+
+        String sql = "SELECT basePayCents, tipsCents, startTime FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+        readJdbcTemplate.query(sql, handler, toEpochMilli(startTime), toEpochMilli(endTime));
+    }
+
+    /**
+     * Loads the deliveries in a date range into a primitive columnar batch for analytics.
+     * Rows are streamed straight into the column arrays, no per-row Map is created.
+     *
+     * @param startTime The start of the date range (inclusive)
+     * @param endTime   The end of the date range (inclusive)
+     * @return DeliveryColumns holding every delivery in the range
+     */
+    public DeliveryColumns getDeliveryColumnsByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("startTime and endTime must not be null");
+        }
+        if (startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("startTime must not be after endTime");
+        }
+
+        String sql = "SELECT startTime, basePay, tips, miles, platform, resturant " +
+                "FROM deliveryData WHERE startTime BETWEEN ? AND ?";
+        DeliveryColumns.Builder builder = new DeliveryColumns.Builder();
+        readJdbcTemplate.query(sql, builder, toEpochMilli(startTime), toEpochMilli(endTime));
+        return builder.build();
     }
 
     /**
@@ -154,7 +267,7 @@ public class reportDAO {
      */
     public List<Map<String, Object>> getAllJobs() {
         String sql = "SELECT jobsId, userId, startTime, endTime, vehicle, totalEarnings FROM JobsTable";
-        return jdbcTemplate.queryForList(sql);
+        return readJdbcTemplate.queryForList(sql);
     }
 
     /**
@@ -176,7 +289,7 @@ public class reportDAO {
         long endEpoch = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
 
         String sql = "SELECT jobsId, userId, startTime, endTime, vehicle, totalEarnings FROM JobsTable WHERE startTime BETWEEN ? AND ?";
-        return jdbcTemplate.queryForList(sql, startEpoch, endEpoch);
+        return readJdbcTemplate.queryForList(sql, startEpoch, endEpoch);
     }
 
     /**
@@ -186,7 +299,7 @@ public class reportDAO {
      */
     public List<Long> getJobStartTimes() {
         String sql = "SELECT startTime FROM JobsTable WHERE startTime IS NOT NULL ORDER BY startTime";
-        return jdbcTemplate.queryForList(sql, Long.class);
+        return readJdbcTemplate.queryForList(sql, Long.class);
     }
 
     /**
@@ -196,8 +309,90 @@ public class reportDAO {
      */
     public Map<String, Object> getJobStartTimeRange() {
         String sql = "SELECT MIN(startTime) as minStartTime, MAX(startTime) as maxStartTime FROM JobsTable WHERE startTime IS NOT NULL";
-        return jdbcTemplate.queryForMap(sql);
+        return readJdbcTemplate.queryForMap(sql);
+    }
+
+    /**
+     * Reads a cheap marker of the current deliveryData contents: the version counter that the V8
+     * triggers bump on every insert, update and delete. Cached report results that were computed
+     * under an equal watermark are still valid.
+     *
+     * @return DeliveryWatermark for the table as it is now
+     */
+    public DeliveryWatermark getDeliveryWatermark() {
+        String sql = "SELECT version FROM deliveryDataVersion WHERE id = 0";
+        return new DeliveryWatermark(readJdbcTemplate.queryForObject(sql, Long.class));
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ==================== Data Transfer Objects ====================
+
+    /**
+     * Result of a SUM/COUNT aggregate over deliveries, held in integer cents.
+     */
+    public static class DeliveryTotals {
+        private final int deliveryCount;
+        private final long basePayCents;
+        private final long tipsCents;
+
+        /**
+         * @param basePay Base pay in dollars, rounded to cents
+         * @param tips    Tips in dollars, rounded to cents
+         */
+        public DeliveryTotals(int deliveryCount, double basePay, double tips) {
+            this(deliveryCount, Money.toCents(basePay), Money.toCents(tips));
+        }
+
+        private DeliveryTotals(int deliveryCount, long basePayCents, long tipsCents) {
+            this.deliveryCount = deliveryCount;
+            this.basePayCents = basePayCents;
+            this.tipsCents = tipsCents;
+        }
+
+        public static DeliveryTotals ofCents(int deliveryCount, long basePayCents, long tipsCents) {
+            return new DeliveryTotals(deliveryCount, basePayCents, tipsCents);
+        }
+
+        public int deliveryCount() { return deliveryCount; }
+        public long basePayCents() { return basePayCents; }
+        public long tipsCents() { return tipsCents; }
+        public long totalEarningsCents() { return basePayCents + tipsCents; }
+        public double basePay() { return Money.toDollars(basePayCents); }
+        public double tips() { return Money.toDollars(tipsCents); }
+        public double totalEarnings() { return Money.toDollars(totalEarningsCents()); }
+        public double averageEarnings() { return deliveryCount > 0 ? totalEarnings() / deliveryCount : 0; }
     }
 
+    /**
+     * Version of the deliveryData contents at one point in time.
+     */
+    public static final class DeliveryWatermark {
+        private final long version;
+
+        public DeliveryWatermark(long version) {
+            this.version = version;
+        }
+
+        public long version() { return version; }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DeliveryWatermark)) return false;
+            return version == ((DeliveryWatermark) o).version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(version);
+        }
+
+        @Override
+        public String toString() {
+            return "DeliveryWatermark{version=" + version + "}";
+        }
+    }
 }
\ No newline at end of file
@@ -3,45 +3,55 @@ package org.example.reportGenerator.src;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * Report Generator service that interfaces with deliveryCalculator
  * to set date ranges, generate reports, and create financial plans.
+ *
+ * The methods that take a ReportRequest or PlanRequest are pure: they read nothing but their
+ * argument and the database, so any number of callers can use them at once. Snapshots and plans
+ * are memoized by request and the deliveryData watermark, so identical requests are answered from
+ * memory until a delivery is added, edited or removed.
+ *
+ * The setters and no-argument methods serve the desktop GUI. They swap one immutable PlanRequest,
+ * so a concurrent reader always sees a complete set of settings.
  */
 @Service
 public class reportGenerator {
 
+    // Old watermarks and date ranges age out of the LRU
+    private static final int MEMO_ENTRIES = 64;
+
     private final deliveryCalculator calculator;
     private final reportDAO reportDAO;
     private final generalReports generalReports;
 
-    // Current report date range settings
-    private LocalDateTime startDate;
-    private LocalDateTime endDate;
-    private int daysToAnalyze = 90; // Default analysis period
+    private final ReportMemo<MemoKey, ReportSnapshot> snapshots = new ReportMemo<>(MEMO_ENTRIES);
+    private final ReportMemo<MemoKey, FinancialPlan> plans = new ReportMemo<>(MEMO_ENTRIES);
 
-    // Financial plan settings
-    private float targetMonthlyIncome;
-    private float estimatedExpenses;
-    private float otherMonthlyIncome = 0.0f;  // Other income from bank accounts
-    private int targetWorkHoursPerDay = 6;
+    // Settings of the desktop GUI, replaced as a whole; defaults to the last 90 days
+    private volatile PlanRequest currentPlan = PlanRequest.of(ReportRequest.lastDays(ReportRequest.DEFAULT_DAYS));
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    @Autowired
     public reportGenerator(reportDAO reportDAO, generalReports generalReports) {
+        this(reportDAO, generalReports, null);
+    }
+
+    @Autowired
+    public reportGenerator(reportDAO reportDAO, generalReports generalReports, deliveryHeatmapDAO heatmapDAO) {
         this.reportDAO = reportDAO;
         this.generalReports = generalReports;
-        this.calculator = new deliveryCalculator(reportDAO);
-        
-        // Initialize default date range to last 90 days
-        this.endDate = LocalDateTime.now();
-        this.startDate = endDate.minusDays(daysToAnalyze);
+        this.calculator = new deliveryCalculator(reportDAO, heatmapDAO);
     }
 
     // ==================== Date Range Configuration ====================
@@ -54,14 +64,9 @@ public class reportGenerator {
      * @throws IllegalArgumentException if dates are invalid
      */
     public void setDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        if (startDate == null || endDate == null) {
-            throw new IllegalArgumentException("Start date and end date must not be null");
-        }
-        if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("Start date must be before or equal to end date");
-        }
-        this.startDate = startDate;
-        this.endDate = endDate;
+        PlanRequest plan = currentPlan;
+        currentPlan = plan.withReport(ReportRequest.between(startDate, endDate)
+                .withTargetWorkHoursPerDay(plan.report().targetWorkHoursPerDay()));
     }
 
     /**
@@ -71,26 +76,30 @@ public class reportGenerator {
      * @throws IllegalArgumentException if daysBack is not positive
      */
     public void setDateRangeByDaysBack(int daysBack) {
-        if (daysBack <= 0) {
-            throw new IllegalArgumentException("Days back must be a positive number");
-        }
-        this.daysToAnalyze = daysBack;
-        this.endDate = LocalDateTime.now();
-        this.startDate = endDate.minusDays(daysBack);
+        PlanRequest plan = currentPlan;
+        currentPlan = plan.withReport(ReportRequest.lastDays(daysBack)
+                .withTargetWorkHoursPerDay(plan.report().targetWorkHoursPerDay()));
     }
 
     /**
      * Gets the currently configured start date.
      */
     public LocalDateTime getStartDate() {
-        return startDate;
+        return currentPlan.report().startDate();
     }
 
     /**
      * Gets the currently configured end date.
      */
     public LocalDateTime getEndDate() {
-        return endDate;
+        return currentPlan.report().endDate();
+    }
+
+    /**
+     * Gets the current desktop settings as an immutable plan request.
+     */
+    public PlanRequest getCurrentPlanRequest() {
+        return currentPlan;
     }
 
     // ==================== Report Data Methods ====================
@@ -101,19 +110,17 @@ public class reportGenerator {
      * @return DeliveryReportData containing summary statistics
      */
     public DeliveryReportData getDeliveryReportsData() {
-        float totalEarnings = generalReports.getTotalEarningsFromDB(startDate, endDate);
-        float avgEarnings = generalReports.getAverageEarningsFromDB(startDate, endDate);
-        int deliveryCount = generalReports.getDeliveryCountFromDB(startDate, endDate);
-        
-        String optimalHours = calculator.findOptimalWorkHours(
-                targetWorkHoursPerDay, 
-                toEpochMilli(startDate), 
-                toEpochMilli(endDate));
+        return getDeliveryReportsData(currentPlan.report());
+    }
 
-        return new DeliveryReportData(
-                startDate, endDate, 
-                totalEarnings, avgEarnings, deliveryCount, 
-                optimalHours);
+    /**
+     * Gets delivery report data for a request.
+     *
+     * @param request The report parameters
+     * @return DeliveryReportData containing summary statistics
+     */
+    public DeliveryReportData getDeliveryReportsData(ReportRequest request) {
+        return buildDeliveryReportData(request, getReportSnapshot(request));
     }
 
     /**
@@ -122,18 +129,67 @@ public class reportGenerator {
      * @return GeneralReportData containing overall financial summary
      */
     public GeneralReportData getGeneralReportsData() {
-        float totalIncome = generalReports.getTotalEarningsFromDB(startDate, endDate);
-        float currentMonthIncome = generalReports.getCurrentMonthDeliveryIncomeFromDB();
-        float avgPerDelivery = generalReports.getAverageEarningsFromDB(startDate, endDate);
-        int totalDeliveries = generalReports.getDeliveryCountFromDB(startDate, endDate);
-        
+        return getGeneralReportsData(currentPlan.report());
+    }
+
+    /**
+     * Gets general financial report data for a request.
+     *
+     * @param request The report parameters
+     * @return GeneralReportData containing overall financial summary
+     */
+    public GeneralReportData getGeneralReportsData(ReportRequest request) {
+        return buildGeneralReportData(request, getReportSnapshot(request));
+    }
+
+    /**
+     * Scans the configured date range (and the current month) once and returns every delivery metric.
+     * Build several report DTOs from the same snapshot instead of calling the getters above repeatedly.
+     *
+     * @return ReportSnapshot for the configured date range
+     */
+    public ReportSnapshot getReportSnapshot() {
+        return getReportSnapshot(currentPlan.report());
+    }
+
+    /**
+     * Gets the ReportSnapshot of a request's date range, scanning the database only if the same
+     * range has not been scanned since the last change to deliveryData.
+     *
+     * @param request The report parameters
+     * @return ReportSnapshot for the request's date range
+     */
+    public ReportSnapshot getReportSnapshot(ReportRequest request) {
+        return getReportSnapshot(request, reportDAO.getDeliveryWatermark());
+    }
+
+    private ReportSnapshot getReportSnapshot(ReportRequest request, reportDAO.DeliveryWatermark watermark) {
+        // The snapshot does not depend on the shift length, so requests that differ only there share it
+        MemoKey key = new MemoKey(ReportRequest.between(request.startDate(), request.endDate()),
+                YearMonth.now(), watermark);
+        return snapshots.get(key, () -> generalReports.getReportSnapshot(request.startDate(), request.endDate()));
+    }
+
+    private DeliveryReportData buildDeliveryReportData(ReportRequest request, ReportSnapshot snapshot) {
+        String optimalHours = calculator.formatOptimalWorkHours(
+                request.targetWorkHoursPerDay(), snapshot.profitByDayAndHour());
+
+        return new DeliveryReportData(
+                request.startDate(), request.endDate(),
+                (float) snapshot.totalEarnings(), (float) snapshot.averageEarnings(), snapshot.deliveryCount(),
+                optimalHours);
+    }
+
+    private GeneralReportData buildGeneralReportData(ReportRequest request, ReportSnapshot snapshot) {
+        float totalIncome = (float) snapshot.totalEarnings();
+
         // Calculate projected monthly income based on current pace
-        float dailyAverage = totalIncome / Math.max(1, daysToAnalyze);
+        float dailyAverage = totalIncome / Math.max(1, request.daysToAnalyze());
         float projectedMonthlyIncome = dailyAverage * 30;
 
         return new GeneralReportData(
-                totalIncome, currentMonthIncome, avgPerDelivery, 
-                totalDeliveries, projectedMonthlyIncome);
+                totalIncome, (float) snapshot.currentMonthEarnings(), (float) snapshot.averageEarnings(),
+                snapshot.deliveryCount(), projectedMonthlyIncome);
     }
 
     /**
@@ -145,10 +201,23 @@ public class reportGenerator {
      * @return Expected profit based on historical data
      */
     public float querySingularReport(long dayTimestamp, int startHour, int endHour) {
+        return querySingularReport(currentPlan.report(), dayTimestamp, startHour, endHour);
+    }
+
+    /**
+     * Queries expected profit for a specific day and hour range over a request's history.
+     *
+     * @param request      The report parameters
+     * @param dayTimestamp Timestamp to determine the day of week
+     * @param startHour    Start hour (0-23)
+     * @param endHour      End hour (0-23)
+     * @return Expected profit based on historical data
+     */
+    public float querySingularReport(ReportRequest request, long dayTimestamp, int startHour, int endHour) {
         return calculator.calculateExpectedProfit(
                 dayTimestamp,
-                toEpochMilli(startDate),
-                toEpochMilli(endDate),
+                toEpochMilli(request.startDate()),
+                toEpochMilli(request.endDate()),
                 startHour, endHour);
     }
 
@@ -160,10 +229,7 @@ public class reportGenerator {
      * @param targetIncome Target monthly income in dollars
      */
     public void setTargetMonthlyIncome(float targetIncome) {
-        if (targetIncome < 0) {
-            throw new IllegalArgumentException("Target income must be non-negative");
-        }
-        this.targetMonthlyIncome = targetIncome;
+        currentPlan = currentPlan.withTargetMonthlyIncome(targetIncome);
     }
 
     /**
@@ -172,10 +238,7 @@ public class reportGenerator {
      * @param expenses Estimated monthly expenses in dollars
      */
     public void setEstimatedExpenses(float expenses) {
-        if (expenses < 0) {
-            throw new IllegalArgumentException("Expenses must be non-negative");
-        }
-        this.estimatedExpenses = expenses;
+        currentPlan = currentPlan.withEstimatedExpenses(expenses);
     }
 
     /**
@@ -185,10 +248,7 @@ public class reportGenerator {
      * @param otherIncome Other monthly income in dollars
      */
     public void setOtherMonthlyIncome(float otherIncome) {
-        if (otherIncome < 0) {
-            throw new IllegalArgumentException("Other income must be non-negative");
-        }
-        this.otherMonthlyIncome = otherIncome;
+        currentPlan = currentPlan.withOtherMonthlyIncome(otherIncome);
     }
 
     /**
@@ -196,7 +256,7 @@ public class reportGenerator {
      * @return Other monthly income in dollars
      */
     public float getOtherMonthlyIncome() {
-        return this.otherMonthlyIncome;
+        return currentPlan.otherMonthlyIncome();
     }
 
     /**
@@ -205,10 +265,8 @@ public class reportGenerator {
      * @param hours Number of hours to work per day (1-24)
      */
     public void setTargetWorkHoursPerDay(int hours) {
-        if (hours < 1 || hours > 24) {
-            throw new IllegalArgumentException("Hours must be between 1 and 24");
-        }
-        this.targetWorkHoursPerDay = hours;
+        PlanRequest plan = currentPlan;
+        currentPlan = plan.withReport(plan.report().withTargetWorkHoursPerDay(hours));
     }
 
     /**
@@ -218,12 +276,32 @@ public class reportGenerator {
      * @return FinancialPlan containing recommendations and projections
      */
     public FinancialPlan createFinancialPlan() {
+        return createFinancialPlan(currentPlan);
+    }
+
+    /**
+     * Creates the financial plan for a request, or returns the memoized plan if the same request
+     * was answered since the last change to deliveryData.
+     *
+     * @param request The plan parameters
+     * @return FinancialPlan containing recommendations and projections
+     */
+    public FinancialPlan createFinancialPlan(PlanRequest request) {
+        reportDAO.DeliveryWatermark watermark = reportDAO.getDeliveryWatermark();
+        MemoKey key = new MemoKey(request, YearMonth.now(), watermark);
+        return plans.get(key, () -> buildFinancialPlan(request, getReportSnapshot(request.report(), watermark)));
+    }
+
+    private FinancialPlan buildFinancialPlan(PlanRequest request, ReportSnapshot snapshot) {
+        float targetMonthlyIncome = request.targetMonthlyIncome();
+        float estimatedExpenses = request.estimatedExpenses();
+        float otherMonthlyIncome = request.otherMonthlyIncome();
+
         // Get historical data
-        float totalHistoricalEarnings = generalReports.getTotalEarningsFromDB(startDate, endDate);
-        int totalDeliveries = generalReports.getDeliveryCountFromDB(startDate, endDate);
-        
+        float totalHistoricalEarnings = (float) snapshot.totalEarnings();
+
         // Calculate metrics (delivery income only)
-        float dailyAverage = totalHistoricalEarnings / Math.max(1, daysToAnalyze);
+        float dailyAverage = totalHistoricalEarnings / Math.max(1, request.report().daysToAnalyze());
         float projectedDeliveryIncome = dailyAverage * 30;
 
         // Add other income from bank accounts to get total projected income
@@ -236,10 +314,8 @@ public class reportGenerator {
         float additionalDailyRequired = incomeGap > 0 ? incomeGap / 30 : 0;
         
         // Get optimal work schedule
-        String optimalSchedule = calculator.findOptimalWorkHours(
-                targetWorkHoursPerDay,
-                toEpochMilli(startDate),
-                toEpochMilli(endDate));
+        String optimalSchedule = calculator.formatOptimalWorkHours(
+                request.report().targetWorkHoursPerDay(), snapshot.profitByDayAndHour());
         
         // Calculate net profit projection
         float projectedNetProfit = projectedMonthlyIncome - estimatedExpenses;
@@ -298,37 +374,90 @@ public class reportGenerator {
      * @return Formatted report string
      */
     public String exportData() {
-        StringBuilder export = new StringBuilder();
-        export.append("=== Delivery Financial Report ===\n");
-        export.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMATTER)).append("\n");
-        export.append("Analysis Period: ").append(startDate.format(DATE_FORMATTER))
-              .append(" to ").append(endDate.format(DATE_FORMATTER)).append("\n\n");
-
-        DeliveryReportData deliveryData = getDeliveryReportsData();
-        export.append("--- Delivery Summary ---\n");
-        export.append(String.format("Total Deliveries: %d\n", deliveryData.deliveryCount()));
-        export.append(String.format("Total Earnings: $%.2f\n", deliveryData.totalEarnings()));
-        export.append(String.format("Average per Delivery: $%.2f\n", deliveryData.avgEarnings()));
-        export.append("\n");
-
-        GeneralReportData generalData = getGeneralReportsData();
-        export.append("--- Financial Summary ---\n");
-        export.append(String.format("Current Month Income: $%.2f\n", generalData.currentMonthIncome()));
-        export.append(String.format("Projected Monthly Income: $%.2f\n", generalData.projectedMonthlyIncome()));
-        export.append("\n");
-
-        export.append("--- Optimal Schedule ---\n");
-        export.append(deliveryData.optimalHours());
-
+        StringWriter export = new StringWriter();
+        try {
+            exportData(export);
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
         return export.toString();
     }
 
+    /**
+     * Writes the formatted report straight to a writer, section by section.
+     * @param out Where to write the report; it is not flushed or closed
+     */
+    public void exportData(Writer out) throws IOException {
+        exportData(currentPlan.report(), out);
+    }
+
+    /**
+     * Writes the formatted report of a request straight to a writer, section by section.
+     * @param request The report parameters
+     * @param out Where to write the report; it is not flushed or closed
+     */
+    public void exportData(ReportRequest request, Writer out) throws IOException {
+        out.write("=== Delivery Financial Report ===\n");
+        out.write("Generated: " + LocalDateTime.now().format(DATE_FORMATTER) + "\n");
+        out.write("Analysis Period: " + request.startDate().format(DATE_FORMATTER)
+                + " to " + request.endDate().format(DATE_FORMATTER) + "\n\n");
+
+        // One scan feeds both summaries
+        ReportSnapshot snapshot = getReportSnapshot(request);
+
+        DeliveryReportData deliveryData = buildDeliveryReportData(request, snapshot);
+        out.write("--- Delivery Summary ---\n");
+        out.write(String.format("Total Deliveries: %d\n", deliveryData.deliveryCount()));
+        out.write(String.format("Total Earnings: $%.2f\n", deliveryData.totalEarnings()));
+        out.write(String.format("Average per Delivery: $%.2f\n", deliveryData.avgEarnings()));
+        out.write("\n");
+
+        GeneralReportData generalData = buildGeneralReportData(request, snapshot);
+        out.write("--- Financial Summary ---\n");
+        out.write(String.format("Current Month Income: $%.2f\n", generalData.currentMonthIncome()));
+        out.write(String.format("Projected Monthly Income: $%.2f\n", generalData.projectedMonthlyIncome()));
+        out.write("\n");
+
+        out.write("--- Optimal Schedule ---\n");
+        out.write(deliveryData.optimalHours());
+    }
+
     // ==================== Helper Methods ====================
 
     private long toEpochMilli(LocalDateTime dateTime) {
         return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
+    /**
+     * Memo key: a request plus everything else its result depends on.
+     */
+    private static final class MemoKey {
+        private final Object request;
+        private final YearMonth month;
+        private final reportDAO.DeliveryWatermark watermark;
+
+        MemoKey(Object request, YearMonth month, reportDAO.DeliveryWatermark watermark) {
+            this.request = request;
+            this.month = month;
+            this.watermark = watermark;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MemoKey)) return false;
+            MemoKey other = (MemoKey) o;
+            return request.equals(other.request) && month.equals(other.month)
+                    && Objects.equals(watermark, other.watermark);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(request, month, watermark);
+        }
+    }
+
     // ==================== Data Transfer Objects ====================
 
     /**
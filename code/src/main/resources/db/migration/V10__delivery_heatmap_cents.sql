@@ -0,0 +1,14 @@
+-- Integer cents for the heatmap money, as V4 did for deliveryData. deliveryHeatmapDAO adds and
+-- sums these as 64-bit integers, so bucket profit is exact however many deliveries it holds.
+
+ALTER TABLE deliveryHeatmap ADD COLUMN basePayCents INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE deliveryHeatmap ADD COLUMN tipsCents INTEGER NOT NULL DEFAULT 0;
+
+-- Every bucket is a sum of whole-cent amounts, so rounding the REAL total recovers its cents
+UPDATE deliveryHeatmap SET
+    basePayCents = CAST(ROUND(basePay * 100) AS INTEGER),
+    tipsCents = CAST(ROUND(tips * 100) AS INTEGER);
+
+-- Dropped so nothing keeps reading or writing the float totals
+ALTER TABLE deliveryHeatmap DROP COLUMN basePay;
+ALTER TABLE deliveryHeatmap DROP COLUMN tips;
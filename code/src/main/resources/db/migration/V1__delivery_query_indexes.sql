@@ -0,0 +1,13 @@
+-- Secondary indexes for the delivery read paths.
+
+-- reportDAO date-range scans only read the pay columns, so the index covers them
+-- and the table itself is never touched.
+CREATE INDEX IF NOT EXISTS idx_deliveryData_startTime_pay
+    ON deliveryData (startTime, basePay, tips);
+
+-- overviewServiceDAO joins JobsTable -> deliveryData per user and orders by startTime.
+CREATE INDEX IF NOT EXISTS idx_deliveryData_jobsTableId_startTime
+    ON deliveryData (jobsTableId, startTime);
+
+CREATE INDEX IF NOT EXISTS idx_JobsTable_userId_startTime
+    ON JobsTable (userId, startTime);
@@ -0,0 +1,9 @@
+-- Secondary indexes for the "transaction" totals in generalFinancialData and selectBankAccount.
+-- Both filter on an owner column plus transactionType and only read amount, so amount is
+-- included to make the indexes covering.
+
+CREATE INDEX IF NOT EXISTS idx_transaction_userId_type_amount
+    ON "transaction" (userId, transactionType, amount);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_bankAccountId_type_amount
+    ON "transaction" (bankAccountId, transactionType, amount);
@@ -0,0 +1,20 @@
+-- Per-user weekday x hour rollup of deliveries, maintained by deliveryHeatmapDAO on every insert.
+-- weekStart is the local epoch day of the Monday that starts the ISO week, dayOfWeek is 0 (Monday) to 6,
+-- so any whole-week range is answered from at most 168 rows per week instead of the raw table.
+
+CREATE TABLE IF NOT EXISTS deliveryHeatmap (
+    userId INTEGER NOT NULL,
+    weekStart INTEGER NOT NULL,
+    dayOfWeek INTEGER NOT NULL,
+    hour INTEGER NOT NULL,
+    deliveryCount INTEGER NOT NULL DEFAULT 0,
+    basePay REAL NOT NULL DEFAULT 0,
+    tips REAL NOT NULL DEFAULT 0,
+    waitMinutes INTEGER NOT NULL DEFAULT 0,
+    miles INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (userId, weekStart, dayOfWeek, hour)
+) WITHOUT ROWID;
+
+-- Range queries across all users
+CREATE INDEX IF NOT EXISTS idx_deliveryHeatmap_weekStart
+    ON deliveryHeatmap (weekStart);
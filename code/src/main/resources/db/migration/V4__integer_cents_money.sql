@@ -0,0 +1,97 @@
+-- Integer cents twins of the money columns. Totals are summed from these, so they are exact and
+-- SQLite adds them as 64-bit integers. The REAL columns stay for display and for older callers.
+
+ALTER TABLE deliveryData ADD COLUMN basePayCents INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE deliveryData ADD COLUMN tipsCents INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE deliveryData ADD COLUMN extraExpensesCents INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE "transaction" ADD COLUMN amountCents INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE bankAccount ADD COLUMN balanceCents INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE bankAccount ADD COLUMN accountFeesCents INTEGER NOT NULL DEFAULT 0;
+
+UPDATE deliveryData SET
+    basePayCents = CAST(ROUND(COALESCE(basePay, 0) * 100) AS INTEGER),
+    tipsCents = CAST(ROUND(COALESCE(tips, 0) * 100) AS INTEGER),
+    extraExpensesCents = CAST(ROUND(COALESCE(extraExpenses, 0) * 100) AS INTEGER);
+
+UPDATE "transaction" SET amountCents = CAST(ROUND(COALESCE(amount, 0) * 100) AS INTEGER);
+
+UPDATE bankAccount SET
+    balanceCents = CAST(ROUND(COALESCE(balance, 0) * 100) AS INTEGER),
+    accountFeesCents = CAST(ROUND(COALESCE(accountFees, 0) * 100) AS INTEGER);
+
+-- Writers that only set the REAL columns get their cents filled in here. Writers that already
+-- pass matching cents (the DAOs, batch import, the generator) fail the WHEN and pay nothing extra.
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_cents_insert AFTER INSERT ON deliveryData
+WHEN NEW.basePayCents IS NOT CAST(ROUND(COALESCE(NEW.basePay, 0) * 100) AS INTEGER)
+  OR NEW.tipsCents IS NOT CAST(ROUND(COALESCE(NEW.tips, 0) * 100) AS INTEGER)
+  OR NEW.extraExpensesCents IS NOT CAST(ROUND(COALESCE(NEW.extraExpenses, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE deliveryData SET
+        basePayCents = CAST(ROUND(COALESCE(NEW.basePay, 0) * 100) AS INTEGER),
+        tipsCents = CAST(ROUND(COALESCE(NEW.tips, 0) * 100) AS INTEGER),
+        extraExpensesCents = CAST(ROUND(COALESCE(NEW.extraExpenses, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_cents_update AFTER UPDATE OF basePay, tips, extraExpenses ON deliveryData
+WHEN NEW.basePayCents IS NOT CAST(ROUND(COALESCE(NEW.basePay, 0) * 100) AS INTEGER)
+  OR NEW.tipsCents IS NOT CAST(ROUND(COALESCE(NEW.tips, 0) * 100) AS INTEGER)
+  OR NEW.extraExpensesCents IS NOT CAST(ROUND(COALESCE(NEW.extraExpenses, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE deliveryData SET
+        basePayCents = CAST(ROUND(COALESCE(NEW.basePay, 0) * 100) AS INTEGER),
+        tipsCents = CAST(ROUND(COALESCE(NEW.tips, 0) * 100) AS INTEGER),
+        extraExpensesCents = CAST(ROUND(COALESCE(NEW.extraExpenses, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_cents_insert AFTER INSERT ON "transaction"
+WHEN NEW.amountCents IS NOT CAST(ROUND(COALESCE(NEW.amount, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE "transaction" SET amountCents = CAST(ROUND(COALESCE(NEW.amount, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_cents_update AFTER UPDATE OF amount ON "transaction"
+WHEN NEW.amountCents IS NOT CAST(ROUND(COALESCE(NEW.amount, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE "transaction" SET amountCents = CAST(ROUND(COALESCE(NEW.amount, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_bankAccount_cents_insert AFTER INSERT ON bankAccount
+WHEN NEW.balanceCents IS NOT CAST(ROUND(COALESCE(NEW.balance, 0) * 100) AS INTEGER)
+  OR NEW.accountFeesCents IS NOT CAST(ROUND(COALESCE(NEW.accountFees, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE bankAccount SET
+        balanceCents = CAST(ROUND(COALESCE(NEW.balance, 0) * 100) AS INTEGER),
+        accountFeesCents = CAST(ROUND(COALESCE(NEW.accountFees, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_bankAccount_cents_update AFTER UPDATE OF balance, accountFees ON bankAccount
+WHEN NEW.balanceCents IS NOT CAST(ROUND(COALESCE(NEW.balance, 0) * 100) AS INTEGER)
+  OR NEW.accountFeesCents IS NOT CAST(ROUND(COALESCE(NEW.accountFees, 0) * 100) AS INTEGER)
+BEGIN
+    UPDATE bankAccount SET
+        balanceCents = CAST(ROUND(COALESCE(NEW.balance, 0) * 100) AS INTEGER),
+        accountFeesCents = CAST(ROUND(COALESCE(NEW.accountFees, 0) * 100) AS INTEGER)
+    WHERE rowid = NEW.rowid;
+END;
+
+-- The covering indexes now carry the cents columns the totals read.
+
+DROP INDEX IF EXISTS idx_deliveryData_startTime_pay;
+CREATE INDEX IF NOT EXISTS idx_deliveryData_startTime_cents
+    ON deliveryData (startTime, basePayCents, tipsCents);
+
+DROP INDEX IF EXISTS idx_transaction_userId_type_amount;
+CREATE INDEX IF NOT EXISTS idx_transaction_userId_type_cents
+    ON "transaction" (userId, transactionType, amountCents);
+
+DROP INDEX IF EXISTS idx_transaction_bankAccountId_type_amount;
+CREATE INDEX IF NOT EXISTS idx_transaction_bankAccountId_type_cents
+    ON "transaction" (bankAccountId, transactionType, amountCents);
@@ -0,0 +1,60 @@
+-- Ledger: account postings carry the balance they left behind, and monthly checkpoint rows hold
+-- each user's and each account's cumulative totals, so totals read a checkpoint plus one month.
+
+ALTER TABLE "transaction" ADD COLUMN balanceAfterCents INTEGER;
+
+-- Totals of every transaction of the owner dated before checkpointDate ('YYYY-MM-DD', a month start).
+-- scope is 'user' (ownerId = userId) or 'account' (ownerId = bankAccountId).
+CREATE TABLE IF NOT EXISTS ledgerCheckpoint (
+    scope TEXT NOT NULL,
+    ownerId INTEGER NOT NULL,
+    checkpointDate TEXT NOT NULL,
+    incomeCents INTEGER NOT NULL,
+    expenseCents INTEGER NOT NULL,
+    netCents INTEGER NOT NULL,
+    transactionCount INTEGER NOT NULL,
+    PRIMARY KEY (scope, ownerId, checkpointDate)
+) WITHOUT ROWID;
+
+-- A transaction written, changed or removed before a checkpoint makes that checkpoint and every
+-- later one stale. They are dropped here, whoever the writer is, and rebuilt on the next read.
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_insert AFTER INSERT ON "transaction"
+WHEN NEW.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId = NEW.userId) OR (scope = 'account' AND ownerId = NEW.bankAccountId))
+      AND checkpointDate > NEW.transactionDate;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_update
+AFTER UPDATE OF userId, bankAccountId, transactionType, amountCents, transactionDate ON "transaction"
+WHEN OLD.transactionDate IS NOT NULL OR NEW.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId IN (OLD.userId, NEW.userId))
+        OR (scope = 'account' AND ownerId IN (OLD.bankAccountId, NEW.bankAccountId)))
+      AND checkpointDate > MIN(COALESCE(OLD.transactionDate, NEW.transactionDate),
+                               COALESCE(NEW.transactionDate, OLD.transactionDate));
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_delete AFTER DELETE ON "transaction"
+WHEN OLD.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId = OLD.userId) OR (scope = 'account' AND ownerId = OLD.bankAccountId))
+      AND checkpointDate > OLD.transactionDate;
+END;
+
+-- The tail after a checkpoint is a date range per owner; these two cover it.
+
+CREATE INDEX IF NOT EXISTS idx_transaction_userId_date
+    ON "transaction" (userId, transactionDate, transactionType, amountCents);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_bankAccountId_date
+    ON "transaction" (bankAccountId, transactionDate, transactionType, amountCents);
+
+-- Balance as of a date is the running balance of the last posting on or before it: one seek here.
+CREATE INDEX IF NOT EXISTS idx_transaction_ledger_postings
+    ON "transaction" (bankAccountId, transactionDate, transactionId)
+    WHERE balanceAfterCents IS NOT NULL;
@@ -0,0 +1,73 @@
+-- transactionDate is declared BIGINT but was written as 'YYYY-MM-DD' text by date('now'). It now
+-- holds epoch milliseconds like every other timestamp, so date windows are numeric range scans on
+-- the (userId, transactionDate) and (bankAccountId, transactionDate) indexes from V5, and the rows of
+-- one day keep the order they were written in.
+
+-- Checkpoints are derived data keyed by date; they are dropped here and rebuilt on the next read.
+DROP TRIGGER IF EXISTS trg_transaction_ledger_insert;
+DROP TRIGGER IF EXISTS trg_transaction_ledger_update;
+DROP TRIGGER IF EXISTS trg_transaction_ledger_delete;
+DROP TABLE IF EXISTS ledgerCheckpoint;
+
+-- Text dates are read as local time, the same zone the reports use with 'localtime'. Text that is
+-- not a date is left as it is.
+UPDATE "transaction"
+SET transactionDate = CAST(strftime('%s', transactionDate, 'utc') AS INTEGER) * 1000
+WHERE typeof(transactionDate) = 'text' AND strftime('%s', transactionDate, 'utc') IS NOT NULL;
+
+-- Totals of every transaction of the owner dated before checkpointTime (epoch ms of a month start).
+-- scope is 'user' (ownerId = userId) or 'account' (ownerId = bankAccountId).
+CREATE TABLE IF NOT EXISTS ledgerCheckpoint (
+    scope TEXT NOT NULL,
+    ownerId INTEGER NOT NULL,
+    checkpointTime INTEGER NOT NULL,
+    incomeCents INTEGER NOT NULL,
+    expenseCents INTEGER NOT NULL,
+    netCents INTEGER NOT NULL,
+    transactionCount INTEGER NOT NULL,
+    PRIMARY KEY (scope, ownerId, checkpointTime)
+) WITHOUT ROWID;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_insert AFTER INSERT ON "transaction"
+WHEN NEW.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId = NEW.userId) OR (scope = 'account' AND ownerId = NEW.bankAccountId))
+      AND checkpointTime > NEW.transactionDate;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_update
+AFTER UPDATE OF userId, bankAccountId, transactionType, amountCents, transactionDate ON "transaction"
+WHEN OLD.transactionDate IS NOT NULL OR NEW.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId IN (OLD.userId, NEW.userId))
+        OR (scope = 'account' AND ownerId IN (OLD.bankAccountId, NEW.bankAccountId)))
+      AND checkpointTime > MIN(COALESCE(OLD.transactionDate, NEW.transactionDate),
+                               COALESCE(NEW.transactionDate, OLD.transactionDate));
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_ledger_delete AFTER DELETE ON "transaction"
+WHEN OLD.transactionDate IS NOT NULL
+BEGIN
+    DELETE FROM ledgerCheckpoint
+    WHERE ((scope = 'user' AND ownerId = OLD.userId) OR (scope = 'account' AND ownerId = OLD.bankAccountId))
+      AND checkpointTime > OLD.transactionDate;
+END;
+
+-- Screens and raw SQL that still write 'YYYY-MM-DD' text are converted as they write. Writers that
+-- pass epoch milliseconds fail the WHEN and pay nothing extra.
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_date_insert AFTER INSERT ON "transaction"
+WHEN typeof(NEW.transactionDate) = 'text' AND strftime('%s', NEW.transactionDate, 'utc') IS NOT NULL
+BEGIN
+    UPDATE "transaction" SET transactionDate = CAST(strftime('%s', NEW.transactionDate, 'utc') AS INTEGER) * 1000
+    WHERE rowid = NEW.rowid;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_transaction_date_update AFTER UPDATE OF transactionDate ON "transaction"
+WHEN typeof(NEW.transactionDate) = 'text' AND strftime('%s', NEW.transactionDate, 'utc') IS NOT NULL
+BEGIN
+    UPDATE "transaction" SET transactionDate = CAST(strftime('%s', NEW.transactionDate, 'utc') AS INTEGER) * 1000
+    WHERE rowid = NEW.rowid;
+END;
@@ -0,0 +1,68 @@
+-- Per-user delivery rollups by local day, ISO week and month, split by platform, maintained by
+-- deliveryRollupDAO on every insert. periodStart is the local epoch day of the first day of the
+-- period (the Monday for weeks), so a three-year range is about 36 month rows per platform.
+
+CREATE TABLE IF NOT EXISTS deliveryRollup (
+    userId INTEGER NOT NULL,
+    grain TEXT NOT NULL,
+    periodStart INTEGER NOT NULL,
+    platform TEXT NOT NULL,
+    deliveryCount INTEGER NOT NULL DEFAULT 0,
+    basePayCents INTEGER NOT NULL DEFAULT 0,
+    tipsCents INTEGER NOT NULL DEFAULT 0,
+    miles INTEGER NOT NULL DEFAULT 0,
+    waitMinutes INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (userId, grain, periodStart, platform)
+) WITHOUT ROWID;
+
+-- Range queries across all users
+CREATE INDEX IF NOT EXISTS idx_deliveryRollup_grain_periodStart
+    ON deliveryRollup (grain, periodStart);
+
+-- Days whose rollup rows no longer match deliveryData. Inserts go through the write hook; edits,
+-- deletes and work periods changing hands are recorded here, whoever the writer is, and the
+-- refresh job recomputes those days and the weeks and months around them.
+CREATE TABLE IF NOT EXISTS deliveryRollupStale (
+    userId INTEGER NOT NULL,
+    epochDay INTEGER NOT NULL,
+    PRIMARY KEY (userId, epochDay)
+) WITHOUT ROWID;
+
+-- Only the REAL pay columns are watched: the V4 triggers fill the cents columns on insert, which
+-- must not mark every new delivery stale.
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_rollup_update
+AFTER UPDATE OF startTime, basePay, tips, miles, timeSpentWaiting, platform, jobsTableId ON deliveryData
+BEGIN
+    INSERT OR IGNORE INTO deliveryRollupStale (userId, epochDay)
+    SELECT j.userId, CAST(julianday(OLD.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+    FROM JobsTable j WHERE j.jobsId = OLD.jobsTableId AND j.userId IS NOT NULL AND OLD.startTime IS NOT NULL
+    UNION
+    SELECT j.userId, CAST(julianday(NEW.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+    FROM JobsTable j WHERE j.jobsId = NEW.jobsTableId AND j.userId IS NOT NULL AND NEW.startTime IS NOT NULL;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_rollup_delete AFTER DELETE ON deliveryData
+WHEN OLD.startTime IS NOT NULL
+BEGIN
+    INSERT OR IGNORE INTO deliveryRollupStale (userId, epochDay)
+    SELECT j.userId, CAST(julianday(OLD.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+    FROM JobsTable j WHERE j.jobsId = OLD.jobsTableId AND j.userId IS NOT NULL;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_JobsTable_rollup_update AFTER UPDATE OF userId ON JobsTable
+WHEN OLD.userId IS NOT NEW.userId
+BEGIN
+    INSERT OR IGNORE INTO deliveryRollupStale (userId, epochDay)
+    SELECT u.userId, CAST(julianday(d.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+    FROM deliveryData d, (SELECT OLD.userId AS userId UNION SELECT NEW.userId) u
+    WHERE d.jobsTableId = NEW.jobsId AND d.startTime IS NOT NULL AND u.userId IS NOT NULL;
+END;
+
+-- Before, not after: the cascade removes the deliveries and their work period together
+CREATE TRIGGER IF NOT EXISTS trg_JobsTable_rollup_delete BEFORE DELETE ON JobsTable
+WHEN OLD.userId IS NOT NULL
+BEGIN
+    INSERT OR IGNORE INTO deliveryRollupStale (userId, epochDay)
+    SELECT OLD.userId, CAST(julianday(d.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+    FROM deliveryData d WHERE d.jobsTableId = OLD.jobsId AND d.startTime IS NOT NULL;
+END;
@@ -0,0 +1,24 @@
+-- A counter bumped by every insert, update and delete on deliveryData, so report memos can tell
+-- whether the table changed with one primary-key read instead of counting its rows.
+
+CREATE TABLE IF NOT EXISTS deliveryDataVersion (
+    id INTEGER PRIMARY KEY CHECK (id = 0),
+    version INTEGER NOT NULL
+);
+
+INSERT OR IGNORE INTO deliveryDataVersion (id, version) VALUES (0, 0);
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_version_insert AFTER INSERT ON deliveryData
+BEGIN
+    UPDATE deliveryDataVersion SET version = version + 1 WHERE id = 0;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_version_update AFTER UPDATE ON deliveryData
+BEGIN
+    UPDATE deliveryDataVersion SET version = version + 1 WHERE id = 0;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_version_delete AFTER DELETE ON deliveryData
+BEGIN
+    UPDATE deliveryDataVersion SET version = version + 1 WHERE id = 0;
+END;
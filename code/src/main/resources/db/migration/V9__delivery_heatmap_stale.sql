@@ -0,0 +1,52 @@
+-- ISO weeks whose deliveryHeatmap rows no longer match deliveryData. Inserts go through the
+-- write hook; edits, deletes and work periods changing hands are recorded here, and
+-- deliveryHeatmapDAO.refreshStale recomputes those weeks. weekStart is the local epoch day of the
+-- Monday, as in deliveryHeatmap (epoch day 0 was a Thursday, hence the + 10).
+
+CREATE TABLE IF NOT EXISTS deliveryHeatmapStale (
+    userId INTEGER NOT NULL,
+    weekStart INTEGER NOT NULL,
+    PRIMARY KEY (userId, weekStart)
+) WITHOUT ROWID;
+
+-- Only the REAL pay columns are watched, so the V4 cents fill-in on insert does not mark weeks
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_heatmap_update
+AFTER UPDATE OF startTime, basePay, tips, miles, timeSpentWaiting, jobsTableId ON deliveryData
+BEGIN
+    INSERT OR IGNORE INTO deliveryHeatmapStale (userId, weekStart)
+    SELECT userId, day - ((day % 7 + 10) % 7) FROM (
+        SELECT j.userId AS userId, CAST(julianday(OLD.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER) AS day
+        FROM JobsTable j WHERE j.jobsId = OLD.jobsTableId AND j.userId IS NOT NULL AND OLD.startTime IS NOT NULL
+        UNION
+        SELECT j.userId, CAST(julianday(NEW.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)
+        FROM JobsTable j WHERE j.jobsId = NEW.jobsTableId AND j.userId IS NOT NULL AND NEW.startTime IS NOT NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_deliveryData_heatmap_delete AFTER DELETE ON deliveryData
+WHEN OLD.startTime IS NOT NULL
+BEGIN
+    INSERT OR IGNORE INTO deliveryHeatmapStale (userId, weekStart)
+    SELECT userId, day - ((day % 7 + 10) % 7) FROM (
+        SELECT j.userId AS userId, CAST(julianday(OLD.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER) AS day
+        FROM JobsTable j WHERE j.jobsId = OLD.jobsTableId AND j.userId IS NOT NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_JobsTable_heatmap_update AFTER UPDATE OF userId ON JobsTable
+WHEN OLD.userId IS NOT NEW.userId
+BEGIN
+    INSERT OR IGNORE INTO deliveryHeatmapStale (userId, weekStart)
+    SELECT userId, day - ((day % 7 + 10) % 7) FROM (
+        SELECT u.userId AS userId, CAST(julianday(d.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER) AS day
+        FROM deliveryData d, (SELECT OLD.userId AS userId UNION SELECT NEW.userId) u
+        WHERE d.jobsTableId = NEW.jobsId AND d.startTime IS NOT NULL AND u.userId IS NOT NULL);
+END;
+
+-- Before, not after: the cascade removes the deliveries and their work period together
+CREATE TRIGGER IF NOT EXISTS trg_JobsTable_heatmap_delete BEFORE DELETE ON JobsTable
+WHEN OLD.userId IS NOT NULL
+BEGIN
+    INSERT OR IGNORE INTO deliveryHeatmapStale (userId, weekStart)
+    SELECT userId, day - ((day % 7 + 10) % 7) FROM (
+        SELECT OLD.userId AS userId, CAST(julianday(d.startTime / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER) AS day
+        FROM deliveryData d WHERE d.jobsTableId = OLD.jobsId AND d.startTime IS NOT NULL);
+END;
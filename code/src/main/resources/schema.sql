@@ -18,6 +18,7 @@ CREATE TABLE IF NOT EXISTS JobsTable (
     endTime BIGINT,
     vehicle VARCHAR(45),
     totalEarnings REAL DEFAULT 0.0,
+    totalVehicleMiles INTEGER,
     FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE
 );
 
@@ -54,14 +55,16 @@ CREATE TABLE IF NOT EXISTS bankAccount (
 
 -- Transaction table
 CREATE TABLE IF NOT EXISTS "transaction" (
-    idTransaction INTEGER PRIMARY KEY AUTOINCREMENT,
+    transactionId INTEGER PRIMARY KEY AUTOINCREMENT,
     userId INTEGER NOT NULL,
     transactionType VARCHAR(50),
     amount REAL DEFAULT 0.0,
     description TEXT,
     transactionDate BIGINT,
     category VARCHAR(50),
-    FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE
+    bankAccountId INTEGER,
+    FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE,
+    FOREIGN KEY (bankAccountId) REFERENCES bankAccount(idbankAccount) ON DELETE SET NULL
 );
 
 -- Vehicle table
@@ -97,3 +100,5 @@ CREATE TABLE IF NOT EXISTS netValue (
     FOREIGN KEY (userId) REFERENCES userAccount(userID) ON DELETE CASCADE
 );
 
+-- Secondary indexes and later schema changes are applied as versioned
+-- migrations from db/migration (see org.example.SchemaMigrator).
@@ -0,0 +1,106 @@
+package org.example;
+
+import org.example.manageFinances.src.generalFinancialData;
+import org.example.reportGenerator.src.reportDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("money.db"));
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO JobsTable (jobsId, userId, startTime, endTime) VALUES (1, 1, 0, 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testConversionsRoundHalfAwayFromZero() {
+        assertEquals(1999, Money.toCents(19.99f));
+        assertEquals(-1999, Money.toCents(-19.99f));
+        assertEquals(1, Money.toCents(0.005));
+        assertEquals(-1, Money.toCents(-0.005));
+        assertEquals("-12.05", Money.ofCents(-1205).toString());
+        assertEquals("0.07", Money.of(0.07).toString());
+        assertEquals(Money.of(10.10), Money.ofCents(505).plus(Money.of(5.05)));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Float.NaN));
+
+        // A float running sum of 0.10 drifts; the cents sum does not
+        float[] dimes = new float[100_000];
+        Arrays.fill(dimes, 0.10f);
+        assertEquals(1_000_000, Money.sumCents(dimes));
+    }
+
+    @Test
+    void testTriggersFillCentsForWritersThatOnlySetReals() {
+        // Raw SQL the way older screens write, without the cents columns
+        jdbcTemplate.update("INSERT INTO deliveryData (basePay, tips, extraExpenses, startTime, jobsTableId) VALUES (?, ?, ?, 0, 1)",
+                3.3f, 0.7f, 1.25);
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionType) VALUES (1, -12.34, 'purchase')");
+        jdbcTemplate.update("INSERT INTO bankAccount (userId, balance, accountFees) VALUES (1, 100.01, 2.5)");
+
+        assertEquals(List.of(330L, 70L, 125L), jdbcTemplate.queryForObject(
+                "SELECT basePayCents, tipsCents, extraExpensesCents FROM deliveryData",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3))));
+        assertEquals(-1234L, jdbcTemplate.queryForObject("SELECT amountCents FROM \"transaction\"", Long.class));
+        assertEquals(10001L, jdbcTemplate.queryForObject("SELECT balanceCents FROM bankAccount", Long.class));
+
+        // Updates of the REAL column are followed too
+        jdbcTemplate.update("UPDATE bankAccount SET balance = 0.1 + 0.2");
+        assertEquals(30L, jdbcTemplate.queryForObject("SELECT balanceCents FROM bankAccount", Long.class));
+        jdbcTemplate.update("UPDATE deliveryData SET tips = 2.675");
+        assertEquals(268L, jdbcTemplate.queryForObject("SELECT tipsCents FROM deliveryData", Long.class));
+    }
+
+    @Test
+    void testTotalsAreExactIntegerSums() {
+        long start = LocalDateTime.of(2024, 1, 1, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<Object[]> deliveries = new ArrayList<>();
+        List<Object[]> transactions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            deliveries.add(new Object[]{0.10f, 0.01f, start + i});
+            transactions.add(new Object[]{0.10f});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO deliveryData (basePay, tips, startTime, jobsTableId) VALUES (?, ?, ?, 1)", deliveries);
+        jdbcTemplate.batchUpdate("INSERT INTO \"transaction\" (userId, amount, transactionType) VALUES (1, ?, 'other income')", transactions);
+
+        reportDAO dao = new reportDAO();
+        ReflectionTestUtils.setField(dao, "readJdbcTemplate", jdbcTemplate);
+        reportDAO.DeliveryTotals totals = dao.getDeliveryTotalsByDateRange(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertEquals(2_000, totals.deliveryCount());
+        assertEquals(20_000, totals.basePayCents());
+        assertEquals(2_000, totals.tipsCents());
+        assertEquals(220.0, totals.totalEarnings());
+
+        generalFinancialData finances = new generalFinancialData();
+        ReflectionTestUtils.setField(finances, "readJdbcTemplate", jdbcTemplate);
+        assertEquals(20_000, finances.getTotalIncomeCents(1));
+        assertEquals(200f, finances.getTotalIncome(1));
+    }
+}
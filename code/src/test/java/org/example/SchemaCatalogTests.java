@@ -0,0 +1,110 @@
+package org.example;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.reportGenerator.src.reportDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaCatalogTests {
+
+    @TempDir
+    Path tempDir;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SchemaCatalog catalog;
+    private reportDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        // A single pooled connection, as in the writer pool: a leaked connection would block the next call
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("catalog.db"));
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(2_000);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        catalog = new SchemaCatalog(jdbcTemplate);
+        DatabaseInitializer initializer = new DatabaseInitializer(jdbcTemplate);
+        ReflectionTestUtils.setField(initializer, "schemaCatalog", catalog);
+        initializer.run();
+
+        dao = new reportDAO();
+        ReflectionTestUtils.setField(dao, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(dao, "schemaCatalog", catalog);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testCatalogListsTablesAndColumnTypes() {
+        assertEquals(SchemaCatalog.Dialect.SQLITE, catalog.getDialect());
+        assertTrue(catalog.getTableNames().containsAll(List.of("deliveryData", "JobsTable", "transaction", "deliveryHeatmap")));
+        assertEquals("BIGINT", catalog.getColumnType("deliveryData", "startTime"));
+        assertEquals("startTime", catalog.getColumnName("DELIVERYDATA", "starttime"));
+        assertNull(catalog.getColumnType("deliveryData", "noSuchColumn"));
+        assertFalse(catalog.hasTable("noSuchTable"));
+
+        // Schema changes become visible on refresh
+        jdbcTemplate.execute("ALTER TABLE deliveryData ADD COLUMN pickupDate DATE");
+        assertFalse(catalog.hasColumn("deliveryData", "pickupDate"));
+        catalog.refresh();
+        assertEquals("DATE", catalog.getColumnType("deliveryData", "pickupDate"));
+    }
+
+    @Test
+    void testDatestampsAreBucketedByDayWithoutHoldingConnections() {
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO JobsTable (jobsId, userId, startTime) VALUES (1, 1, 0)");
+        LocalDate first = LocalDate.of(2024, 5, 1);
+        for (int i = 0; i < 6; i++) {
+            LocalDateTime start = first.plusDays(i / 2).atTime(9 + i, 0);
+            jdbcTemplate.update("INSERT INTO deliveryData (startTime, jobsTableId) VALUES (?, 1)",
+                    start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        // Far more calls than the pool has connections
+        for (int i = 0; i < 10; i++) {
+            assertEquals(List.of(first, first.plusDays(1), first.plusDays(2)),
+                    dao.getDatestampsFromTable("deliveryData", "startTime"));
+        }
+
+        String plan = String.join(" | ", jdbcTemplate.query(
+                "EXPLAIN QUERY PLAN SELECT date(startTime / 1000, 'unixepoch', 'localtime') AS d FROM deliveryData " +
+                        "WHERE startTime IS NOT NULL GROUP BY d", (rs, rowNum) -> rs.getString("detail")));
+        assertTrue(plan.contains("COVERING INDEX"), plan);
+    }
+
+    @Test
+    void testTextDatesAndInvalidColumns() {
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        // Writers that still pass 'YYYY-MM-DD' text get it converted to epoch milliseconds
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, '2024-02-03')");
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, '2024-02-01')");
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, '2024-02-03')");
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 3)),
+                dao.getDatestampsFromTable("transaction", "transactionDate"));
+
+        assertThrows(IllegalArgumentException.class, () -> dao.getDatestampsFromTable("deliveryData", "platform"));
+        assertThrows(IllegalArgumentException.class, () -> dao.getDatestampsFromTable("deliveryData; DROP TABLE x", "startTime"));
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTests {
+
+    @TempDir
+    Path tempDir;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SchemaMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + tempDir.resolve("test.db"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrator = new SchemaMigrator(jdbcTemplate);
+
+        // Create the base tables exactly as application startup does
+        DatabaseInitializer initializer = new DatabaseInitializer();
+        ReflectionTestUtils.setField(initializer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(initializer, "schemaMigrator", migrator);
+        initializer.run();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void testMigrationsAreRecordedAndSkippedOnRestart() {
+        int latest = migrator.loadMigrations().size();
+        assertTrue(latest >= 2);
+        assertEquals(latest, migrator.getCurrentVersion());
+
+        // A second startup must not re-run any DDL
+        assertEquals(0, migrator.migrate());
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_version", Integer.class);
+        assertEquals(latest, rows);
+    }
+
+    @Test
+    void testEditedMigrationStopsStartup() {
+        jdbcTemplate.update("UPDATE schema_version SET checksum = checksum + 1 WHERE version = 1");
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> migrator.migrate());
+        assertTrue(error.getMessage().contains("V1"), error.getMessage());
+
+        DatabaseInitializer initializer = new DatabaseInitializer(jdbcTemplate);
+        assertThrows(IllegalStateException.class, initializer::run);
+    }
+
+    @Test
+    void testDeliveryRangeScanUsesCoveringIndex() {
+        String plan = explain("SELECT basePayCents, tipsCents, startTime FROM deliveryData WHERE startTime BETWEEN 1 AND 2");
+        assertTrue(plan.contains("COVERING INDEX idx_deliveryData_startTime_cents"), plan);
+    }
+
+    @Test
+    void testOverviewJoinUsesUserAndJobIndexes() {
+        String plan = explain("SELECT COUNT(*) FROM deliveryData d " +
+                "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId WHERE j.userId = 1");
+        assertTrue(plan.contains("idx_JobsTable_userId_startTime"), plan);
+        assertTrue(plan.contains("idx_deliveryData_jobsTableId_startTime"), plan);
+        assertFalse(plan.contains("SCAN d"), plan);
+    }
+
+    @Test
+    void testTransactionTotalsUseCoveringIndexes() {
+        String byUser = explain("SELECT SUM(amountCents) FROM \"transaction\" " +
+                "WHERE userId = 1 AND transactionType IN ('delivery income', 'other income')");
+        assertTrue(byUser.contains("COVERING INDEX idx_transaction_userId_type_cents"), byUser);
+
+        String byAccount = explain("SELECT SUM(ABS(amountCents)) FROM \"transaction\" " +
+                "WHERE bankAccountId = 1 AND transactionType IN ('purchase', 'withdrawal')");
+        assertTrue(byAccount.contains("COVERING INDEX idx_transaction_bankAccountId_type_cents"), byAccount);
+    }
+
+    @Test
+    void testTriggerBodiesAreNotSplit() {
+        List<String> statements = SchemaMigrator.splitStatements(
+                "CREATE INDEX a ON t (x);\n" +
+                "-- comment;\n" +
+                "CREATE TRIGGER IF NOT EXISTS trg AFTER INSERT ON t\nBEGIN\n" +
+                "    UPDATE t SET y = 1 WHERE rowid = NEW.rowid;\n" +
+                "    UPDATE t SET z = 2 WHERE rowid = NEW.rowid;\n" +
+                "END;\n" +
+                "DROP INDEX b;");
+        assertEquals(3, statements.size(), statements.toString());
+        assertTrue(statements.get(1).startsWith("CREATE TRIGGER"), statements.get(1));
+        assertTrue(statements.get(1).endsWith("END"), statements.get(1));
+        assertEquals("DROP INDEX b", statements.get(2));
+    }
+
+    private String explain(String sql) {
+        List<String> details = jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail"));
+        return String.join("\n", details);
+    }
+}
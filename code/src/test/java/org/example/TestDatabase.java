@@ -0,0 +1,46 @@
+package org.example;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * A SQLite file for DAO tests, created and migrated by DatabaseInitializer the way the application
+ * does on startup. Everything runs on one connection, so the writer and reader templates the DAOs
+ * take can both be jdbcTemplate().
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private final SingleConnectionDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private TestDatabase(Path file) {
+        this.dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + file, true);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Opens (or creates) the database file and brings its schema up to date.
+     *
+     * @param file Database file, usually under a JUnit @TempDir
+     */
+    public static TestDatabase create(Path file) {
+        TestDatabase database = new TestDatabase(file);
+        new DatabaseInitializer(database.jdbcTemplate).run();
+        return database;
+    }
+
+    public SingleConnectionDataSource dataSource() { return dataSource; }
+    public JdbcTemplate jdbcTemplate() { return jdbcTemplate; }
+    public TransactionTemplate transactionTemplate() { return transactionTemplate; }
+
+    @Override
+    public void close() {
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAggregateCacheTests {
+
+    @Test
+    void testHitsMissesAndEviction() {
+        UserAggregateCache cache = new UserAggregateCache(2);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(10f, cache.get(1, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> { loads.incrementAndGet(); return 10f; }));
+        assertEquals(10f, cache.get(1, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> { loads.incrementAndGet(); return 99f; }));
+        assertEquals(1, loads.get());
+
+        // Touch user 1 so user 2 is the least recently used when user 3 is added
+        cache.get(2, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> 20f);
+        cache.get(1, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> 99f);
+        cache.get(3, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> 30f);
+        assertEquals(21f, cache.get(2, UserAggregateCache.Aggregate.TOTAL_ASSETS, () -> 21f));
+
+        UserAggregateCache.Stats stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void testInvalidationIsPreciseAndDropsStaleLoads() {
+        UserAggregateCache cache = new UserAggregateCache(16);
+        cache.get(1, UserAggregateCache.Aggregate.TOTAL_EXPENSE, () -> -5f);
+        cache.get(1, UserAggregateCache.Aggregate.TOTAL_INCOME, () -> 50f);
+        cache.get(2, UserAggregateCache.Aggregate.TOTAL_EXPENSE, () -> -7f);
+
+        cache.invalidate(1, UserAggregateCache.Aggregate.TOTAL_EXPENSE);
+        assertEquals(-6f, cache.get(1, UserAggregateCache.Aggregate.TOTAL_EXPENSE, () -> -6f));
+        assertEquals(50f, cache.get(1, UserAggregateCache.Aggregate.TOTAL_INCOME, () -> 0f));
+        assertEquals(-7f, cache.get(2, UserAggregateCache.Aggregate.TOTAL_EXPENSE, () -> 0f));
+
+        // A write that lands while a load is running must not leave the loaded value cached
+        assertEquals(1, (int) cache.get(1, UserAggregateCache.Aggregate.DELIVERY_COUNT, () -> {
+            cache.invalidate(1, UserAggregateCache.Aggregate.DELIVERIES);
+            return 1;
+        }));
+        assertEquals(2, (int) cache.get(1, UserAggregateCache.Aggregate.DELIVERY_COUNT, () -> 2));
+    }
+}
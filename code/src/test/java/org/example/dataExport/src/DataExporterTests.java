@@ -0,0 +1,100 @@
+package org.example.dataExport.src;
+
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataExporterTests {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private dataExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("export.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        exporter = new dataExporter(jdbcTemplate);
+
+        // 30 days of history for two users, one work period and five deliveries per user per day
+        jdbcTemplate.execute("BEGIN");
+        for (int day = 0; day < 30; day++) {
+            for (int user = 1; user <= 2; user++) {
+                long dayStart = FIRST_DAY.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+                jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime) VALUES (?, ?, ?)",
+                        user, dayStart + 36_000_000L, dayStart + 72_000_000L);
+                Long jobsId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+                for (int i = 0; i < 5; i++) {
+                    jdbcTemplate.update("INSERT INTO deliveryData (startTime, basePay, tips, platform, resturant, jobsTableId) " +
+                                    "VALUES (?, ?, ?, 'DoorDash', ?, ?)",
+                            dayStart + 36_000_000L + i * 600_000L, 5.5, 2, i == 0 ? "Tacos, \"Best\" in town" : "Diner", jobsId);
+                }
+                jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate) " +
+                        "VALUES (?, 40.0, 'delivery income', ?)", user, dayStart + 43_200_000L);
+            }
+        }
+        jdbcTemplate.execute("COMMIT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCsvExportFiltersByRangeAndUser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exporter.export(dataExporter.Dataset.DELIVERIES, dataExporter.Format.CSV,
+                FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(19), 1, ZoneOffset.UTC, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(50, rows);
+        assertEquals(51, lines.length);
+        assertTrue(lines[0].startsWith("deliveryId,jobsTableId,startTime,endTime,miles,basePay,tips"), lines[0]);
+        assertTrue(lines[1].contains(",\"Tacos, \"\"Best\"\" in town\","), lines[1]);
+
+        ByteArrayOutputStream allUsers = new ByteArrayOutputStream();
+        assertEquals(20, exporter.export(dataExporter.Dataset.WORK_PERIODS, dataExporter.Format.CSV,
+                FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(19), null, ZoneOffset.UTC, false, allUsers));
+        assertEquals(10, exporter.export(dataExporter.Dataset.TRANSACTIONS, dataExporter.Format.CSV,
+                FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(19), 2, ZoneOffset.UTC, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testGzipNdjsonExport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exporter.export(dataExporter.Dataset.DELIVERIES, dataExporter.Format.NDJSON,
+                FIRST_DAY, FIRST_DAY.plusDays(29), null, ZoneOffset.UTC, true, out);
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = text.split("\n");
+        assertEquals(300, rows);
+        assertEquals(300, lines.length);
+        assertTrue(lines[0].startsWith("{\"deliveryId\":1,\"jobsTableId\":1,"), lines[0]);
+        assertTrue(lines[0].contains("\"basePay\":5.5,"), lines[0]);
+        assertTrue(lines[0].contains("\"endTime\":null,"), lines[0]);
+        assertTrue(lines[0].contains("\"resturant\":\"Tacos, \\\"Best\\\" in town\""), lines[0]);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.dataGenerator.src;
+
+import org.example.DatabaseInitializer;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTests {
+
+    private static final String[] TABLES = {
+            "userAccount", "vehicle", "bankAccount", "JobsTable", "deliveryData", "\"transaction\"", "deliveryHeatmap"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameSeedWritesSameRows() {
+        List<List<Map<String, Object>>> first = generate("first.db", options(7), false);
+        List<List<Map<String, Object>>> second = generate("second.db", options(7), true);
+        List<List<Map<String, Object>>> otherSeed = generate("other.db", options(8), false);
+
+        assertEquals(first, second);
+        assertNotEquals(first.get(4), otherSeed.get(4));
+    }
+
+    @Test
+    void testDeliveryTargetIsMetWithConsistentRows() {
+        SingleConnectionDataSource dataSource = open("target.db");
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            List<String> indexes = indexes(jdbcTemplate);
+            syntheticDataGenerator.GenerationReport report = generator(dataSource, jdbcTemplate)
+                    .generate(options(42).setUsers(1).setDays(60).setDeliveries(2500).setDeferIndexes(true));
+
+            // 60 days cannot hold 2500 deliveries for one driver, so more users are added
+            assertEquals(2500, report.getDeliveries());
+            assertTrue(report.getUsers() > 1);
+            assertEquals(2500, count(jdbcTemplate, "SELECT COUNT(*) FROM deliveryData"));
+            assertEquals(2500, count(jdbcTemplate, "SELECT COALESCE(SUM(deliveryCount), 0) FROM deliveryHeatmap"));
+            assertEquals(report.getTransactions(), count(jdbcTemplate, "SELECT COUNT(*) FROM \"transaction\""));
+            assertEquals(indexes, indexes(jdbcTemplate));
+
+            assertTrue(jdbcTemplate.queryForList("PRAGMA foreign_key_check").isEmpty());
+            assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM deliveryData d " +
+                    "WHERE d.startTime < (SELECT startTime FROM JobsTable j WHERE j.jobsId = d.jobsTableId)"));
+
+            // Job earnings are the sum of their deliveries
+            Double mismatch = jdbcTemplate.queryForObject("SELECT MAX(ABS(j.totalEarnings - " +
+                    "(SELECT SUM(basePay + tips) FROM deliveryData d WHERE d.jobsTableId = j.jobsId))) " +
+                    "FROM JobsTable j", Double.class);
+            assertTrue(mismatch != null && mismatch < 0.01, "job earnings off by " + mismatch);
+
+            // Friday to Sunday are busier than Monday to Thursday
+            double weekend = count(jdbcTemplate, "SELECT COUNT(*) FROM deliveryData " +
+                    "WHERE strftime('%w', startTime / 1000, 'unixepoch') IN ('0', '5', '6')") / 3.0;
+            double weekday = count(jdbcTemplate, "SELECT COUNT(*) FROM deliveryData " +
+                    "WHERE strftime('%w', startTime / 1000, 'unixepoch') IN ('1', '2', '3', '4')") / 4.0;
+            assertTrue(weekend > weekday, weekend + " vs " + weekday);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static syntheticDataGenerator.Options options(long seed) {
+        return new syntheticDataGenerator.Options()
+                .setSeed(seed)
+                .setUsers(3)
+                .setDays(90)
+                .setStartDate(LocalDate.of(2024, 3, 1))
+                .setZone(ZoneId.of("UTC"))
+                .setBatchSize(500);
+    }
+
+    private List<List<Map<String, Object>>> generate(String file, syntheticDataGenerator.Options options,
+                                                     boolean deferIndexes) {
+        SingleConnectionDataSource dataSource = open(file);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            generator(dataSource, jdbcTemplate).generate(options.setDeferIndexes(deferIndexes));
+            List<List<Map<String, Object>>> tables = new ArrayList<>();
+            for (String table : TABLES) {
+                tables.add(jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2, 3, 4"));
+            }
+            return tables;
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private SingleConnectionDataSource open(String file) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:sqlite:" + tempDir.resolve(file) + "?foreign_keys=true", true);
+        new DatabaseInitializer(new JdbcTemplate(dataSource)).run();
+        return dataSource;
+    }
+
+    private static syntheticDataGenerator generator(SingleConnectionDataSource dataSource, JdbcTemplate jdbcTemplate) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        deliveryHeatmapDAO heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+        return new syntheticDataGenerator(jdbcTemplate, transactionTemplate, heatmapDAO);
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL " +
+                "ORDER BY name", String.class);
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0;
+    }
+}
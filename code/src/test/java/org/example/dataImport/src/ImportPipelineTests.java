@@ -0,0 +1,200 @@
+package org.example.dataImport.src;
+
+import org.example.TestDatabase;
+import org.example.UserAggregateCache;
+import org.example.deliveryRecorder.src.deliveryDataServiceDAO;
+import org.example.deliveryRecorder.src.workPeriodServiceDAO;
+import org.example.manageFinances.src.generalFinancialDataDAO;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private importPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("import.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        TransactionTemplate transactionTemplate = database.transactionTemplate();
+        deliveryHeatmapDAO heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+
+        deliveryDataServiceDAO deliveryDAO = new deliveryDataServiceDAO();
+        ReflectionTestUtils.setField(deliveryDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(deliveryDAO, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(deliveryDAO, "heatmapDAO", heatmapDAO);
+        ReflectionTestUtils.setField(deliveryDAO, "rollupDAO", new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate));
+        ReflectionTestUtils.setField(deliveryDAO, "aggregateCache", new UserAggregateCache(1024));
+
+        workPeriodServiceDAO workPeriodDAO = new workPeriodServiceDAO();
+        ReflectionTestUtils.setField(workPeriodDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(workPeriodDAO, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(workPeriodDAO, "aggregateCache", new UserAggregateCache(1024));
+
+        generalFinancialDataDAO financialDAO = new generalFinancialDataDAO();
+        ReflectionTestUtils.setField(financialDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(financialDAO, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(financialDAO, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(financialDAO, "aggregateCache", new UserAggregateCache(1024));
+
+        pipeline = new importPipeline(deliveryDAO, workPeriodDAO, financialDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCsvDeliveriesAreStreamedWithRejects() throws Exception {
+        Path csv = tempDir.resolve("deliveries.csv");
+        LocalDateTime firstDay = LocalDateTime.of(2024, 3, 4, 11, 0);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("startTime,endTime,miles,basePay,tips,platform,restaurant,timeSpentWaiting\n");
+            for (int i = 0; i < 5_000; i++) {
+                LocalDateTime start = firstDay.plusDays(i % 10).plusMinutes(i % 480);
+                String restaurant = i == 7 ? "\"Pho, Noodles\nand \"\"More\"\"\"" : "Restaurant " + (i % 25);
+                out.write(start + "," + start.plusMinutes(25) + "," + (i % 9) + "," + (3 + i % 4) + ","
+                        + (i % 3) + ",DoorDash," + restaurant + "," + (i % 6) + "\n");
+            }
+            out.write("2024-03-05T12:00,,3,4.5,1,,Missing Platform,0\n");
+            out.write("2024-03-05T12:00,,3,-4.5,1,UberEats,Negative Pay,0\n");
+            out.write("not-a-date,,3,4.5,1,UberEats,Bad Date,0\n");
+        }
+
+        Path rejects = tempDir.resolve("rejects.csv");
+        importPipeline.Options options = new importPipeline.Options()
+                .setUserId(1)
+                .setZone(ZoneOffset.UTC)
+                .setParallelism(3)
+                .setBatchSize(100)
+                .setQueueCapacity(2)
+                .setRejectsFile(rejects);
+
+        importPipeline.ImportReport report;
+        try (InputStream in = Files.newInputStream(csv)) {
+            report = pipeline.importDeliveries(in, options);
+        }
+
+        assertEquals(5_003, report.getRowsRead());
+        assertEquals(5_000, report.getRowsWritten());
+        assertEquals(3, report.getRowsRejected());
+        assertEquals(5_000, count("SELECT COUNT(*) FROM deliveryData"));
+        assertEquals(5_000, count("SELECT SUM(deliveryCount) FROM deliveryHeatmap WHERE userId = 1"));
+        assertEquals("Pho, Noodles\nand \"More\"",
+                jdbcTemplate.queryForObject("SELECT resturant FROM deliveryData WHERE miles = 7 AND basePay = 6 AND tips = 1 " +
+                        "AND timeSpentWaiting = 1 AND resturant LIKE 'Pho%'", String.class));
+
+        // One work period per day, widened to cover that day's deliveries
+        assertEquals(10, count("SELECT COUNT(*) FROM JobsTable WHERE userId = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM JobsTable j WHERE startTime > " +
+                "(SELECT MIN(startTime) FROM deliveryData d WHERE d.jobsTableId = j.jobsId)"));
+
+        List<String> lines = Files.readAllLines(rejects);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(1).startsWith("5003,\"Platform"), lines.get(1));
+        assertTrue(lines.get(2).contains("Base pay cannot be negative."), lines.get(2));
+        assertTrue(lines.get(3).contains("Invalid date-time: not-a-date"), lines.get(3));
+    }
+
+    @Test
+    void testUnterminatedQuoteAndRefusedDayLeaveNothingBehind() throws Exception {
+        // Passes validation but is refused by the database, so its day gets no deliveries
+        jdbcTemplate.execute("CREATE TRIGGER reject_bad BEFORE INSERT ON deliveryData " +
+                "WHEN NEW.resturant = 'BAD' BEGIN SELECT RAISE(ABORT, 'rejected by trigger'); END");
+
+        StringBuilder csv = new StringBuilder("startTime,endTime,miles,basePay,tips,platform,restaurant,timeSpentWaiting\n");
+        LocalDateTime day = LocalDateTime.of(2024, 3, 4, 11, 0);
+        for (int i = 0; i < 3; i++) {
+            csv.append(day.plusMinutes(i)).append(",,1,4,1,DoorDash,Before,0\n");
+        }
+        csv.append(day).append(",,1,4,1,DoorDash,\"Never closed,0\n");
+        for (int i = 0; i < importRecordReader.MAX_RECORD_LINES + 50; i++) {
+            csv.append(day.plusMinutes(i)).append(",,1,4,1,DoorDash,After,0\n");
+        }
+        csv.append(day.plusDays(5)).append(",,1,4,1,DoorDash,BAD,0\n");
+
+        Path rejects = tempDir.resolve("unterminated-rejects.csv");
+        importPipeline.ImportReport report = pipeline.importDeliveries(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                new importPipeline.Options().setUserId(1).setZone(ZoneOffset.UTC).setBatchSize(40).setRejectsFile(rejects));
+
+        // Only the line with the open quote is lost; every line after it is read as its own record
+        int good = 3 + importRecordReader.MAX_RECORD_LINES + 50;
+        assertEquals(good + 2, report.getRowsRead());
+        assertEquals(good, report.getRowsWritten());
+        assertEquals(2, report.getRowsRejected());
+        List<String> lines = Files.readAllLines(rejects);
+        assertTrue(lines.get(1).startsWith("5,\"Unterminated quoted field"), lines.get(1));
+        assertTrue(lines.get(2).contains("rejected by trigger"), lines.get(2));
+
+        // The refused day's work period is removed again
+        assertEquals(1, count("SELECT COUNT(*) FROM JobsTable WHERE userId = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM JobsTable j WHERE NOT EXISTS " +
+                "(SELECT 1 FROM deliveryData d WHERE d.jobsTableId = j.jobsId)"));
+    }
+
+    @Test
+    void testNdjsonTransactionsUseTransactionRules() throws Exception {
+        String ndjson = "{\"transactionType\":\"purchase\",\"amount\":12.5,\"transactionDate\":\"2023-01-15\",\"description\":\"Gas\"}\n"
+                + "\n"
+                + "{\"type\":\"Delivery Income\",\"amount\":80,\"date\":\"2023-01-15T21:30:00\"}\n"
+                + "{\"transactionType\":\"delivery income\",\"amount\":-5,\"transactionDate\":\"2023-01-16\"}\n"
+                + "{\"transactionType\":\"refund\",\"amount\":5,\"transactionDate\":\"2023-01-16\"}\n"
+                + "{not json}\n";
+
+        importPipeline.Options options = new importPipeline.Options()
+                .setFormat(importPipeline.Format.NDJSON)
+                .setUserId(2)
+                .setZone(ZoneOffset.UTC)
+                .setRejectsFile(tempDir.resolve("transaction-rejects.csv"));
+
+        importPipeline.ImportReport report = pipeline.importTransactions(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), options);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getRowsWritten());
+        assertEquals(3, report.getRowsRejected());
+        assertEquals(-12.5, jdbcTemplate.queryForObject(
+                "SELECT amount FROM \"transaction\" WHERE userId = 2 AND transactionType = 'purchase'", Double.class), 0.001);
+        assertEquals(LocalDateTime.of(2023, 1, 15, 21, 30).toInstant(ZoneOffset.UTC).toEpochMilli(), jdbcTemplate.queryForObject(
+                "SELECT transactionDate FROM \"transaction\" WHERE userId = 2 AND transactionType = 'delivery income'", Long.class));
+        assertEquals(LocalDateTime.of(2023, 1, 15, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli(), jdbcTemplate.queryForObject(
+                "SELECT transactionDate FROM \"transaction\" WHERE userId = 2 AND transactionType = 'purchase'", Long.class));
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("transaction-rejects.csv"));
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(1).startsWith("4,\"Income transactions must have positive amounts"), lines.get(1));
+        assertTrue(lines.get(3).startsWith("6,\"Malformed JSON"), lines.get(3));
+    }
+
+    private int count(String sql) {
+        Integer value = jdbcTemplate.queryForObject(sql, Integer.class);
+        return value != null ? value : 0;
+    }
+}
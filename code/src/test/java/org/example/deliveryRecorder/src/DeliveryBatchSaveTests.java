@@ -0,0 +1,132 @@
+package org.example.deliveryRecorder.src;
+
+import org.example.TestDatabase;
+import org.example.UserAggregateCache;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryBatchSaveTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private deliveryDataServiceDAO dao;
+    private long jobId;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("batch.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        TransactionTemplate transactionTemplate = database.transactionTemplate();
+        dao = new deliveryDataServiceDAO();
+        ReflectionTestUtils.setField(dao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(dao, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(dao, "heatmapDAO", new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate));
+        ReflectionTestUtils.setField(dao, "rollupDAO", new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate));
+        ReflectionTestUtils.setField(dao, "aggregateCache", new UserAggregateCache(1024));
+
+        jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime) VALUES (1, 0, 0)");
+        jobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testBatchSavesAllRowsAndHeatmap() {
+        List<deliveryDataService> batch = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            batch.add(delivery(i, "Restaurant " + (i % 20), "DoorDash"));
+        }
+
+        deliveryDataServiceDAO.BatchSaveResult result = dao.saveDeliveries(batch, jobId);
+
+        assertTrue(result.isFullySaved());
+        assertEquals(2_000, result.getSavedCount());
+        assertEquals(2_000, count("SELECT COUNT(*) FROM deliveryData"));
+        assertEquals(2_000, count("SELECT SUM(deliveryCount) FROM deliveryHeatmap WHERE userId = 1"));
+    }
+
+    @Test
+    void testInvalidAndRejectedRowsAreReportedByIndex() {
+        // Passes validation but is refused by the database, forcing the row-by-row fallback
+        jdbcTemplate.execute("CREATE TRIGGER reject_bad BEFORE INSERT ON deliveryData " +
+                "WHEN NEW.resturant = 'BAD' BEGIN SELECT RAISE(ABORT, 'rejected by trigger'); END");
+
+        List<deliveryDataService> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(delivery(i, "Restaurant", "UberEats"));
+        }
+        batch.set(2, delivery(2, "Restaurant", ""));
+        batch.set(5, delivery(5, "BAD", "UberEats"));
+
+        deliveryDataServiceDAO.BatchSaveResult result = dao.saveDeliveries(batch, jobId);
+
+        assertEquals(8, result.getSavedCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(2, result.getFailures().get(0).getIndex());
+        assertEquals(5, result.getFailures().get(1).getIndex());
+        assertTrue(result.getFailures().get(1).getMessage().contains("rejected by trigger"));
+        assertEquals(8, count("SELECT COUNT(*) FROM deliveryData"));
+        assertEquals(8, count("SELECT SUM(deliveryCount) FROM deliveryHeatmap"));
+    }
+
+    @Test
+    void testFailedTransactionReportsEveryRowOnce() {
+        // The rows insert, then the heatmap update fails and the whole transaction rolls back
+        jdbcTemplate.execute("CREATE TRIGGER reject_heatmap BEFORE INSERT ON deliveryHeatmap " +
+                "BEGIN SELECT RAISE(ABORT, 'heatmap unavailable'); END");
+
+        List<deliveryDataService> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(delivery(i, "Restaurant", "GrubHub"));
+        }
+        batch.set(1, delivery(1, "Restaurant", ""));
+
+        deliveryDataServiceDAO.BatchSaveResult result = dao.saveDeliveries(batch, jobId);
+
+        assertEquals(0, result.getSavedCount());
+        assertEquals(5, result.getFailedCount());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, result.getFailures().get(i).getIndex());
+        }
+        assertEquals(0, count("SELECT COUNT(*) FROM deliveryData"));
+    }
+
+    private deliveryDataService delivery(int i, String restaurant, String platform) {
+        deliveryDataService form = new deliveryDataService();
+        long start = 1_700_000_000_000L + i * 600_000L;
+        form.setDateTimeStart(start);
+        form.setDateTimeEnd(start + 1_200_000L);
+        form.setBasePay(3 + i % 5);
+        form.setTips(i % 4);
+        form.setMilesDriven(i % 7);
+        form.setMinutesSpentWaitingAtResturant(i % 9);
+        form.setPlatform(platform);
+        form.setRestaurant(restaurant);
+        return form;
+    }
+
+    private int count(String sql) {
+        Integer value = jdbcTemplate.queryForObject(sql, Integer.class);
+        return value != null ? value : 0;
+    }
+}
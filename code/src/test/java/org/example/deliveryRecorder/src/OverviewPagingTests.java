@@ -0,0 +1,133 @@
+package org.example.deliveryRecorder.src;
+
+import org.example.KeysetPage;
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverviewPagingTests {
+
+    private static final int DELIVERIES = 250;
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private overviewServiceDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("paging.db"));
+        JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+        dao = new overviewServiceDAO(jdbcTemplate);
+
+        jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime, vehicle) VALUES (1, 0, 0, 'Civic')");
+        long jobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+        jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime, vehicle) VALUES (2, 0, 0, 'Other')");
+        long otherJobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+
+        // Few distinct restaurants and start times, so most sort values are tied and the rowid decides
+        for (int i = 0; i < DELIVERIES; i++) {
+            jdbcTemplate.update("INSERT INTO deliveryData (resturant, platform, basePay, tips, miles, startTime, jobsTableId) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    i % 7 == 0 ? "50%_Off Pizza" : "Restaurant " + (i % 5), i % 2 == 0 ? "DoorDash" : "Uber Eats",
+                    3 + i % 4, i % 3, i % 6, 1_700_000_000_000L + (i % 10) * 86_400_000L, jobId);
+        }
+        jdbcTemplate.update("INSERT INTO deliveryData (resturant, platform, startTime, jobsTableId) VALUES ('X', 'DoorDash', 0, ?)",
+                otherJobId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testKeysetPagesCoverEveryRowOnceInOrder() {
+        assertEquals(DELIVERIES, dao.countOverview(1, null));
+
+        for (String sort : new String[]{"date", "restaurant", "total"}) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                List<overviewService.OverviewDTO> rows = readAll(sort, ascending, null, 40);
+                assertEquals(DELIVERIES, rows.size(), sort);
+
+                Set<Integer> ids = new HashSet<>();
+                rows.forEach(row -> ids.add(row.getDeliveryId()));
+                assertEquals(DELIVERIES, ids.size(), sort + " returned a row twice");
+
+                for (int i = 1; sort.equals("date") && i < rows.size(); i++) {
+                    int order = Long.compare(rows.get(i - 1).getDateTime(), rows.get(i).getDateTime());
+                    assertTrue(ascending ? order <= 0 : order >= 0, "out of order at " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOffsetPageMatchesKeysetPage() {
+        KeysetPage<overviewService.OverviewDTO> first = dao.findOverviewPage(1,
+                new KeysetPage.Query("restaurant", true, null, null, 0, 60));
+        KeysetPage<overviewService.OverviewDTO> bySeek = dao.findOverviewPage(1,
+                new KeysetPage.Query("restaurant", true, null, first.getNext(), 60, 60));
+        KeysetPage<overviewService.OverviewDTO> byOffset = dao.findOverviewPage(1,
+                new KeysetPage.Query("restaurant", true, null, null, 60, 60));
+
+        assertEquals(ids(bySeek.getRows()), ids(byOffset.getRows()));
+    }
+
+    @Test
+    void testFilterTreatsLikeWildcardsLiterally() {
+        // "%_" must only match the pizza place, not every restaurant
+        int pizza = (DELIVERIES + 6) / 7;
+        assertEquals(pizza, dao.countOverview(1, "50%_"));
+        assertEquals(pizza, readAll("date", false, "50%_", 16).size());
+        assertEquals(0, dao.countOverview(1, "X"));
+
+        int civic = readAll("miles", true, "civ", 33).size();
+        assertEquals(DELIVERIES, civic);
+    }
+
+    @Test
+    void testRollupAddsUpToTheDeliveries() {
+        List<overviewService.DeliveryRollup> rollup = dao.findDeliveryRollup(1);
+        assertTrue(rollup.size() < DELIVERIES);
+        assertEquals(DELIVERIES, rollup.stream().mapToInt(overviewService.DeliveryRollup::getDeliveryCount).sum());
+
+        double basePay = 0;
+        for (int i = 0; i < DELIVERIES; i++) {
+            basePay += 3 + i % 4;
+        }
+        assertEquals(basePay, rollup.stream().mapToDouble(overviewService.DeliveryRollup::getBasePay).sum(), 0.001);
+    }
+
+    private List<overviewService.OverviewDTO> readAll(String sort, boolean ascending, String filter, int pageSize) {
+        List<overviewService.OverviewDTO> rows = new ArrayList<>();
+        KeysetPage.Cursor after = null;
+        while (true) {
+            KeysetPage<overviewService.OverviewDTO> page = dao.findOverviewPage(1,
+                    new KeysetPage.Query(sort, ascending, filter, after, 0, pageSize));
+            rows.addAll(page.getRows());
+            if (page.getRows().size() < pageSize) {
+                return rows;
+            }
+            after = page.getNext();
+        }
+    }
+
+    private static List<Integer> ids(List<overviewService.OverviewDTO> rows) {
+        List<Integer> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.getDeliveryId()));
+        return ids;
+    }
+}
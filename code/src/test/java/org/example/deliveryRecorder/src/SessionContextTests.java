@@ -0,0 +1,199 @@
+package org.example.deliveryRecorder.src;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.DatabaseInitializer;
+import org.example.UserAggregateCache;
+import org.example.reportGenerator.src.deliveryHeatmapDAO;
+import org.example.reportGenerator.src.deliveryRollupDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteConfig;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionContextTests {
+
+    private static final int DRIVERS = 8;
+    private static final int DELIVERIES_PER_DRIVER = 60;
+
+    @TempDir
+    Path tempDir;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private workPeriodService service;
+
+    @BeforeEach
+    void setUp() {
+        // Same shape as the application's writer pool: one WAL connection that callers queue for
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.enforceForeignKeys(true);
+        sqlite.setBusyTimeout(5000);
+        sqlite.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("sessions.db"));
+        config.setMaximumPoolSize(1);
+        config.setDataSourceProperties(sqlite.toProperties());
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new DatabaseInitializer(jdbcTemplate).run();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        deliveryHeatmapDAO heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+        deliveryRollupDAO rollupDAO = new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, transactionTemplate);
+        UserAggregateCache aggregateCache = new UserAggregateCache(1024);
+
+        deliveryDataServiceDAO deliveryDAO = new deliveryDataServiceDAO();
+        ReflectionTestUtils.setField(deliveryDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(deliveryDAO, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(deliveryDAO, "heatmapDAO", heatmapDAO);
+        ReflectionTestUtils.setField(deliveryDAO, "rollupDAO", rollupDAO);
+        ReflectionTestUtils.setField(deliveryDAO, "aggregateCache", aggregateCache);
+
+        workPeriodServiceDAO workPeriodDAO = new workPeriodServiceDAO();
+        ReflectionTestUtils.setField(workPeriodDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(workPeriodDAO, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(workPeriodDAO, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(workPeriodDAO, "heatmapDAO", heatmapDAO);
+        ReflectionTestUtils.setField(workPeriodDAO, "rollupDAO", rollupDAO);
+        ReflectionTestUtils.setField(workPeriodDAO, "aggregateCache", aggregateCache);
+
+        service = new workPeriodService();
+        ReflectionTestUtils.setField(service, "workPeriodDAO", workPeriodDAO);
+        ReflectionTestUtils.setField(service, "deliveryDataDAO", deliveryDAO);
+
+        for (int i = 1; i <= DRIVERS; i++) {
+            jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (?, ?, 'x')", i, "driver" + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testSessionTransitionsReturnNewContexts() {
+        sessionContext loggedIn = sessionContext.forUser(1, "driver1", null);
+        sessionContext working = service.startWorkPeriod(loggedIn, "Civic", 1_000L);
+
+        assertNotSame(loggedIn, working);
+        assertFalse(loggedIn.hasActiveWorkPeriod());
+        assertTrue(working.hasActiveWorkPeriod());
+        assertEquals("user", working.getAuthorizationLevel());
+        assertEquals("Civic", working.getWorkPeriod().getVehicle());
+
+        // A session without a work period cannot record deliveries, even while another one is open
+        assertFalse(service.addDelivery(loggedIn, delivery(1, 0)));
+        assertTrue(service.addDelivery(working, delivery(1, 0)));
+
+        sessionContext ended = service.endWorkPeriod(working, 5_000L);
+        assertFalse(ended.hasActiveWorkPeriod());
+        assertTrue(working.hasActiveWorkPeriod());
+        assertEquals(5_000L, count("SELECT endTime FROM JobsTable WHERE jobsId = " + working.getWorkPeriodId()));
+        // Without an odometer reading the miles are summed from the deliveries
+        assertEquals(1, count("SELECT totalVehicleMiles FROM JobsTable WHERE jobsId = " + working.getWorkPeriodId()));
+
+        sessionContext second = service.startWorkPeriod(loggedIn, "Civic", 6_000L);
+        service.endWorkPeriod(second, 9_000L, 42);
+        assertEquals(9_000L, count("SELECT endTime FROM JobsTable WHERE jobsId = " + second.getWorkPeriodId()));
+        assertEquals(42, count("SELECT totalVehicleMiles FROM JobsTable WHERE jobsId = " + second.getWorkPeriodId()));
+
+        assertSame(sessionContext.anonymous(), service.startWorkPeriod(sessionContext.anonymous(), "Civic", 1_000L));
+    }
+
+    @Test
+    void testConcurrentDriversKeepTheirOwnWorkPeriods() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(DRIVERS);
+        try {
+            List<Future<sessionContext>> shifts = new ArrayList<>();
+            for (int i = 1; i <= DRIVERS; i++) {
+                int userId = i;
+                Callable<sessionContext> shift = () -> {
+                    sessionContext session = service.startWorkPeriod(
+                            sessionContext.forUser(userId, "driver" + userId, "user"), "Car " + userId, 1_000L * userId);
+                    List<deliveryRecord> batch = new ArrayList<>();
+                    for (int d = 0; d < DELIVERIES_PER_DRIVER; d++) {
+                        if (d % 2 == 0) {
+                            assertTrue(service.addDelivery(session, delivery(userId, d)));
+                        } else {
+                            batch.add(delivery(userId, d));
+                        }
+                    }
+                    assertTrue(service.addDeliveries(session, batch).isFullySaved());
+                    return session;
+                };
+                shifts.add(pool.submit(shift));
+            }
+
+            for (int i = 1; i <= DRIVERS; i++) {
+                sessionContext session = shifts.get(i - 1).get();
+                long jobId = session.getWorkPeriodId();
+                assertEquals(i, session.getUserId());
+                assertEquals(i, count("SELECT userId FROM JobsTable WHERE jobsId = " + jobId));
+                assertEquals(DELIVERIES_PER_DRIVER, count("SELECT COUNT(*) FROM deliveryData WHERE jobsTableId = " + jobId));
+                // Every delivery in the work period came from its own driver
+                assertEquals(0, count("SELECT COUNT(*) FROM deliveryData WHERE jobsTableId = " + jobId +
+                        " AND resturant <> 'Driver " + i + "'"));
+                assertEquals((long) i * DELIVERIES_PER_DRIVER, service.calculateTotalVehicleMiles(jobId));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(DRIVERS, count("SELECT COUNT(*) FROM JobsTable"));
+    }
+
+    @Test
+    void testRecordCopiesFormValues() {
+        deliveryDataService form = new deliveryDataService();
+        form.setRestaurant("Noodle Bar");
+        form.setPlatform("UberEats");
+        form.setBasePay(4.5f);
+        form.setTips(2f);
+        form.setDateTimeStart(60_000L);
+        form.setDateTimeEnd(1_860_000L);
+
+        deliveryRecord record = deliveryRecord.from(form);
+        form.setRestaurant("Changed later");
+
+        assertEquals("Noodle Bar", record.getRestaurant());
+        assertEquals(2f, record.getTips());
+        assertEquals(30, record.getTotalTimeSpent());
+        assertNull(record.validateDelivery());
+        assertNotNull(deliveryRecord.builder().restaurant("Noodle Bar").build().validateDelivery());
+    }
+
+    private static deliveryRecord delivery(int userId, int index) {
+        long start = 1_000_000L * userId + 60_000L * index;
+        return deliveryRecord.builder()
+                .restaurant("Driver " + userId)
+                .platform("DoorDash")
+                .basePay(3f + index % 5)
+                .tips(1f)
+                .milesDriven(userId)
+                .dateTimeStart(start)
+                .dateTimeEnd(start + 900_000L)
+                .build();
+    }
+
+    private long count(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value != null ? value : 0;
+    }
+}
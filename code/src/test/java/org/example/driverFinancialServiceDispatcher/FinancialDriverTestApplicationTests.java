@@ -2,6 +2,8 @@ package org.example.driverFinancialServiceDispatcher;
 
 import org.example.deliveryRecorder.src.vehicle;
 import org.example.reportGenerator.src.deliveryCalculator;
+import org.example.reportGenerator.src.DeliveryColumns;
+import org.example.reportGenerator.src.ReportSnapshot;
 import org.example.reportGenerator.src.generalReports;
 import org.example.reportGenerator.src.reportDAO;
 import org.example.reportGenerator.src.reportGenerator;
@@ -99,11 +101,10 @@ class FinancialDriverTestApplicationTests {
         generalReports mockReports = mock(generalReports.class);
 
         // Configure generalReports to return deterministic values
-        // total historical earnings over analysis period
-        when(mockReports.getTotalEarningsFromDB(any(), any())).thenReturn(3000.0f);
-        when(mockReports.getDeliveryCountFromDB(any(), any())).thenReturn(100);
-        when(mockReports.getCurrentMonthDeliveryIncomeFromDB()).thenReturn(200.0f);
-        when(mockReports.getAverageEarningsFromDB(any(), any())).thenReturn(30.0f);
+        // total historical earnings over analysis period: 100 deliveries, 3000 total, 200 this month
+        when(mockReports.getReportSnapshot(any(), any())).thenReturn(new ReportSnapshot(
+                LocalDateTime.now().minusDays(90), LocalDateTime.now(),
+                100, 2500.0, 500.0, new float[7][24], 10, 200.0));
 
         // Create reportGenerator with mocks
         reportGenerator rg = new reportGenerator(mockDao, mockReports);
@@ -167,8 +168,8 @@ class FinancialDriverTestApplicationTests {
         other.put("tips", 100.0f);
         deliveries.add(other);
 
-        when(mockDao.getDeliveryPayWithTimestampByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(deliveries);
+        when(mockDao.getDeliveryColumnsByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(toColumns(deliveries));
 
         float profit = calc.calculateExpectedProfit(referenceTimestamp,
                 histStart.atZone(zone).toInstant().toEpochMilli(),
@@ -211,8 +212,8 @@ class FinancialDriverTestApplicationTests {
         c.put("tips", 0.0f);
         deliveries.add(c);
 
-        when(mockDao.getDeliveryPayWithTimestampByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(deliveries);
+        when(mockDao.getDeliveryColumnsByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(toColumns(deliveries));
 
         String result = calc.findOptimalWorkHours(2,
                 histStart.atZone(zone).toInstant().toEpochMilli(),
@@ -223,4 +224,12 @@ class FinancialDriverTestApplicationTests {
         assertTrue(result.contains("11:00 AM - 1:00 PM") || result.contains("11:00 AM - 13:00") || result.contains("11:00 AM"));
     }
 
+    private static DeliveryColumns toColumns(List<Map<String, Object>> deliveries) {
+        DeliveryColumns.Builder builder = new DeliveryColumns.Builder();
+        for (Map<String, Object> d : deliveries) {
+            builder.add((Long) d.get("time"), (Float) d.get("basePay"), (Float) d.get("tips"), 0, null, null);
+        }
+        return builder.build();
+    }
+
 }
@@ -0,0 +1,34 @@
+package org.example.driverFinancialServiceDispatcher;
+
+import org.example.deliveryRecorder.src.sessionContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceDispatcherAuthorizationTests {
+
+    private static final String REPORT = "Weekly earnings: $120.00\nData flow: GUI → serviceDispatcher → reportDAO";
+
+    private final serviceDispatcher.ServiceDispatcher dispatcher = new serviceDispatcher.ServiceDispatcher();
+
+    @Test
+    void testAuthorizationComesFromEachSession() {
+        sessionContext admin = sessionContext.forUser(1, "owner", "Admin");
+        sessionContext driver = sessionContext.forUser(2, "driver2", "user");
+
+        assertTrue(dispatcher.isAdmin(admin));
+        assertTrue(dispatcher.canViewDataFlow(admin));
+        assertEquals(REPORT, dispatcher.filterForUser(admin, REPORT));
+
+        // Asking for the admin first must not leak into the driver's answers
+        assertFalse(dispatcher.isAdmin(driver));
+        assertFalse(dispatcher.canViewDataFlow(driver));
+        assertEquals("Weekly earnings: $120.00", dispatcher.filterForUser(driver, REPORT));
+
+        // The desktop session is still anonymous, and the handler it hands out is a copy
+        assertFalse(dispatcher.isCurrentUserAdmin());
+        dispatcher.getUserAuthorization().setAuthorizationLevel("admin");
+        assertFalse(dispatcher.canViewDataFlow());
+        assertEquals("user", dispatcher.getCurrentUserAuthorizationLevel());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.gui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundLoaderTests {
+
+    private final BackgroundLoader loader = new BackgroundLoader(1, 4);
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    void testRepeatedRefreshesCoalesceToTheNewest() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch lastDone = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> onEdt = Collections.synchronizedList(new ArrayList<>());
+
+        SwingUtilities.invokeAndWait(() -> loader.submit("deliveries", new BackgroundLoader.Load<String, Void>() {
+            @Override
+            protected String load(BackgroundLoader.Context<Void> context) throws Exception {
+                loads.incrementAndGet();
+                firstStarted.countDown();
+                releaseFirst.await();
+                return "first";
+            }
+
+            @Override
+            protected void done(String result) {
+                results.add(result);
+            }
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Three more refreshes while the first is still running: only the last one may run
+        for (int i = 2; i <= 4; i++) {
+            String name = "refresh-" + i;
+            SwingUtilities.invokeAndWait(() -> loader.submit("deliveries", new BackgroundLoader.Load<String, Void>() {
+                @Override
+                protected String load(BackgroundLoader.Context<Void> context) {
+                    loads.incrementAndGet();
+                    return name;
+                }
+
+                @Override
+                protected void done(String result) {
+                    onEdt.add(SwingUtilities.isEventDispatchThread());
+                    results.add(result);
+                    lastDone.countDown();
+                }
+            }));
+        }
+        releaseFirst.countDown();
+
+        assertTrue(lastDone.await(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of("refresh-4"), results);
+        assertEquals(2, loads.get());
+        assertEquals(List.of(true), onEdt);
+    }
+
+    @Test
+    void testRowsArePublishedInChunks() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+
+        SwingUtilities.invokeAndWait(() -> loader.submit("rows", new BackgroundLoader.Load<Integer, Integer>() {
+            @Override
+            protected Integer load(BackgroundLoader.Context<Integer> context) {
+                for (int i = 0; i < 1200; i++) {
+                    context.publish(i);
+                }
+                return 1200;
+            }
+
+            @Override
+            protected void process(List<Integer> chunk) {
+                chunkSizes.add(chunk.size());
+            }
+
+            @Override
+            protected void done(Integer result) {
+                done.countDown();
+            }
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(500, 500, 200), chunkSizes);
+        assertEquals(0, loader.getActiveCount());
+    }
+}
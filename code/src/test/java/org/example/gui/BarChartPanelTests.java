@@ -0,0 +1,44 @@
+package org.example.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarChartPanelTests {
+
+    @Test
+    void testFrameIsReusedUntilDataOrSizeChanges() {
+        BarChartPanel chart = new BarChartPanel("Earnings by platform");
+        chart.setSize(300, 200);
+        chart.setData(new ChartData(new String[]{"DoorDash", "Uber Eats"}, new double[]{120.0, 80.0}));
+        assertNull(chart.cachedFrame());
+
+        paint(chart);
+        BufferedImage frame = chart.cachedFrame();
+        assertNotNull(frame);
+        assertEquals(300, frame.getWidth());
+        paint(chart);
+        assertSame(frame, chart.cachedFrame());
+
+        chart.setSize(400, 200);
+        paint(chart);
+        BufferedImage resized = chart.cachedFrame();
+        assertNotSame(frame, resized);
+        assertEquals(400, resized.getWidth());
+
+        chart.setData(new ChartData(new String[]{"DoorDash"}, new double[]{50.0}));
+        assertNull(chart.cachedFrame());
+        paint(chart);
+        assertNotSame(resized, chart.cachedFrame());
+    }
+
+    private static void paint(BarChartPanel chart) {
+        BufferedImage screen = new BufferedImage(chart.getWidth(), chart.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = screen.createGraphics();
+        chart.paint(g);
+        g.dispose();
+    }
+}
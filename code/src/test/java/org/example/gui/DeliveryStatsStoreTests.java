@@ -0,0 +1,65 @@
+package org.example.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryStatsStoreTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 9, 2);
+
+    @Test
+    void testRangesAreAnsweredFromDailyTotals() {
+        DeliveryStatsStore store = new DeliveryStatsStore();
+        store.insert(0, DAY, "Chipotle", "DoorDash", "1 - Civic", 1, 4.0, 10.0);
+        store.insert(1, DAY.plusDays(1), "Taco Bell", "Uber Eats", "1 - Civic", 1, 3.0, 8.0);
+        store.insert(2, DAY.plusDays(5), "Chipotle", "DoorDash", "2 - Bike", 3, 9.0, 30.0);
+        store.insert(3, null, "Chipotle", null, "1 - Civic", 1, 1.0, 5.0);
+
+        DeliveryStatsStore.Summary firstTwoDays = store.summarize(DAY, DAY.plusDays(1));
+        assertEquals(2, firstTwoDays.getDeliveries());
+        assertEquals(18.0, firstTwoDays.getEarnings(), 1e-9);
+        assertEquals(List.of(DAY, DAY.plusDays(1)), List.copyOf(firstTwoDays.getEarningsByDay().keySet()));
+
+        // Rows without a date only count toward the totals of everything
+        DeliveryStatsStore.Summary dated = store.summarize(null, null);
+        assertEquals(5, dated.getDeliveries());
+        assertEquals(4, dated.getByRestaurant().get("Chipotle").getDeliveries());
+        assertEquals(List.of("DoorDash", "Uber Eats"), List.copyOf(dated.getByPlatform().keySet()));
+        assertEquals(9.0, dated.getByVehicle().get("2 - Bike").getMiles(), 1e-9);
+
+        DeliveryStatsStore.Summary everything = store.summarizeEverything();
+        assertEquals(6, everything.getDeliveries());
+        assertEquals(1, everything.getByPlatform().get("Unknown").getDeliveries());
+
+        assertEquals(0, store.summarize(DAY.plusDays(2), DAY.plusDays(4)).getDeliveries());
+        assertEquals(0, store.summarize(DAY.plusDays(4), DAY).getDeliveries());
+    }
+
+    @Test
+    void testUpdatesAndRemovalsKeepTotalsInStep() {
+        DeliveryStatsStore store = new DeliveryStatsStore();
+        for (int i = 0; i < 200; i++) {
+            store.insert(i, DAY.plusDays(i % 10), "R" + (i % 3), "DoorDash", "1 - Civic", 1, 1.0, 2.0);
+        }
+
+        store.update(0, DAY.plusDays(20), "New", "Grubhub", "1 - Civic", 1, 1.0, 7.0);
+        store.remove(10, 109);
+        store.insert(0, DAY, "Front", "DoorDash", "1 - Civic", 2, 1.0, 4.0);
+
+        DeliveryStatsStore.Summary all = store.summarizeEverything();
+        assertEquals(101, store.size());
+        assertEquals(102, all.getDeliveries());
+        assertEquals(4.0 + 7.0 + 99 * 2.0, all.getEarnings(), 1e-9);
+        assertEquals(1, all.getByPlatform().get("Grubhub").getDeliveries());
+        assertEquals(7.0, store.summarize(DAY.plusDays(20), DAY.plusDays(20)).getEarnings(), 1e-9);
+
+        store.remove(0, store.size() - 1);
+        assertEquals(0, store.summarizeEverything().getDeliveries());
+        assertTrue(store.summarize(null, null).getByRestaurant().isEmpty());
+        assertTrue(store.summarize(null, null).getEarningsByDay().isEmpty());
+    }
+}
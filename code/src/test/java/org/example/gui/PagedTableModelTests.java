@@ -0,0 +1,111 @@
+package org.example.gui;
+
+import org.example.KeysetPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedTableModelTests {
+
+    private static final int PAGE_SIZE = 10;
+
+    private final BackgroundLoader loader = new BackgroundLoader(1, 4);
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    void testFailedPageIsNotRetriedUntilRefresh() throws Exception {
+        PagedTableModel<Integer> model = model(100);
+        onEdt(() -> { model.refresh(); return null; });
+        await(model::isCounted);
+
+        failing.set(true);
+        onEdt(() -> model.getValueAt(0, 0));
+        await(model::isFailed);
+
+        // Repaints of the empty rows must not start the failing query again
+        onEdt(() -> {
+            for (int row = 0; row < 100; row++) {
+                assertNull(model.getValueAt(row, 0));
+            }
+            return null;
+        });
+        assertEquals(1, fetches.get());
+
+        failing.set(false);
+        onEdt(() -> { model.refresh(); return null; });
+        assertFalse(onEdt(model::isFailed));
+        await(() -> model.getValueAt(25, 0) != null);
+        assertEquals(25, onEdt(() -> model.getValueAt(25, 0)));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void testPageEndsStayBounded() throws Exception {
+        int pages = PagedTableModel.MAX_PAGE_ENDS + 40;
+        PagedTableModel<Integer> model = model(pages * PAGE_SIZE);
+        onEdt(() -> { model.refresh(); return null; });
+        await(model::isCounted);
+
+        for (int page = 0; page < pages; page++) {
+            int row = page * PAGE_SIZE;
+            await(() -> model.getValueAt(row, 0) != null);
+        }
+        assertEquals(PagedTableModel.MAX_PAGE_ENDS, (int) onEdt(model::pageEndCount));
+        assertEquals(pages * PAGE_SIZE - 1, onEdt(() -> model.getValueAt(pages * PAGE_SIZE - 1, 0)));
+    }
+
+    private PagedTableModel<Integer> model(int rows) {
+        PagedTableModel.PageSource<Integer> source = new PagedTableModel.PageSource<>() {
+            @Override
+            public int count(String filter) {
+                return rows;
+            }
+
+            @Override
+            public KeysetPage<Integer> fetch(KeysetPage.Query query) {
+                fetches.incrementAndGet();
+                if (failing.get()) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                long first = query.getAfter() != null ? query.getAfter().getRowId() + 1 : query.getOffset();
+                List<Integer> page = new ArrayList<>();
+                for (long row = first; row < Math.min(rows, first + query.getLimit()); row++) {
+                    page.add((int) row);
+                }
+                KeysetPage.Cursor end = page.isEmpty() ? null : new KeysetPage.Cursor(null, page.get(page.size() - 1));
+                return new KeysetPage<>(page, end);
+            }
+        };
+        return new PagedTableModel<>(loader, "rows", new String[]{"Row"}, new Class<?>[]{Integer.class},
+                new String[]{"row"}, -1, true, source, row -> new Object[]{row}, PAGE_SIZE, 4);
+    }
+
+    private static <T> T onEdt(Supplier<T> action) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+
+    private static void await(Supplier<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!onEdt(condition)) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesPyramidTests {
+
+    private static final LocalDate FIRST = LocalDate.of(2020, 1, 1);
+    private static final LocalDate LAST = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void testLevelsSumTheDaysAndWindowsReadOnlyVisiblePeriods() {
+        TreeMap<Long, Double> days = new TreeMap<>();
+        for (long day = FIRST.toEpochDay(); day <= LAST.toEpochDay(); day++) {
+            days.put(day, 10.0);
+        }
+        TimeSeriesPyramid pyramid = TimeSeriesPyramid.ofDays(days);
+        assertEquals(FIRST, pyramid.firstDay());
+        assertEquals(LAST, pyramid.lastDay());
+
+        // February 2024, a leap month, seen from each level
+        long from = LocalDate.of(2024, 2, 1).toEpochDay();
+        long to = LocalDate.of(2024, 2, 29).toEpochDay();
+        assertEquals(29, pyramid.window(TimeSeriesPyramid.Level.DAY, from, to).size());
+        TimeSeriesPyramid.Series month = pyramid.window(TimeSeriesPyramid.Level.MONTH, from, to);
+        assertEquals(1, month.size());
+        assertEquals(290.0, month.value(0), 1e-9);
+        TimeSeriesPyramid.Series weeks = pyramid.window(TimeSeriesPyramid.Level.WEEK, from, to);
+        assertEquals(LocalDate.of(2024, 1, 29), weeks.start(0));
+        assertEquals(5, weeks.size());
+        TimeSeriesPyramid.Series quarter = pyramid.window(TimeSeriesPyramid.Level.QUARTER, from, to);
+        assertEquals(LocalDate.of(2024, 1, 1), quarter.start(0));
+        assertEquals(910.0, quarter.value(0), 1e-9);
+
+        assertEquals(TimeSeriesPyramid.Level.DAY, TimeSeriesPyramid.levelFor(from, to, 100));
+        assertEquals(TimeSeriesPyramid.Level.WEEK, TimeSeriesPyramid.levelFor(FIRST.toEpochDay(), LAST.toEpochDay(), 400));
+        assertEquals(TimeSeriesPyramid.Level.MONTH, TimeSeriesPyramid.levelFor(FIRST.toEpochDay(), LAST.toEpochDay(), 100));
+        assertEquals(TimeSeriesPyramid.Level.QUARTER, TimeSeriesPyramid.levelFor(FIRST.toEpochDay(), LAST.toEpochDay(), 20));
+    }
+
+    @Test
+    void testViewsStayWithinThePointBudget() {
+        Random random = new Random(3);
+        TreeMap<Long, Double> days = new TreeMap<>();
+        for (long day = FIRST.toEpochDay(); day <= LAST.toEpochDay(); day++) {
+            days.put(day, 50 + random.nextInt(100) * 1.0);
+        }
+        long spike = LocalDate.of(2022, 7, 4).toEpochDay();
+        days.put(spike, 5_000.0);
+        TimeSeriesPyramid pyramid = TimeSeriesPyramid.ofDays(days);
+
+        // A week and five years both come back within 300 points
+        TimeSeriesPyramid.Series week = pyramid.view(spike - 3, spike + 3, 300);
+        assertEquals(TimeSeriesPyramid.Level.DAY, week.getLevel());
+        assertEquals(7, week.size());
+        TimeSeriesPyramid.Series years = pyramid.view(FIRST.toEpochDay(), LAST.toEpochDay(), 300);
+        assertEquals(TimeSeriesPyramid.Level.WEEK, years.getLevel());
+        assertTrue(years.size() <= 300);
+
+        // Two years of days is thinned with LTTB, which keeps the ends and the spike
+        TimeSeriesPyramid.Series thinned = pyramid.view(spike - 365, spike + 365, 200);
+        assertEquals(TimeSeriesPyramid.Level.DAY, thinned.getLevel());
+        assertEquals(200, thinned.size());
+        assertEquals(spike - 365, thinned.startDay(0));
+        assertEquals(spike + 365, thinned.startDay(199));
+        assertEquals(5_000.0, thinned.max(), 1e-9);
+    }
+
+    @Test
+    void testStoreRebuildsThePyramidAfterChanges() {
+        DeliveryStatsStore store = new DeliveryStatsStore();
+        assertTrue(store.earningsPyramid().isEmpty());
+        store.insert(0, FIRST, "Chipotle", "DoorDash", "1 - Civic", 1, 4.0, 10.0);
+        store.insert(1, FIRST.plusDays(40), "Taco Bell", "Uber Eats", "1 - Civic", 1, 3.0, 8.0);
+        TimeSeriesPyramid pyramid = store.earningsPyramid();
+        assertSame(pyramid, store.earningsPyramid());
+        assertEquals(FIRST.plusDays(40), pyramid.lastDay());
+
+        store.remove(1, 1);
+        assertEquals(FIRST, store.earningsPyramid().lastDay());
+    }
+}
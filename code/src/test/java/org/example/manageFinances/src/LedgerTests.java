@@ -0,0 +1,153 @@
+package org.example.manageFinances.src;
+
+import org.example.TestDatabase;
+import org.example.UserAggregateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ledgerDAO ledger;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("ledger.db"));
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO bankAccount (idbankAccount, userId, accountType, balance) VALUES (10, 1, 'Checking', 100.00)");
+        jdbcTemplate.update("INSERT INTO bankAccount (idbankAccount, userId, accountType, balance) VALUES (11, 1, 'Savings', 0)");
+
+        ledger = new ledgerDAO();
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ledger, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ledger, "transactionTemplate", database.transactionTemplate());
+        ReflectionTestUtils.setField(ledger, "aggregateCache", new UserAggregateCache(16));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testPostingMovesTheBalanceAndRecordsIt() {
+        assertEquals(7550, ledger.post(1, 10, 24.50f, "Purchase", "fuel"));
+        assertEquals(16550, ledger.post(1, 10, 90f, "delivery income", null));
+
+        assertEquals(List.of(7550L, 16550L), jdbcTemplate.queryForList(
+                "SELECT balanceAfterCents FROM \"transaction\" ORDER BY transactionId", Long.class));
+        assertEquals(-2450L, jdbcTemplate.queryForObject(
+                "SELECT amountCents FROM \"transaction\" WHERE transactionType = 'purchase'", Long.class));
+        assertEquals(165.5, jdbcTemplate.queryForObject("SELECT balance FROM bankAccount WHERE idbankAccount = 10", Double.class));
+        assertEquals(16550L, jdbcTemplate.queryForObject("SELECT balanceCents FROM bankAccount WHERE idbankAccount = 10", Long.class));
+
+        long monthStart = TransactionDates.startOfMonth(YearMonth.now());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledgerCheckpoint WHERE checkpointTime = ?", Integer.class, monthStart));
+
+        // Nothing is written when the posting is rejected
+        assertThrows(IllegalArgumentException.class, () -> ledger.post(1, 99, 5f, "purchase", null));
+        assertThrows(IllegalArgumentException.class, () -> ledger.post(1, 10, -5f, "other income", null));
+        assertThrows(IllegalArgumentException.class, () -> ledger.post(1, 10, 5f, "refund", null));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"transaction\"", Integer.class));
+        assertEquals(16550L, jdbcTemplate.queryForObject("SELECT balanceCents FROM bankAccount WHERE idbankAccount = 10", Long.class));
+    }
+
+    @Test
+    void testTotalsMatchFullSumsAndFollowBackDatedWrites() {
+        LocalDate start = YearMonth.now().minusMonths(14).atDay(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 420; day += 3) {
+            long date = TransactionDates.startOfDay(start.plusDays(day)) + day * 60_000L;
+            rows.add(new Object[]{1, 45.10 + day, "delivery income", date, 10});
+            rows.add(new Object[]{1, -(3.05 + day % 7), "purchase", date, 10});
+            rows.add(new Object[]{1, -20.00, "withdrawal", date, 11});
+        }
+        rows.add(new Object[]{1, 12.34, "other income", null, 11});
+        jdbcTemplate.batchUpdate("INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate, bankAccountId) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+
+        assertEquals(fullSums("userId = 1"), ledger.totals(ledgerDAO.Scope.USER, 1));
+        assertEquals(fullSums("bankAccountId = 11"), ledger.totals(ledgerDAO.Scope.ACCOUNT, 11));
+        Integer checkpoints = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledgerCheckpoint WHERE scope = 'user' AND ownerId = 1", Integer.class);
+        assertTrue(checkpoints >= 14, "one checkpoint per month with transactions, got " + checkpoints);
+
+        LocalDate from = start.plusMonths(3).plusDays(10);
+        LocalDate to = start.plusMonths(7).plusDays(4);
+        String window = "bankAccountId = 10 AND transactionDate >= " + TransactionDates.startOfDay(from)
+                + " AND transactionDate < " + TransactionDates.startOfDay(to.plusDays(1));
+        assertEquals(fullSums(window), ledger.totalsBetween(ledgerDAO.Scope.ACCOUNT, 10, from, to));
+
+        // A back-dated insert and an edit drop the checkpoints after them, and the totals follow
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate, bankAccountId) " +
+                "VALUES (1, 500, 'other income', ?, 10)", TransactionDates.startOfDay(start.plusDays(1)));
+        jdbcTemplate.update("UPDATE \"transaction\" SET amount = -99.99 WHERE transactionId = 200");
+        assertEquals(fullSums("userId = 1"), ledger.totals(ledgerDAO.Scope.USER, 1));
+        assertEquals(fullSums(window), ledger.totalsBetween(ledgerDAO.Scope.ACCOUNT, 10, from, to));
+        jdbcTemplate.update("DELETE FROM \"transaction\" WHERE transactionDate < ?",
+                TransactionDates.startOfDay(start.plusMonths(2)));
+        assertEquals(fullSums("bankAccountId = 10"), ledger.totals(ledgerDAO.Scope.ACCOUNT, 10));
+
+        String tail = explain("SELECT COUNT(*) FROM \"transaction\" WHERE userId = 1 AND transactionDate >= 1704067200000");
+        assertTrue(tail.contains("COVERING INDEX idx_transaction_userId_date"), tail);
+    }
+
+    @Test
+    void testBalanceAsOfReadsTheRunningBalance() {
+        ledger.post(1, 11, 50f, "other income", null);
+        ledger.post(1, 11, 20f, "purchase", null);
+        ledger.post(1, 11, 5f, "delivery income", null);
+        LocalDate today = LocalDate.now();
+        // Spread the postings over three earlier days
+        jdbcTemplate.update("UPDATE \"transaction\" SET transactionDate = ? WHERE balanceAfterCents = 5000", TransactionDates.startOfDay(today.minusDays(10)));
+        jdbcTemplate.update("UPDATE \"transaction\" SET transactionDate = ? WHERE balanceAfterCents = 3000", TransactionDates.startOfDay(today.minusDays(5)));
+        jdbcTemplate.update("UPDATE \"transaction\" SET transactionDate = ? WHERE balanceAfterCents = 3500", TransactionDates.startOfDay(today.minusDays(2)));
+
+        assertEquals(0, ledger.balanceAsOfCents(11, today.minusDays(30)));
+        assertEquals(5000, ledger.balanceAsOfCents(11, today.minusDays(10)));
+        assertEquals(5000, ledger.balanceAsOfCents(11, today.minusDays(6)));
+        assertEquals(3000, ledger.balanceAsOfCents(11, today.minusDays(5)));
+        assertEquals(3500, ledger.balanceAsOfCents(11, today.minusDays(1)));
+
+        // Today is the account's balance, hand-set corrections included
+        jdbcTemplate.update("UPDATE bankAccount SET balance = 40 WHERE idbankAccount = 11");
+        assertEquals(4000, ledger.balanceAsOfCents(11, today));
+        assertEquals(10000, ledger.balanceAsOfCents(10, today.minusDays(3)));
+
+        String plan = explain("SELECT balanceAfterCents FROM \"transaction\" WHERE bankAccountId = 11 " +
+                "AND balanceAfterCents IS NOT NULL AND transactionDate < 1704067200000 " +
+                "ORDER BY transactionDate DESC, transactionId DESC LIMIT 1");
+        assertTrue(plan.contains("idx_transaction_ledger_postings"), plan);
+        assertFalse(plan.contains("TEMP B-TREE"), plan);
+    }
+
+    private LedgerTotals fullSums(String where) {
+        return jdbcTemplate.queryForObject("SELECT " +
+                "COALESCE(SUM(CASE WHEN transactionType IN ('delivery income', 'other income') THEN amountCents END), 0) AS incomeCents, " +
+                "COALESCE(SUM(CASE WHEN transactionType IN ('purchase', 'withdrawal') THEN ABS(amountCents) END), 0) AS expenseCents, " +
+                "COALESCE(SUM(amountCents), 0) AS netCents, COUNT(*) AS transactionCount " +
+                "FROM \"transaction\" WHERE " + where, (rs, rowNum) -> LedgerTotals.fromRow(rs));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail")));
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.manageFinances.src;
+
+import org.example.TestDatabase;
+import org.example.UserAggregateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionBreakdownTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("finance.db"));
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (2, 'other', 'x')");
+        jdbcTemplate.update("INSERT INTO bankAccount (idbankAccount, userId, accountType) VALUES (10, 1, 'Checking')");
+        jdbcTemplate.update("INSERT INTO bankAccount (idbankAccount, userId, accountType) VALUES (11, 1, 'Savings')");
+
+        addTransaction(1, -12.50, "purchase", 10);
+        addTransaction(1, -3.25, "purchase", 10);
+        addTransaction(1, -40.00, "withdrawal", 11);
+        addTransaction(1, 85.10, "delivery income", 10);
+        addTransaction(1, 14.90, "delivery income", 10);
+        addTransaction(1, 0.99, "other income", 11);
+        addTransaction(2, 500.00, "other income", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testUserBreakdownIsOneScanWithPerTypeStatistics() {
+        TransactionBreakdown breakdown = newService().getTransactionBreakdown(1);
+        assertEquals(1, queries.get());
+
+        assertEquals(6, breakdown.totalCount());
+        assertEquals(4524, breakdown.totalSumCents());
+        assertEquals(2, breakdown.count("purchase"));
+        assertEquals(-1575, breakdown.sumCents("purchase"));
+        assertEquals(-1250, breakdown.minCents("purchase"));
+        assertEquals(-325, breakdown.maxCents("purchase"));
+        assertEquals(10000, breakdown.sumCents("Delivery Income"));
+        assertEquals(1490, breakdown.minCents("delivery income"));
+        assertEquals(8510, breakdown.maxCents("delivery income"));
+        assertEquals(0, TransactionBreakdown.empty().maxCents("withdrawal"));
+        assertThrows(IllegalArgumentException.class, () -> breakdown.count("refund"));
+    }
+
+    @Test
+    void testLegacyMapsMatchThePerTypeQueries() {
+        // A type without its own list still belongs in "allTransactions"
+        addTransaction(1, 7.25, "refund", 10);
+        generalFinancialData service = newService();
+        Map<String, List<Float>> lists = service.getAllTransactions(1);
+        assertEquals(sorted(legacy("SELECT amount FROM \"transaction\" WHERE userId = 1")), sorted(lists.get("allTransactions")));
+        assertEquals(sorted(legacy("SELECT amount FROM \"transaction\" WHERE userId = 1 AND transactionType = 'purchase'")),
+                sorted(lists.get("purchases")));
+        assertEquals(List.of(-40f), lists.get("withdrawals"));
+        assertEquals(List.of(0.99f), lists.get("otherIncome"));
+        assertEquals(2, lists.get("deliveryIncome").size());
+
+        selectBankAccount account = new selectBankAccount();
+        ReflectionTestUtils.setField(account, "readJdbcTemplate", countingTemplate());
+        queries.set(0);
+        Map<String, List<Float>> checking = account.getAllTransactionsForAccount(10);
+        assertEquals(1, queries.get());
+        assertEquals(5, checking.get("allTransactions").size());
+        assertTrue(checking.get("allTransactions").contains(7.25f));
+        assertTrue(checking.get("withdrawals").isEmpty());
+        assertEquals(-1575, account.getTransactionBreakdownForAccount(10).sumCents("purchase"));
+    }
+
+    @Test
+    void testAccountTransactionsInvalidateCachedTotals() {
+        selectBankAccount account = new selectBankAccount();
+        ReflectionTestUtils.setField(account, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(account, "readJdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(account, "aggregateCache", new UserAggregateCache(16));
+
+        long income = account.getTotalIncomeCents(1);
+        long expense = account.getTotalExpenseCents(1);
+        account.addAccountTransaction(1, 20.00f, "other income", 10);
+        account.addAccountTransaction(1, 4.50f, "purchase", 10);
+        assertEquals(income + 2000, account.getTotalIncomeCents(1));
+        assertEquals(expense + 450, account.getTotalExpenseCents(1));
+    }
+
+    @Test
+    void testBreakdownScansOnlyTheCoveringIndexes() {
+        String byUser = explain("SELECT transactionType, amountCents FROM \"transaction\" WHERE userId = 1 " +
+                "ORDER BY transactionType, amountCents");
+        assertTrue(byUser.contains("COVERING INDEX idx_transaction_userId_type_cents"), byUser);
+        String byAccount = explain("SELECT transactionType, amountCents FROM \"transaction\" WHERE bankAccountId = 10 " +
+                "ORDER BY transactionType, amountCents");
+        assertTrue(byAccount.contains("COVERING INDEX idx_transaction_bankAccountId_type_cents"), byAccount);
+        assertFalse(byUser.contains("TEMP B-TREE") || byAccount.contains("TEMP B-TREE"), byUser + "\n" + byAccount);
+    }
+
+    private generalFinancialData newService() {
+        generalFinancialData service = new generalFinancialData();
+        ReflectionTestUtils.setField(service, "readJdbcTemplate", countingTemplate());
+        return service;
+    }
+
+    private JdbcTemplate countingTemplate() {
+        return new JdbcTemplate(database.dataSource()) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) {
+                queries.incrementAndGet();
+                super.query(sql, rch, args);
+            }
+        };
+    }
+
+    private void addTransaction(int userId, double amount, String type, Integer bankAccountId) {
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionType, bankAccountId) VALUES (?, ?, ?, ?)",
+                userId, amount, type, bankAccountId);
+    }
+
+    private List<Float> legacy(String sql) {
+        return jdbcTemplate.queryForList(sql, Float.class);
+    }
+
+    private static List<Float> sorted(List<Float> values) {
+        List<Float> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail")));
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.manageFinances.src;
+
+import org.example.SchemaMigrator;
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionDatesTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private generalFinancialDataDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("dates.db"));
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO bankAccount (idbankAccount, userId, accountType, balance) VALUES (10, 1, 'Checking', 0)");
+
+        dao = new generalFinancialDataDAO();
+        ReflectionTestUtils.setField(dao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(dao, "readJdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testMigrationConvertsTextDates() {
+        // Put the table back the way V5 left it, with text dates written by date('now')
+        jdbcTemplate.execute("DROP TRIGGER trg_transaction_date_insert");
+        jdbcTemplate.execute("DROP TRIGGER trg_transaction_date_update");
+        jdbcTemplate.update("DELETE FROM schema_version WHERE version = 6");
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, '2024-02-03')");
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, 'someday')");
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, NULL)");
+
+        assertEquals(1, new SchemaMigrator(jdbcTemplate).migrate());
+
+        List<Object> dates = jdbcTemplate.queryForList(
+                "SELECT transactionDate FROM \"transaction\" ORDER BY transactionId", Object.class);
+        assertEquals(TransactionDates.startOfDay(LocalDate.of(2024, 2, 3)), ((Number) dates.get(0)).longValue());
+        assertEquals("someday", dates.get(1));
+        assertNull(dates.get(2));
+
+        // Text written after the migration is converted by the triggers
+        jdbcTemplate.update("INSERT INTO \"transaction\" (userId, amount, transactionDate) VALUES (1, 5, '2024-03-01')");
+        jdbcTemplate.update("UPDATE \"transaction\" SET transactionDate = '2024-01-31' WHERE transactionId = 1");
+        assertEquals(List.of(TransactionDates.startOfDay(LocalDate.of(2024, 1, 31)), TransactionDates.startOfDay(LocalDate.of(2024, 3, 1))),
+                jdbcTemplate.queryForList("SELECT transactionDate FROM \"transaction\" " +
+                        "WHERE typeof(transactionDate) = 'integer' ORDER BY transactionDate", Long.class));
+        assertEquals("2024-01-31", TransactionDates.display(jdbcTemplate.queryForObject(
+                "SELECT transactionDate FROM \"transaction\" WHERE transactionId = 1", Object.class)));
+        assertEquals("someday", TransactionDates.display(dates.get(1)));
+    }
+
+    @Test
+    void testRangeQueriesKeepTheOrderOfTheDay() {
+        LocalDate first = LocalDate.of(2024, 1, 30);
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            long dayStart = TransactionDates.startOfDay(first.plusDays(day));
+            // Written out of order; morning, evening and noon
+            rows.add(new Object[]{1, 10.0, "purchase", dayStart + 8 * 3_600_000L, day % 2 == 0 ? 10 : null, "morning " + day});
+            rows.add(new Object[]{1, 20.0, "purchase", dayStart + 20 * 3_600_000L, day % 2 == 0 ? 10 : null, "evening " + day});
+            rows.add(new Object[]{1, 30.0, "purchase", dayStart + 12 * 3_600_000L, day % 2 == 0 ? 10 : null, "noon " + day});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO \"transaction\" (userId, amount, transactionType, transactionDate, bankAccountId, description) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        List<generalFinancialDataDAO.TransactionRecord> window = dao.getTransactionsForUserBetween(1, first.plusDays(1), first.plusDays(2));
+        assertEquals(List.of("evening 2", "noon 2", "morning 2", "evening 1", "noon 1", "morning 1"),
+                window.stream().map(generalFinancialDataDAO.TransactionRecord::getDescription).collect(Collectors.toList()));
+        assertEquals("2024-02-01", window.get(0).getTransactionDate());
+        assertEquals(TransactionDates.startOfDay(first.plusDays(2)) + 20 * 3_600_000L, window.get(0).getTransactionTime());
+
+        assertEquals(6, dao.getTransactionsForUserInMonth(1, YearMonth.of(2024, 1)).size());
+        assertEquals(9, dao.getTransactionsForUserInMonth(1, YearMonth.of(2024, 2)).size());
+        assertEquals(List.of("evening 4", "noon 4", "morning 4", "evening 2", "noon 2", "morning 2"),
+                dao.getTransactionsForBankAccountBetween(10, first.plusDays(1), first.plusDays(4)).stream()
+                        .map(generalFinancialDataDAO.TransactionRecord::getDescription).collect(Collectors.toList()));
+
+        String userPlan = explain("SELECT * FROM \"transaction\" WHERE userId = 1 AND transactionDate >= 0 AND transactionDate < 1 " +
+                "ORDER BY transactionDate DESC, transactionId DESC");
+        assertTrue(userPlan.contains("idx_transaction_userId_date (userId=? AND transactionDate>? AND transactionDate<?)"), userPlan);
+        String accountPlan = explain("SELECT * FROM \"transaction\" WHERE bankAccountId = 10 AND transactionDate >= 0 AND transactionDate < 1 " +
+                "ORDER BY transactionDate DESC, transactionId DESC");
+        assertTrue(accountPlan.contains("idx_transaction_bankAccountId_date (bankAccountId=? AND transactionDate>? AND transactionDate<?)"),
+                accountPlan);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail")));
+    }
+}
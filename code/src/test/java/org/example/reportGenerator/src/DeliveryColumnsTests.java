@@ -0,0 +1,55 @@
+package org.example.reportGenerator.src;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryColumnsTests {
+
+    @Test
+    void testBucketerMatchesJavaTimeAcrossDstTransitions() {
+        for (String zoneName : new String[]{"America/New_York", "Europe/London", "Australia/Sydney", "UTC"}) {
+            ZoneId zone = ZoneId.of(zoneName);
+            DeliveryColumns.DayHourBucketer bucketer = new DeliveryColumns.DayHourBucketer(zone);
+
+            // Hourly steps over two years hit every transition, random jumps exercise cache misses
+            long from = LocalDateTime.of(2023, 1, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+            Random random = new Random(42);
+            for (long t = from, i = 0; i < 2 * 365 * 24; i++, t += 3_600_000L) {
+                assertBucket(zone, bucketer, t);
+                assertBucket(zone, bucketer, from + (long) (random.nextDouble() * 4 * 365 * 86_400_000L));
+            }
+        }
+    }
+
+    @Test
+    void testBuilderGrowsAndEncodesDictionaries() {
+        DeliveryColumns.Builder builder = new DeliveryColumns.Builder();
+        String[] platforms = {"DoorDash", "UberEats", null, ""};
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(i, 1.0f, 0.5f, i % 10, platforms[i % platforms.length], "R" + (i % 3));
+        }
+        DeliveryColumns columns = builder.build();
+
+        assertEquals(1_000, columns.size());
+        assertArrayEquals(new String[]{"DoorDash", "UberEats", "Unknown"}, columns.platformDictionary());
+        assertEquals(3, columns.restaurantDictionary().length);
+        assertEquals("Unknown", columns.platform(3));
+        assertEquals("R2", columns.restaurant(998));
+        assertEquals(999L, columns.startTime(999));
+        assertEquals(9, columns.miles(999));
+        assertEquals(1.5f, columns.profit(500), 1e-6f);
+    }
+
+    private static void assertBucket(ZoneId zone, DeliveryColumns.DayHourBucketer bucketer, long epochMilli) {
+        ZonedDateTime expected = Instant.ofEpochMilli(epochMilli).atZone(zone);
+        assertEquals(expected.getDayOfWeek().getValue() - 1, bucketer.dayOfWeek(epochMilli), expected.toString());
+        assertEquals(expected.getHour(), bucketer.hour(epochMilli), expected.toString());
+    }
+}
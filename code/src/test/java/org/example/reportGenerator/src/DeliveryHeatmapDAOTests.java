@@ -0,0 +1,190 @@
+package org.example.reportGenerator.src;
+
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryHeatmapDAOTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private deliveryHeatmapDAO heatmapDAO;
+    private reportDAO reportDAO;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("heatmap.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        heatmapDAO = new deliveryHeatmapDAO(jdbcTemplate, jdbcTemplate, database.transactionTemplate());
+        reportDAO = new reportDAO();
+        ReflectionTestUtils.setField(reportDAO, "readJdbcTemplate", jdbcTemplate);
+
+        // Two users, deliveries spread over ~5 months, recorded the same way saveDelivery does
+        Random random = new Random(7);
+        jdbcTemplate.execute("BEGIN");
+        long from = LocalDateTime.of(2024, 1, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        for (int user = 1; user <= 2; user++) {
+            jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime) VALUES (?, 0, 0)", user);
+            long jobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+            for (int i = 0; i < 1_500; i++) {
+                long time = from + (long) (random.nextDouble() * 150 * 86_400_000L);
+                float basePay = 2 + random.nextInt(8);
+                float tips = random.nextInt(6);
+                int wait = random.nextInt(15);
+                int miles = random.nextInt(10);
+                jdbcTemplate.update("INSERT INTO deliveryData (startTime, basePay, tips, timeSpentWaiting, miles, jobsTableId) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", time, basePay, tips, wait, miles, jobId);
+                heatmapDAO.recordDelivery(jobId, time, basePay, tips, wait, miles);
+            }
+        }
+        jdbcTemplate.execute("COMMIT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testRollupMatchesRawScanForUnalignedRange() {
+        // Wednesday afternoon to a Saturday morning, so both edges are partial weeks
+        long start = LocalDateTime.of(2024, 1, 17, 15, 30).atZone(zone).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 4, 20, 9, 10).atZone(zone).toInstant().toEpochMilli();
+
+        float[][] expected = reportDAO.getDeliveryColumnsByDateRange(
+                LocalDateTime.of(2024, 1, 17, 15, 30), LocalDateTime.of(2024, 4, 20, 9, 10)).profitByDayAndHour(zone);
+        assertMatrixEquals(expected, heatmapDAO.getProfitByDayAndHour(null, start, end));
+
+        // A range shorter than a week never touches the rollup
+        long shortEnd = LocalDateTime.of(2024, 1, 20, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        float[][] shortExpected = reportDAO.getDeliveryColumnsByDateRange(
+                LocalDateTime.of(2024, 1, 17, 15, 30), LocalDateTime.of(2024, 1, 20, 0, 0)).profitByDayAndHour(zone);
+        assertMatrixEquals(shortExpected, heatmapDAO.getProfitByDayAndHour(null, start, shortEnd));
+    }
+
+    @Test
+    void testPerUserHeatmapCountsAndRebuild() {
+        long start = LocalDateTime.of(2023, 12, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 12, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+
+        deliveryHeatmapDAO.Heatmap user1 = heatmapDAO.getHeatmap(1, start, end);
+        assertEquals(1_500, sum(user1.deliveryCount()));
+        Integer waitMinutes = jdbcTemplate.queryForObject("SELECT SUM(timeSpentWaiting) FROM deliveryData WHERE jobsTableId = 1", Integer.class);
+        assertEquals(waitMinutes, sum(user1.waitMinutes()));
+        Long profitCents = jdbcTemplate.queryForObject("SELECT SUM(basePayCents + tipsCents) FROM deliveryData WHERE jobsTableId = 1", Long.class);
+        assertEquals(profitCents, sum(user1.profitCents()));
+
+        List<Map<String, Object>> incremental = jdbcTemplate.queryForList("SELECT * FROM deliveryHeatmap ORDER BY userId, weekStart, dayOfWeek, hour");
+        assertTrue(heatmapDAO.rebuild() > 0);
+        List<Map<String, Object>> rebuilt = jdbcTemplate.queryForList("SELECT * FROM deliveryHeatmap ORDER BY userId, weekStart, dayOfWeek, hour");
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < incremental.size(); i++) {
+            assertEquals(incremental.get(i).get("deliveryCount"), rebuilt.get(i).get("deliveryCount"));
+            assertEquals(incremental.get(i).get("basePayCents"), rebuilt.get(i).get("basePayCents"));
+            assertEquals(incremental.get(i).get("tipsCents"), rebuilt.get(i).get("tipsCents"));
+        }
+    }
+
+    @Test
+    void testEditsAndDeletesAreRefreshed() {
+        long start = LocalDateTime.of(2024, 1, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 6, 2, 23, 59).atZone(zone).toInstant().toEpochMilli();
+
+        // Move deliveries by a day and change their pay, delete others, and hand a work period over
+        jdbcTemplate.update("UPDATE deliveryData SET startTime = startTime + 86400000, tips = tips + 3 WHERE rowid % 7 = 0");
+        jdbcTemplate.update("DELETE FROM deliveryData WHERE rowid % 11 = 0");
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale", Integer.class) > 0);
+
+        float[][] expected = reportDAO.getDeliveryColumnsByDateRange(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 6, 2, 23, 59)).profitByDayAndHour(zone);
+        assertMatrixEquals(expected, heatmapDAO.getProfitByDayAndHour(null, start, end));
+        // The read refreshed its whole weeks (Jan 1 to the week of May 20), the rest is left to the job
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale WHERE weekStart BETWEEN ? AND ?",
+                Integer.class, LocalDate.of(2024, 1, 1).toEpochDay(), LocalDate.of(2024, 5, 20).toEpochDay()));
+        heatmapDAO.refreshStale();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale", Integer.class));
+
+        jdbcTemplate.update("UPDATE JobsTable SET userId = 2 WHERE userId = 1");
+        assertEquals(0, sum(heatmapDAO.getHeatmap(1, start, end).deliveryCount()));
+        Integer deliveries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryData WHERE startTime BETWEEN ? AND ?",
+                Integer.class, start, end);
+        assertEquals(deliveries, sum(heatmapDAO.getHeatmap(2, start, end).deliveryCount()));
+    }
+
+    @Test
+    void testReadRefreshesOnlyRequestedUserAndRange() {
+        long start = LocalDateTime.of(2024, 2, 5, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 3, 4, 0, 0).atZone(zone).toInstant().toEpochMilli() - 1;
+
+        jdbcTemplate.update("UPDATE deliveryData SET tips = tips + 1");
+        int stale = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale", Integer.class);
+        int requested = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale WHERE userId = 1 " +
+                "AND weekStart BETWEEN ? AND ?", Integer.class, LocalDate.of(2024, 2, 5).toEpochDay(), LocalDate.of(2024, 2, 26).toEpochDay());
+        assertEquals(4, requested);
+
+        Long profitCents = jdbcTemplate.queryForObject("SELECT SUM(d.basePayCents + d.tipsCents) FROM deliveryData d " +
+                "WHERE d.jobsTableId = 1 AND d.startTime BETWEEN ? AND ?", Long.class, start, end);
+        assertEquals(profitCents, sum(heatmapDAO.getHeatmap(1, start, end).profitCents()));
+        assertEquals(stale - requested, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryHeatmapStale", Integer.class));
+    }
+
+    @Test
+    void testCalculatorUsesRollup() {
+        deliveryCalculator columnsCalculator = new deliveryCalculator(reportDAO);
+        deliveryCalculator rollupCalculator = new deliveryCalculator(reportDAO, heatmapDAO);
+
+        long start = LocalDateTime.of(2024, 1, 3, 12, 0).atZone(zone).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 5, 1, 0, 0).atZone(zone).toInstant().toEpochMilli();
+        assertEquals(columnsCalculator.findOptimalWorkHours(4, start, end), rollupCalculator.findOptimalWorkHours(4, start, end));
+        assertEquals(columnsCalculator.calculateExpectedProfit(start, start, end, 22, 2),
+                rollupCalculator.calculateExpectedProfit(start, start, end, 22, 2), 1e-2f);
+    }
+
+    private static void assertMatrixEquals(float[][] expected, float[][] actual) {
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                assertEquals(expected[day][hour], actual[day][hour], 1e-2f, "day " + day + " hour " + hour);
+            }
+        }
+    }
+
+    private static int sum(int[][] matrix) {
+        int total = 0;
+        for (int[] row : matrix) {
+            for (int value : row) {
+                total += value;
+            }
+        }
+        return total;
+    }
+
+    private static long sum(long[][] matrix) {
+        long total = 0;
+        for (long[] row : matrix) {
+            for (long value : row) {
+                total += value;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.reportGenerator.src;
+
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryRollupDAOTests {
+
+    private static final String[] PLATFORMS = {"DoorDash", "UberEats", "GrubHub", null};
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private deliveryRollupDAO rollupDAO;
+    private reportDAO reportDAO;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("rollup.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        rollupDAO = new deliveryRollupDAO(jdbcTemplate, jdbcTemplate, database.transactionTemplate());
+        reportDAO = new reportDAO();
+        ReflectionTestUtils.setField(reportDAO, "readJdbcTemplate", jdbcTemplate);
+
+        // Two users, deliveries spread over three years, recorded the way saveDelivery does
+        Random random = new Random(11);
+        jdbcTemplate.execute("BEGIN");
+        long from = millis(LocalDateTime.of(2022, 1, 1, 0, 0));
+        for (int user = 1; user <= 2; user++) {
+            jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime) VALUES (?, 0, 0)", user);
+            long jobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+            List<deliveryHeatmapDAO.DeliveryFact> facts = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                long time = from + (long) (random.nextDouble() * 1_095 * 86_400_000L);
+                float basePay = 2 + random.nextInt(800) / 100f;
+                float tips = random.nextInt(600) / 100f;
+                int wait = random.nextInt(15);
+                int miles = random.nextInt(10);
+                String platform = PLATFORMS[random.nextInt(PLATFORMS.length)];
+                jdbcTemplate.update("INSERT INTO deliveryData (startTime, basePay, tips, timeSpentWaiting, miles, platform, jobsTableId) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", time, basePay, tips, wait, miles, platform, jobId);
+                facts.add(new deliveryHeatmapDAO.DeliveryFact(time, basePay, tips, wait, miles, platform));
+            }
+            rollupDAO.recordDeliveries(jobId, facts);
+        }
+        jdbcTemplate.execute("COMMIT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testTotalsMatchTheDeliveries() {
+        LocalDateTime start = LocalDateTime.of(2022, 3, 17, 13, 25);
+        LocalDateTime end = LocalDateTime.of(2024, 10, 2, 8, 40, 59);
+
+        deliveryRollupDAO.RangeTotals totals = rollupDAO.getTotals(null, millis(start), millis(end));
+        reportDAO.DeliveryTotals expected = reportDAO.getDeliveryTotalsByDateRange(start, end);
+        assertEquals(expected.deliveryCount(), totals.total().deliveryCount());
+        assertEquals(expected.totalEarnings(), totals.total().earnings(), 0.001);
+
+        Map<String, reportDAO.DeliveryTotals> expectedByPlatform = reportDAO.getDeliveryTotalsByPlatform(start, end);
+        assertEquals(List.copyOf(expectedByPlatform.keySet()), List.copyOf(totals.byPlatform().keySet()));
+        expectedByPlatform.forEach((platform, platformTotals) -> {
+            assertEquals(platformTotals.deliveryCount(), totals.byPlatform().get(platform).deliveryCount(), platform);
+            assertEquals(platformTotals.totalEarnings(), totals.byPlatform().get(platform).earnings(), 0.001, platform);
+        });
+
+        // One user, and a range inside a single day
+        assertEquals(rawCount(1, millis(start), millis(end)), rollupDAO.getTotals(1, millis(start), millis(end)).total().deliveryCount());
+        long noon = millis(LocalDateTime.of(2023, 6, 5, 12, 0));
+        assertEquals(rawCount(2, noon, noon + 3_600_000L), rollupDAO.getTotals(2, noon, noon + 3_600_000L).total().deliveryCount());
+    }
+
+    @Test
+    void testWholePeriodsUseTheCoarsestRows() {
+        long first = LocalDate.of(2022, 1, 1).toEpochDay();
+        long end = LocalDate.of(2025, 1, 1).toEpochDay();
+        Map<deliveryRollupDAO.Grain, List<Long>> periods = deliveryRollupDAO.wholePeriods(first, end);
+        assertEquals(36, periods.get(deliveryRollupDAO.Grain.MONTH).size());
+        assertTrue(periods.get(deliveryRollupDAO.Grain.WEEK).isEmpty());
+        assertTrue(periods.get(deliveryRollupDAO.Grain.DAY).isEmpty());
+
+        // Wed 2024-01-10 .. Tue 2024-03-19: days up to a Monday, weeks up to February, then February,
+        // then the weeks and days of March
+        periods = deliveryRollupDAO.wholePeriods(LocalDate.of(2024, 1, 10).toEpochDay(), LocalDate.of(2024, 3, 20).toEpochDay());
+        assertEquals(List.of(LocalDate.of(2024, 2, 1).toEpochDay()), periods.get(deliveryRollupDAO.Grain.MONTH));
+        assertEquals(List.of(LocalDate.of(2024, 1, 15).toEpochDay(), LocalDate.of(2024, 1, 22).toEpochDay(),
+                        LocalDate.of(2024, 3, 4).toEpochDay(), LocalDate.of(2024, 3, 11).toEpochDay()),
+                periods.get(deliveryRollupDAO.Grain.WEEK));
+        assertEquals(5 + 3 + 3 + 2, periods.get(deliveryRollupDAO.Grain.DAY).size());
+    }
+
+    @Test
+    void testEditsAndDeletesAreRefreshed() {
+        long start = millis(LocalDateTime.of(2023, 1, 1, 0, 0));
+        long end = millis(LocalDateTime.of(2023, 12, 31, 23, 59, 59));
+        int before = rollupDAO.getTotals(1, start, end).total().deliveryCount();
+
+        jdbcTemplate.update("DELETE FROM deliveryData WHERE rowid IN (SELECT d.rowid FROM deliveryData d " +
+                "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId WHERE j.userId = 1 AND d.startTime BETWEEN ? AND ? LIMIT 10)", start, end);
+        jdbcTemplate.update("UPDATE deliveryData SET tips = tips + 1 WHERE rowid IN (SELECT d.rowid FROM deliveryData d " +
+                "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId WHERE j.userId = 1 AND d.startTime BETWEEN ? AND ? LIMIT 10)", start, end);
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryRollupStale", Integer.class) > 0);
+
+        // Reads refresh the days they need
+        deliveryRollupDAO.Totals after = rollupDAO.getTotals(1, start, end).total();
+        assertEquals(before - 10, after.deliveryCount());
+        assertEquals(rawEarningsCents(1, start, end), after.earningsCents());
+
+        // Moving a work period to another user marks both users' days
+        jdbcTemplate.update("UPDATE JobsTable SET userId = 2 WHERE userId = 1");
+        assertEquals(0, rollupDAO.getTotals(1, start, end).total().deliveryCount());
+        assertEquals(rawCount(2, start, end), rollupDAO.getTotals(2, start, end).total().deliveryCount());
+        assertEquals(0, rollupDAO.refreshStale());
+    }
+
+    @Test
+    void testRebuildMatchesTheWriteHook() {
+        List<Map<String, Object>> hooked = rollupRows();
+        assertTrue(rollupDAO.rebuild() > 0);
+        assertEquals(hooked, rollupRows());
+    }
+
+    @Test
+    void testSeriesByMonth() {
+        NavigableMap<LocalDate, deliveryRollupDAO.Totals> series = rollupDAO.getSeries(
+                1, deliveryRollupDAO.Grain.MONTH, LocalDate.of(2023, 1, 15), LocalDate.of(2023, 12, 1));
+        assertEquals(12, series.size());
+        assertEquals(LocalDate.of(2023, 1, 1), series.firstKey());
+        long januaryEnd = millis(LocalDateTime.of(2023, 2, 1, 0, 0)) - 1;
+        assertEquals(rawCount(1, millis(LocalDateTime.of(2023, 1, 1, 0, 0)), januaryEnd),
+                series.firstEntry().getValue().deliveryCount());
+
+        NavigableMap<LocalDate, deliveryRollupDAO.Totals> weeks = rollupDAO.getSeries(
+                null, deliveryRollupDAO.Grain.WEEK, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+        assertEquals(LocalDate.of(2022, 12, 26), weeks.firstKey());
+        assertTrue(weeks.keySet().stream().allMatch(week -> week.getDayOfWeek() == java.time.DayOfWeek.MONDAY));
+    }
+
+    private List<Map<String, Object>> rollupRows() {
+        return jdbcTemplate.queryForList("SELECT * FROM deliveryRollup ORDER BY userId, grain, periodStart, platform");
+    }
+
+    private int rawCount(int userId, long startTime, long endTime) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deliveryData d INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId " +
+                "WHERE j.userId = ? AND d.startTime BETWEEN ? AND ?", Integer.class, userId, startTime, endTime);
+    }
+
+    private long rawEarningsCents(int userId, long startTime, long endTime) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(d.basePayCents + d.tipsCents), 0) FROM deliveryData d " +
+                "INNER JOIN JobsTable j ON d.jobsTableId = j.jobsId WHERE j.userId = ? AND d.startTime BETWEEN ? AND ?",
+                Long.class, userId, startTime, endTime);
+    }
+
+    private long millis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.reportGenerator.src;
+
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the old "load every delivery as a Map and sum in Java" path with the SQL aggregates.
+ *
+ * Only the results are checked here; the timings of both paths are in the benchmarks module's
+ * ReportBenchmark (getTotalsJavaSum and getTotalsScan).
+ */
+class ReportAggregationTests {
+
+    private static final String[] PLATFORMS = {"DoorDash", "UberEats", "Grubhub", ""};
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private reportDAO dao;
+
+    private final LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private final LocalDateTime end = LocalDateTime.of(2025, 12, 31, 23, 59, 59);
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("aggregation.db"));
+        jdbcTemplate = database.jdbcTemplate();
+
+        dao = new reportDAO();
+        ReflectionTestUtils.setField(dao, "readJdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testSqlAggregatesMatchJavaSums() {
+        seed(2_000);
+
+        reportDAO.DeliveryTotals totals = dao.getDeliveryTotalsByDateRange(start, end);
+        List<Map<String, Object>> rows = dao.getDeliveryPayByDateRange(start, end);
+
+        assertEquals(rows.size(), totals.deliveryCount());
+        assertEquals(sumInJava(rows), totals.totalEarnings(), 1e-6);
+
+        Map<String, reportDAO.DeliveryTotals> byPlatform = dao.getDeliveryTotalsByPlatform(start, end);
+        assertEquals(PLATFORMS.length, byPlatform.size());
+        assertTrue(byPlatform.containsKey("Unknown"));
+        double platformTotal = byPlatform.values().stream().mapToDouble(reportDAO.DeliveryTotals::totalEarnings).sum();
+        assertEquals(totals.totalEarnings(), platformTotal, 1e-6);
+    }
+
+    @Test
+    void testSnapshotScanMatchesAggregateQueries() {
+        seed(2_000);
+
+        YearMonth month = YearMonth.of(2024, 6);
+        assertEquals(1, ReportSnapshot.scanWindows(start, end, month).size());
+        ReportSnapshot snapshot = snapshot(start, end, month);
+
+        reportDAO.DeliveryTotals totals = dao.getDeliveryTotalsByDateRange(start, end);
+        assertEquals(totals.deliveryCount(), snapshot.deliveryCount());
+        assertEquals(totals.totalEarnings(), snapshot.totalEarnings(), 1e-6);
+
+        double matrixTotal = 0;
+        for (float[] day : snapshot.profitByDayAndHour()) {
+            for (float hour : day) {
+                matrixTotal += hour;
+            }
+        }
+        assertEquals(snapshot.totalEarnings(), matrixTotal, 1e-2);
+
+        reportDAO.DeliveryTotals monthTotals = dao.getDeliveryTotalsByDateRange(
+                month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(23, 59, 59));
+        assertEquals(monthTotals.deliveryCount(), snapshot.currentMonthDeliveryCount());
+        assertEquals(monthTotals.totalEarnings(), snapshot.currentMonthEarnings(), 1e-6);
+    }
+
+    @Test
+    void testHistoricalSnapshotScansOnlyTheRangeAndTheMonth() {
+        seed(2_000);
+
+        // 2022 and June 2024 are scanned on their own, not everything in between
+        LocalDateTime yearEnd = LocalDateTime.of(2022, 12, 31, 23, 59, 59);
+        YearMonth month = YearMonth.of(2024, 6);
+        List<LocalDateTime[]> windows = ReportSnapshot.scanWindows(start, yearEnd, month);
+        assertEquals(2, windows.size());
+        assertEquals(yearEnd, windows.get(0)[1]);
+        assertEquals(month.atDay(1).atStartOfDay(), windows.get(1)[0]);
+
+        ReportSnapshot snapshot = snapshot(start, yearEnd, month);
+        reportDAO.DeliveryTotals totals = dao.getDeliveryTotalsByDateRange(start, yearEnd);
+        assertEquals(totals.deliveryCount(), snapshot.deliveryCount());
+        assertEquals(totals.totalEarnings(), snapshot.totalEarnings(), 1e-6);
+        reportDAO.DeliveryTotals monthTotals = dao.getDeliveryTotalsByDateRange(
+                month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(23, 59, 59));
+        assertEquals(monthTotals.deliveryCount(), snapshot.currentMonthDeliveryCount());
+        assertEquals(monthTotals.totalEarnings(), snapshot.currentMonthEarnings(), 1e-6);
+    }
+
+    private ReportSnapshot snapshot(LocalDateTime from, LocalDateTime to, YearMonth month) {
+        ReportSnapshot.Builder builder = new ReportSnapshot.Builder(from, to, month, ZoneId.systemDefault());
+        for (LocalDateTime[] window : ReportSnapshot.scanWindows(from, to, month)) {
+            dao.scanDeliveryPay(window[0], window[1], builder);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testEmptyRangeReturnsZeroTotals() {
+        reportDAO.DeliveryTotals totals = dao.getDeliveryTotalsByDateRange(start, end);
+        assertEquals(0, totals.deliveryCount());
+        assertEquals(0.0, totals.totalEarnings());
+        assertEquals(0.0, totals.averageEarnings());
+    }
+
+    /**
+     * The pre-aggregation code path: one HashMap per delivery, summed with boxed Numbers.
+     */
+    private static double sumInJava(List<Map<String, Object>> rows) {
+        double total = 0;
+        for (Map<String, Object> row : rows) {
+            Number basePay = (Number) row.get("basePay");
+            Number tips = (Number) row.get("tips");
+            total += (basePay != null ? basePay.doubleValue() : 0) + (tips != null ? tips.doubleValue() : 0);
+        }
+        return total;
+    }
+
+    private void seed(int rows) {
+        jdbcTemplate.update("INSERT INTO JobsTable (userId, startTime, endTime, vehicle) VALUES (1, 0, 0, 'car')");
+        Long jobId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+
+        long from = start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long span = end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - from;
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long time = from + (span / rows) * i;
+            batch.add(new Object[]{3.0 + (i % 7), (i % 5) * 1.5, PLATFORMS[i % PLATFORMS.length], time, time + 1_800_000L, jobId});
+        }
+        jdbcTemplate.execute("BEGIN");
+        jdbcTemplate.batchUpdate("INSERT INTO deliveryData (basePay, tips, platform, startTime, endTime, jobsTableId) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        jdbcTemplate.execute("COMMIT");
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.reportGenerator.src;
+
+import org.example.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRequestTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 3, 31, 23, 59);
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private reportGenerator generator;
+    private final AtomicInteger scans = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        database = TestDatabase.create(tempDir.resolve("reports.db"));
+        jdbcTemplate = database.jdbcTemplate();
+        jdbcTemplate.update("INSERT INTO userAccount (userID, userName, password) VALUES (1, 'driver', 'x')");
+        jdbcTemplate.update("INSERT INTO JobsTable (jobsId, userId, startTime, endTime) VALUES (1, 1, 0, 0)");
+        for (int day = 0; day < 60; day++) {
+            addDelivery(START.plusDays(day).withHour(18), 10.0);
+        }
+
+        reportDAO dao = new reportDAO();
+        ReflectionTestUtils.setField(dao, "readJdbcTemplate", jdbcTemplate);
+        generalReports reports = new generalReports() {
+            @Override
+            public ReportSnapshot getReportSnapshot(LocalDateTime startTime, LocalDateTime endTime) {
+                scans.incrementAndGet();
+                return super.getReportSnapshot(startTime, endTime);
+            }
+        };
+        ReflectionTestUtils.setField(reports, "reportDAO", dao);
+        generator = new reportGenerator(dao, reports);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testRequestsAreValuesWithValidation() {
+        ReportRequest request = ReportRequest.between(START, END);
+        assertEquals(request, ReportRequest.between(START, END));
+        assertEquals(request.hashCode(), ReportRequest.between(START, END).hashCode());
+        assertEquals(90, request.daysToAnalyze());
+        assertNotEquals(request, request.withTargetWorkHoursPerDay(8));
+        assertEquals(ReportRequest.DEFAULT_WORK_HOURS_PER_DAY, request.targetWorkHoursPerDay());
+
+        PlanRequest plan = PlanRequest.of(request).withTargetMonthlyIncome(1000f);
+        assertEquals(plan, PlanRequest.of(request).withTargetMonthlyIncome(1000f));
+        assertEquals(0f, PlanRequest.of(request).targetMonthlyIncome());
+
+        assertThrows(IllegalArgumentException.class, () -> ReportRequest.between(END, START));
+        assertThrows(IllegalArgumentException.class, () -> ReportRequest.lastDays(0));
+        assertThrows(IllegalArgumentException.class, () -> request.withTargetWorkHoursPerDay(25));
+        assertThrows(IllegalArgumentException.class, () -> plan.withEstimatedExpenses(-1f));
+    }
+
+    @Test
+    void testPlansAreMemoizedUntilDeliveriesChange() {
+        PlanRequest request = PlanRequest.of(ReportRequest.between(START, END)).withTargetMonthlyIncome(500f);
+
+        reportGenerator.FinancialPlan first = generator.createFinancialPlan(request);
+        assertSame(first, generator.createFinancialPlan(PlanRequest.of(ReportRequest.between(START, END))
+                .withTargetMonthlyIncome(500f)));
+        assertEquals(1, scans.get());
+
+        // Another goal over the same range reuses the snapshot
+        reportGenerator.FinancialPlan higherGoal = generator.createFinancialPlan(request.withTargetMonthlyIncome(900f));
+        assertEquals(1, scans.get());
+        assertEquals(first.projectedMonthlyIncome(), higherGoal.projectedMonthlyIncome(), 1e-3f);
+        assertTrue(higherGoal.incomeGap() > first.incomeGap());
+
+        // 600 over 90 days -> 200 a month
+        assertEquals(200f, first.projectedMonthlyIncome(), 1e-3f);
+
+        // A new delivery moves the watermark, so the next plan sees it
+        addDelivery(START.plusDays(70).withHour(12), 90.0);
+        reportGenerator.FinancialPlan afterInsert = generator.createFinancialPlan(request);
+        assertEquals(2, scans.get());
+        assertEquals(230f, afterInsert.projectedMonthlyIncome(), 1e-3f);
+
+        // So does a deletion that leaves the highest id in place
+        jdbcTemplate.update("DELETE FROM deliveryData WHERE rowid = 1");
+        assertEquals(226.667f, generator.createFinancialPlan(request).projectedMonthlyIncome(), 1e-2f);
+        assertEquals(3, scans.get());
+    }
+
+    @Test
+    void testEditedDeliveryGivesANewSnapshot() {
+        ReportRequest request = ReportRequest.between(START, END);
+        ReportSnapshot before = generator.getReportSnapshot(request);
+        assertSame(before, generator.getReportSnapshot(request));
+        assertEquals(1, scans.get());
+
+        // Same rows, same highest id; only the pay changes
+        jdbcTemplate.update("UPDATE deliveryData SET tips = 30 WHERE rowid = 1");
+        ReportSnapshot after = generator.getReportSnapshot(request);
+        assertNotSame(before, after);
+        assertEquals(2, scans.get());
+        assertEquals(before.totalEarnings() + 30, after.totalEarnings(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsScanOnce() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        try {
+            List<Future<reportGenerator.FinancialPlan>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<reportGenerator.FinancialPlan> call = () -> {
+                    ready.countDown();
+                    ready.await();
+                    return generator.createFinancialPlan(
+                            PlanRequest.of(ReportRequest.between(START, END)).withEstimatedExpenses(100f));
+                };
+                results.add(pool.submit(call));
+            }
+            reportGenerator.FinancialPlan expected = results.get(0).get();
+            for (Future<reportGenerator.FinancialPlan> result : results) {
+                assertSame(expected, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    void testDesktopSettingsBuildTheSameRequest() {
+        generator.setDateRange(START, END);
+        generator.setTargetMonthlyIncome(500f);
+        generator.setTargetWorkHoursPerDay(4);
+
+        PlanRequest expected = PlanRequest.of(ReportRequest.between(START, END).withTargetWorkHoursPerDay(4))
+                .withTargetMonthlyIncome(500f);
+        assertEquals(expected, generator.getCurrentPlanRequest());
+        assertSame(generator.createFinancialPlan(), generator.createFinancialPlan(expected));
+        assertEquals(START, generator.getStartDate());
+    }
+
+    private void addDelivery(LocalDateTime start, double basePay) {
+        jdbcTemplate.update("INSERT INTO deliveryData (resturant, platform, basePay, tips, startTime, jobsTableId) " +
+                "VALUES ('Diner', 'DoorDash', ?, 0, ?, 1)", basePay,
+                start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}